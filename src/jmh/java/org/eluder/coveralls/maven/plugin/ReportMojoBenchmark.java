@@ -0,0 +1,217 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsStandIn;
+import org.eluder.coveralls.maven.plugin.util.MonorepoGenerator;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
+import org.eluder.coveralls.maven.plugin.util.TestMojoUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of the report goal. Every invocation runs {@link CoverallsReportMojo#execute()} on a generated
+ * multi-module project and submits the data to a local Coveralls stand-in, so the score is the wall-clock time of
+ * parsing, merging, serialization and upload together. Run with
+ * {@code -prof org.eluder.coveralls.maven.plugin.benchmark.MacroProfiler} for the peak heap usage and the allocated
+ * bytes of an invocation.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ReportMojoBenchmark {
+
+    /** The number of modules. */
+    @Param({ "100" })
+    public int modules;
+
+    /** The number of source files in a module. */
+    @Param({ "50" })
+    public int filesPerModule;
+
+    /** The number of lines in a source file. */
+    @Param({ "200" })
+    public int linesPerFile;
+
+    /** The fraction of source files in a module that are covered by a second report. */
+    @Param({ "0.2" })
+    public double duplicateDensity;
+
+    /** The report format. */
+    @Param({ "JACOCO" })
+    public ReportGenerator.Format format;
+
+    /** The number of threads that parse the reports. */
+    @Param({ "1" })
+    public int parserThreads;
+
+    /** The response latency of the stand-in in milliseconds. */
+    @Param({ "50" })
+    public int latency;
+
+    /** The simulated upload bandwidth of the stand-in in bytes per second, zero if unlimited. */
+    @Param({ "0" })
+    public long bandwidth;
+
+    /** The share of requests that the stand-in fails. */
+    @Param({ "0" })
+    public double errorRate;
+
+    /** The directory of the generated project. */
+    private Path directory;
+
+    /** The generated project. */
+    private MavenProject project;
+
+    /** The Coveralls stand-in. */
+    private CoverallsStandIn standIn;
+
+    /**
+     * Generates the project and starts the stand-in.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("coveralls-benchmark");
+        this.project = new MonorepoGenerator(this.directory.toFile(), this.modules, this.filesPerModule,
+                this.linesPerFile).withDuplicateDensity(this.duplicateDensity).withFormats(this.format).generate();
+        this.standIn = new CoverallsStandIn(Duration.ofMillis(this.latency), this.bandwidth, this.errorRate, 1)
+                .start();
+    }
+
+    /**
+     * Stops the stand-in and deletes the project.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.standIn.close();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Runs the report goal.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     */
+    @Benchmark
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        final var mojo = new CoverallsReportMojo();
+        mojo.setLog(new QuietLog());
+        mojo.project = this.project;
+        mojo.settings = new Settings();
+        mojo.basedir = this.directory.toFile();
+        mojo.coverallsFile = this.directory.resolve("target/coveralls.json").toFile();
+        TestMojoUtil.setParameter(mojo, "coverallsUrl", this.standIn.getUrl());
+        mojo.sourceEncoding = "UTF-8";
+        mojo.repoToken = "benchmark";
+        TestMojoUtil.setParameter(mojo, "coverageArena", "heap");
+        TestMojoUtil.setParameter(mojo, "parserThreads", this.parserThreads);
+        TestMojoUtil.setParameter(mojo, "submissionRetries", 3);
+        TestMojoUtil.setParameter(mojo, "submissionRetryBudget", 300);
+        TestMojoUtil.setParameter(mojo, "shardUploads", 4);
+        // injected errors that exhaust the retries are measured instead of failing the benchmark
+        mojo.failOnServiceError = false;
+        mojo.execute();
+    }
+
+    /**
+     * Log that drops the info and debug messages of the goal.
+     */
+    private static final class QuietLog extends SystemStreamLog {
+
+        @Override
+        public boolean isInfoEnabled() {
+            return false;
+        }
+
+        @Override
+        public void info(final CharSequence content) {
+            // Do Nothing
+        }
+
+        @Override
+        public void info(final CharSequence content, final Throwable error) {
+            // Do Nothing
+        }
+
+        @Override
+        public void info(final Throwable error) {
+            // Do Nothing
+        }
+
+        @Override
+        public void debug(final CharSequence content) {
+            // Do Nothing
+        }
+
+        @Override
+        public void debug(final CharSequence content, final Throwable error) {
+            // Do Nothing
+        }
+
+        @Override
+        public void debug(final Throwable error) {
+            // Do Nothing
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * A JMH profiler of the peak heap usage and the bytes allocated by all threads during an iteration, for macro
+ * benchmarks that run work on other threads than the benchmark thread. Enabled with
+ * {@code -prof org.eluder.coveralls.maven.plugin.benchmark.MacroProfiler}.
+ */
+public class MacroProfiler implements InternalProfiler {
+
+    /** The bytes of a MiB. */
+    private static final double MIB = 1024.0 * 1024.0;
+
+    /** The allocated bytes before the iteration. */
+    private long allocated;
+
+    @Override
+    public String getDescription() {
+        return "Peak heap usage and bytes allocated by all threads";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        for (final var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        this.allocated = MacroProfiler.getAllocatedBytes();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams,
+            final IterationParams iterationParams, final IterationResult result) {
+        final var allocated = MacroProfiler.getAllocatedBytes() - this.allocated;
+        var peak = 0L;
+        for (final var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return List.of(new ScalarResult("macro.heap.peak", peak / MacroProfiler.MIB, "MiB", AggregationPolicy.MAX),
+                new ScalarResult("macro.alloc", allocated / MacroProfiler.MIB, "MiB", AggregationPolicy.AVG));
+    }
+
+    /**
+     * Gets the bytes allocated by all threads so far.
+     *
+     * @return the allocated bytes, or zero if the JVM does not measure allocations
+     */
+    static long getAllocatedBytes() {
+        final var threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        final var hotspot = (com.sun.management.ThreadMXBean) threads;
+        try {
+            // the total of Java 14+ includes terminated threads, e.g. the parser and HTTP client threads
+            return (long) com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes")
+                    .invoke(hotspot);
+        } catch (final ReflectiveOperationException e) {
+            var total = 0L;
+            for (final long bytes : hotspot.getThreadAllocatedBytes(hotspot.getAllThreadIds())) {
+                total += Math.max(0, bytes);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.eluder.coveralls.maven.plugin.CoverageParser;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.parser.CloverParser;
+import org.eluder.coveralls.maven.plugin.parser.CoberturaParser;
+import org.eluder.coveralls.maven.plugin.parser.JaCoCoParser;
+import org.eluder.coveralls.maven.plugin.parser.SagaParser;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+import org.eluder.coveralls.maven.plugin.source.SourceLoader;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the coverage report parsers with synthetic reports. Every invocation parses a report of
+ * {@link #LINES} lines, so an operation is a parsed line: the score is in lines per second, and the
+ * {@code gc.alloc.rate.norm} of the GC profiler is in bytes allocated per parsed line. The sources are created without
+ * reading any files, so the score covers only the XML parsing and the coverage bookkeeping.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParserBenchmark {
+
+    /** The parsed lines of a report. */
+    static final int LINES = 100_000;
+
+    /** The report format. */
+    @Param({ "JACOCO", "COBERTURA", "SAGA", "CLOVER" })
+    public ReportGenerator.Format format;
+
+    /** The lines of a source file, the report has {@link #LINES} divided by this many source files. */
+    @Param({ "100", "2000" })
+    public int linesPerFile;
+
+    /** The fraction of lines with branches. */
+    @Param({ "0.2" })
+    public double branchDensity;
+
+    /** The report file. */
+    private File report;
+
+    /** The source loader that creates empty sources. */
+    private SourceLoader sourceLoader;
+
+    /**
+     * Generates the report.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var generator = new ReportGenerator(ParserBenchmark.LINES / this.linesPerFile, this.linesPerFile)
+                .withBranchDensity(this.branchDensity);
+        this.report = generator.write(this.format, Files.createTempFile("coveralls-benchmark", ".xml").toFile());
+        final var digest = new byte[64];
+        this.sourceLoader = sourceFile -> new Source(sourceFile, this.linesPerFile, digest, null);
+    }
+
+    /**
+     * Deletes the report.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.report.toPath());
+    }
+
+    /**
+     * Parses the report.
+     *
+     * @param blackhole
+     *            the blackhole that consumes the parsed sources
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ParserBenchmark.LINES)
+    public void parse(final Blackhole blackhole) throws ProcessingException, IOException {
+        this.createParser().parse(new SourceCallback() {
+
+            @Override
+            public void onBegin() {
+                // Do Nothing
+            }
+
+            @Override
+            public void onSource(final Source source) {
+                blackhole.consume(source);
+            }
+
+            @Override
+            public void onComplete() {
+                // Do Nothing
+            }
+        });
+    }
+
+    /**
+     * Creates the parser of the report format.
+     *
+     * @return the parser
+     */
+    private CoverageParser createParser() {
+        switch (this.format) {
+            case JACOCO:
+                return new JaCoCoParser(this.report, this.sourceLoader);
+            case COBERTURA:
+                return new CoberturaParser(this.report, this.sourceLoader);
+            case SAGA:
+                return new SagaParser(this.report, this.sourceLoader);
+            case CLOVER:
+                return new CloverParser(this.report, this.sourceLoader);
+            default:
+                throw new IllegalStateException("Unknown format " + this.format);
+        }
+    }
+}
@@ -26,6 +26,7 @@ package org.eluder.coveralls.maven.plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Consumer;
 
 import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 
@@ -51,6 +52,24 @@ public interface CoverageParser {
      */
     void parse(SourceCallback callback) throws ProcessingException, IOException;
 
+    /**
+     * Scans a coverage report for the referenced source files without loading the sources or collecting any coverage.
+     * Scanning must be done before the coverage report is parsed. Defaults to not supported.
+     *
+     * @param sourceFiles
+     *            consumer for the source file names exactly as they are passed to the source loader
+     *
+     * @return true if the coverage report was scanned, false if the parser does not support scanning
+     *
+     * @throws ProcessingException
+     *             if processing of the coverage report fails
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    default boolean scan(final Consumer<String> sourceFiles) throws ProcessingException, IOException {
+        return false;
+    }
+
     /**
      * Gets the coverage file.
      *
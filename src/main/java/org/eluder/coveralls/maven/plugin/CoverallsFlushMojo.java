@@ -0,0 +1,301 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.settings.Settings;
+import org.eluder.coveralls.maven.plugin.httpclient.BandwidthLimiter;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsClient;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsProxyClient;
+import org.eluder.coveralls.maven.plugin.httpclient.RetryPolicy;
+import org.eluder.coveralls.maven.plugin.spool.Spool;
+import org.eluder.coveralls.maven.plugin.spool.SpoolEntry;
+
+/**
+ * Submits the Coveralls data spooled by the report goal with "spool" enabled. Entries that fail temporarily stay in the
+ * spool for the next flush, without the shards already accepted. Entries rejected by the API with an error response
+ * are moved aside.
+ *
+ * @since 5.1.1
+ */
+@Mojo(name = "flush", threadSafe = true, aggregator = true, requiresProject = false)
+public class CoverallsFlushMojo extends AbstractMojo {
+
+    /**
+     * Directory of the spooled Coveralls data.
+     */
+    @Parameter(property = "spoolDirectory", defaultValue = "${user.home}/.coveralls/spool")
+    private File spoolDirectory;
+
+    /**
+     * Number of spooled entries submitted concurrently.
+     */
+    @Parameter(property = "flushThreads", defaultValue = "4")
+    private int flushThreads;
+
+    /**
+     * Number of times a submission that fails with a connection error or a temporary HTTP status is retried with
+     * exponential backoff. I/O errors after the data was sent are not retried, as the job may have been created.
+     */
+    @Parameter(property = "submissionRetries", defaultValue = "3")
+    private int submissionRetries;
+
+    /**
+     * Total time in seconds that a submission, including its retries, may take.
+     */
+    @Parameter(property = "submissionRetryBudget", defaultValue = "300")
+    private int submissionRetryBudget;
+
+    /**
+     * Fail the build when spooled entries could not be submitted.
+     */
+    @Parameter(property = "failOnServiceError", defaultValue = "false")
+    boolean failOnServiceError;
+
+    /**
+     * Limit the upload bandwidth of all flushed reports to this many bytes per second. Zero disables the limit.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "uploadBandwidth", defaultValue = "0")
+    private long uploadBandwidth;
+
+    /**
+     * Bytes that can be uploaded at full speed after the upload was idle when "uploadBandwidth" is set. Zero allows one
+     * second of the bandwidth.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "uploadBurst", defaultValue = "0")
+    private long uploadBurst;
+
+    /**
+     * Prefer HTTP/2 for the requests to the Coveralls API, so that concurrent shard uploads, retries and webhook calls
+     * share one connection. Falls back to HTTP/1.1 when the server or proxy does not support HTTP/2.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "http2", defaultValue = "false")
+    private boolean http2;
+
+    /**
+     * Skip the plugin execution.
+     */
+    @Parameter(property = "coveralls.skip", defaultValue = "false")
+    boolean skip;
+
+    /**
+     * Maven settings.
+     */
+    @Parameter(defaultValue = "${settings}", readonly = true, required = true)
+    Settings settings;
+
+    /** The clients by coveralls url. */
+    private final Map<String, CoverallsClient> clients = new ConcurrentHashMap<>();
+
+    /** The bandwidth limiter shared by the clients, null if uploads are not limited. */
+    private BandwidthLimiter bandwidthLimiter;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.skip) {
+            this.getLog().info("Skip property set, skipping plugin execution");
+            return;
+        }
+
+        final var spool = this.createSpool();
+        final List<SpoolEntry> entries;
+        try {
+            entries = spool.claim();
+        } catch (final IOException e) {
+            throw new MojoFailureException("Reading the Coveralls spool failed", e);
+        }
+        if (entries.isEmpty()) {
+            this.getLog().info("No spooled Coveralls data in " + spool.getDirectory().toAbsolutePath());
+            return;
+        }
+
+        this.getLog().info("Flushing " + entries.size() + " spooled Coveralls reports");
+        this.bandwidthLimiter = BandwidthLimiter.of(this.uploadBandwidth, this.uploadBurst);
+        final var now = System.currentTimeMillis();
+        final var failed = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.flushThreads, entries.size())));
+        try {
+            final List<Future<Void>> results = new ArrayList<>(entries.size());
+            for (final SpoolEntry entry : entries) {
+                results.add(executor.submit(() -> {
+                    if (!this.flush(spool, entry)) {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while flushing the Coveralls spool", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new MojoFailureException("Updating the Coveralls spool failed", e.getCause());
+            }
+            throw new MojoExecutionException("Build error", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final var duration = System.currentTimeMillis() - now;
+        final var message = "Flushed " + (entries.size() - failed.get()) + " of " + entries.size()
+                + " spooled Coveralls reports in " + duration + "ms";
+        if (this.bandwidthLimiter != null) {
+            this.getLog().info(this.bandwidthLimiter.summarize(Duration.ofMillis(duration)));
+        }
+        if (failed.get() == 0) {
+            this.getLog().info(message);
+        } else if (this.failOnServiceError) {
+            this.getLog().error(message);
+            throw new MojoFailureException(failed.get() + " spooled Coveralls reports could not be submitted");
+        } else {
+            this.getLog().warn(message);
+        }
+    }
+
+    /**
+     * Submits a spooled entry.
+     *
+     * @param spool
+     *            the spool
+     * @param entry
+     *            the claimed entry
+     *
+     * @return true, if the entry was submitted
+     *
+     * @throws IOException
+     *             if the spool cannot be updated
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    private boolean flush(final Spool spool, final SpoolEntry entry) throws IOException, InterruptedException {
+        final var client = this.clients.computeIfAbsent(entry.getCoverallsUrl(), this::createCoverallsClient);
+        // the lock keeps a long submission from being recovered as stale and submitted again
+        final var hold = spool.hold(entry);
+        try {
+            String url = null;
+            for (final File file : entry.getFiles()) {
+                // shards accepted by an earlier attempt would create duplicate jobs
+                if (!entry.isAccepted(file)) {
+                    url = client.submit(file).getUrl();
+                    spool.accept(entry, file);
+                }
+            }
+            if (entry.getFinishBuild() != null) {
+                url = client.finish(entry.getRepoToken(), entry.getFinishBuild()).getUrl();
+            }
+            spool.complete(entry);
+            this.getLog().info("Submitted spooled Coveralls report " + entry.getId() + ": " + url);
+            return true;
+        } catch (final ProcessingException e) {
+            if (e.getCause() instanceof IOException) {
+                // not an error of the Coveralls API but e.g. the error page of a proxy, the data may be accepted later
+                this.release(spool, entry, e);
+                return false;
+            }
+            this.getLog().error("Coveralls API rejected spooled report " + entry.getId() + ": " + e.getMessage());
+            spool.reject(entry, e.getMessage());
+            return false;
+        } catch (final IOException e) {
+            this.release(spool, entry, e);
+            return false;
+        } catch (final InterruptedException e) {
+            spool.release(entry, "interrupted");
+            throw e;
+        } finally {
+            hold.close();
+        }
+    }
+
+    /**
+     * Returns an entry whose submission failed temporarily to the spool.
+     *
+     * @param spool
+     *            the spool
+     * @param entry
+     *            the claimed entry
+     * @param failure
+     *            the failure
+     *
+     * @throws IOException
+     *             if the spool cannot be updated
+     */
+    private void release(final Spool spool, final SpoolEntry entry, final Exception failure) throws IOException {
+        this.getLog().warn("Submitting spooled Coveralls report " + entry.getId() + " failed, attempt "
+                + (entry.getAttempts() + 1) + ": " + failure.getMessage());
+        spool.release(entry, failure.getMessage());
+    }
+
+    /**
+     * Creates the spool.
+     *
+     * @return spool of coveralls data
+     */
+    protected Spool createSpool() {
+        return new Spool(this.spoolDirectory.toPath());
+    }
+
+    /**
+     * Creates the coveralls client.
+     *
+     * @param coverallsUrl
+     *            the coveralls url of the spooled data
+     *
+     * @return http client that submits the coveralls data
+     */
+    protected CoverallsClient createCoverallsClient(final String coverallsUrl) {
+        final var budget = Duration.ofSeconds(Math.max(0, this.submissionRetryBudget));
+        final var retryPolicy = RetryPolicy.ofRetries(this.submissionRetries, budget).withListener(this.getLog()::warn);
+        final var httpVersion = this.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        return new CoverallsProxyClient(coverallsUrl, this.settings.getActiveProxy(), httpVersion)
+                .withRetryPolicy(retryPolicy)
+                .withBandwidthLimiter(this.bandwidthLimiter);
+    }
+}
@@ -24,12 +24,27 @@
  */
 package org.eluder.coveralls.maven.plugin;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.net.http.HttpClient;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.output.TeeOutputStream;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -38,16 +53,26 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
+import org.eluder.coveralls.maven.plugin.domain.CoverageArena;
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
 import org.eluder.coveralls.maven.plugin.domain.GitRepository;
 import org.eluder.coveralls.maven.plugin.domain.Job;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.httpclient.BandwidthLimiter;
 import org.eluder.coveralls.maven.plugin.httpclient.CoverallsClient;
 import org.eluder.coveralls.maven.plugin.httpclient.CoverallsProxyClient;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsUpload;
+import org.eluder.coveralls.maven.plugin.httpclient.RetryPolicy;
 import org.eluder.coveralls.maven.plugin.json.JsonWriter;
+import org.eluder.coveralls.maven.plugin.json.PayloadDigest;
 import org.eluder.coveralls.maven.plugin.logging.CoverageTracingLogger;
 import org.eluder.coveralls.maven.plugin.logging.DryRunLogger;
 import org.eluder.coveralls.maven.plugin.logging.JobLogger;
 import org.eluder.coveralls.maven.plugin.logging.Logger;
 import org.eluder.coveralls.maven.plugin.logging.Logger.Position;
+import org.eluder.coveralls.maven.plugin.logging.ProgressLogger;
+import org.eluder.coveralls.maven.plugin.logging.SlowestOperationsLogger;
+import org.eluder.coveralls.maven.plugin.parser.AbstractXmlEventParser;
 import org.eluder.coveralls.maven.plugin.service.Appveyor;
 import org.eluder.coveralls.maven.plugin.service.Bamboo;
 import org.eluder.coveralls.maven.plugin.service.Circle;
@@ -58,11 +83,19 @@ import org.eluder.coveralls.maven.plugin.service.ServiceSetup;
 import org.eluder.coveralls.maven.plugin.service.Shippable;
 import org.eluder.coveralls.maven.plugin.service.Travis;
 import org.eluder.coveralls.maven.plugin.service.Wercker;
+import org.eluder.coveralls.maven.plugin.source.ConcurrentMergeSourceCallback;
+import org.eluder.coveralls.maven.plugin.source.RepeatedSourceFiles;
 import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 import org.eluder.coveralls.maven.plugin.source.SourceLoader;
+import org.eluder.coveralls.maven.plugin.source.TimingSourceCallback;
 import org.eluder.coveralls.maven.plugin.source.UniqueSourceCallback;
+import org.eluder.coveralls.maven.plugin.spool.Spool;
 import org.eluder.coveralls.maven.plugin.util.CoverageParsersFactory;
+import org.eluder.coveralls.maven.plugin.util.MavenProjectCollector;
 import org.eluder.coveralls.maven.plugin.util.SourceLoaderFactory;
+import org.eluder.coveralls.maven.plugin.util.SubmissionLedger;
+import org.eluder.coveralls.maven.plugin.util.TimingReport;
+import org.eluder.coveralls.maven.plugin.util.TraceReport;
 import org.eluder.coveralls.maven.plugin.util.TimestampParser;
 
 /**
@@ -245,6 +278,234 @@ public class CoverallsReportMojo extends AbstractMojo {
     @Parameter(property = "scanForSources", defaultValue = "false")
     private boolean scanForSources;
 
+    /**
+     * Stream source files to the Coveralls data file as soon as they are parsed instead of buffering all of them until
+     * every coverage report is processed. Coverage reports are scanned up front and only source files referenced more
+     * than once are buffered for merging.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "streamSources", defaultValue = "false")
+    private boolean streamSources;
+
+    /**
+     * Declare that every source file is reported only once in the coverage reports, e.g. when using a single
+     * "jacocoAggregateReport". Implies "streamSources" without scanning the coverage reports. The build fails if a
+     * source file is reported more than once.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "uniqueSources", defaultValue = "false")
+    private boolean uniqueSources;
+
+    /**
+     * Storage of the per-line coverage: "heap", "direct" to keep it in direct memory outside of the Java heap, or
+     * "mapped" to memory map it to a temporary file next to the Coveralls data file for runs that exceed memory.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "coverageArena", defaultValue = "heap")
+    private String coverageArena;
+
+    /**
+     * Number of threads that parse coverage reports concurrently. Source files reported by several coverage reports are
+     * merged concurrently and written in the order they were first seen.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "parserThreads", defaultValue = "1")
+    private int parserThreads;
+
+    /**
+     * Gzip the Coveralls data file while writing it and upload it compressed. The ".gz" suffix is appended to
+     * "coverallsFile" unless it already has one.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "compressCoverallsFile", defaultValue = "false")
+    private boolean compressCoverallsFile;
+
+    /**
+     * Upload the Coveralls data to the API while it is written instead of after the data file is complete. The request
+     * body is sent with chunked transfer encoding. Ignored on dry runs.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "streamUpload", defaultValue = "false")
+    private boolean streamUpload;
+
+    /**
+     * Keep a copy of the streamed Coveralls data in "coverallsFile" when "streamUpload" is enabled, e.g. for debugging.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "streamUploadCopy", defaultValue = "false")
+    private boolean streamUploadCopy;
+
+    /**
+     * Number of times a submission that fails with a connection error or a temporary HTTP status (408, 429, 500, 502,
+     * 503, 504) is retried with exponential backoff. I/O errors after the data was sent are not retried, as the job
+     * may have been created. A "Retry-After" header of the response is honored. Streamed uploads are retried only
+     * when "streamUploadCopy" is enabled.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "submissionRetries", defaultValue = "3")
+    private int submissionRetries;
+
+    /**
+     * Total time in seconds that a submission, including its retries, may take before the last failure is reported.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "submissionRetryBudget", defaultValue = "300")
+    private int submissionRetryBudget;
+
+    /**
+     * Connect to the Coveralls API in the background when the build starts, so that the connection setup overlaps
+     * with parsing the coverage reports. The connection is opened with an extra HEAD request to the jobs endpoint.
+     * Ignored on dry runs and with "streamUpload".
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "preconnect", defaultValue = "false")
+    private boolean preconnect;
+
+    /**
+     * Split the source files into shards of about this many kilobytes of uncompressed JSON. Each shard is written to
+     * its own file as a parallel job with the job number "&lt;serviceJobId&gt;-&lt;shard&gt;", the shards are uploaded
+     * concurrently and the parallel build is closed with the Coveralls webhook when all of them succeed. The build is
+     * left open if "parallel" is enabled, e.g. when other CI jobs contribute to it. Requires a service build number and
+     * disables "streamUpload". Zero disables sharding.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "shardSize", defaultValue = "0")
+    private int shardSize;
+
+    /**
+     * Number of shards uploaded concurrently when "shardSize" is set.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "shardUploads", defaultValue = "4")
+    private int shardUploads;
+
+    /**
+     * Move the Coveralls data to "spoolDirectory" instead of submitting it, so that the build does not wait for the
+     * Coveralls API. The spooled data is submitted with the "flush" goal. Disables "streamUpload".
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "spool", defaultValue = "false")
+    private boolean spool;
+
+    /**
+     * Directory of the spooled Coveralls data.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "spoolDirectory", defaultValue = "${user.home}/.coveralls/spool")
+    private File spoolDirectory;
+
+    /**
+     * Skip the submission when identical Coveralls data was already accepted for the same commit and job, e.g. when a
+     * pipeline is re-run. Accepted submissions are recorded in "ledgerFile" with a digest of the data that ignores
+     * the "run_at" timestamp. Not applied to "streamUpload" and "spool".
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "deduplicate", defaultValue = "false")
+    private boolean deduplicate;
+
+    /**
+     * Ledger of the accepted submissions used by "deduplicate".
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "ledgerFile", defaultValue = "${user.home}/.coveralls/ledger.properties")
+    private File ledgerFile;
+
+    /**
+     * Limit the upload bandwidth to this many bytes per second, e.g. to leave room for other uploads on a shared
+     * network link. The limit is shared by concurrent shard uploads and retries. Zero disables the limit.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "uploadBandwidth", defaultValue = "0")
+    private long uploadBandwidth;
+
+    /**
+     * Bytes that can be uploaded at full speed after the upload was idle when "uploadBandwidth" is set. Zero allows one
+     * second of the bandwidth.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "uploadBurst", defaultValue = "0")
+    private long uploadBurst;
+
+    /**
+     * Prefer HTTP/2 for the requests to the Coveralls API, so that concurrent shard uploads, retries and webhook calls
+     * share one connection. Falls back to HTTP/1.1 when the server or proxy does not support HTTP/2.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "http2", defaultValue = "false")
+    private boolean http2;
+
+    /**
+     * Write the timings of the plugin execution to this JSON file, e.g.
+     * "${project.build.directory}/coveralls-timings.json", to track the plugin performance across builds. The report
+     * has the time of each phase, the parse time of each coverage report and the connect, upload and response time of
+     * each request to the API. Not written if not set.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "timingReport")
+    private File timingReport;
+
+    /**
+     * Write the coverage statistics broken down by module and package to this JSON file, e.g.
+     * "${project.build.directory}/coveralls-summary.json". The statistics are gathered while the source files are
+     * written, so the summary needs no extra pass over the coverage data. Not written if not set.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "coverageSummary")
+    private File coverageSummary;
+
+    /**
+     * Interval in seconds for logging the progress of parsing the coverage reports: the bytes parsed of each report,
+     * the source files per second, the estimated time left and the heap usage. Nothing is logged for runs shorter
+     * than the interval. Zero disables the progress logging.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "progressInterval", defaultValue = "0")
+    private int progressInterval;
+
+    /**
+     * Log this many of the slowest source file loads, source file merges and coverage report parses after writing the
+     * Coveralls data, with their sizes and durations, to find the files that slow down the coverage processing. Set
+     * to 0 to disable.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "logSlowest", defaultValue = "0")
+    private int logSlowest;
+
+    /**
+     * Write a trace of the plugin execution to this file in the OpenTelemetry OTLP/JSON file format, e.g.
+     * "${project.build.directory}/coveralls-trace.json", to show the coverage processing alongside the other traces
+     * of the build. The span tree covers the phases, the parsing of each coverage report and the requests to the
+     * API. The trace joins the trace of the build if the W3C trace context is set in the TRACEPARENT environment
+     * variable. Not written if not set.
+     *
+     * @since 5.1.1
+     */
+    @Parameter(property = "traceFile")
+    private File traceFile;
+
     /**
      * Base directory of the project.
      */
@@ -269,6 +530,18 @@ public class CoverallsReportMojo extends AbstractMojo {
     @Parameter(defaultValue = "${project}", readonly = true)
     MavenProject project;
 
+    /** The bandwidth limiter of the submission, null if uploads are not limited. */
+    private BandwidthLimiter bandwidthLimiter;
+
+    /** The timings of the execution. */
+    private TimingReport timings = new TimingReport();
+
+    /** The coverage statistics of the source files, null if not gathered. */
+    private CoverageTracingLogger coverageTracing;
+
+    /** The slowest operations, null if not logged. */
+    private SlowestOperationsLogger slowest;
+
     /**
      * Instantiates a new coveralls report mojo.
      */
@@ -283,42 +556,191 @@ public class CoverallsReportMojo extends AbstractMojo {
             return;
         }
 
+        this.timings = new TimingReport();
+        this.slowest = this.logSlowest > 0 ? new SlowestOperationsLogger(this.logSlowest) : null;
+        final var timings = this.timings;
+        Exception error = null;
         try {
+            final var setup = System.nanoTime();
             this.createEnvironment().setup();
+            timings.record("environment", setup);
 
             final var job = this.createJob();
             job.validate().throwOrInform(this.getLog());
 
-            final var sourceLoader = this.createSourceLoader(job);
+            // no client is needed on dry runs or when the data is spooled
+            final var spooling = this.spool && !job.isDryRun();
+            final var client = job.isDryRun() || spooling ? null : this.createCoverallsClient();
+            final var sharded = this.shardSize > 0;
+            final var streaming = this.streamUpload && !sharded;
+            if (!job.isDryRun() && sharded && (job.getServiceBuildNumber() == null
+                    || job.getServiceBuildNumber().isBlank())) {
+                throw new ProcessingException("Sharded submission requires a service build number to group the shards");
+            }
+            this.bandwidthLimiter = client == null ? null : client.getBandwidthLimiter();
+            if (client != null) {
+                client.withTransferListener(timings::recordTransfer);
+            }
+            if (client != null && this.preconnect && !streaming) {
+                // overlap the connection setup with parsing
+                final var preconnecting = System.nanoTime();
+                client.preconnect().whenComplete((result, failure) -> timings.record("preconnect", preconnecting))
+                        .exceptionally(e -> {
+                            this.getLog().debug("Pre-connecting to Coveralls API failed", e);
+                            return null;
+                        });
+            }
 
-            final var parsers = this.createCoverageParsers(sourceLoader);
+            CoverallsUpload upload = null;
+            List<File> files = List.of();
+            try {
+                try (var arena = this.createCoverageArena()) {
+                    var start = System.nanoTime();
+                    final var sourceLoader = this.createSourceLoader(job, arena);
+                    timings.record("sourceLoader", start);
 
-            final var client = this.createCoverallsClient();
+                    start = System.nanoTime();
+                    final var parsers = this.createCoverageParsers(sourceLoader);
+                    timings.record("parserDiscovery", start);
 
-            final List<Logger> reporters = new ArrayList<>();
-            reporters.add(new JobLogger(job));
+                    start = System.nanoTime();
+                    final var repeatable = this.createRepeatableSources(parsers);
+                    timings.record("repeatedSources", start);
 
-            try (var writer = this.createJsonWriter(job)) {
-                // For tests (its the same instance as in writer)
-                this.coverallsFile = writer.getCoverallsFile();
+                    final List<Logger> reporters = new ArrayList<>();
+                    reporters.add(new JobLogger(job));
+                    if (this.slowest != null) {
+                        reporters.add(this.slowest);
+                    }
 
-                final var sourceCallback = this.createSourceCallbackChain(writer, reporters);
-                reporters.add(new DryRunLogger(job.isDryRun(), this.coverallsFile));
+                    if (streaming && client != null) {
+                        this.getLog().info("Streaming Coveralls data to API while writing");
+                        upload = client.upload(this.compressCoverallsFile,
+                                this.streamUploadCopy ? this.getOutputFile() : null);
+                    }
 
-                this.report(reporters, Position.BEFORE);
-                this.writeCoveralls(writer, sourceCallback, parsers);
-                this.report(reporters, Position.AFTER);
-            }
+                    try (var writer = upload == null ? this.createJsonWriter(job)
+                            : this.createStreamingJsonWriter(job, upload)) {
+                        // For tests (its the same instance as in writer)
+                        this.coverallsFile = writer.getCoverallsFile();
 
-            if (!job.isDryRun()) {
-                this.submitData(client, this.coverallsFile);
+                        try {
+                            final var sourceCallback = this.createSourceCallbackChain(writer, reporters, repeatable);
+                            reporters.add(new DryRunLogger(job.isDryRun(), this.coverallsFile));
+
+                            this.report(reporters, Position.BEFORE);
+                            this.writeCoveralls(writer, sourceCallback, parsers);
+                            this.report(reporters, Position.AFTER);
+                            this.writeCoverageSummary();
+                            files = writer.getFiles();
+                        } catch (final Throwable e) {
+                            // abort before the writer is closed, closing would complete a truncated upload
+                            CoverallsReportMojo.abort(upload, e);
+                            throw e;
+                        }
+                    }
+                }
+
+                if (upload != null) {
+                    this.submitData(upload::getResponse);
+                } else if (spooling) {
+                    this.spoolData(job, files, sharded);
+                } else if (client != null && sharded) {
+                    final var shards = files;
+                    this.submitDeduplicated(job, shards, () -> this.submitShards(client, job, shards));
+                } else if (client != null) {
+                    final var file = this.coverallsFile;
+                    this.submitDeduplicated(job, List.of(file), () -> client.submit(file));
+                }
+            } catch (final Throwable e) {
+                // a started request must not wait for the streaming timeout when the data is never completed or read
+                CoverallsReportMojo.abort(upload, e);
+                throw e;
             }
         } catch (final ProcessingException e) {
+            error = e;
             throw new MojoFailureException("Processing of input or output data failed", e);
         } catch (final IOException e) {
+            error = e;
             throw new MojoFailureException("I/O operation failed", e);
         } catch (final Exception e) {
+            error = e;
             throw new MojoExecutionException("Build error", e);
+        } finally {
+            this.writeTimingReport();
+            this.writeTrace(error);
+        }
+    }
+
+    /**
+     * Aborts a streaming upload after a failure.
+     *
+     * @param upload
+     *            the upload, null if the data is not streamed
+     * @param cause
+     *            the failure
+     */
+    private static void abort(final CoverallsUpload upload, final Throwable cause) {
+        if (upload != null) {
+            upload.abort(cause);
+        }
+    }
+
+    /**
+     * Checks if the source callbacks are timed. Timing every source has a cost and only the timing report shows the
+     * accumulated source phases, the trace has spans of whole phases.
+     *
+     * @return true, if the timing report is written
+     */
+    private boolean isTimed() {
+        return this.timingReport != null;
+    }
+
+    /**
+     * Writes the timing report if configured. Failures are only logged, so that they never fail the build.
+     */
+    private void writeTimingReport() {
+        if (this.timingReport == null) {
+            return;
+        }
+        try {
+            this.timings.write(this.timingReport);
+            this.getLog().info("Wrote timing report to " + this.timingReport.getAbsolutePath());
+        } catch (final IOException e) {
+            this.getLog().warn("Writing timing report to " + this.timingReport.getAbsolutePath() + " failed", e);
+        }
+    }
+
+    /**
+     * Writes the trace if configured. Failures are only logged, so that they never fail the build.
+     *
+     * @param failure
+     *            the failure of the execution, null if succeeded
+     */
+    private void writeTrace(final Exception failure) {
+        if (this.traceFile == null) {
+            return;
+        }
+        try {
+            new TraceReport(this.timings, System.getenv("TRACEPARENT")).write(this.traceFile, failure);
+            this.getLog().info("Wrote trace to " + this.traceFile.getAbsolutePath());
+        } catch (final IOException e) {
+            this.getLog().warn("Writing trace to " + this.traceFile.getAbsolutePath() + " failed", e);
+        }
+    }
+
+    /**
+     * Writes the coverage summary if configured. Failures are only logged, so that they never fail the build.
+     */
+    private void writeCoverageSummary() {
+        if (this.coverageSummary == null || this.coverageTracing == null) {
+            return;
+        }
+        try {
+            this.coverageTracing.writeSummary(this.coverageSummary);
+            this.getLog().info("Wrote coverage summary to " + this.coverageSummary.getAbsolutePath());
+        } catch (final IOException e) {
+            this.getLog().warn("Writing coverage summary to " + this.coverageSummary.getAbsolutePath() + " failed", e);
         }
     }
 
@@ -341,7 +763,7 @@ public class CoverallsReportMojo extends AbstractMojo {
     }
 
     /**
-     * Creates the source loader.
+     * Creates the source loader that keeps coverage on heap.
      *
      * @param job
      *            the job describing the coveralls report
@@ -349,9 +771,48 @@ public class CoverallsReportMojo extends AbstractMojo {
      * @return source loader that extracts source files
      */
     protected SourceLoader createSourceLoader(final Job job) {
+        return this.createSourceLoader(job, null);
+    }
+
+    /**
+     * Creates the source loader.
+     *
+     * @param job
+     *            the job describing the coveralls report
+     * @param arena
+     *            the coverage arena of the loaded sources, null to keep coverage on heap
+     *
+     * @return source loader that extracts source files
+     */
+    protected SourceLoader createSourceLoader(final Job job, final CoverageArena arena) {
         return new SourceLoaderFactory(job.getGit().getBaseDir(), this.project, Charset.forName(this.sourceEncoding))
                 .withSourceDirectories(this.sourceDirectories).withScanForSources(this.scanForSources)
-                .createSourceLoader();
+                .withCoverageArena(arena).withLoadListener(this.slowest).createSourceLoader();
+    }
+
+    /**
+     * Creates the coverage arena.
+     *
+     * @return off-heap coverage arena, or null if coverage is kept on heap
+     *
+     * @throws IOException
+     *             if the memory mapped arena cannot be created
+     */
+    protected CoverageArena createCoverageArena() throws IOException {
+        if (this.coverageArena == null) {
+            return null;
+        }
+        switch (this.coverageArena) {
+            case "heap":
+                return null;
+            case "direct":
+                return CoverageArena.allocateDirect();
+            case "mapped":
+                return CoverageArena.map(this.coverallsFile.getParentFile().toPath());
+            default:
+                throw new IllegalArgumentException("Unsupported coverage arena " + this.coverageArena
+                        + ", expected one of heap, direct or mapped");
+        }
     }
 
     /**
@@ -394,7 +855,9 @@ public class CoverallsReportMojo extends AbstractMojo {
      *             if an I/O error occurs
      */
     protected Job createJob() throws ProcessingException, IOException {
+        final var loading = System.nanoTime();
         final var git = new GitRepository(this.basedir).load();
+        this.timings.record("git", loading);
         final var time = this.timestamp == null ? null
                 : new TimestampParser(this.timestampFormat).parse(this.timestamp).toEpochMilli();
 
@@ -433,20 +896,147 @@ public class CoverallsReportMojo extends AbstractMojo {
      *             if an I/O error occurs
      */
     protected JsonWriter createJsonWriter(final Job job) throws IOException {
+        if (this.shardSize > 0) {
+            return new JsonWriter(job, this.getOutputFile(), this.compressCoverallsFile, this.shardSize * 1024L);
+        }
+        if (this.compressCoverallsFile) {
+            return new JsonWriter(job, this.getCompressedCoverallsFile(), true);
+        }
         return new JsonWriter(job, this.coverallsFile);
     }
 
+    /**
+     * Creates the JSON writer that streams the data to the API.
+     *
+     * @param job
+     *            the job describing the coveralls report
+     * @param upload
+     *            the started upload
+     *
+     * @return JSON writer that writes the coveralls data to the upload and optionally to the coveralls file
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    protected JsonWriter createStreamingJsonWriter(final Job job, final CoverallsUpload upload) throws IOException {
+        final var file = this.getOutputFile();
+        var out = upload.getOutputStream();
+        if (this.streamUploadCopy) {
+            Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+            out = new TeeOutputStream(out, new BufferedOutputStream(Files.newOutputStream(file.toPath())));
+        }
+        if (this.compressCoverallsFile) {
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        return new JsonWriter(job, file, out);
+    }
+
+    /**
+     * Gets the file that the coveralls data is written to.
+     *
+     * @return the coveralls file, with the gzip suffix if compressed
+     */
+    private File getOutputFile() {
+        return this.compressCoverallsFile ? this.getCompressedCoverallsFile() : this.coverallsFile;
+    }
+
+    /**
+     * Gets the coveralls file with the gzip suffix.
+     *
+     * @return the compressed coveralls file
+     */
+    private File getCompressedCoverallsFile() {
+        return this.coverallsFile.getName().endsWith(".gz") ? this.coverallsFile
+                : new File(this.coverallsFile.getPath() + ".gz");
+    }
+
     /**
      * Creates the coveralls client.
      *
      * @return http client that submits the coveralls data
      */
     protected CoverallsClient createCoverallsClient() {
-        return new CoverallsProxyClient(this.coverallsUrl, this.settings.getActiveProxy());
+        final var httpVersion = this.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        return new CoverallsProxyClient(this.coverallsUrl, this.settings.getActiveProxy(), httpVersion)
+                .withRetryPolicy(this.createRetryPolicy()).withBandwidthLimiter(this.createBandwidthLimiter());
     }
 
     /**
-     * Creates the source callback chain.
+     * Creates the bandwidth limiter for submissions.
+     *
+     * @return bandwidth limiter, or null if uploads are not limited
+     */
+    protected BandwidthLimiter createBandwidthLimiter() {
+        return BandwidthLimiter.of(this.uploadBandwidth, this.uploadBurst);
+    }
+
+    /**
+     * Creates the retry policy for submissions.
+     *
+     * @return retry policy that logs each retry
+     */
+    protected RetryPolicy createRetryPolicy() {
+        final var budget = Duration.ofSeconds(Math.max(0, this.submissionRetryBudget));
+        return RetryPolicy.ofRetries(this.submissionRetries, budget).withListener(this.getLog()::warn);
+    }
+
+    /**
+     * Creates the spool.
+     *
+     * @return spool of coveralls data that is submitted later
+     */
+    protected Spool createSpool() {
+        return new Spool(this.spoolDirectory.toPath());
+    }
+
+    /**
+     * Creates the submission ledger.
+     *
+     * @return ledger of accepted submissions
+     */
+    protected SubmissionLedger createSubmissionLedger() {
+        return new SubmissionLedger(this.ledgerFile.toPath());
+    }
+
+    /**
+     * Creates the predicate for source files that can be reported more than once and must be buffered for merging.
+     *
+     * @param parsers
+     *            list of coverage parsers
+     *
+     * @return predicate for repeatable source files
+     *
+     * @throws ProcessingException
+     *             if scanning of a coverage report fails
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    protected Predicate<Source> createRepeatableSources(final List<CoverageParser> parsers)
+            throws ProcessingException, IOException {
+        if (this.uniqueSources) {
+            this.getLog().info("Source files declared unique, streaming without merging");
+            return source -> false;
+        }
+        if (!this.streamSources) {
+            return source -> true;
+        }
+        final var now = System.currentTimeMillis();
+        final var repeated = new RepeatedSourceFiles();
+        for (final CoverageParser parser : parsers) {
+            if (!parser.scan(repeated::add)) {
+                this.getLog().info("Coverage report " + parser.getCoverageFile().getAbsolutePath()
+                        + " does not support scanning, buffering all source files");
+                return source -> true;
+            }
+        }
+        final var duration = System.currentTimeMillis() - now;
+        this.getLog().info("Scanned " + parsers.size() + " coverage reports in " + duration + "ms, "
+                + repeated.getRepeated() + " of " + repeated.getReferenced() + " source files are repeated");
+        return repeated;
+    }
+
+    /**
+     * Creates the source callback chain that may report every source file more than once.
      *
      * @param writer
      *            the JSON writer
@@ -456,13 +1046,79 @@ public class CoverallsReportMojo extends AbstractMojo {
      * @return source callback chain for different source handlers
      */
     protected SourceCallback createSourceCallbackChain(final JsonWriter writer, final List<Logger> reporters) {
-        SourceCallback chain = writer;
-        if (this.getLog().isInfoEnabled()) {
-            final var coverageTracingReporter = new CoverageTracingLogger(chain);
+        return this.createSourceCallbackChain(writer, reporters, source -> true);
+    }
+
+    /**
+     * Creates the source callback chain.
+     *
+     * @param writer
+     *            the JSON writer
+     * @param reporters
+     *            the logging reporters
+     * @param repeatable
+     *            the predicate for source files that can be reported more than once
+     *
+     * @return source callback chain for different source handlers
+     */
+    protected SourceCallback createSourceCallbackChain(final JsonWriter writer, final List<Logger> reporters,
+            final Predicate<Source> repeatable) {
+        final var timings = this.timings;
+        SourceCallback chain = this.isTimed()
+                ? new TimingSourceCallback(writer, nanos -> timings.add("serialization", nanos))
+                : writer;
+        this.coverageTracing = null;
+        if (this.getLog().isInfoEnabled() || this.coverageSummary != null) {
+            final var coverageTracingReporter = new CoverageTracingLogger(chain,
+                    this.coverageSummary == null ? null : this.createSourceRoots(writer.getJob()));
             chain = coverageTracingReporter;
-            reporters.add(coverageTracingReporter);
+            if (this.getLog().isInfoEnabled()) {
+                reporters.add(coverageTracingReporter);
+            }
+            this.coverageTracing = coverageTracingReporter;
+        }
+        final SourceCallback merging = this.parserThreads > 1 ? new ConcurrentMergeSourceCallback(chain, repeatable)
+                : new UniqueSourceCallback(chain, repeatable);
+        return this.slowest == null ? merging : this.slowest.recordMerges(merging);
+    }
+
+    /**
+     * Creates the module names by source root directory for the coverage summary. The source roots are relative to
+     * the base directory of the source files, and the additional source directories have no module.
+     *
+     * @param job
+     *            the job
+     *
+     * @return the module names by source root directory
+     */
+    private Map<String, String> createSourceRoots(final Job job) {
+        final var baseDir = job.getGit().getBaseDir().toPath().toAbsolutePath();
+        final Map<String, String> sourceRoots = new LinkedHashMap<>();
+        if (this.sourceDirectories != null) {
+            for (final File directory : this.sourceDirectories) {
+                sourceRoots.put(CoverallsReportMojo.relativize(baseDir, directory.toPath()), "");
+            }
+        }
+        for (final MavenProject module : new MavenProjectCollector(this.project).collect()) {
+            for (final String sourceRoot : module.getCompileSourceRoots()) {
+                sourceRoots.put(CoverallsReportMojo.relativize(baseDir, Path.of(sourceRoot)), module.getArtifactId());
+            }
         }
-        return new UniqueSourceCallback(chain);
+        return sourceRoots;
+    }
+
+    /**
+     * Relativizes a directory against the base directory with '/' separated segments.
+     *
+     * @param baseDir
+     *            the absolute base directory
+     * @param directory
+     *            the directory
+     *
+     * @return the relative directory
+     */
+    private static String relativize(final Path baseDir, final Path directory) {
+        return baseDir.relativize(directory.toAbsolutePath()).toString().replace(File.separatorChar, '/');
     }
 
     /**
@@ -484,41 +1140,209 @@ public class CoverallsReportMojo extends AbstractMojo {
             final List<CoverageParser> parsers) throws ProcessingException, IOException {
         this.getLog().info("Writing Coveralls data to " + this.coverallsFile.getAbsolutePath() + "...");
         final var now = System.currentTimeMillis();
-        sourceCallback.onBegin();
-        for (final CoverageParser parser : parsers) {
-            this.getLog().info("Processing coverage report from " + parser.getCoverageFile().getAbsolutePath());
-            parser.parse(sourceCallback);
+        final var start = System.nanoTime();
+        final var timings = this.timings;
+        final var timed = this.createProgressLogger(this.isTimed()
+                ? new TimingSourceCallback(sourceCallback, nanos -> timings.add("sources", nanos))
+                : sourceCallback, parsers);
+        timed.onBegin();
+        if (this.parserThreads > 1 && parsers.size() > 1) {
+            this.parseConcurrently(timed, parsers);
+        } else {
+            for (final CoverageParser parser : parsers) {
+                this.getLog().info("Processing coverage report from " + parser.getCoverageFile().getAbsolutePath());
+                final var parsing = System.nanoTime();
+                parser.parse(timed);
+                timings.recordReport(parser.getCoverageFile(), parsing);
+                this.recordParse(parser.getCoverageFile(), parsing);
+            }
+        }
+        timed.onComplete();
+        timings.record("write", start);
+        if (this.isTimed()) {
+            // the source callbacks include the serialization of the merged sources
+            timings.add("merge", timings.remove("sources") - timings.getNanos("serialization"));
         }
-        sourceCallback.onComplete();
         final var duration = System.currentTimeMillis() - now;
         this.getLog().info("Successfully wrote Coveralls data in " + duration + "ms");
     }
 
     /**
-     * Submit data.
+     * Chains a progress logger to the source callback handler and registers it to the parsers, if progress is logged.
      *
-     * @param client
-     *            the client
-     * @param coverallsFile
-     *            the coveralls file
+     * @param sourceCallback
+     *            the source callback handler
+     * @param parsers
+     *            list of coverage parsers
+     *
+     * @return the source callback handler that logs progress
+     */
+    private SourceCallback createProgressLogger(final SourceCallback sourceCallback,
+            final List<CoverageParser> parsers) {
+        if (this.progressInterval <= 0 || !this.getLog().isInfoEnabled()) {
+            return sourceCallback;
+        }
+        final List<File> coverageFiles = new ArrayList<>(parsers.size());
+        for (final CoverageParser parser : parsers) {
+            coverageFiles.add(parser.getCoverageFile());
+        }
+        final var progress = new ProgressLogger(sourceCallback, this.getLog(),
+                Duration.ofSeconds(this.progressInterval), coverageFiles);
+        for (final CoverageParser parser : parsers) {
+            if (parser instanceof AbstractXmlEventParser) {
+                ((AbstractXmlEventParser) parser).setProgressListener(progress);
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Records the parse of a coverage report to the slowest operations, if logged.
+     *
+     * @param coverageFile
+     *            the coverage report file
+     * @param startNanos
+     *            the start time of the parse from {@link System#nanoTime()}
+     */
+    private void recordParse(final File coverageFile, final long startNanos) {
+        if (this.slowest != null) {
+            this.slowest.recordParse(coverageFile, startNanos);
+        }
+    }
+
+    /**
+     * Parses coverage reports concurrently with "parserThreads" threads.
+     *
+     * @param sourceCallback
+     *            the thread safe source callback handler
+     * @param parsers
+     *            list of coverage parsers
+     *
+     * @throws ProcessingException
+     *             if processing of a coverage report fails
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private void parseConcurrently(final SourceCallback sourceCallback, final List<CoverageParser> parsers)
+            throws ProcessingException, IOException {
+        final var executor = Executors.newFixedThreadPool(Math.min(this.parserThreads, parsers.size()));
+        try {
+            final List<Future<Void>> results = new ArrayList<>(parsers.size());
+            for (final CoverageParser parser : parsers) {
+                results.add(executor.submit(() -> {
+                    this.getLog().info("Processing coverage report from " + parser.getCoverageFile().getAbsolutePath());
+                    final var parsing = System.nanoTime();
+                    parser.parse(sourceCallback);
+                    this.timings.recordReport(parser.getCoverageFile(), parsing);
+                    this.recordParse(parser.getCoverageFile(), parsing);
+                    return null;
+                }));
+            }
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while parsing coverage reports", e);
+        } catch (final ExecutionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw (ProcessingException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new ProcessingException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submit data unless identical data was already accepted for the same commit and job.
+     *
+     * @param job
+     *            the job describing the coveralls report
+     * @param files
+     *            the coveralls files
+     * @param submission
+     *            the submission of the coveralls data
      *
      * @throws ProcessingException
      *             the processing exception
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private void submitData(final CoverallsClient client, final File coverallsFile)
+    private void submitDeduplicated(final Job job, final List<File> files, final Submission submission)
             throws ProcessingException, IOException {
+        final var key = this.deduplicate ? this.getSubmissionKey(job) : null;
+        if (key == null) {
+            this.submitData(submission);
+            return;
+        }
+        final var ledger = this.createSubmissionLedger();
+        final var digest = PayloadDigest.digest(files);
+        final var previous = ledger.find(key, digest);
+        if (previous != null) {
+            this.getLog().info("Skipping submission, identical Coveralls data was already accepted for " + key);
+            if (previous.getUrl() != null) {
+                this.getLog().info(previous.getUrl());
+            }
+            return;
+        }
+        final var response = this.submitData(submission);
+        if (response != null) {
+            ledger.record(key, digest, response);
+        }
+    }
+
+    /**
+     * Gets the ledger key of the submission.
+     *
+     * @param job
+     *            the job describing the coveralls report
+     *
+     * @return the key of the service, job and commit, or null if the commit is not known
+     */
+    private String getSubmissionKey(final Job job) {
+        final var head = job.getGit() == null ? null : job.getGit().getHead();
+        if (head == null || head.getId() == null) {
+            this.getLog().debug("Commit is not known, submission is not deduplicated");
+            return null;
+        }
+        final var jobId = job.getServiceJobId() != null ? job.getServiceJobId() : job.getServiceBuildNumber();
+        return Objects.toString(job.getServiceName(), "") + "/" + Objects.toString(jobId, "") + "/" + head.getId();
+    }
+
+    /**
+     * Submit data.
+     *
+     * @param submission
+     *            the submission of the coveralls data
+     *
+     * @return the API response, or null if the submission failed without failing the build
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private CoverallsResponse submitData(final Submission submission) throws ProcessingException, IOException {
         this.getLog().info("Submitting Coveralls data to API");
         final var now = System.currentTimeMillis();
+        final var start = System.nanoTime();
         try {
-            final var response = client.submit(coverallsFile);
+            final var response = submission.submit();
             final var duration = System.currentTimeMillis() - now;
             this.getLog()
                     .info("Successfully submitted Coveralls data in " + duration + "ms for " + response.getMessage());
+            if (this.bandwidthLimiter != null) {
+                this.getLog().info(this.bandwidthLimiter.summarize(Duration.ofMillis(duration)));
+            }
             this.getLog().info(response.getUrl());
             this.getLog().info("*** Coverage results are usually available immediately on Coveralls.");
             this.getLog().info("    If you see question marks or missing data, please allow some time for processing.");
+            return response;
         } catch (final ProcessingException e) {
             final var duration = System.currentTimeMillis() - now;
             final var message = "Submission failed in " + duration + "ms while processing data";
@@ -532,7 +1356,61 @@ public class CoverallsReportMojo extends AbstractMojo {
             final var message = "Submission failed in " + duration + "ms due to an interuption";
             this.getLog().error(message, e);
             Thread.currentThread().interrupt();
+        } finally {
+            this.timings.record("submission", start);
+        }
+        return null;
+    }
+
+    /**
+     * Moves the coveralls data to the spool.
+     *
+     * @param job
+     *            the job describing the coveralls report
+     * @param files
+     *            the coveralls files
+     * @param sharded
+     *            whether the files are shards of a parallel build that is closed after submission
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void spoolData(final Job job, final List<File> files, final boolean sharded) throws IOException {
+        final var finishBuild = sharded && !job.isParallel() ? job.getServiceBuildNumber() : null;
+        final var entry = this.createSpool().add(this.coverallsUrl, files, job.getRepoToken(), finishBuild);
+        this.getLog().info("Spooled Coveralls data to " + entry.getDirectory().toAbsolutePath()
+                + ", submit it with the coveralls:flush goal");
+    }
+
+    /**
+     * Submits the shards of the coveralls data concurrently and closes the parallel build.
+     *
+     * @param client
+     *            the coveralls client
+     * @param job
+     *            the job describing the coveralls report
+     * @param shards
+     *            the shard files
+     *
+     * @return the response of the webhook, or of the last shard if the build is left open
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    private CoverallsResponse submitShards(final CoverallsClient client, final Job job, final List<File> shards)
+            throws ProcessingException, IOException, InterruptedException {
+        this.getLog().info("Uploading " + shards.size() + " shards with " + Math.max(1, this.shardUploads)
+                + " concurrent uploads");
+        final var responses = client.submit(shards, this.shardUploads);
+        if (job.isParallel()) {
+            this.getLog().info("Leaving parallel build " + job.getServiceBuildNumber() + " open for other jobs");
+            return responses.get(responses.size() - 1);
         }
+        return client.finish(job.getRepoToken(), job.getServiceBuildNumber());
     }
 
     /**
@@ -574,4 +1452,25 @@ public class CoverallsReportMojo extends AbstractMojo {
             }
         }
     }
+
+    /**
+     * Submission of the coveralls data to the API.
+     */
+    @FunctionalInterface
+    private interface Submission {
+
+        /**
+         * Submits the data.
+         *
+         * @return the API response
+         *
+         * @throws ProcessingException
+         *             the processing exception
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         * @throws InterruptedException
+         *             the interrupted exception
+         */
+        CoverallsResponse submit() throws ProcessingException, IOException, InterruptedException;
+    }
 }
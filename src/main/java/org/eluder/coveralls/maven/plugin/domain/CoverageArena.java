@@ -0,0 +1,316 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Off-heap storage for the line coverage of all sources of a run. Coverage is kept in direct or memory mapped buffers
+ * outside of the Java heap, so large runs do not put the per-line hit counts under garbage collection. Memory mapped
+ * arenas are backed by a temporary file and can hold more coverage data than fits in memory.
+ * <p>
+ * Slots are allocated in chunks and addressed with a handle of the chunk index and the chunk offset. Hit counts are
+ * stored incremented by one as unsigned values, so the zero filled memory of a new chunk reads as lines without
+ * coverage while {@link Integer#MAX_VALUE} still reads back exactly. The chunks are
+ * published as a copy-on-write array, so reading and writing slots from parser threads takes no lock. Freed slots are
+ * reused by allocations of the same size, so that repeatedly merged sources do not grow the arena.
+ */
+public final class CoverageArena implements Closeable {
+
+    /** The Constant CHUNK_SLOTS. */
+    static final int CHUNK_SLOTS = 1 << 20;
+
+    /** The Constant MAX_SLOTS, the slots of the largest buffer. */
+    static final int MAX_SLOTS = Integer.MAX_VALUE / Integer.BYTES;
+
+    /** The chunks, replaced on growth so that reads need no lock. */
+    private volatile IntBuffer[] chunks = new IntBuffer[0];
+
+    /** The backing file channel, null for direct arenas. */
+    private final FileChannel channel;
+
+    /** The backing file, null for direct arenas. */
+    private final Path file;
+
+    /** The mapped size of the backing file. */
+    private long mapped;
+
+    /** The freed slots by size. */
+    private final Map<Integer, Deque<Long>> freed = new HashMap<>();
+
+    /** The next free slot of the last chunk. */
+    private int position = CoverageArena.CHUNK_SLOTS;
+
+    /** The closed. */
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new coverage arena.
+     *
+     * @param channel
+     *            the backing file channel
+     * @param file
+     *            the backing file
+     */
+    private CoverageArena(final FileChannel channel, final Path file) {
+        this.channel = channel;
+        this.file = file;
+    }
+
+    /**
+     * Creates an arena in direct memory.
+     *
+     * @return the coverage arena
+     */
+    public static CoverageArena allocateDirect() {
+        return new CoverageArena(null, null);
+    }
+
+    /**
+     * Creates an arena memory mapped to a temporary file. The file is deleted when the arena is closed.
+     *
+     * @param directory
+     *            the directory of the temporary file
+     *
+     * @return the coverage arena
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static CoverageArena map(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        final var file = Files.createTempFile(directory, "coverage", ".arena");
+        final var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        return new CoverageArena(channel, file);
+    }
+
+    /**
+     * Allocates slots for the coverage of a source.
+     *
+     * @param slots
+     *            the number of slots
+     *
+     * @return the handle of the first slot
+     *
+     * @throws IllegalArgumentException
+     *             if the slots do not fit in a single buffer
+     * @throws IllegalStateException
+     *             if the arena is closed or cannot grow
+     */
+    public synchronized long allocate(final int slots) {
+        if (this.closed) {
+            throw new IllegalStateException("Coverage arena is closed");
+        }
+        if (slots > CoverageArena.MAX_SLOTS) {
+            throw new IllegalArgumentException("Coverage of " + slots + " lines exceeds the coverage arena limit of "
+                    + CoverageArena.MAX_SLOTS + " lines per source");
+        }
+        final var reusable = this.freed.get(slots);
+        if (reusable != null && !reusable.isEmpty()) {
+            final long handle = reusable.pop();
+            final var chunk = this.chunk(handle);
+            for (var i = 0; i < slots; i++) {
+                chunk.put((int) handle + i, 0);
+            }
+            return handle;
+        }
+        if (slots > CoverageArena.CHUNK_SLOTS) {
+            // oversized sources get a chunk of their own, the partially used chunk is appended again so that it
+            // stays the last one while existing handles keep pointing to its original index
+            final var chunk = this.chunks.length;
+            if (this.position < CoverageArena.CHUNK_SLOTS) {
+                this.addChunks(this.createChunk(slots), this.chunks[chunk - 1]);
+            } else {
+                this.addChunks(this.createChunk(slots));
+            }
+            return CoverageArena.handle(chunk, 0);
+        }
+        if (this.position + slots > CoverageArena.CHUNK_SLOTS) {
+            this.addChunks(this.createChunk(CoverageArena.CHUNK_SLOTS));
+            this.position = 0;
+        }
+        final var handle = CoverageArena.handle(this.chunks.length - 1, this.position);
+        this.position += slots;
+        return handle;
+    }
+
+    /**
+     * Frees slots for reuse by later allocations of the same size. The slots must not be accessed afterwards.
+     *
+     * @param handle
+     *            the handle of the first slot
+     * @param slots
+     *            the number of slots
+     */
+    public synchronized void free(final long handle, final int slots) {
+        if (!this.closed) {
+            this.freed.computeIfAbsent(slots, size -> new ArrayDeque<>()).push(handle);
+        }
+    }
+
+    /**
+     * Gets the coverage of a slot.
+     *
+     * @param handle
+     *            the handle of the first slot
+     * @param index
+     *            the slot index
+     *
+     * @return the coverage, null if the line is not relevant
+     */
+    public Integer get(final long handle, final int index) {
+        final var hits = this.getHits(handle, index);
+        return hits < 0 ? null : hits;
+    }
+
+    /**
+     * Gets the coverage of a slot without boxing.
+     *
+     * @param handle
+     *            the handle of the first slot
+     * @param index
+     *            the slot index
+     *
+     * @return the coverage, negative if the line is not relevant
+     */
+    public int getHits(final long handle, final int index) {
+        return this.chunk(handle).get((int) handle + index) - 1;
+    }
+
+    /**
+     * Sets the coverage of a slot.
+     *
+     * @param handle
+     *            the handle of the first slot
+     * @param index
+     *            the slot index
+     * @param coverage
+     *            the coverage, null if the line is not relevant, negative hit counts are stored as zero
+     */
+    public void set(final long handle, final int index, final Integer coverage) {
+        // Integer.MAX_VALUE + 1 wraps to the unsigned value that getHits decodes back to Integer.MAX_VALUE
+        this.chunk(handle).put((int) handle + index, coverage == null ? 0 : Math.max(coverage, 0) + 1);
+    }
+
+    /**
+     * Closes the arena and deletes its backing file. The buffers cannot be released explicitly, so the direct memory
+     * and the file mappings stay alive until the buffers are garbage collected.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.closed = true;
+        this.chunks = new IntBuffer[0];
+        this.freed.clear();
+        if (this.channel != null) {
+            this.channel.close();
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    /**
+     * Gets the chunk of a handle.
+     *
+     * @param handle
+     *            the handle
+     *
+     * @return the chunk
+     */
+    private IntBuffer chunk(final long handle) {
+        final var current = this.chunks;
+        if (this.closed) {
+            throw new IllegalStateException("Coverage arena is closed");
+        }
+        return current[(int) (handle >>> 32)];
+    }
+
+    /**
+     * Appends chunks by publishing a copy of the chunk array.
+     *
+     * @param added
+     *            the added chunks
+     */
+    private void addChunks(final IntBuffer... added) {
+        final var current = this.chunks;
+        final var copy = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, copy, current.length, added.length);
+        this.chunks = copy;
+    }
+
+    /**
+     * Creates a chunk.
+     *
+     * @param slots
+     *            the number of slots
+     *
+     * @return the chunk
+     */
+    private IntBuffer createChunk(final int slots) {
+        final var bytes = (long) slots * Integer.BYTES;
+        final ByteBuffer buffer;
+        if (this.channel == null) {
+            buffer = ByteBuffer.allocateDirect((int) bytes);
+        } else {
+            try {
+                buffer = this.channel.map(MapMode.READ_WRITE, this.mapped, bytes);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Failed to map coverage arena " + this.file, e);
+            }
+            this.mapped += bytes;
+        }
+        return buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Creates a handle.
+     *
+     * @param chunk
+     *            the chunk index
+     * @param offset
+     *            the chunk offset
+     *
+     * @return the handle
+     */
+    private static long handle(final int chunk, final int offset) {
+        return (long) chunk << 32 | offset;
+    }
+}
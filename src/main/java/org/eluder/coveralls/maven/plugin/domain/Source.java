@@ -26,13 +26,19 @@ package org.eluder.coveralls.maven.plugin.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.eluder.coveralls.maven.plugin.json.HexSerializer;
+
 /**
  * The Class Source.
  */
@@ -48,15 +54,24 @@ public final class Source implements JsonObject {
     // /** The Constant CLASSIFIER_SEPARATOR. */
     // private static final String CLASSIFIER_SEPARATOR = "#";
 
-    /** The name. */
-    String name;
+    /** The interned name. */
+    SourcePath name;
 
-    /** The digest. */
-    String digest;
+    /** The binary digest, encoded to hex only when needed. */
+    byte[] digest;
 
-    /** The coverage. */
+    /** The coverage, null when the coverage is kept in an arena. */
     Integer[] coverage;
 
+    /** The number of lines. */
+    int lines;
+
+    /** The coverage arena, null when the coverage is kept on heap. */
+    transient CoverageArena arena;
+
+    /** The handle of the coverage in the arena. */
+    transient long handle;
+
     /** The branches. */
     List<Branch> branches;
 
@@ -71,12 +86,56 @@ public final class Source implements JsonObject {
      * @param source
      *            the source
      * @param digest
-     *            the digest
+     *            the digest in hex
      */
     public Source(final String name, final String source, final String digest) {
+        this(name, Source.getLines(source), Source.decodeDigest(digest), null);
+    }
+
+    /**
+     * Instantiates a new source.
+     *
+     * @param name
+     *            the name
+     * @param source
+     *            the source
+     * @param digest
+     *            the binary digest
+     */
+    public Source(final String name, final String source, final byte[] digest) {
+        this(SourcePath.of(name), Source.getLines(source), digest, null);
+    }
+
+    /**
+     * Instantiates a new source.
+     *
+     * @param name
+     *            the interned name
+     * @param source
+     *            the source
+     * @param digest
+     *            the binary digest
+     */
+    public Source(final SourcePath name, final String source, final byte[] digest) {
         this(name, Source.getLines(source), digest, null);
     }
 
+    /**
+     * Instantiates a new source with coverage kept in an arena.
+     *
+     * @param name
+     *            the interned name
+     * @param source
+     *            the source
+     * @param digest
+     *            the binary digest
+     * @param arena
+     *            the coverage arena, null to keep the coverage on heap
+     */
+    public Source(final SourcePath name, final String source, final byte[] digest, final CoverageArena arena) {
+        this(name, Source.getLines(source), digest, null, arena);
+    }
+
     /**
      * Instantiates a new source.
      *
@@ -85,14 +144,71 @@ public final class Source implements JsonObject {
      * @param lines
      *            the lines
      * @param digest
-     *            the digest
+     *            the digest in hex
      * @param classifier
      *            the classifier
      */
     public Source(final String name, final int lines, final String digest, final String classifier) {
+        this(name, lines, Source.decodeDigest(digest), classifier);
+    }
+
+    /**
+     * Instantiates a new source.
+     *
+     * @param name
+     *            the name
+     * @param lines
+     *            the lines
+     * @param digest
+     *            the binary digest
+     * @param classifier
+     *            the classifier
+     */
+    public Source(final String name, final int lines, final byte[] digest, final String classifier) {
+        this(SourcePath.of(name), lines, digest, classifier);
+    }
+
+    /**
+     * Instantiates a new source.
+     *
+     * @param name
+     *            the interned name
+     * @param lines
+     *            the lines
+     * @param digest
+     *            the binary digest
+     * @param classifier
+     *            the classifier
+     */
+    public Source(final SourcePath name, final int lines, final byte[] digest, final String classifier) {
+        this(name, lines, digest, classifier, null);
+    }
+
+    /**
+     * Instantiates a new source with coverage kept in an arena.
+     *
+     * @param name
+     *            the interned name
+     * @param lines
+     *            the lines
+     * @param digest
+     *            the binary digest
+     * @param classifier
+     *            the classifier
+     * @param arena
+     *            the coverage arena, null to keep the coverage on heap
+     */
+    public Source(final SourcePath name, final int lines, final byte[] digest, final String classifier,
+            final CoverageArena arena) {
         this.name = name;
         this.digest = digest;
-        this.coverage = new Integer[lines];
+        this.lines = lines;
+        this.arena = arena;
+        if (arena == null) {
+            this.coverage = new Integer[lines];
+        } else {
+            this.handle = arena.allocate(lines);
+        }
         this.classifier = classifier;
         this.branches = new ArrayList<>();
     }
@@ -104,6 +220,16 @@ public final class Source implements JsonObject {
      */
     @JsonIgnore
     public String getName() {
+        return this.name.toString();
+    }
+
+    /**
+     * Gets the interned name.
+     *
+     * @return the interned name
+     */
+    @JsonIgnore
+    public SourcePath getPath() {
         return this.name;
     }
 
@@ -114,7 +240,7 @@ public final class Source implements JsonObject {
      */
     @JsonProperty("name")
     public String getFullName() {
-        return this.name;
+        return this.name.toString();
 
         // XXX #45: cannot use identifier due to unfetchable source files
         // return (classifier == null ? name : name + CLASSIFIER_SEPARATOR + classifier);
@@ -123,21 +249,79 @@ public final class Source implements JsonObject {
     /**
      * Gets the digest.
      *
-     * @return the digest
+     * @return the digest in upper case hex
      */
-    @JsonProperty("source_digest")
+    @JsonIgnore
     public String getDigest() {
+        return this.digest == null ? null : Hex.encodeHexString(this.digest, false);
+    }
+
+    /**
+     * Gets the binary digest. The returned array is not copied and must not be modified.
+     *
+     * @return the binary digest
+     */
+    @JsonProperty("source_digest")
+    @JsonSerialize(using = HexSerializer.class)
+    public byte[] getDigestBytes() {
         return this.digest;
     }
 
     /**
-     * Gets the coverage.
+     * Gets the coverage. Coverage kept in an arena is copied to a new array.
      *
      * @return the coverage
      */
     @JsonProperty("coverage")
     public Integer[] getCoverage() {
-        return this.coverage;
+        if (this.arena == null) {
+            return this.coverage;
+        }
+        final var copy = new Integer[this.lines];
+        for (var i = 0; i < this.lines; i++) {
+            copy[i] = this.arena.get(this.handle, i);
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the coverage of a line without copying coverage kept in an arena.
+     *
+     * @param lineNumber
+     *            the line number
+     *
+     * @return the coverage, null if the line is not relevant
+     */
+    public Integer getCoverage(final int lineNumber) {
+        this.checkLineRange(lineNumber);
+        return this.coverageAt(lineNumber - 1);
+    }
+
+    /**
+     * Gets the coverage of a line without boxing, for counting the coverage in a single primitive pass.
+     *
+     * @param lineNumber
+     *            the line number
+     *
+     * @return the coverage, negative if the line is not relevant
+     */
+    public int getHits(final int lineNumber) {
+        this.checkLineRange(lineNumber);
+        if (this.arena != null) {
+            return this.arena.getHits(this.handle, lineNumber - 1);
+        }
+        final var hits = this.coverage[lineNumber - 1];
+        return hits == null ? -1 : hits;
+    }
+
+    /**
+     * Gets the number of lines.
+     *
+     * @return the lines
+     */
+    @JsonIgnore
+    public int getLines() {
+        return this.lines;
     }
 
     /**
@@ -194,7 +378,7 @@ public final class Source implements JsonObject {
      */
     private void checkLineRange(final int lineNumber) {
         final var index = lineNumber - 1;
-        if (index >= this.coverage.length) {
+        if (index >= this.lines) {
             throw new IllegalArgumentException(
                     "Line number " + lineNumber + " is greater than the source file " + this.name + " size");
         }
@@ -210,7 +394,35 @@ public final class Source implements JsonObject {
      */
     public void addCoverage(final int lineNumber, final Integer coverage) {
         this.checkLineRange(lineNumber);
-        this.coverage[lineNumber - 1] = coverage;
+        this.setCoverageAt(lineNumber - 1, coverage);
+    }
+
+    /**
+     * Gets the coverage at an index.
+     *
+     * @param index
+     *            the line index
+     *
+     * @return the coverage
+     */
+    private Integer coverageAt(final int index) {
+        return this.arena == null ? this.coverage[index] : this.arena.get(this.handle, index);
+    }
+
+    /**
+     * Sets the coverage at an index.
+     *
+     * @param index
+     *            the line index
+     * @param coverage
+     *            the coverage
+     */
+    private void setCoverageAt(final int index, final Integer coverage) {
+        if (this.arena == null) {
+            this.coverage[index] = coverage;
+        } else {
+            this.arena.set(this.handle, index, coverage);
+        }
     }
 
     /**
@@ -254,7 +466,7 @@ public final class Source implements JsonObject {
                     && b.getBranchNumber() == branchNumber) {
                 it.remove();
                 if (merge) {
-                    hitSum += b.getHits();
+                    hitSum = Source.addHits(hitSum, b.getHits());
                 }
             }
         }
@@ -270,14 +482,13 @@ public final class Source implements JsonObject {
      * @return the source
      */
     public Source merge(final Source source) {
-        final var copy = new Source(this.name, this.coverage.length, this.digest, this.classifier);
-        System.arraycopy(this.coverage, 0, copy.coverage, 0, this.coverage.length);
-        copy.branches.addAll(this.branches);
+        final var copy = this.copy(this.arena);
         if (copy.equals(source)) {
-            for (var i = 0; i < copy.coverage.length; i++) {
-                if (source.coverage[i] != null) {
-                    final var base = copy.coverage[i] != null ? copy.coverage[i] : 0;
-                    copy.coverage[i] = base + source.coverage[i];
+            for (var i = 0; i < copy.lines; i++) {
+                final var hits = source.coverageAt(i);
+                if (hits != null) {
+                    final var base = copy.coverageAt(i);
+                    copy.setCoverageAt(i, base != null ? Source.addHits(base, hits) : hits);
                 }
             }
             for (final Branch b : source.branches) {
@@ -287,19 +498,95 @@ public final class Source implements JsonObject {
         return copy;
     }
 
+    /**
+     * Releases the coverage kept in an arena for reuse by other sources. Coverage kept on heap is left to the garbage
+     * collector. The coverage of the source must not be accessed afterwards.
+     */
+    public void release() {
+        if (this.arena != null && this.handle >= 0) {
+            this.arena.free(this.handle, this.lines);
+            this.handle = -1;
+        }
+    }
+
+    /**
+     * Adds hit counts, saturating at {@link Integer#MAX_VALUE} so that merged hits never overflow to negative values
+     * that read as lines without coverage.
+     *
+     * @param hits
+     *            the hits
+     * @param added
+     *            the added hits
+     *
+     * @return the sum of the hits
+     */
+    public static int addHits(final int hits, final int added) {
+        return (int) Math.min((long) hits + added, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Copies the source.
+     *
+     * @param target
+     *            the coverage arena of the copy, null to keep the coverage on heap
+     *
+     * @return the copy
+     */
+    private Source copy(final CoverageArena target) {
+        final var copy = new Source(this.name, this.lines, this.digest, this.classifier, target);
+        if (this.arena == null && target == null) {
+            System.arraycopy(this.coverage, 0, copy.coverage, 0, this.lines);
+        } else {
+            for (var i = 0; i < this.lines; i++) {
+                copy.setCoverageAt(i, this.coverageAt(i));
+            }
+        }
+        copy.branches.addAll(this.branches);
+        return copy;
+    }
+
+    /**
+     * Serializes coverage kept in an arena on heap.
+     *
+     * @return the serialized source
+     */
+    private Object writeReplace() {
+        return this.arena == null ? this : this.copy(null);
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (!(obj instanceof Source)) {
             return false;
         }
         final var other = (Source) obj;
-        return Objects.equals(this.name, other.name) && Objects.equals(this.digest, other.digest)
-                && this.coverage.length == other.coverage.length;
+        // names are interned, so identity is equality
+        return this.name == other.name && Arrays.equals(this.digest, other.digest)
+                && this.lines == other.lines;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.name, this.digest, this.coverage.length);
+        return Objects.hash(this.name, Arrays.hashCode(this.digest), this.lines);
+    }
+
+    /**
+     * Decodes a hex digest.
+     *
+     * @param digest
+     *            the digest in hex
+     *
+     * @return the binary digest
+     */
+    private static byte[] decodeDigest(final String digest) {
+        if (digest == null) {
+            return null;
+        }
+        try {
+            return Hex.decodeHex(digest);
+        } catch (final DecoderException e) {
+            throw new IllegalArgumentException("Invalid source digest " + digest, e);
+        }
     }
 
     /**
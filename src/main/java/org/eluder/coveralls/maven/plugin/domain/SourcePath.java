@@ -0,0 +1,230 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.domain;
+
+import java.io.Serializable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interned source file path. Paths are stored as a trie of path segments, so the shared directory prefixes of source
+ * files are kept in memory only once. Each distinct path has exactly one canonical instance, which makes equality an
+ * identity check. The path string is materialized only when requested with {@link #toString()}.
+ * <p>
+ * Trie nodes are held weakly by their parents, so paths that are no longer referenced can be garbage collected. The
+ * entries of collected nodes are removed from their parents on the next lookup.
+ */
+public final class SourcePath implements Serializable {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The Constant SEPARATOR. */
+    private static final char SEPARATOR = '/';
+
+    /** The Constant ROOT. */
+    private static final SourcePath ROOT = new SourcePath(null, "");
+
+    /** The Constant COLLECTED, receives the references of garbage collected nodes. */
+    private static final ReferenceQueue<SourcePath> COLLECTED = new ReferenceQueue<>();
+
+    /** The parent, null only for the root. */
+    private final SourcePath parent;
+
+    /** The segment. */
+    private final String segment;
+
+    /** The children, created on first use. */
+    private transient Map<String, ChildReference> children;
+
+    /**
+     * Instantiates a new source path.
+     *
+     * @param parent
+     *            the parent
+     * @param segment
+     *            the segment
+     */
+    private SourcePath(final SourcePath parent, final String segment) {
+        this.parent = parent;
+        this.segment = segment;
+    }
+
+    /**
+     * Gets the canonical instance of a path.
+     *
+     * @param path
+     *            the path with '/' separated segments
+     *
+     * @return the interned path
+     */
+    public static SourcePath of(final String path) {
+        return SourcePath.ROOT.resolve(path);
+    }
+
+    /**
+     * Resolves a relative path against this path.
+     *
+     * @param relative
+     *            the relative path with '/' separated segments
+     *
+     * @return the interned path
+     */
+    public SourcePath resolve(final String relative) {
+        var node = this;
+        var start = 0;
+        var end = relative.indexOf(SourcePath.SEPARATOR);
+        while (end >= 0) {
+            node = node.child(relative.substring(start, end));
+            start = end + 1;
+            end = relative.indexOf(SourcePath.SEPARATOR, start);
+        }
+        return node.child(start == 0 ? relative : relative.substring(start));
+    }
+
+    /**
+     * Gets the parent path.
+     *
+     * @return the parent, or null for a top level path
+     */
+    public SourcePath getParent() {
+        return this.parent == SourcePath.ROOT ? null : this.parent;
+    }
+
+    /**
+     * Gets the last segment of the path.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return this.segment;
+    }
+
+    /**
+     * Gets the canonical child.
+     *
+     * @param name
+     *            the segment name
+     *
+     * @return the child
+     */
+    private SourcePath child(final String name) {
+        SourcePath.expungeCollected();
+        synchronized (this) {
+            if (this.children == null) {
+                this.children = new HashMap<>(4);
+            }
+            final var reference = this.children.get(name);
+            var child = reference == null ? null : reference.get();
+            if (child == null) {
+                child = new SourcePath(this, name);
+                this.children.put(child.segment, new ChildReference(child));
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Removes the entries of garbage collected nodes from their parents. Called without holding a node lock, so the
+     * parents can be locked in any order.
+     */
+    private static void expungeCollected() {
+        ChildReference reference;
+        while ((reference = (ChildReference) SourcePath.COLLECTED.poll()) != null) {
+            reference.expunge();
+        }
+    }
+
+    /**
+     * Materializes the path.
+     *
+     * @return the path with '/' separated segments
+     */
+    @Override
+    public String toString() {
+        if (this.parent == null) {
+            return "";
+        }
+        var length = this.segment.length();
+        for (var node = this.parent; node.parent != null; node = node.parent) {
+            length += node.segment.length() + 1;
+        }
+        final var chars = new char[length];
+        var end = length;
+        for (var node = this; node.parent != null; node = node.parent) {
+            final var start = end - node.segment.length();
+            node.segment.getChars(0, node.segment.length(), chars, start);
+            if (start > 0) {
+                chars[start - 1] = SourcePath.SEPARATOR;
+            }
+            end = start - 1;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Keeps deserialized paths canonical.
+     *
+     * @return the interned path
+     */
+    private Object readResolve() {
+        return this.parent == null ? SourcePath.ROOT : this.parent.child(this.segment);
+    }
+
+    /**
+     * Weak reference from a parent to a child node.
+     */
+    private static final class ChildReference extends WeakReference<SourcePath> {
+
+        /** The parent. */
+        private final SourcePath parent;
+
+        /** The segment. */
+        private final String segment;
+
+        /**
+         * Instantiates a new child reference.
+         *
+         * @param child
+         *            the child
+         */
+        ChildReference(final SourcePath child) {
+            super(child, SourcePath.COLLECTED);
+            this.parent = child.parent;
+            this.segment = child.segment;
+        }
+
+        /**
+         * Removes this reference from the parent, unless the child has already been recreated.
+         */
+        void expunge() {
+            synchronized (this.parent) {
+                this.parent.children.remove(this.segment, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that limits the upload bandwidth. The bucket holds up to a burst of bytes and is refilled at the
+ * configured rate. Uploads that take more bytes than available go into debt and are delayed until the debt is repaid,
+ * so the limit is shared by all uploads of the client, including concurrent shard uploads and retries.
+ */
+public final class BandwidthLimiter {
+
+    /** The Constant NANOS_PER_SECOND. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /** The Constant KIB. */
+    private static final double KIB = 1024d;
+
+    /** The bytes per second. */
+    private final long bytesPerSecond;
+
+    /** The burst in bytes. */
+    private final long burst;
+
+    /** The clock in nanos. */
+    private final LongSupplier clock;
+
+    /** The available bytes, negative when in debt. */
+    private double tokens;
+
+    /** The time of the last refill. */
+    private long refilled;
+
+    /** The time when the debt is repaid. */
+    private long deadline;
+
+    /** The uploaded bytes. */
+    private long bytes;
+
+    /** The time uploads were delayed. */
+    private long throttled;
+
+    /**
+     * Instantiates a new bandwidth limiter.
+     *
+     * @param bytesPerSecond
+     *            the max upload rate in bytes per second
+     * @param burst
+     *            the bytes that can be uploaded at once after the upload was idle
+     */
+    public BandwidthLimiter(final long bytesPerSecond, final long burst) {
+        this(bytesPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * Instantiates a new bandwidth limiter.
+     *
+     * @param bytesPerSecond
+     *            the max upload rate in bytes per second
+     * @param burst
+     *            the bytes that can be uploaded at once after the upload was idle
+     * @param clock
+     *            the clock in nanos
+     */
+    BandwidthLimiter(final long bytesPerSecond, final long burst, final LongSupplier clock) {
+        if (bytesPerSecond < 1) {
+            throw new IllegalArgumentException("bytesPerSecond must be at least 1");
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("burst must not be negative");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.burst = burst;
+        this.clock = clock;
+        this.tokens = burst;
+        this.refilled = clock.getAsLong();
+        this.deadline = this.refilled;
+    }
+
+    /**
+     * Creates a limiter from the plugin configuration.
+     *
+     * @param bytesPerSecond
+     *            the max upload rate in bytes per second, zero or less if uploads are not limited
+     * @param burst
+     *            the burst in bytes, zero or less for one second of the upload rate
+     *
+     * @return the bandwidth limiter, or null if uploads are not limited
+     */
+    public static BandwidthLimiter of(final long bytesPerSecond, final long burst) {
+        if (bytesPerSecond <= 0) {
+            return null;
+        }
+        return new BandwidthLimiter(bytesPerSecond, burst > 0 ? burst : bytesPerSecond);
+    }
+
+    /**
+     * Gets the bytes per second.
+     *
+     * @return the max upload rate in bytes per second
+     */
+    public long getBytesPerSecond() {
+        return this.bytesPerSecond;
+    }
+
+    /**
+     * Gets the burst.
+     *
+     * @return the burst in bytes
+     */
+    public long getBurst() {
+        return this.burst;
+    }
+
+    /**
+     * Gets the uploaded bytes.
+     *
+     * @return the bytes uploaded through the limiter
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gets the throttled time.
+     *
+     * @return the wall clock time uploads were delayed by the limit
+     */
+    public synchronized Duration getThrottledTime() {
+        return Duration.ofNanos(this.throttled);
+    }
+
+    /**
+     * Summarizes the uploads for the submission log.
+     *
+     * @param elapsed
+     *            the wall clock time of the uploads
+     *
+     * @return the uploaded size, the achieved throughput and the time uploads were delayed
+     */
+    public String summarize(final Duration elapsed) {
+        final var millis = Math.max(1, elapsed.toMillis());
+        final var size = this.getBytes();
+        return String.format(Locale.ROOT, "Uploaded %.1f KiB in %dms at %.1f KiB/s, throttled for %dms by the limit of"
+                + " %.1f KiB/s", size / BandwidthLimiter.KIB, millis, size * 1000d / millis / BandwidthLimiter.KIB,
+                this.getThrottledTime().toMillis(), this.bytesPerSecond / BandwidthLimiter.KIB);
+    }
+
+    /**
+     * Takes bytes from the bucket.
+     *
+     * @param size
+     *            the number of bytes to upload
+     *
+     * @return the time in nanos when the bytes may be uploaded
+     */
+    synchronized long reserve(final int size) {
+        final var now = this.clock.getAsLong();
+        this.tokens = Math.min(this.burst,
+                this.tokens + (now - this.refilled) * this.bytesPerSecond / BandwidthLimiter.NANOS_PER_SECOND);
+        this.refilled = now;
+        this.tokens -= size;
+        this.bytes += size;
+        if (this.tokens >= 0) {
+            return now;
+        }
+        final var repaid = now + (long) (-this.tokens * BandwidthLimiter.NANOS_PER_SECOND / this.bytesPerSecond);
+        // only count the delay that does not overlap with the delay of earlier uploads
+        this.throttled += Math.max(0, repaid - Math.max(now, this.deadline));
+        this.deadline = repaid;
+        return repaid;
+    }
+}
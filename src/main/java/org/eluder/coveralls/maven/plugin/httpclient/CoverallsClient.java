@@ -24,26 +24,46 @@
  */
 package org.eluder.coveralls.maven.plugin.httpclient;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.ConnectException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.Provider;
 import java.security.Security;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+import org.eluder.coveralls.maven.plugin.jfr.SubmissionEvent;
 
 /**
  * The Class CoverallsClient.
@@ -61,21 +81,53 @@ public class CoverallsClient {
     /** The Constant DEFAULT_SOCKET_TIMEOUT. */
     private static final Duration DEFAULT_SOCKET_TIMEOUT = Duration.ofSeconds(60);
 
+    /** The Constant STREAMING_TIMEOUT. */
+    private static final Duration STREAMING_TIMEOUT = Duration.ofMinutes(30);
+
     /** The Constant FILE_NAME. */
     private static final String FILE_NAME = "coveralls.json";
 
+    /** The Constant COMPRESSED_FILE_NAME. */
+    private static final String COMPRESSED_FILE_NAME = "coveralls.json.gz";
+
+    /** The Constant CONTENT_TYPE. */
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    /** The Constant COMPRESSED_CONTENT_TYPE, as used by the Coveralls reporters for gzipped job files. */
+    private static final String COMPRESSED_CONTENT_TYPE = "gzip/json";
+
+    /** The Constant WEBHOOK_PATH. */
+    private static final String WEBHOOK_PATH = "/webhook";
+
     /** The Constant USER_AGENT_STRING. */
     private static final String USER_AGENT_STRING = "coveralls-maven-plugin";
 
     /** The coveralls url. */
     private final String coverallsUrl;
 
-    /** The http client. */
-    private final HttpClient httpClient;
+    /** The http client factory. */
+    private final Supplier<HttpClient> httpClientFactory;
+
+    /** The http client, created on first use. */
+    private volatile HttpClient httpClient;
 
     /** The object mapper. */
     private final ObjectMapper objectMapper;
 
+    /** The preferred HTTP version of the requests. */
+    private final HttpClient.Version httpVersion;
+
+    /** The retry policy. */
+    private RetryPolicy retryPolicy = RetryPolicy.none();
+
+    /** The bandwidth limiter, null if uploads are not limited. */
+    private BandwidthLimiter bandwidthLimiter;
+
+    /** The listener notified with the timings of each request. */
+    private Consumer<TransferTimings> transferListener = timings -> {
+        // not recorded
+    };
+
     /**
      * Instantiates a new Coveralls Client.
      *
@@ -87,7 +139,7 @@ public class CoverallsClient {
      *            </pre>
      */
     public CoverallsClient(final String coverallsUrl) {
-        this(coverallsUrl, new HttpClientFactory(coverallsUrl).create(), new ObjectMapper());
+        this(coverallsUrl, () -> new HttpClientFactory(coverallsUrl).create(), new ObjectMapper());
     }
 
     /**
@@ -106,16 +158,132 @@ public class CoverallsClient {
      *            A Jackson {@link ObjectMapper}
      */
     public CoverallsClient(final String coverallsUrl, final HttpClient httpClient, final ObjectMapper objectMapper) {
+        this(coverallsUrl, () -> httpClient, objectMapper);
+    }
+
+    /**
+     * Instantiates a new Coveralls Client that creates the {@link HttpClient} when it is first needed.
+     *
+     * @param coverallsUrl
+     *            The base url for the Coveralls API
+     * @param httpClientFactory
+     *            the factory of the {@link HttpClient}
+     * @param objectMapper
+     *            A Jackson {@link ObjectMapper}
+     */
+    CoverallsClient(final String coverallsUrl, final Supplier<HttpClient> httpClientFactory,
+            final ObjectMapper objectMapper) {
+        this(coverallsUrl, httpClientFactory, objectMapper, HttpClient.Version.HTTP_1_1);
+    }
+
+    /**
+     * Instantiates a new Coveralls Client that creates the {@link HttpClient} when it is first needed. With HTTP/2 the
+     * concurrent shard uploads, retries and webhook calls share one connection when the server supports it, and fall
+     * back to HTTP/1.1 when it does not.
+     *
+     * @param coverallsUrl
+     *            The base url for the Coveralls API
+     * @param httpClientFactory
+     *            the factory of the {@link HttpClient}
+     * @param objectMapper
+     *            A Jackson {@link ObjectMapper}
+     * @param httpVersion
+     *            the preferred HTTP version of the requests
+     */
+    CoverallsClient(final String coverallsUrl, final Supplier<HttpClient> httpClientFactory,
+            final ObjectMapper objectMapper, final HttpClient.Version httpVersion) {
         this.coverallsUrl = coverallsUrl;
-        this.httpClient = httpClient;
+        this.httpClientFactory = httpClientFactory;
         this.objectMapper = objectMapper;
+        this.httpVersion = httpVersion;
+    }
+
+    /**
+     * Gets the http version.
+     *
+     * @return the preferred HTTP version of the requests
+     */
+    public HttpClient.Version getHttpVersion() {
+        return this.httpVersion;
+    }
+
+    /**
+     * With retry policy.
+     *
+     * @param retryPolicy
+     *            the policy for retrying submissions that fail temporarily
+     *
+     * @return the coveralls client
+     */
+    public CoverallsClient withRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Gets the retry policy.
+     *
+     * @return the retry policy
+     */
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * With bandwidth limiter.
+     *
+     * @param bandwidthLimiter
+     *            the limiter of the upload bandwidth shared by all submissions, or null if uploads are not limited
+     *
+     * @return the coveralls client
+     */
+    public CoverallsClient withBandwidthLimiter(final BandwidthLimiter bandwidthLimiter) {
+        this.bandwidthLimiter = bandwidthLimiter;
+        return this;
+    }
+
+    /**
+     * Gets the bandwidth limiter.
+     *
+     * @return the bandwidth limiter, or null if uploads are not limited
+     */
+    public BandwidthLimiter getBandwidthLimiter() {
+        return this.bandwidthLimiter;
+    }
+
+    /**
+     * With transfer listener.
+     *
+     * @param transferListener
+     *            the listener notified with the timings of each request, including retried attempts
+     *
+     * @return the coveralls client
+     */
+    public CoverallsClient withTransferListener(final Consumer<TransferTimings> transferListener) {
+        this.transferListener = transferListener;
+        return this;
+    }
+
+    /**
+     * Opens a connection to the API in the background, so that the DNS lookup, proxy tunnel and TLS handshake are done
+     * before the data is submitted. The connection is made with a {@code HEAD} request whose response is discarded.
+     *
+     * @return the future that completes when the connection is ready
+     */
+    public CompletableFuture<Void> preconnect() {
+        final var request = HttpRequest.newBuilder().version(this.httpVersion)
+                .uri(URI.create(this.coverallsUrl)).timeout(CoverallsClient.DEFAULT_SOCKET_TIMEOUT)
+                .header("User-Agent", CoverallsClient.USER_AGENT_STRING)
+                .method("HEAD", BodyPublishers.noBody()).build();
+        return this.getHttpClient().sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> null);
     }
 
     /**
      * Submit a coveralls json file to the API.
      *
      * @param file
-     *            A coveralls report that can be submitted to the jobs API
+     *            A coveralls report that can be submitted to the jobs API, gzipped reports are uploaded compressed
      *
      * @return An API response body deserialized to a {@link CoverallsResponse}
      *
@@ -127,32 +295,347 @@ public class CoverallsClient {
      *             the interrupted exception
      */
     public CoverallsResponse submit(final File file) throws ProcessingException, IOException, InterruptedException {
-        final var filePath = file.toPath();
+        return this.submit(file, this.retryPolicy.start());
+    }
 
+    /**
+     * Submit a coveralls json file to the API, retrying while the retry state allows.
+     *
+     * @param file
+     *            A coveralls report that can be submitted to the jobs API, gzipped reports are uploaded compressed
+     * @param retry
+     *            the retry state
+     *
+     * @return An API response body deserialized to a {@link CoverallsResponse}
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    CoverallsResponse submit(final File file, final RetryPolicy.Retry retry)
+            throws ProcessingException, IOException, InterruptedException {
         // Generate a unique boundary
         final String boundary = "----CoverallsBoundary" + System.currentTimeMillis();
-        final String CRLF = "\r\n";
-
-        // Build multipart body
-        final var byteStream = new ByteArrayOutputStream();
-        byteStream.write(("--" + boundary + CRLF).getBytes(StandardCharsets.UTF_8));
-        byteStream.write(("Content-Disposition: form-data; name=\"json_file\"; filename=\"" + FILE_NAME + "\"" + CRLF)
-                .getBytes(StandardCharsets.UTF_8));
-        byteStream
-                .write(("Content-Type: application/json;charset=UTF-8" + CRLF + CRLF).getBytes(StandardCharsets.UTF_8));
-        byteStream.write(Files.readAllBytes(filePath));
-        byteStream.write((CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.UTF_8));
-        final byte[] multipartBody = byteStream.toByteArray();
-
-        final var request = HttpRequest.newBuilder().version(HttpClient.Version.HTTP_1_1)
-                .uri(URI.create(this.coverallsUrl)).timeout(CoverallsClient.DEFAULT_SOCKET_TIMEOUT)
-                .header("User-Agent", CoverallsClient.USER_AGENT_STRING)
-                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody)).build();
 
-        final HttpResponse<InputStream> response = this.httpClient.send(request,
-                HttpResponse.BodyHandlers.ofInputStream());
-        return this.parseResponse(response);
+        // Stream the multipart body from the file instead of buffering it
+        final var compressed = CoverallsClient.isCompressed(file);
+        final var multipartBody = new MultipartBodyPublisher(boundary, "json_file",
+                compressed ? CoverallsClient.COMPRESSED_FILE_NAME : CoverallsClient.FILE_NAME,
+                compressed ? CoverallsClient.COMPRESSED_CONTENT_TYPE : CoverallsClient.CONTENT_TYPE, file.toPath());
+
+        // the file body is re-publishable, so the same request is sent again on retries
+        final var body = this.createBody(multipartBody);
+        final var request = this.createRequest(boundary, body, CoverallsClient.DEFAULT_SOCKET_TIMEOUT);
+        return this.parseResponse(this.send(request, body, retry));
+    }
+
+    /**
+     * Submit the shards of a parallel build concurrently. Each shard is retried according to the retry policy, the
+     * first failure cancels the shards that are still queued and interrupts the uploads that are still running.
+     *
+     * @param files
+     *            the coveralls reports of the shards
+     * @param concurrency
+     *            the max number of concurrent uploads
+     *
+     * @return the API responses in the order of the files
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    public List<CoverallsResponse> submit(final List<File> files, final int concurrency)
+            throws ProcessingException, IOException, InterruptedException {
+        final var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, files.size())));
+        try {
+            // results are taken in completion order, so that a failure is seen while other shards are pending
+            final var completion = new ExecutorCompletionService<CoverallsResponse>(executor);
+            final Map<Future<CoverallsResponse>, Integer> indexes = new HashMap<>();
+            final var failed = new AtomicBoolean();
+            final var skipped = new CancellationException("Upload cancelled after a failed shard");
+            for (var i = 0; i < files.size(); i++) {
+                final var file = files.get(i);
+                indexes.put(completion.submit(() -> {
+                    // a worker freed by a failed shard must not start the next one before the executor is shut down
+                    if (failed.get()) {
+                        throw skipped;
+                    }
+                    try {
+                        return this.submit(file);
+                    } catch (final Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }), i);
+            }
+            final var responses = new CoverallsResponse[files.size()];
+            for (var i = 0; i < files.size(); i++) {
+                final var result = completion.take();
+                try {
+                    responses[indexes.get(result)] = result.get();
+                } catch (final CancellationException e) {
+                    // cancelled after the failure of another shard, which is taken later
+                } catch (final ExecutionException e) {
+                    // a skipped shard can complete before the failed shard that skipped it is taken
+                    if (e.getCause() != skipped) {
+                        throw e;
+                    }
+                }
+            }
+            return Arrays.asList(responses);
+        } catch (final ExecutionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw (ProcessingException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new ProcessingException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Closes a parallel build with the Coveralls webhook, so that the coverage of its jobs is combined.
+     *
+     * @param repoToken
+     *            the repository token, may be null for services that are identified without one
+     * @param buildNumber
+     *            the service build number shared by the jobs of the build
+     *
+     * @return An API response body deserialized to a {@link CoverallsResponse}
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    public CoverallsResponse finish(final String repoToken, final String buildNumber)
+            throws ProcessingException, IOException, InterruptedException {
+        final var query = repoToken == null ? ""
+                : "?repo_token=" + URLEncoder.encode(repoToken, StandardCharsets.UTF_8);
+        final var payload = this.objectMapper
+                .writeValueAsBytes(Map.of("payload", Map.of("build_num", buildNumber, "status", "done")));
+        final var body = this.createBody(BodyPublishers.ofByteArray(payload));
+        final var request = HttpRequest.newBuilder().version(this.httpVersion)
+                .uri(URI.create(this.coverallsUrl).resolve(CoverallsClient.WEBHOOK_PATH + query))
+                .timeout(CoverallsClient.DEFAULT_SOCKET_TIMEOUT).header("User-Agent", CoverallsClient.USER_AGENT_STRING)
+                .header("Content-Type", "application/json").POST(body).build();
+        final var response = this.send(request, body, this.retryPolicy.start());
+        this.checkAvailable(response);
+        try (var in = response.body()) {
+            // the webhook reports errors as text instead of a flag
+            final var tree = this.objectMapper.readTree(in);
+            final var error = tree.path("error");
+            final var failed = error.asBoolean() || error.isTextual() && !error.asText().isBlank();
+            if (failed || response.statusCode() >= 400) {
+                final var message = error.isTextual() ? error.asText() : tree.path("message").asText(null);
+                throw new ProcessingException(this.getResponseErrorMessage(response, message));
+            }
+            return new CoverallsResponse(tree.path("message").asText("parallel build " + buildNumber), false,
+                    tree.path("url").asText(null));
+        } catch (final JsonProcessingException e) {
+            throw new ProcessingException(this.getResponseErrorMessage(response, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Checks if a failed request is known not to have reached the API. Submissions create a job and are not
+     * idempotent, so I/O errors are retried only when the connection failed or the body was not sent, and not e.g.
+     * on a read timeout after the whole body was sent.
+     *
+     * @param failure
+     *            the failure
+     * @param bodySent
+     *            whether the HTTP client started to send the body
+     *
+     * @return true, if the request can be sent again without creating a duplicate job
+     */
+    static boolean isUndelivered(final IOException failure, final boolean bodySent) {
+        return !bodySent || failure instanceof ConnectException || failure instanceof HttpConnectTimeoutException;
+    }
+
+    /**
+     * Sends a request, retrying while the retry state allows.
+     *
+     * @param request
+     *            the request with a re-publishable body
+     * @param body
+     *            the timed body of the request
+     * @param retry
+     *            the retry state
+     *
+     * @return the response that is not retried
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    private HttpResponse<InputStream> send(final HttpRequest request, final TimedBodyPublisher body,
+            final RetryPolicy.Retry retry) throws IOException, InterruptedException {
+        while (true) {
+            final HttpResponse<InputStream> response;
+            final var event = new SubmissionEvent();
+            event.begin();
+            body.start();
+            try {
+                response = this.getHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+                this.complete(request, event, body.stop(response.statusCode()));
+            } catch (final IOException e) {
+                this.complete(request, event, body.stop(0));
+                if (CoverallsClient.isUndelivered(e, body.isSubscribed()) && retry.await(null)) {
+                    continue;
+                }
+                throw e;
+            }
+            if (!this.retryPolicy.isRetryable(response.statusCode()) || !retry.await(response)) {
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Starts a streaming upload of coveralls json data to the API. The request body is sent with chunked transfer
+     * encoding while the data is written to {@link CoverallsUpload#getOutputStream()}.
+     *
+     * @param compressed
+     *            whether the written data is gzipped
+     *
+     * @return the upload
+     */
+    public CoverallsUpload upload(final boolean compressed) {
+        return this.upload(compressed, null);
+    }
+
+    /**
+     * Starts a streaming upload of coveralls json data to the API. A streamed body cannot be sent again, so failed
+     * uploads are retried by submitting the replay file once the data has been written to it.
+     *
+     * @param compressed
+     *            whether the written data is gzipped
+     * @param replayFile
+     *            the file that receives a copy of the written data, or null if failed uploads are not retried
+     *
+     * @return the upload
+     */
+    public CoverallsUpload upload(final boolean compressed, final File replayFile) {
+        final String boundary = "----CoverallsBoundary" + System.currentTimeMillis();
+        final var body = new StreamingBody(boundary, "json_file",
+                compressed ? CoverallsClient.COMPRESSED_FILE_NAME : CoverallsClient.FILE_NAME,
+                compressed ? CoverallsClient.COMPRESSED_CONTENT_TYPE : CoverallsClient.CONTENT_TYPE);
+        // the timeout covers the whole upload, which now includes generating the data
+        final var timed = this.createBody(BodyPublishers.ofInputStream(body::open));
+        final var request = this.createRequest(boundary, timed, CoverallsClient.STREAMING_TIMEOUT);
+        final var event = new SubmissionEvent();
+        event.begin();
+        timed.start();
+        final var response = this.getHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .whenComplete((result, failure) -> this.complete(request, event,
+                        timed.stop(result == null ? 0 : result.statusCode())));
+        return new CoverallsUpload(this, body, replayFile, response);
+    }
+
+    /**
+     * Completes a request by notifying the transfer listener and committing the flight recorder event if it is
+     * enabled in a recording.
+     *
+     * @param request
+     *            the request
+     * @param event
+     *            the flight recorder event that began with the request
+     * @param timings
+     *            the timings of the request
+     */
+    private void complete(final HttpRequest request, final SubmissionEvent event, final TransferTimings timings) {
+        this.transferListener.accept(timings);
+        if (event.shouldCommit()) {
+            event.setUrl(request.uri().toString());
+            event.setStatusCode(timings.getStatusCode());
+            event.setBytes(timings.getBytes());
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the http client, creating it on first use.
+     *
+     * @return the http client
+     */
+    private HttpClient getHttpClient() {
+        var client = this.httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = this.httpClient;
+                if (client == null) {
+                    client = this.httpClientFactory.get();
+                    this.httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Creates the timed request body, throttled if uploads are limited.
+     *
+     * @param body
+     *            the request body
+     *
+     * @return the timed request body
+     */
+    private TimedBodyPublisher createBody(final BodyPublisher body) {
+        final var limiter = this.bandwidthLimiter;
+        return new TimedBodyPublisher(limiter == null ? body : new ThrottledBodyPublisher(body, limiter));
+    }
+
+    /**
+     * Creates the multipart request.
+     *
+     * @param boundary
+     *            the multipart boundary
+     * @param body
+     *            the multipart body
+     * @param timeout
+     *            the request timeout
+     *
+     * @return the request
+     */
+    private HttpRequest createRequest(final String boundary, final BodyPublisher body, final Duration timeout) {
+        return HttpRequest.newBuilder().version(this.httpVersion).uri(URI.create(this.coverallsUrl))
+                .timeout(timeout).header("User-Agent", CoverallsClient.USER_AGENT_STRING)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary).POST(body).build();
+    }
+
+    /**
+     * Checks if a file is gzipped.
+     *
+     * @param file
+     *            the file
+     *
+     * @return true, if the file starts with the gzip magic bytes
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static boolean isCompressed(final File file) throws IOException {
+        try (var in = Files.newInputStream(file.toPath())) {
+            final var magic = in.readNBytes(2);
+            return magic.length == 2 && (magic[0] & 0xff | (magic[1] & 0xff) << 8) == GZIPInputStream.GZIP_MAGIC;
+        }
     }
 
     /**
@@ -168,11 +651,9 @@ public class CoverallsClient {
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private CoverallsResponse parseResponse(final HttpResponse<InputStream> response)
+    CoverallsResponse parseResponse(final HttpResponse<InputStream> response)
             throws ProcessingException, IOException {
-        if (response.statusCode() >= 500) {
-            throw new IOException(this.getResponseErrorMessage(response, "Coveralls API internal error"));
-        }
+        this.checkAvailable(response);
 
         try (var reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
             final var cr = this.objectMapper.readValue(reader, CoverallsResponse.class);
@@ -185,6 +666,25 @@ public class CoverallsClient {
         }
     }
 
+    /**
+     * Checks that the response is not a server error or a temporary condition whose retries ran out. These fail with an
+     * I/O exception like connection errors, so that they are not mistaken for a rejection of the data.
+     *
+     * @param response
+     *            the response
+     *
+     * @throws IOException
+     *             if the API is not available
+     */
+    private void checkAvailable(final HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() >= 500) {
+            throw new IOException(this.getResponseErrorMessage(response, "Coveralls API internal error"));
+        }
+        if (this.retryPolicy.isRetryable(response.statusCode())) {
+            throw new IOException(this.getResponseErrorMessage(response, "Coveralls API temporarily unavailable"));
+        }
+    }
+
     /**
      * Gets the response error message.
      *
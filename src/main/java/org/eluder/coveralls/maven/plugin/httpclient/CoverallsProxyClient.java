@@ -26,6 +26,8 @@ package org.eluder.coveralls.maven.plugin.httpclient;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.net.http.HttpClient;
+
 import org.apache.maven.settings.Proxy;
 
 /**
@@ -42,7 +44,22 @@ public class CoverallsProxyClient extends CoverallsClient {
      *            the proxy
      */
     public CoverallsProxyClient(final String coverallsUrl, final Proxy proxy) {
-        super(coverallsUrl, new HttpClientFactory(coverallsUrl).proxy(proxy).create(), new ObjectMapper());
+        this(coverallsUrl, proxy, HttpClient.Version.HTTP_1_1);
+    }
+
+    /**
+     * Instantiates a new coveralls proxy client.
+     *
+     * @param coverallsUrl
+     *            the coveralls url. Eg: <a href="https://coveralls.io/api/v1/jobs">https://coveralls.io/api/v1/jobs</a>
+     * @param proxy
+     *            the proxy
+     * @param httpVersion
+     *            the preferred HTTP version, HTTP/2 falls back to HTTP/1.1 if the server does not support it
+     */
+    public CoverallsProxyClient(final String coverallsUrl, final Proxy proxy, final HttpClient.Version httpVersion) {
+        super(coverallsUrl, () -> new HttpClientFactory(coverallsUrl).version(httpVersion).proxy(proxy).create(),
+                new ObjectMapper(), httpVersion);
     }
 
 }
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+
+/**
+ * Upload of Coveralls data that is streamed to the API while it is written. The request is sent when the upload is
+ * started and the data written to {@link #getOutputStream()} is uploaded as it is produced. Closing the output stream
+ * completes the request body. When a replay file is given, an upload that fails temporarily is retried by
+ * submitting the file according to the client's {@link RetryPolicy}.
+ */
+public class CoverallsUpload {
+
+    /** The client. */
+    private final CoverallsClient client;
+
+    /** The body. */
+    private final StreamingBody body;
+
+    /** The replay file. */
+    private final File replayFile;
+
+    /** The response. */
+    private final CompletableFuture<HttpResponse<InputStream>> response;
+
+    /**
+     * Instantiates a new coveralls upload.
+     *
+     * @param client
+     *            the client
+     * @param body
+     *            the streaming body
+     * @param replayFile
+     *            the file that receives a copy of the data, or null
+     * @param response
+     *            the pending response
+     */
+    CoverallsUpload(final CoverallsClient client, final StreamingBody body, final File replayFile,
+            final CompletableFuture<HttpResponse<InputStream>> response) {
+        this.client = client;
+        this.body = body;
+        this.replayFile = replayFile;
+        this.response = response;
+        // an early response, e.g. an error, must not leave the writer waiting for the upload
+        response.whenComplete((result, failure) -> {
+            if (replayFile != null) {
+                // the copy is still needed for a retry
+                body.discard();
+            } else {
+                body.abort(failure != null ? failure
+                        : new IOException("Coveralls API responded with HTTP status " + result.statusCode()
+                                + " before the upload was complete"));
+            }
+        });
+    }
+
+    /**
+     * Gets the output stream for the Coveralls data.
+     *
+     * @return the output stream
+     */
+    public OutputStream getOutputStream() {
+        return this.body.getOutputStream();
+    }
+
+    /**
+     * Waits for the API response after the output stream is closed.
+     *
+     * @return An API response body deserialized to a {@link CoverallsResponse}
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    public CoverallsResponse getResponse() throws ProcessingException, IOException, InterruptedException {
+        final var retry = this.client.getRetryPolicy().start();
+        final HttpResponse<InputStream> result;
+        try {
+            result = this.response.get();
+        } catch (final CancellationException e) {
+            throw new IOException("Streaming upload of Coveralls data was aborted", e);
+        } catch (final ExecutionException e) {
+            final var failure = e.getCause() instanceof IOException ? (IOException) e.getCause()
+                    : new IOException("Streaming upload of Coveralls data failed", e.getCause());
+            // the streamed body is sent from the start, so only connection failures are known not to create a job
+            if (this.isReplayable() && CoverallsClient.isUndelivered(failure, true) && retry.await(null)) {
+                return this.client.submit(this.replayFile, retry);
+            }
+            throw failure;
+        }
+        if (this.isReplayable() && this.client.getRetryPolicy().isRetryable(result.statusCode())
+                && retry.await(result)) {
+            return this.client.submit(this.replayFile, retry);
+        }
+        return this.client.parseResponse(result);
+    }
+
+    /**
+     * Checks if the upload can be retried from the replay file.
+     *
+     * @return true, if the replay file holds the complete data
+     */
+    private boolean isReplayable() {
+        return this.replayFile != null && this.body.isComplete() && this.replayFile.isFile();
+    }
+
+    /**
+     * Aborts the upload, e.g. when writing the Coveralls data fails.
+     *
+     * @param cause
+     *            the cause
+     */
+    public void abort(final Throwable cause) {
+        this.body.abort(cause);
+        this.response.cancel(true);
+    }
+}
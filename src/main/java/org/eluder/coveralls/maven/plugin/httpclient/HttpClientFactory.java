@@ -61,6 +61,19 @@ class HttpClientFactory {
         this.targetUrl = targetUrl;
     }
 
+    /**
+     * Version.
+     *
+     * @param version
+     *            the preferred HTTP version, HTTP/2 falls back to HTTP/1.1 if the server does not support it
+     *
+     * @return the http client factory
+     */
+    public HttpClientFactory version(final HttpClient.Version version) {
+        this.hcb.version(version);
+        return this;
+    }
+
     /**
      * Proxy.
      *
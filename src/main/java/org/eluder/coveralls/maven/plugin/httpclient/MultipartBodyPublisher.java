@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multipart form data body publisher with a single file part. The multipart header and trailer are kept in memory and
+ * the file is read in chunks as the HTTP client requests more data, so the file is never buffered in full. Every
+ * subscription reads the file again, so the publisher can be reused for redirected or repeated requests.
+ */
+class MultipartBodyPublisher implements HttpRequest.BodyPublisher {
+
+    /** The Constant CHUNK_SIZE. */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /** The Constant CRLF. */
+    private static final String CRLF = "\r\n";
+
+    /** The multipart header. */
+    private final byte[] header;
+
+    /** The file. */
+    private final Path file;
+
+    /** The file size. */
+    private final long size;
+
+    /** The multipart trailer. */
+    private final byte[] trailer;
+
+    /**
+     * Instantiates a new multipart body publisher.
+     *
+     * @param boundary
+     *            the multipart boundary
+     * @param name
+     *            the form field name
+     * @param fileName
+     *            the file name of the form field
+     * @param contentType
+     *            the content type of the file
+     * @param file
+     *            the file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    MultipartBodyPublisher(final String boundary, final String name, final String fileName, final String contentType,
+            final Path file) throws IOException {
+        this.header = ("--" + boundary + MultipartBodyPublisher.CRLF + "Content-Disposition: form-data; name=\"" + name
+                + "\"; filename=\"" + fileName + "\"" + MultipartBodyPublisher.CRLF + "Content-Type: " + contentType
+                + MultipartBodyPublisher.CRLF + MultipartBodyPublisher.CRLF).getBytes(StandardCharsets.UTF_8);
+        this.file = file;
+        this.size = Files.size(file);
+        this.trailer = (MultipartBodyPublisher.CRLF + "--" + boundary + "--" + MultipartBodyPublisher.CRLF)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long contentLength() {
+        return this.header.length + this.size + this.trailer.length;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new PartSubscription(subscriber));
+    }
+
+    /**
+     * Subscription that emits the header, the file chunks and the trailer on demand. Emission is serialized with a
+     * work-in-progress counter, so re-entrant requests from the subscriber never emit concurrently.
+     */
+    private final class PartSubscription implements Flow.Subscription {
+
+        /** The subscriber. */
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+        /** The requested buffers. */
+        private final AtomicLong demand = new AtomicLong();
+
+        /** The pending drain requests. */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /** The file channel, opened on first read. */
+        private FileChannel channel;
+
+        /** The remaining file bytes. */
+        private long remaining = MultipartBodyPublisher.this.size;
+
+        /** The state: 0 header, 1 file, 2 trailer, 3 done. */
+        private int state;
+
+        /** The cancelled. */
+        private volatile boolean cancelled;
+
+        /**
+         * Instantiates a new part subscription.
+         *
+         * @param subscriber
+         *            the subscriber
+         */
+        PartSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                this.cancelled = true;
+                this.subscriber.onError(new IllegalArgumentException("non-positive request " + n));
+            } else {
+                this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE
+                        : current + added);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.drain();
+        }
+
+        /**
+         * Emits buffers while there is demand.
+         */
+        private void drain() {
+            if (this.pending.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                try {
+                    while (!this.cancelled && this.state < 3 && this.demand.get() > 0) {
+                        final var next = this.next();
+                        if (next != null) {
+                            this.demand.decrementAndGet();
+                            this.subscriber.onNext(next);
+                        }
+                    }
+                    if (this.state == 3 && !this.cancelled) {
+                        this.cancelled = true;
+                        this.subscriber.onComplete();
+                    }
+                } catch (final IOException e) {
+                    this.cancelled = true;
+                    this.subscriber.onError(e);
+                }
+                if (this.cancelled) {
+                    this.close();
+                }
+            } while (this.pending.decrementAndGet() != 0);
+        }
+
+        /**
+         * Reads the next buffer and advances the state.
+         *
+         * @return the next buffer, or null if the state advanced without data
+         *
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        private ByteBuffer next() throws IOException {
+            switch (this.state) {
+                case 0:
+                    this.state = 1;
+                    return ByteBuffer.wrap(MultipartBodyPublisher.this.header);
+                case 1:
+                    if (this.remaining == 0) {
+                        this.close();
+                        this.state = 2;
+                        return null;
+                    }
+                    if (this.channel == null) {
+                        this.channel = FileChannel.open(MultipartBodyPublisher.this.file);
+                    }
+                    final var buffer = ByteBuffer
+                            .allocate((int) Math.min(MultipartBodyPublisher.CHUNK_SIZE, this.remaining));
+                    while (buffer.hasRemaining()) {
+                        if (this.channel.read(buffer) < 0) {
+                            throw new EOFException("File " + MultipartBodyPublisher.this.file
+                                    + " was truncated while uploading");
+                        }
+                    }
+                    this.remaining -= buffer.capacity();
+                    return buffer.flip();
+                default:
+                    this.state = 3;
+                    return ByteBuffer.wrap(MultipartBodyPublisher.this.trailer);
+            }
+        }
+
+        /**
+         * Closes the file channel.
+         */
+        private void close() {
+            if (this.channel != null) {
+                try {
+                    this.channel.close();
+                } catch (final IOException e) {
+                    // nothing left to read
+                }
+                this.channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Retry policy for submissions to the Coveralls API. Requests that fail with an I/O error before the body was sent,
+ * e.g. when the connection is refused, or with a status that signals a temporary condition (408, 429, 500, 502, 503
+ * and 504) are retried with exponential backoff. Half of each backoff is randomized to spread out retries of
+ * concurrent builds. A {@code Retry-After} header takes precedence when it asks for a longer delay. Retries stop when
+ * the attempts or the total time budget are exhausted.
+ */
+public final class RetryPolicy {
+
+    /** The Constant NONE. */
+    private static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+    /** The max attempts. */
+    private final int maxAttempts;
+
+    /** The initial delay. */
+    private final Duration initialDelay;
+
+    /** The max delay. */
+    private final Duration maxDelay;
+
+    /** The total time budget. */
+    private final Duration budget;
+
+    /** The listener notified before each retry. */
+    private final Consumer<String> listener;
+
+    /**
+     * Instantiates a new retry policy.
+     *
+     * @param maxAttempts
+     *            the max attempts including the first one
+     * @param initialDelay
+     *            the delay before the first retry
+     * @param maxDelay
+     *            the max delay between attempts
+     * @param budget
+     *            the total time budget of all attempts
+     */
+    public RetryPolicy(final int maxAttempts, final Duration initialDelay, final Duration maxDelay,
+            final Duration budget) {
+        this(maxAttempts, initialDelay, maxDelay, budget, message -> {
+            // not logged
+        });
+    }
+
+    /**
+     * Instantiates a new retry policy.
+     *
+     * @param maxAttempts
+     *            the max attempts including the first one
+     * @param initialDelay
+     *            the delay before the first retry
+     * @param maxDelay
+     *            the max delay between attempts
+     * @param budget
+     *            the total time budget of all attempts
+     * @param listener
+     *            the listener
+     */
+    private RetryPolicy(final int maxAttempts, final Duration initialDelay, final Duration maxDelay,
+            final Duration budget, final Consumer<String> listener) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.budget = budget;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the policy that never retries.
+     *
+     * @return the retry policy
+     */
+    public static RetryPolicy none() {
+        return RetryPolicy.NONE;
+    }
+
+    /**
+     * Gets the policy with a backoff from one second up to thirty seconds.
+     *
+     * @param retries
+     *            the number of retries after the first attempt, negative values are treated as zero
+     * @param budget
+     *            the total time budget of all attempts
+     *
+     * @return the retry policy
+     */
+    public static RetryPolicy ofRetries(final int retries, final Duration budget) {
+        return new RetryPolicy(Math.max(0, retries) + 1, Duration.ofSeconds(1), Duration.ofSeconds(30), budget);
+    }
+
+    /**
+     * With listener.
+     *
+     * @param listener
+     *            the listener notified with a message before each retry
+     *
+     * @return the retry policy
+     */
+    public RetryPolicy withListener(final Consumer<String> listener) {
+        return new RetryPolicy(this.maxAttempts, this.initialDelay, this.maxDelay, this.budget, listener);
+    }
+
+    /**
+     * Gets the max attempts.
+     *
+     * @return the max attempts including the first one
+     */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Checks if a response status is worth retrying.
+     *
+     * @param statusCode
+     *            the status code
+     *
+     * @return true, if the status signals a temporary condition
+     */
+    public boolean isRetryable(final int statusCode) {
+        switch (statusCode) {
+            case 408:
+            case 429:
+            case 500:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the backoff before a retry.
+     *
+     * @param retry
+     *            the retry number, starting from 1
+     *
+     * @return the backoff with jitter
+     */
+    Duration getBackoff(final int retry) {
+        final var exponential = this.initialDelay.toMillis() << Math.min(retry - 1, 30);
+        final var capped = Math.min(exponential < 0 ? Long.MAX_VALUE : exponential, this.maxDelay.toMillis());
+        final var half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(capped - half + 1));
+    }
+
+    /**
+     * Gets the delay requested by a {@code Retry-After} header.
+     *
+     * @param response
+     *            the response, may be null
+     * @param now
+     *            the current time
+     *
+     * @return the requested delay, or zero if not requested
+     */
+    static Duration getRetryAfter(final HttpResponse<?> response, final ZonedDateTime now) {
+        if (response == null) {
+            return Duration.ZERO;
+        }
+        final var value = response.headers().firstValue("Retry-After").map(String::trim).orElse("");
+        if (value.isEmpty()) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (final NumberFormatException e) {
+            try {
+                final var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                final var delay = Duration.between(now, date);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (final DateTimeParseException ignored) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Starts tracking the attempts of a submission.
+     *
+     * @return the retry state
+     */
+    Retry start() {
+        return new Retry();
+    }
+
+    /**
+     * Attempts and time budget of a single submission.
+     */
+    final class Retry {
+
+        /** The deadline in nanos. */
+        private final long deadline = System.nanoTime() + RetryPolicy.this.budget.toNanos();
+
+        /** The attempts made. */
+        private int attempts = 1;
+
+        /**
+         * Instantiates a new retry.
+         */
+        Retry() {
+            // created by the policy
+        }
+
+        /**
+         * Waits before the next attempt if one is allowed.
+         *
+         * @param response
+         *            the failed response, or null if the attempt failed with an I/O error
+         *
+         * @return true, if the request should be sent again
+         *
+         * @throws InterruptedException
+         *             the interrupted exception
+         */
+        boolean await(final HttpResponse<InputStream> response) throws InterruptedException {
+            if (this.attempts >= RetryPolicy.this.maxAttempts) {
+                return false;
+            }
+            final var backoff = RetryPolicy.this.getBackoff(this.attempts);
+            final var retryAfter = RetryPolicy.getRetryAfter(response, ZonedDateTime.now());
+            final var delay = retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+            if (System.nanoTime() + delay.toNanos() > this.deadline) {
+                return false;
+            }
+            if (response != null) {
+                try {
+                    response.body().close();
+                } catch (final IOException e) {
+                    // response is discarded
+                }
+            }
+            this.attempts++;
+            RetryPolicy.this.listener.accept("Retrying submission to Coveralls API in " + delay.toMillis() + "ms"
+                    + (response == null ? " after an I/O error" : " after HTTP status " + response.statusCode())
+                    + " (attempt " + this.attempts + " of " + RetryPolicy.this.maxAttempts + ")");
+            Thread.sleep(delay.toMillis());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded pipe from the Coveralls data writer to a multipart request body. The writer fills chunks that the HTTP client
+ * reads as the request body is sent, so the upload progresses while the data is still being generated. At most
+ * {@link #CAPACITY} chunks are queued, the writer blocks while the upload catches up.
+ * <p>
+ * The body can be read only once, streamed data is not kept for redirected or repeated requests.
+ */
+final class StreamingBody {
+
+    /** The Constant CHUNK_SIZE. */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /** The Constant CAPACITY. */
+    static final int CAPACITY = 16;
+
+    /** The Constant POLL_MILLIS. */
+    private static final long POLL_MILLIS = 100;
+
+    /** The Constant END, marks the end of the data. */
+    private static final byte[] END = {};
+
+    /** The Constant CRLF. */
+    private static final String CRLF = "\r\n";
+
+    /** The chunks. */
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(StreamingBody.CAPACITY);
+
+    /** The multipart header. */
+    private final byte[] header;
+
+    /** The multipart trailer. */
+    private final byte[] trailer;
+
+    /** The opened. */
+    private final AtomicBoolean opened = new AtomicBoolean();
+
+    /** The closed. */
+    private volatile boolean closed;
+
+    /** The failure that aborted the upload. */
+    private volatile Throwable failure;
+
+    /** Whether the written data is dropped instead of uploaded. */
+    private volatile boolean discarded;
+
+    /**
+     * Instantiates a new streaming body.
+     *
+     * @param boundary
+     *            the multipart boundary
+     * @param name
+     *            the form field name
+     * @param fileName
+     *            the file name of the form field
+     * @param contentType
+     *            the content type of the data
+     */
+    StreamingBody(final String boundary, final String name, final String fileName, final String contentType) {
+        this.header = ("--" + boundary + StreamingBody.CRLF + "Content-Disposition: form-data; name=\"" + name
+                + "\"; filename=\"" + fileName + "\"" + StreamingBody.CRLF + "Content-Type: " + contentType
+                + StreamingBody.CRLF + StreamingBody.CRLF).getBytes(StandardCharsets.UTF_8);
+        this.trailer = (StreamingBody.CRLF + "--" + boundary + "--" + StreamingBody.CRLF)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens the request body.
+     *
+     * @return the request body
+     */
+    InputStream open() {
+        if (!this.opened.compareAndSet(false, true)) {
+            throw new IllegalStateException("Streamed Coveralls data can be uploaded only once");
+        }
+        return new SequenceInputStream(Collections.enumeration(List.of(new ByteArrayInputStream(this.header),
+                new ChunkInputStream(), new ByteArrayInputStream(this.trailer))));
+    }
+
+    /**
+     * Gets the output stream for the data.
+     *
+     * @return the output stream
+     */
+    OutputStream getOutputStream() {
+        return new ChunkOutputStream();
+    }
+
+    /**
+     * Aborts the upload if the data is not completely written. Blocked writers and readers fail with the cause.
+     *
+     * @param cause
+     *            the cause
+     */
+    void abort(final Throwable cause) {
+        if (!this.closed && this.failure == null) {
+            this.failure = cause;
+            this.chunks.clear();
+        }
+    }
+
+    /**
+     * Drops the data written after the request has ended, so that the writer can still complete a copy of it.
+     */
+    void discard() {
+        if (!this.closed && this.failure == null) {
+            this.discarded = true;
+            this.chunks.clear();
+        }
+    }
+
+    /**
+     * Checks if the data was completely written.
+     *
+     * @return true, if the output stream was closed without the upload being aborted
+     */
+    boolean isComplete() {
+        return this.closed && this.failure == null;
+    }
+
+    /**
+     * Creates the failure exception.
+     *
+     * @return the exception
+     */
+    private IOException failed() {
+        return new IOException("Streaming upload of Coveralls data was aborted", this.failure);
+    }
+
+    /**
+     * Writer side of the pipe.
+     */
+    private final class ChunkOutputStream extends OutputStream {
+
+        /** The buffer. */
+        private byte[] buffer = new byte[StreamingBody.CHUNK_SIZE];
+
+        /** The buffer position. */
+        private int position;
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (this.position == this.buffer.length) {
+                this.send();
+            }
+            this.buffer[this.position++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            var offset = off;
+            var remaining = len;
+            while (remaining > 0) {
+                if (this.position == this.buffer.length) {
+                    this.send();
+                }
+                final var count = Math.min(remaining, this.buffer.length - this.position);
+                System.arraycopy(b, offset, this.buffer, this.position, count);
+                this.position += count;
+                offset += count;
+                remaining -= count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (StreamingBody.this.closed) {
+                return;
+            }
+            if (this.position > 0) {
+                this.send();
+            }
+            this.put(StreamingBody.END);
+            StreamingBody.this.closed = true;
+        }
+
+        /**
+         * Sends the buffered chunk.
+         *
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        private void send() throws IOException {
+            final var chunk = this.position == this.buffer.length ? this.buffer
+                    : Arrays.copyOf(this.buffer, this.position);
+            this.put(chunk);
+            this.buffer = new byte[StreamingBody.CHUNK_SIZE];
+            this.position = 0;
+        }
+
+        /**
+         * Queues a chunk, waiting while the queue is full.
+         *
+         * @param chunk
+         *            the chunk
+         *
+         * @throws IOException
+         *             if the upload was aborted
+         */
+        private void put(final byte[] chunk) throws IOException {
+            try {
+                do {
+                    if (StreamingBody.this.failure != null) {
+                        throw StreamingBody.this.failed();
+                    }
+                    if (StreamingBody.this.discarded) {
+                        return;
+                    }
+                } while (!StreamingBody.this.chunks.offer(chunk, StreamingBody.POLL_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while streaming Coveralls data");
+            }
+        }
+    }
+
+    /**
+     * Reader side of the pipe.
+     */
+    private final class ChunkInputStream extends InputStream {
+
+        /** The current chunk. */
+        private byte[] chunk = new byte[0];
+
+        /** The chunk position. */
+        private int position;
+
+        @Override
+        public int read() throws IOException {
+            if (!this.fill()) {
+                return -1;
+            }
+            return this.chunk[this.position++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.fill()) {
+                return -1;
+            }
+            final var count = Math.min(len, this.chunk.length - this.position);
+            System.arraycopy(this.chunk, this.position, b, off, count);
+            this.position += count;
+            return count;
+        }
+
+        /**
+         * Waits for the next chunk if the current one is consumed.
+         *
+         * @return true, if data is available, false at the end of the data
+         *
+         * @throws IOException
+         *             if the upload was aborted
+         */
+        private boolean fill() throws IOException {
+            if (this.chunk == StreamingBody.END) {
+                return false;
+            }
+            try {
+                while (this.position == this.chunk.length) {
+                    if (StreamingBody.this.failure != null) {
+                        throw StreamingBody.this.failed();
+                    }
+                    final var next = StreamingBody.this.chunks.poll(StreamingBody.POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == StreamingBody.END) {
+                        this.chunk = next;
+                        return false;
+                    }
+                    if (next != null) {
+                        this.chunk = next;
+                        this.position = 0;
+                    }
+                }
+                return true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while streaming Coveralls data");
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body publisher that delays the buffers of another publisher to stay within a {@link BandwidthLimiter}. The buffers
+ * are handed to the HTTP client when the limiter allows, on a delayed executor, so the threads of the HTTP client are
+ * never blocked while waiting. Demand is passed through unchanged and the signals keep their order.
+ */
+class ThrottledBodyPublisher implements HttpRequest.BodyPublisher {
+
+    /** The throttled publisher. */
+    private final HttpRequest.BodyPublisher delegate;
+
+    /** The bandwidth limiter. */
+    private final BandwidthLimiter limiter;
+
+    /**
+     * Instantiates a new throttled body publisher.
+     *
+     * @param delegate
+     *            the throttled publisher
+     * @param limiter
+     *            the bandwidth limiter
+     */
+    ThrottledBodyPublisher(final HttpRequest.BodyPublisher delegate, final BandwidthLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public long contentLength() {
+        return this.delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        this.delegate.subscribe(new ThrottledSubscriber(subscriber));
+    }
+
+    /**
+     * Runs a signal and marks it delivered.
+     *
+     * @param signal
+     *            the signal
+     * @param delivered
+     *            the delivery
+     */
+    private static void run(final Runnable signal, final CompletableFuture<Void> delivered) {
+        try {
+            signal.run();
+        } finally {
+            delivered.complete(null);
+        }
+    }
+
+    /**
+     * Subscriber that forwards each signal once the previous one was delivered and the limiter allows.
+     */
+    private final class ThrottledSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        /** The subscriber. */
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+        /** The delivery of the last signal. */
+        private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+
+        /**
+         * Instantiates a new throttled subscriber.
+         *
+         * @param subscriber
+         *            the subscriber
+         */
+        ThrottledSubscriber(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer item) {
+            this.deliver(ThrottledBodyPublisher.this.limiter.reserve(item.remaining()),
+                    () -> this.subscriber.onNext(item));
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.deliver(System.nanoTime(), () -> this.subscriber.onError(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            this.deliver(System.nanoTime(), this.subscriber::onComplete);
+        }
+
+        /**
+         * Delivers a signal after the previous signal, but not before the deadline.
+         *
+         * @param deadline
+         *            the time in nanos when the signal may be delivered
+         * @param signal
+         *            the signal
+         */
+        private void deliver(final long deadline, final Runnable signal) {
+            // the tail is replaced before chaining, so a signal emitted during delivery is still queued after it
+            final var previous = this.last;
+            final var delivered = new CompletableFuture<Void>();
+            this.last = delivered;
+            previous.whenComplete((result, failure) -> {
+                final var delay = deadline - System.nanoTime();
+                if (delay <= 0) {
+                    ThrottledBodyPublisher.run(signal, delivered);
+                } else {
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+                            .execute(() -> ThrottledBodyPublisher.run(signal, delivered));
+                }
+            });
+        }
+    }
+}
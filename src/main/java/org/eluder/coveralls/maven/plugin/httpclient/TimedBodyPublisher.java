@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.Flow;
+
+/**
+ * Body publisher that records when the HTTP client starts and finishes reading the body of another publisher. The
+ * timestamps are reset for every attempt, so retried requests are timed one attempt at a time.
+ */
+class TimedBodyPublisher implements HttpRequest.BodyPublisher {
+
+    /** The timed publisher. */
+    private final HttpRequest.BodyPublisher delegate;
+
+    /** The time the request was sent. */
+    private volatile long sent;
+
+    /** The time the body was subscribed, zero if not yet. */
+    private volatile long subscribed;
+
+    /** The time the body was read, zero if not yet. */
+    private volatile long uploaded;
+
+    /** The body bytes. */
+    private volatile long bytes;
+
+    /**
+     * Instantiates a new timed body publisher.
+     *
+     * @param delegate
+     *            the timed publisher
+     */
+    TimedBodyPublisher(final HttpRequest.BodyPublisher delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Marks the request sent and resets the timestamps of the previous attempt.
+     */
+    void start() {
+        this.subscribed = 0;
+        this.uploaded = 0;
+        this.bytes = 0;
+        this.sent = System.nanoTime();
+    }
+
+    /**
+     * Gets the timings of the current attempt, when its response was received or it failed.
+     *
+     * @param statusCode
+     *            the status code, zero if the request failed without a response
+     *
+     * @return the transfer timings
+     */
+    TransferTimings stop(final int statusCode) {
+        final var now = System.nanoTime();
+        final var subscribed = this.subscribed;
+        final var uploaded = this.uploaded;
+        if (subscribed == 0) {
+            return new TransferTimings(statusCode, 0, Duration.ofNanos(now - this.sent), Duration.ZERO,
+                    Duration.ZERO);
+        }
+        final var upload = Duration.ofNanos((uploaded == 0 ? now : uploaded) - subscribed);
+        final var response = Duration.ofNanos(uploaded == 0 ? 0 : now - uploaded);
+        return new TransferTimings(statusCode, this.bytes, Duration.ofNanos(subscribed - this.sent), upload,
+                response);
+    }
+
+    /**
+     * Checks if the HTTP client started to read the body in the current attempt.
+     *
+     * @return true, if the body may have been sent
+     */
+    boolean isSubscribed() {
+        return this.subscribed != 0;
+    }
+
+    @Override
+    public long contentLength() {
+        return this.delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        this.subscribed = System.nanoTime();
+        this.delegate.subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(final ByteBuffer item) {
+                // signals are serialized, so the single writer needs no atomic update
+                TimedBodyPublisher.this.bytes += item.remaining();
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                TimedBodyPublisher.this.uploaded = System.nanoTime();
+                subscriber.onComplete();
+            }
+        });
+    }
+}
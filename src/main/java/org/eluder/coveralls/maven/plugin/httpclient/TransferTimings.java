@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.time.Duration;
+
+/**
+ * Timings of a single request to the Coveralls API. The connect time lasts until the HTTP client starts to read the
+ * request body, so it includes acquiring the connection and sending the request headers. The upload time lasts until
+ * the body is read, and the response time until the response headers are received.
+ */
+public final class TransferTimings {
+
+    /** The status code, zero if the request failed without a response. */
+    private final int statusCode;
+
+    /** The uploaded body bytes. */
+    private final long bytes;
+
+    /** The connect time. */
+    private final Duration connect;
+
+    /** The upload time. */
+    private final Duration upload;
+
+    /** The response time. */
+    private final Duration response;
+
+    /**
+     * Instantiates new transfer timings.
+     *
+     * @param statusCode
+     *            the status code, zero if the request failed without a response
+     * @param bytes
+     *            the uploaded body bytes
+     * @param connect
+     *            the connect time
+     * @param upload
+     *            the upload time
+     * @param response
+     *            the response time
+     */
+    public TransferTimings(final int statusCode, final long bytes, final Duration connect, final Duration upload,
+            final Duration response) {
+        this.statusCode = statusCode;
+        this.bytes = bytes;
+        this.connect = connect;
+        this.upload = upload;
+        this.response = response;
+    }
+
+    /**
+     * Gets the status code.
+     *
+     * @return the status code, zero if the request failed without a response
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * Gets the bytes.
+     *
+     * @return the uploaded body bytes
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gets the connect time.
+     *
+     * @return the time until the HTTP client started to read the body
+     */
+    public Duration getConnect() {
+        return this.connect;
+    }
+
+    /**
+     * Gets the upload time.
+     *
+     * @return the time reading the body
+     */
+    public Duration getUpload() {
+        return this.upload;
+    }
+
+    /**
+     * Gets the response time.
+     *
+     * @return the time from the end of the body to the response headers
+     */
+    public Duration getResponse() {
+        return this.response;
+    }
+}
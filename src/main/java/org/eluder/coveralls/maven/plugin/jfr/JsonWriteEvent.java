@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of writing the coveralls json data, from the job header to the end of the last
+ * source file.
+ */
+@Name("org.eluder.coveralls.JsonWrite")
+@Label("Coveralls JSON Write")
+@Category("Coveralls")
+@Description("Writes the coveralls json data")
+public final class JsonWriteEvent extends jdk.jfr.Event {
+
+    /** The coveralls file. */
+    @Label("File")
+    private String file;
+
+    /** The written source files. */
+    @Label("Sources")
+    private int sources;
+
+    /** The written files, more than one in sharding mode. */
+    @Label("Files")
+    private int files;
+
+    /**
+     * Sets the coveralls file.
+     *
+     * @param file
+     *            the coveralls file
+     */
+    public void setFile(final String file) {
+        this.file = file;
+    }
+
+    /**
+     * Sets the written source files.
+     *
+     * @param sources
+     *            the number of source files
+     */
+    public void setSources(final int sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * Sets the written files.
+     *
+     * @param files
+     *            the number of written files
+     */
+    public void setFiles(final int files) {
+        this.files = files;
+    }
+}
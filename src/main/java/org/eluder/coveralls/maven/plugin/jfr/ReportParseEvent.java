@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of parsing or scanning a coverage report.
+ */
+@Name("org.eluder.coveralls.ReportParse")
+@Label("Coverage Report Parse")
+@Category("Coveralls")
+@Description("Parses or scans a coverage report")
+public final class ReportParseEvent extends jdk.jfr.Event {
+
+    /** The coverage file. */
+    @Label("File")
+    private String file;
+
+    /** The size of the coverage file. */
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /** The source files referenced by the report. */
+    @Label("Sources")
+    private int sources;
+
+    /** Whether the report was only scanned for its source files. */
+    @Label("Scan")
+    private boolean scan;
+
+    /**
+     * Sets the coverage file.
+     *
+     * @param file
+     *            the coverage file
+     */
+    public void setFile(final String file) {
+        this.file = file;
+    }
+
+    /**
+     * Sets the size of the coverage file.
+     *
+     * @param bytes
+     *            the size in bytes
+     */
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the source files referenced by the report.
+     *
+     * @param sources
+     *            the number of source files
+     */
+    public void setSources(final int sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * Sets whether the report was only scanned for its source files.
+     *
+     * @param scan
+     *            true if the report was only scanned
+     */
+    public void setScan(final boolean scan) {
+        this.scan = scan;
+    }
+}
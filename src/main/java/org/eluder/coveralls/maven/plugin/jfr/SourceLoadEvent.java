@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of loading a source file.
+ */
+@Name("org.eluder.coveralls.SourceLoad")
+@Label("Source Load")
+@Category("Coveralls")
+@Description("Loads and digests a source file")
+public final class SourceLoadEvent extends jdk.jfr.Event {
+
+    /** The source file as referenced by the coverage report. */
+    @Label("Path")
+    private String path;
+
+    /** The size of the source file. */
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /** Whether the source file was found. */
+    @Label("Found")
+    private boolean found;
+
+    /**
+     * Sets the source file.
+     *
+     * @param path
+     *            the source file as referenced by the coverage report
+     */
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    /**
+     * Sets the size of the source file.
+     *
+     * @param bytes
+     *            the size in bytes
+     */
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets whether the source file was found.
+     *
+     * @param found
+     *            true if the source file was found
+     */
+    public void setFound(final boolean found) {
+        this.found = found;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of a single request to the Coveralls API, one per attempt of a retried request.
+ */
+@Name("org.eluder.coveralls.Submission")
+@Label("Coveralls Submission")
+@Category("Coveralls")
+@Description("Sends a request to the Coveralls API")
+public final class SubmissionEvent extends jdk.jfr.Event {
+
+    /** The request url. */
+    @Label("URL")
+    private String url;
+
+    /** The status code, zero if the request failed without a response. */
+    @Label("Status Code")
+    private int statusCode;
+
+    /** The uploaded body bytes. */
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Sets the request url.
+     *
+     * @param url
+     *            the request url
+     */
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    /**
+     * Sets the status code.
+     *
+     * @param statusCode
+     *            the status code, zero if the request failed without a response
+     */
+    public void setStatusCode(final int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Sets the uploaded body bytes.
+     *
+     * @param bytes
+     *            the uploaded body bytes
+     */
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+}
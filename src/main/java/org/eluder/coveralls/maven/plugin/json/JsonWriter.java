@@ -29,36 +29,71 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.output.CountingOutputStream;
 
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.Job;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.jfr.JsonWriteEvent;
 import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 
 /**
- * The Class JsonWriter.
+ * The Class JsonWriter. In sharding mode the source files are split into size-bounded shards that are each written
+ * to their own file as a complete parallel job.
  */
 public class JsonWriter implements SourceCallback, Closeable {
 
     /** The Constant TIMESTAMP_FORMAT. */
     protected static final String TIMESTAMP_FORMAT = "yyyy-MM-dd HH:mm:ss Z";
 
+    /** The Constant BUFFER_SIZE. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /** The job. */
     private final Job job;
 
     /** The coveralls file. */
     private final File coverallsFile;
 
+    /** Whether the files are gzipped. */
+    private final boolean compress;
+
+    /** The shard size in bytes, or zero if the data is not sharded. */
+    private final long shardSize;
+
+    /** The written files. */
+    private final List<File> files = new ArrayList<>();
+
+    /** The counter of the uncompressed bytes of the current shard. */
+    private CountingOutputStream counter;
+
+    /** The sources in the current shard. */
+    private int shardSources;
+
+    /** The written sources. */
+    private int sources;
+
+    /** The flight recorder event of writing the data. */
+    private final JsonWriteEvent event = new JsonWriteEvent();
+
     /** The generator. */
-    private final JsonGenerator generator;
+    private JsonGenerator generator;
 
     /**
      * Instantiates a new json writer.
@@ -72,13 +107,75 @@ public class JsonWriter implements SourceCallback, Closeable {
      *             Signals that an I/O exception has occurred.
      */
     public JsonWriter(final Job job, final File coverallsFile) throws IOException {
+        this(job, coverallsFile, false);
+    }
+
+    /**
+     * Instantiates a new json writer.
+     *
+     * @param job
+     *            the job
+     * @param coverallsFile
+     *            the coveralls file
+     * @param compress
+     *            whether to gzip the coveralls file while writing
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public JsonWriter(final Job job, final File coverallsFile, final boolean compress) throws IOException {
+        this(job, coverallsFile, compress, 0);
+    }
+
+    /**
+     * Instantiates a new json writer that splits the source files into shards.
+     *
+     * @param job
+     *            the job
+     * @param coverallsFile
+     *            the coveralls file, shards are written next to it with the shard number appended to the name
+     * @param compress
+     *            whether to gzip the coveralls files while writing
+     * @param shardSize
+     *            the uncompressed size in bytes after which a new shard is started, or zero to write a single file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public JsonWriter(final Job job, final File coverallsFile, final boolean compress, final long shardSize)
+            throws IOException {
         final var directory = coverallsFile.getParentFile();
         if (!directory.exists()) {
             directory.mkdirs();
         }
         this.job = job;
         this.coverallsFile = coverallsFile;
-        this.generator = new MappingJsonFactory().createGenerator(coverallsFile, JsonEncoding.UTF8);
+        this.compress = compress;
+        this.shardSize = shardSize;
+        final var file = shardSize > 0 ? JsonWriter.getShardFile(coverallsFile, 1) : coverallsFile;
+        this.generator = this.createGenerator(file);
+    }
+
+    /**
+     * Instantiates a new json writer that writes to a stream, e.g. a streaming upload.
+     *
+     * @param job
+     *            the job
+     * @param coverallsFile
+     *            the coveralls file associated with the stream, written only if the stream writes a copy to it
+     * @param out
+     *            the output stream, closed when the writer is closed
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public JsonWriter(final Job job, final File coverallsFile, final OutputStream out) throws IOException {
+        this.job = job;
+        this.coverallsFile = coverallsFile;
+        this.compress = false;
+        this.shardSize = 0;
+        this.files.add(coverallsFile);
+        this.generator = new MappingJsonFactory().createGenerator(out, JsonEncoding.UTF8);
     }
 
     /**
@@ -99,31 +196,95 @@ public class JsonWriter implements SourceCallback, Closeable {
         return this.coverallsFile;
     }
 
+    /**
+     * Gets the written coveralls files, one per shard in sharding mode.
+     *
+     * @return the coveralls files
+     */
+    public final List<File> getFiles() {
+        return Collections.unmodifiableList(this.files);
+    }
+
+    /**
+     * Gets the job number of a shard.
+     *
+     * @param serviceJobId
+     *            the service job id, may be null
+     * @param shard
+     *            the shard number, starting from 1
+     *
+     * @return the job number, e.g. "123-2" for the second shard of job "123"
+     */
+    static String getShardJobNumber(final String serviceJobId, final int shard) {
+        return serviceJobId == null || serviceJobId.isBlank() ? String.valueOf(shard) : serviceJobId + "-" + shard;
+    }
+
+    /**
+     * Gets the file of a shard.
+     *
+     * @param coverallsFile
+     *            the coveralls file
+     * @param shard
+     *            the shard number, starting from 1
+     *
+     * @return the shard file, e.g. "coveralls-2.json" for "coveralls.json"
+     */
+    static File getShardFile(final File coverallsFile, final int shard) {
+        final var name = coverallsFile.getName();
+        final var extension = name.indexOf('.');
+        final var shardName = extension > 0 ? name.substring(0, extension) + "-" + shard + name.substring(extension)
+                : name + "-" + shard;
+        return new File(coverallsFile.getParentFile(), shardName);
+    }
+
     @Override
     public void onBegin() throws ProcessingException, IOException {
+        this.event.begin();
         try {
-            this.generator.writeStartObject();
-            this.writeOptionalString("repo_token", this.job.getRepoToken());
-            this.writeOptionalString("service_name", this.job.getServiceName());
-            this.writeOptionalString("service_job_id", this.job.getServiceJobId());
-            this.writeOptionalString("service_number", this.job.getServiceBuildNumber());
-            this.writeOptionalString("service_build_url", this.job.getServiceBuildUrl());
-            this.writeOptionalString("service_branch", this.job.getBranch());
-            this.writeOptionalString("service_pull_request", this.job.getPullRequest());
-            this.writeOptionalBoolean("parallel", this.job.isParallel());
-            this.writeOptionalTimestamp("run_at", this.job.getTimestamp());
-            this.writeOptionalEnvironment("environment", this.job.getServiceEnvironment());
-            this.writeOptionalObject("git", this.job.getGit());
-            this.generator.writeArrayFieldStart("source_files");
+            this.writeHeader();
         } catch (final JsonProcessingException e) {
             throw new ProcessingException(e);
         }
     }
 
+    /**
+     * Writes the job fields and starts the source files array.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeHeader() throws IOException {
+        this.generator.writeStartObject();
+        this.writeOptionalString("repo_token", this.job.getRepoToken());
+        this.writeOptionalString("service_name", this.job.getServiceName());
+        this.writeOptionalString("service_job_id", this.job.getServiceJobId());
+        this.writeOptionalString("service_number", this.job.getServiceBuildNumber());
+        if (this.shardSize > 0) {
+            // the shards share the job id, the job number tells them apart so that each one is a job of its own
+            this.writeOptionalString("service_job_number",
+                    JsonWriter.getShardJobNumber(this.job.getServiceJobId(), this.files.size()));
+        }
+        this.writeOptionalString("service_build_url", this.job.getServiceBuildUrl());
+        this.writeOptionalString("service_branch", this.job.getBranch());
+        this.writeOptionalString("service_pull_request", this.job.getPullRequest());
+        // shards are jobs of a parallel build
+        this.writeOptionalBoolean("parallel", this.job.isParallel() || this.shardSize > 0);
+        this.writeOptionalTimestamp("run_at", this.job.getTimestamp());
+        this.writeOptionalEnvironment("environment", this.job.getServiceEnvironment());
+        this.writeOptionalObject("git", this.job.getGit());
+        this.generator.writeArrayFieldStart("source_files");
+    }
+
     @Override
     public void onSource(final Source source) throws ProcessingException, IOException {
         try {
+            if (this.shardSize > 0 && this.shardSources > 0 && this.counter.getByteCount()
+                    + Math.max(0, this.generator.getOutputBuffered()) >= this.shardSize) {
+                this.nextShard();
+            }
             this.generator.writeObject(source);
+            this.shardSources++;
+            this.sources++;
         } catch (final JsonProcessingException e) {
             throw new ProcessingException(e);
         }
@@ -137,6 +298,12 @@ public class JsonWriter implements SourceCallback, Closeable {
         } catch (final JsonProcessingException e) {
             throw new ProcessingException(e);
         }
+        if (this.event.shouldCommit()) {
+            this.event.setFile(this.coverallsFile.getPath());
+            this.event.setSources(this.sources);
+            this.event.setFiles(this.files.size());
+            this.event.commit();
+        }
     }
 
     @Override
@@ -144,6 +311,48 @@ public class JsonWriter implements SourceCallback, Closeable {
         this.generator.close();
     }
 
+    /**
+     * Completes the current shard and starts the next one.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void nextShard() throws IOException {
+        this.generator.writeEndArray();
+        this.generator.writeEndObject();
+        this.generator.close();
+        this.generator = this.createGenerator(JsonWriter.getShardFile(this.coverallsFile, this.files.size() + 1));
+        this.shardSources = 0;
+        this.writeHeader();
+    }
+
+    /**
+     * Creates the generator for a coveralls file.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the generator
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private JsonGenerator createGenerator(final File file) throws IOException {
+        this.files.add(file);
+        if (!this.compress && this.shardSize <= 0) {
+            return new MappingJsonFactory().createGenerator(file, JsonEncoding.UTF8);
+        }
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()), JsonWriter.BUFFER_SIZE);
+        if (this.compress) {
+            out = new GZIPOutputStream(out, JsonWriter.BUFFER_SIZE);
+        }
+        if (this.shardSize > 0) {
+            this.counter = new CountingOutputStream(out);
+            out = this.counter;
+        }
+        return new MappingJsonFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
     /**
      * Write optional string.
      *
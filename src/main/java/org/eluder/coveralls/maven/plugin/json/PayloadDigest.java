@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Canonical digest of Coveralls data. The digest covers the JSON tokens of the coveralls files, so it does not depend
+ * on formatting or compression, and skips the job fields that change on every run of the same build.
+ */
+public final class PayloadDigest {
+
+    /** The Constant VOLATILE_FIELDS. */
+    private static final Set<String> VOLATILE_FIELDS = Set.of("run_at");
+
+    /** The Constant BUFFER_SIZE. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The json factory. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Instantiates a new payload digest.
+     */
+    private PayloadDigest() {
+        // static utility
+    }
+
+    /**
+     * Computes the digest of coveralls files.
+     *
+     * @param files
+     *            the coveralls files, gzipped or not, in submission order
+     *
+     * @return the hex encoded SHA-256 digest
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static String digest(final List<File> files) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (final File file : files) {
+            try (var in = PayloadDigest.open(file); var parser = PayloadDigest.JSON_FACTORY.createParser(in)) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == JsonToken.FIELD_NAME && parser.getParsingContext().getParent().inRoot()
+                            && PayloadDigest.VOLATILE_FIELDS.contains(parser.currentName())) {
+                        parser.nextToken();
+                        parser.skipChildren();
+                        continue;
+                    }
+                    digest.update((byte) token.id());
+                    if (token.isScalarValue() || token == JsonToken.FIELD_NAME) {
+                        final var text = parser.getText().getBytes(StandardCharsets.UTF_8);
+                        digest.update(PayloadDigest.length(text.length));
+                        digest.update(text);
+                    }
+                }
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Opens a coveralls file, decompressing it if it is gzipped.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the input stream
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static InputStream open(final File file) throws IOException {
+        final var in = new BufferedInputStream(Files.newInputStream(file.toPath()), PayloadDigest.BUFFER_SIZE);
+        in.mark(2);
+        final var magic = in.read() | in.read() << 8;
+        in.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(in, PayloadDigest.BUFFER_SIZE) : in;
+    }
+
+    /**
+     * Encodes a length, so that adjacent tokens cannot be confused.
+     *
+     * @param length
+     *            the length
+     *
+     * @return the big endian bytes
+     */
+    private static byte[] length(final int length) {
+        return new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length };
+    }
+}
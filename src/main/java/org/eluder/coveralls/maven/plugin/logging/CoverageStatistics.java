@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe coverage counters of a set of source files. The counters are striped, so that concurrent parser threads
+ * can add coverage without contending on a single counter.
+ */
+public final class CoverageStatistics {
+
+    /** The files. */
+    private final LongAdder files = new LongAdder();
+
+    /** The lines. */
+    private final LongAdder lines = new LongAdder();
+
+    /** The relevant. */
+    private final LongAdder relevant = new LongAdder();
+
+    /** The covered. */
+    private final LongAdder covered = new LongAdder();
+
+    /** The branches. */
+    private final LongAdder branches = new LongAdder();
+
+    /** The covered branches. */
+    private final LongAdder coveredBranches = new LongAdder();
+
+    /**
+     * Adds the coverage of source files.
+     *
+     * @param files
+     *            the files
+     * @param lines
+     *            the lines
+     * @param relevant
+     *            the relevant lines
+     * @param covered
+     *            the covered lines
+     * @param branches
+     *            the branches
+     * @param coveredBranches
+     *            the covered branches
+     */
+    public void add(final long files, final long lines, final long relevant, final long covered, final long branches,
+            final long coveredBranches) {
+        this.files.add(files);
+        this.lines.add(lines);
+        this.relevant.add(relevant);
+        this.covered.add(covered);
+        this.branches.add(branches);
+        this.coveredBranches.add(coveredBranches);
+    }
+
+    /**
+     * Adds the coverage of other statistics.
+     *
+     * @param statistics
+     *            the statistics
+     */
+    public void add(final CoverageStatistics statistics) {
+        this.add(statistics.getFiles(), statistics.getLines(), statistics.getRelevant(), statistics.getCovered(),
+                statistics.getBranches(), statistics.getCoveredBranches());
+    }
+
+    /**
+     * Gets the files.
+     *
+     * @return the files
+     */
+    public long getFiles() {
+        return this.files.sum();
+    }
+
+    /**
+     * Gets the lines.
+     *
+     * @return the lines
+     */
+    public long getLines() {
+        return this.lines.sum();
+    }
+
+    /**
+     * Gets the relevant.
+     *
+     * @return the relevant
+     */
+    public long getRelevant() {
+        return this.relevant.sum();
+    }
+
+    /**
+     * Gets the covered.
+     *
+     * @return the covered
+     */
+    public long getCovered() {
+        return this.covered.sum();
+    }
+
+    /**
+     * Gets the branches.
+     *
+     * @return the branches
+     */
+    public long getBranches() {
+        return this.branches.sum();
+    }
+
+    /**
+     * Gets the covered branches.
+     *
+     * @return the covered branches
+     */
+    public long getCoveredBranches() {
+        return this.coveredBranches.sum();
+    }
+}
@@ -24,37 +24,51 @@
  */
 package org.eluder.coveralls.maven.plugin.logging;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.plugin.logging.Log;
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.Branch;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
 import org.eluder.coveralls.maven.plugin.source.ChainingSourceCallback;
 import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 
 /**
- * The Class CoverageTracingLogger.
+ * Source callback that gathers the coverage statistics of the source files. The statistics are counted in a single
+ * pass over the primitive coverage of each source file into striped counters, so the callback can be shared by
+ * concurrent parser threads. Optionally the statistics are also broken down by module and package, and written as a
+ * compact JSON summary with {@link #writeSummary(File)}.
  */
 public class CoverageTracingLogger extends ChainingSourceCallback implements Logger {
 
-    /** The files. */
-    private long files;
+    /** The Constant JSON_FACTORY. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-    /** The lines. */
-    private long lines;
+    /** The Constant SEPARATOR. */
+    private static final char SEPARATOR = '/';
 
-    /** The relevant. */
-    private long relevant;
+    /** The statistics of all source files. */
+    private final CoverageStatistics total = new CoverageStatistics();
 
-    /** The covered. */
-    private long covered;
+    /** The module names by source root directory, null if the statistics are not broken down by package. */
+    private final Map<String, String> sourceRoots;
 
-    /** The branches. */
-    private long branches;
+    /** The statistics by source directory, null if the statistics are not broken down by package. */
+    private final ConcurrentMap<SourcePath, CoverageStatistics> directories;
 
-    /** The covered branches. */
-    private long coveredBranches;
+    /** The statistics of top level source files. */
+    private final CoverageStatistics topLevel = new CoverageStatistics();
 
     /**
      * Instantiates a new coverage tracing logger.
@@ -63,7 +77,31 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      *            the chained
      */
     public CoverageTracingLogger(final SourceCallback chained) {
+        this(chained, null);
+    }
+
+    /**
+     * Instantiates a new coverage tracing logger that breaks the statistics down by module and package.
+     *
+     * @param chained
+     *            the chained
+     * @param sourceRoots
+     *            the module names by source root directory relative to the base directory of the source files, null
+     *            to not break the statistics down
+     */
+    public CoverageTracingLogger(final SourceCallback chained, final Map<String, String> sourceRoots) {
         super(chained);
+        if (sourceRoots == null) {
+            this.sourceRoots = null;
+            this.directories = null;
+        } else {
+            this.sourceRoots = new TreeMap<>();
+            for (final Map.Entry<String, String> sourceRoot : sourceRoots.entrySet()) {
+                this.sourceRoots.put(CoverageTracingLogger.trimSeparator(sourceRoot.getKey()),
+                        Objects.requireNonNullElse(sourceRoot.getValue(), ""));
+            }
+            this.directories = new ConcurrentHashMap<>();
+        }
     }
 
     /**
@@ -72,7 +110,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the files
      */
     public long getFiles() {
-        return this.files;
+        return this.total.getFiles();
     }
 
     /**
@@ -81,7 +119,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the lines
      */
     public final long getLines() {
-        return this.lines;
+        return this.total.getLines();
     }
 
     /**
@@ -90,7 +128,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the relevant
      */
     public final long getRelevant() {
-        return this.relevant;
+        return this.total.getRelevant();
     }
 
     /**
@@ -99,7 +137,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the covered
      */
     public final long getCovered() {
-        return this.covered;
+        return this.total.getCovered();
     }
 
     /**
@@ -108,7 +146,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the missed
      */
     public final long getMissed() {
-        return this.relevant - this.covered;
+        return this.getRelevant() - this.getCovered();
     }
 
     /**
@@ -117,7 +155,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the branches
      */
     public final long getBranches() {
-        return this.branches;
+        return this.total.getBranches();
     }
 
     /**
@@ -126,7 +164,7 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the covered branches
      */
     public final long getCoveredBranches() {
-        return this.coveredBranches;
+        return this.total.getCoveredBranches();
     }
 
     /**
@@ -135,7 +173,67 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
      * @return the missed branches
      */
     public final long getMissedBranches() {
-        return this.branches - this.coveredBranches;
+        return this.getBranches() - this.getCoveredBranches();
+    }
+
+    /**
+     * Gets the statistics by module and package.
+     *
+     * @return the statistics by package name by module name, the module name is empty for source files outside of
+     *         the source roots and the package name is empty for the default package
+     *
+     * @throws IllegalStateException
+     *             if the statistics are not broken down by package
+     */
+    public final Map<String, Map<String, CoverageStatistics>> getPackages() {
+        if (this.directories == null) {
+            throw new IllegalStateException("Coverage statistics are not broken down by package");
+        }
+        final Map<String, Map<String, CoverageStatistics>> modules = new TreeMap<>();
+        if (this.topLevel.getFiles() > 0) {
+            this.addPackage(modules, "", this.topLevel);
+        }
+        for (final Map.Entry<SourcePath, CoverageStatistics> directory : this.directories.entrySet()) {
+            this.addPackage(modules, directory.getKey().toString(), directory.getValue());
+        }
+        return modules;
+    }
+
+    /**
+     * Writes the statistics by module and package as a compact JSON summary.
+     *
+     * @param file
+     *            the summary file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws IllegalStateException
+     *             if the statistics are not broken down by package
+     */
+    public void writeSummary(final File file) throws IOException {
+        final var modules = this.getPackages();
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (var generator = CoverageTracingLogger.JSON_FACTORY.createGenerator(Files.newOutputStream(file.toPath()))) {
+            generator.writeStartObject();
+            generator.writeFieldName("total");
+            CoverageTracingLogger.writeStatistics(generator, this.total);
+            generator.writeArrayFieldStart("modules");
+            for (final Map.Entry<String, Map<String, CoverageStatistics>> module : modules.entrySet()) {
+                generator.writeStartObject();
+                generator.writeStringField("module", module.getKey());
+                generator.writeArrayFieldStart("packages");
+                for (final Map.Entry<String, CoverageStatistics> pkg : module.getValue().entrySet()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("package", pkg.getKey());
+                    CoverageTracingLogger.writeFields(generator, pkg.getValue());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
     }
 
     @Override
@@ -157,22 +255,141 @@ public class CoverageTracingLogger extends ChainingSourceCallback implements Log
 
     @Override
     protected void onSourceInternal(final Source source) throws ProcessingException, IOException {
-        this.files++;
-        this.lines += source.getCoverage().length;
-        for (final Integer coverage : source.getCoverage()) {
-            if (coverage != null) {
-                this.relevant++;
-                if (coverage > 0) {
-                    this.covered++;
+        final var sourceLines = source.getLines();
+        var sourceRelevant = 0;
+        var sourceCovered = 0;
+        for (var line = 1; line <= sourceLines; line++) {
+            final var hits = source.getHits(line);
+            if (hits >= 0) {
+                sourceRelevant++;
+                if (hits > 0) {
+                    sourceCovered++;
                 }
             }
         }
 
-        this.branches += source.getBranchesList().size();
-        for (final Branch b : source.getBranchesList()) {
+        final var branches = source.getBranchesList();
+        var sourceCoveredBranches = 0;
+        for (final Branch b : branches) {
             if (b.getHits() > 0) {
-                this.coveredBranches++;
+                sourceCoveredBranches++;
+            }
+        }
+
+        this.total.add(1, sourceLines, sourceRelevant, sourceCovered, branches.size(), sourceCoveredBranches);
+        if (this.directories != null) {
+            final var directory = source.getPath().getParent();
+            final var statistics = directory == null ? this.topLevel
+                    : this.directories.computeIfAbsent(directory, key -> new CoverageStatistics());
+            statistics.add(1, sourceLines, sourceRelevant, sourceCovered, branches.size(), sourceCoveredBranches);
+        }
+    }
+
+    /**
+     * Adds the statistics of a source directory to its module and package. The directory belongs to the module of
+     * the longest source root containing it, and the rest of the directory is the package.
+     *
+     * @param modules
+     *            the statistics by package name by module name
+     * @param directory
+     *            the source directory
+     * @param statistics
+     *            the statistics of the source directory
+     */
+    private void addPackage(final Map<String, Map<String, CoverageStatistics>> modules, final String directory,
+            final CoverageStatistics statistics) {
+        var module = "";
+        var packagePath = directory;
+        var matched = -1;
+        for (final Map.Entry<String, String> sourceRoot : this.sourceRoots.entrySet()) {
+            final var root = sourceRoot.getKey();
+            if (root.length() > matched && CoverageTracingLogger.contains(root, directory)) {
+                matched = root.length();
+                module = sourceRoot.getValue();
+                if (root.isEmpty()) {
+                    packagePath = directory;
+                } else {
+                    packagePath = root.length() == directory.length() ? "" : directory.substring(root.length() + 1);
+                }
             }
         }
+        modules.computeIfAbsent(module, key -> new TreeMap<>())
+                .computeIfAbsent(packagePath.replace(CoverageTracingLogger.SEPARATOR, '.'),
+                        key -> new CoverageStatistics())
+                .add(statistics);
+    }
+
+    /**
+     * Checks if a directory is a source root or inside it.
+     *
+     * @param root
+     *            the source root
+     * @param directory
+     *            the directory
+     *
+     * @return true, if the source root contains the directory
+     */
+    private static boolean contains(final String root, final String directory) {
+        return root.isEmpty() || directory.equals(root)
+                || directory.startsWith(root) && directory.charAt(root.length()) == CoverageTracingLogger.SEPARATOR;
+    }
+
+    /**
+     * Removes the leading and trailing separators of a directory.
+     *
+     * @param directory
+     *            the directory
+     *
+     * @return the trimmed directory
+     */
+    private static String trimSeparator(final String directory) {
+        var start = 0;
+        var end = directory.length();
+        while (start < end && directory.charAt(start) == CoverageTracingLogger.SEPARATOR) {
+            start++;
+        }
+        while (end > start && directory.charAt(end - 1) == CoverageTracingLogger.SEPARATOR) {
+            end--;
+        }
+        return directory.substring(start, end);
+    }
+
+    /**
+     * Writes statistics as an object.
+     *
+     * @param generator
+     *            the JSON generator
+     * @param statistics
+     *            the statistics
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeStatistics(final JsonGenerator generator, final CoverageStatistics statistics)
+            throws IOException {
+        generator.writeStartObject();
+        CoverageTracingLogger.writeFields(generator, statistics);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the fields of statistics.
+     *
+     * @param generator
+     *            the JSON generator
+     * @param statistics
+     *            the statistics
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeFields(final JsonGenerator generator, final CoverageStatistics statistics)
+            throws IOException {
+        generator.writeNumberField("files", statistics.getFiles());
+        generator.writeNumberField("lines", statistics.getLines());
+        generator.writeNumberField("relevant", statistics.getRelevant());
+        generator.writeNumberField("covered", statistics.getCovered());
+        generator.writeNumberField("branches", statistics.getBranches());
+        generator.writeNumberField("covered_branches", statistics.getCoveredBranches());
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.parser.ReportProgressListener;
+import org.eluder.coveralls.maven.plugin.source.ChainingSourceCallback;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+
+/**
+ * Source callback that logs the progress of parsing the coverage reports at most once per interval: the bytes parsed
+ * of each report, the source files per second, the estimated time left from the size of the reports and the heap
+ * usage. Progress is only checked when a source file or a buffer of a report passes by, so the overhead is a clock
+ * read per call. The callback is thread safe, so it can be shared by concurrent parsers.
+ */
+public class ProgressLogger extends ChainingSourceCallback implements ReportProgressListener {
+
+    /** The Constant MIB. */
+    private static final double MIB = 1024d * 1024d;
+
+    /** The log. */
+    private final Log log;
+
+    /** The interval in nanos. */
+    private final long interval;
+
+    /** The clock in nanos. */
+    private final LongSupplier clock;
+
+    /** The total size of the coverage reports. */
+    private final long total;
+
+    /** The bytes read by coverage report. */
+    private final ConcurrentMap<File, Long> reports = new ConcurrentHashMap<>();
+
+    /** The source files. */
+    private final LongAdder sources = new LongAdder();
+
+    /** The time in nanos when progress is logged next. */
+    private final AtomicLong next = new AtomicLong(Long.MAX_VALUE);
+
+    /** The start time in nanos. */
+    private volatile long start;
+
+    /**
+     * Instantiates a new progress logger.
+     *
+     * @param chained
+     *            the chained
+     * @param log
+     *            the log
+     * @param interval
+     *            the interval of logging progress
+     * @param coverageFiles
+     *            the coverage report files
+     */
+    public ProgressLogger(final SourceCallback chained, final Log log, final Duration interval,
+            final Collection<File> coverageFiles) {
+        this(chained, log, interval, coverageFiles, System::nanoTime);
+    }
+
+    /**
+     * Instantiates a new progress logger.
+     *
+     * @param chained
+     *            the chained
+     * @param log
+     *            the log
+     * @param interval
+     *            the interval of logging progress
+     * @param coverageFiles
+     *            the coverage report files
+     * @param clock
+     *            the clock in nanos
+     */
+    ProgressLogger(final SourceCallback chained, final Log log, final Duration interval,
+            final Collection<File> coverageFiles, final LongSupplier clock) {
+        super(chained);
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.log = log;
+        this.interval = interval.toNanos();
+        this.clock = clock;
+        var size = 0L;
+        for (final File coverageFile : coverageFiles) {
+            size += coverageFile.length();
+        }
+        this.total = size;
+    }
+
+    /**
+     * Gets the source files.
+     *
+     * @return the source files
+     */
+    public long getSources() {
+        return this.sources.sum();
+    }
+
+    /**
+     * Gets the bytes read of all coverage reports.
+     *
+     * @return the bytes read
+     */
+    public long getBytes() {
+        var bytes = 0L;
+        for (final Long read : this.reports.values()) {
+            bytes += read;
+        }
+        return bytes;
+    }
+
+    @Override
+    public void onRead(final File coverageFile, final long bytes) {
+        this.reports.put(coverageFile, bytes);
+        this.checkProgress();
+    }
+
+    @Override
+    protected void onBeginInternal() throws ProcessingException, IOException {
+        this.start = this.clock.getAsLong();
+        this.next.set(this.start + this.interval);
+    }
+
+    @Override
+    protected void onSourceInternal(final Source source) throws ProcessingException, IOException {
+        this.sources.increment();
+        this.checkProgress();
+    }
+
+    @Override
+    protected void onCompleteInternal() throws ProcessingException, IOException {
+        this.next.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * Logs the progress if the interval has passed. Only one of concurrent callers logs.
+     */
+    private void checkProgress() {
+        final var now = this.clock.getAsLong();
+        final var due = this.next.get();
+        if (now >= due && this.next.compareAndSet(due, now + this.interval)) {
+            this.log.info(this.summarize(now));
+        }
+    }
+
+    /**
+     * Summarizes the progress.
+     *
+     * @param now
+     *            the current time in nanos
+     *
+     * @return the progress summary
+     */
+    String summarize(final long now) {
+        final var elapsed = Math.max(1, now - this.start);
+        final var bytes = this.getBytes();
+        final var sourceFiles = this.getSources();
+        final var message = new StringBuilder(128);
+        message.append(String.format(Locale.ROOT, "Parsed %.1f of %.1f MiB of coverage reports",
+                bytes / ProgressLogger.MIB, this.total / ProgressLogger.MIB));
+        if (bytes > 0 && this.total > bytes) {
+            final var eta = (long) ((double) elapsed * (this.total - bytes) / bytes);
+            message.append(", ETA ").append(TimeUnit.NANOSECONDS.toSeconds(eta)).append('s');
+        }
+        message.append(String.format(Locale.ROOT, ", %d source files at %.1f/s", sourceFiles,
+                sourceFiles * 1e9 / elapsed));
+        final var runtime = Runtime.getRuntime();
+        message.append(String.format(Locale.ROOT, ", heap %.1f of %.1f MiB",
+                (runtime.totalMemory() - runtime.freeMemory()) / ProgressLogger.MIB,
+                runtime.maxMemory() / ProgressLogger.MIB));
+        for (final Map.Entry<File, Long> report : this.reports.entrySet()) {
+            final var length = report.getKey().length();
+            if (report.getValue() < length) {
+                message.append(String.format(Locale.ROOT, "; %s %.1f of %.1f MiB", report.getKey().getName(),
+                        report.getValue() / ProgressLogger.MIB, length / ProgressLogger.MIB));
+            }
+        }
+        return message.toString();
+    }
+}
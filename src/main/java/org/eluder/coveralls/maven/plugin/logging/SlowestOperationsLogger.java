@@ -0,0 +1,358 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+import org.eluder.coveralls.maven.plugin.source.SourceLoadListener;
+
+/**
+ * Diagnostic logger of the slowest source file loads, source file merges and coverage report parses. Each kind of
+ * operation is kept in a bounded min-heap of the slowest ones, so the memory use is fixed and a faster operation than
+ * the fastest kept one costs only a comparison. The logger is thread safe, so it can be shared by concurrent parsers.
+ */
+public class SlowestOperationsLogger implements Logger, SourceLoadListener {
+
+    /** The Constant NANOS_PER_MILLI. */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /** The slowest source file loads. */
+    private final Slowest loads;
+
+    /** The slowest source file merges. */
+    private final Slowest merges;
+
+    /** The slowest coverage report parses. */
+    private final Slowest parses;
+
+    /**
+     * Instantiates a new slowest operations logger.
+     *
+     * @param limit
+     *            the number of slowest operations kept of each kind
+     */
+    public SlowestOperationsLogger(final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.loads = new Slowest(limit);
+        this.merges = new Slowest(limit);
+        this.parses = new Slowest(limit);
+    }
+
+    /**
+     * Gets the slowest source file loads.
+     *
+     * @return the slowest source file loads, slowest first
+     */
+    public List<Operation> getLoads() {
+        return this.loads.toList();
+    }
+
+    /**
+     * Gets the slowest source file merges.
+     *
+     * @return the slowest source file merges, slowest first
+     */
+    public List<Operation> getMerges() {
+        return this.merges.toList();
+    }
+
+    /**
+     * Gets the slowest coverage report parses.
+     *
+     * @return the slowest coverage report parses, slowest first
+     */
+    public List<Operation> getParses() {
+        return this.parses.toList();
+    }
+
+    @Override
+    public void onLoad(final Source source, final long bytes, final long nanos) {
+        if (this.loads.accepts(nanos)) {
+            this.loads.add(new Operation(source.getName(), nanos, bytes, source.getLines(), -1));
+        }
+    }
+
+    /**
+     * Records the parse of a coverage report.
+     *
+     * @param coverageFile
+     *            the coverage report file
+     * @param startNanos
+     *            the start time of the parse from {@link System#nanoTime()}
+     */
+    public void recordParse(final File coverageFile, final long startNanos) {
+        final var nanos = System.nanoTime() - startNanos;
+        if (this.parses.accepts(nanos)) {
+            this.parses.add(new Operation(coverageFile.getPath(), nanos, coverageFile.length(), -1, -1));
+        }
+    }
+
+    /**
+     * Wraps a merging source callback to record the time spent merging each source file. Source files that are not
+     * merged are passed through by the merging callback, so their time includes the callbacks chained after it.
+     *
+     * @param merging
+     *            the merging source callback
+     *
+     * @return the source callback that records the merges
+     */
+    public SourceCallback recordMerges(final SourceCallback merging) {
+        return new SourceCallback() {
+
+            @Override
+            public void onBegin() throws ProcessingException, IOException {
+                merging.onBegin();
+            }
+
+            @Override
+            public void onSource(final Source source) throws ProcessingException, IOException {
+                final var start = System.nanoTime();
+                merging.onSource(source);
+                final var nanos = System.nanoTime() - start;
+                if (SlowestOperationsLogger.this.merges.accepts(nanos)) {
+                    SlowestOperationsLogger.this.merges.add(new Operation(source.getName(), nanos, -1,
+                            source.getLines(), source.getBranchesList().size()));
+                }
+            }
+
+            @Override
+            public void onComplete() throws ProcessingException, IOException {
+                merging.onComplete();
+            }
+        };
+    }
+
+    @Override
+    public Position getPosition() {
+        return Position.AFTER;
+    }
+
+    @Override
+    public void log(final Log log) {
+        SlowestOperationsLogger.log(log, "source file loads", this.getLoads());
+        SlowestOperationsLogger.log(log, "source file merges", this.getMerges());
+        SlowestOperationsLogger.log(log, "coverage report parses", this.getParses());
+    }
+
+    /**
+     * Logs the slowest operations of a kind.
+     *
+     * @param log
+     *            the log
+     * @param kind
+     *            the kind of the operations
+     * @param operations
+     *            the operations, slowest first
+     */
+    private static void log(final Log log, final String kind, final List<Operation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        log.info("Slowest " + kind + ":");
+        for (final Operation operation : operations) {
+            final List<String> details = new ArrayList<>(3);
+            if (operation.getBytes() >= 0) {
+                details.add(operation.getBytes() + " bytes");
+            }
+            if (operation.getLines() >= 0) {
+                details.add(operation.getLines() + " lines");
+            }
+            if (operation.getBranches() >= 0) {
+                details.add(operation.getBranches() + " branches");
+            }
+            log.info(String.format(Locale.ROOT, "- %.3fms %s (%s)",
+                    operation.getNanos() / SlowestOperationsLogger.NANOS_PER_MILLI, operation.getName(),
+                    String.join(", ", details)));
+        }
+    }
+
+    /**
+     * A timed operation.
+     */
+    public static final class Operation {
+
+        /** The name of the source file or coverage report. */
+        private final String name;
+
+        /** The time in nanos. */
+        private final long nanos;
+
+        /** The bytes. */
+        private final long bytes;
+
+        /** The lines. */
+        private final int lines;
+
+        /** The branches. */
+        private final int branches;
+
+        /**
+         * Instantiates a new operation.
+         *
+         * @param name
+         *            the name of the source file or coverage report
+         * @param nanos
+         *            the time in nanos
+         * @param bytes
+         *            the bytes, negative if not known
+         * @param lines
+         *            the lines, negative if not known
+         * @param branches
+         *            the branches, negative if not known
+         */
+        Operation(final String name, final long nanos, final long bytes, final int lines, final int branches) {
+            this.name = name;
+            this.nanos = nanos;
+            this.bytes = bytes;
+            this.lines = lines;
+            this.branches = branches;
+        }
+
+        /**
+         * Gets the name of the source file or coverage report.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the time in nanos.
+         *
+         * @return the nanos
+         */
+        public long getNanos() {
+            return this.nanos;
+        }
+
+        /**
+         * Gets the bytes.
+         *
+         * @return the bytes, negative if not known
+         */
+        public long getBytes() {
+            return this.bytes;
+        }
+
+        /**
+         * Gets the lines.
+         *
+         * @return the lines, negative if not known
+         */
+        public int getLines() {
+            return this.lines;
+        }
+
+        /**
+         * Gets the branches.
+         *
+         * @return the branches, negative if not known
+         */
+        public int getBranches() {
+            return this.branches;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the slowest operations. The time of the fastest kept operation is published, so that
+     * operations that would not be kept are rejected without locking.
+     */
+    private static final class Slowest {
+
+        /** The limit. */
+        private final int limit;
+
+        /** The heap, fastest operation first. */
+        private final PriorityQueue<Operation> heap;
+
+        /** The time of the fastest kept operation when the heap is full, otherwise -1. */
+        private volatile long threshold = -1;
+
+        /**
+         * Instantiates a new slowest.
+         *
+         * @param limit
+         *            the limit
+         */
+        Slowest(final int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit, Comparator.comparingLong(Operation::getNanos));
+        }
+
+        /**
+         * Checks if an operation could be kept.
+         *
+         * @param nanos
+         *            the time of the operation in nanos
+         *
+         * @return true, if the operation is slower than the fastest kept one or the heap is not full
+         */
+        boolean accepts(final long nanos) {
+            return nanos > this.threshold;
+        }
+
+        /**
+         * Adds an operation, evicting the fastest one if the heap is full.
+         *
+         * @param operation
+         *            the operation
+         */
+        synchronized void add(final Operation operation) {
+            if (this.heap.size() < this.limit) {
+                this.heap.add(operation);
+            } else if (operation.getNanos() > this.heap.peek().getNanos()) {
+                this.heap.poll();
+                this.heap.add(operation);
+            }
+            if (this.heap.size() == this.limit) {
+                this.threshold = this.heap.peek().getNanos();
+            }
+        }
+
+        /**
+         * Gets the operations.
+         *
+         * @return the operations, slowest first
+         */
+        synchronized List<Operation> toList() {
+            final List<Operation> operations = new ArrayList<>(this.heap);
+            operations.sort(Comparator.comparingLong(Operation::getNanos).reversed());
+            return operations;
+        }
+    }
+}
@@ -26,9 +26,11 @@ package org.eluder.coveralls.maven.plugin.parser;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.function.Consumer;
 
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLInputFactory;
@@ -39,6 +41,7 @@ import javax.xml.stream.XMLStreamReader;
 import org.eluder.coveralls.maven.plugin.CoverageParser;
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.jfr.ReportParseEvent;
 import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 import org.eluder.coveralls.maven.plugin.source.SourceLoader;
 
@@ -53,6 +56,15 @@ public abstract class AbstractXmlEventParser implements CoverageParser {
     /** The source loader. */
     private final SourceLoader sourceLoader;
 
+    /** The source file consumer while scanning, otherwise null. */
+    private Consumer<String> scanner;
+
+    /** The source files referenced so far by the report being read. */
+    private int sources;
+
+    /** The listener for the progress of parsing, null if progress is not reported. */
+    private ReportProgressListener progressListener;
+
     /**
      * Instantiates a new abstract xml event parser.
      *
@@ -68,8 +80,56 @@ public abstract class AbstractXmlEventParser implements CoverageParser {
 
     @Override
     public final void parse(final SourceCallback callback) throws ProcessingException, IOException {
+        this.read(callback);
+    }
+
+    @Override
+    public final boolean scan(final Consumer<String> sourceFiles) throws ProcessingException, IOException {
+        this.scanner = sourceFiles;
+        try {
+            // sources are never loaded while scanning, so the callback is not invoked
+            this.read(null);
+        } finally {
+            this.scanner = null;
+        }
+        return true;
+    }
+
+    @Override
+    public final File getCoverageFile() {
+        return this.coverageFile;
+    }
+
+    /**
+     * Sets the listener for the progress of parsing. Scanning does not report progress.
+     *
+     * @param progressListener
+     *            the progress listener, null to not report progress
+     */
+    public final void setProgressListener(final ReportProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Reads the coverage file and passes all XML events to the parser implementation.
+     *
+     * @param callback
+     *            the callback
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void read(final SourceCallback callback) throws ProcessingException, IOException {
+        final var event = new ReportParseEvent();
+        event.begin();
+        this.sources = 0;
         XMLStreamReader xml = null;
-        try (var is = Files.newInputStream(this.coverageFile.toPath());
+        final var progress = callback == null ? null : this.progressListener;
+        try (var is = progress == null ? Files.newInputStream(this.coverageFile.toPath())
+                : new ProgressInputStream(Files.newInputStream(this.coverageFile.toPath()), this.coverageFile,
+                        progress);
                 var bis = new BufferedInputStream(is)) {
             xml = this.createEventReader(bis);
             while (xml.hasNext()) {
@@ -80,14 +140,16 @@ public abstract class AbstractXmlEventParser implements CoverageParser {
             throw new ProcessingException(e);
         } finally {
             this.close(xml);
+            if (event.shouldCommit()) {
+                event.setFile(this.coverageFile.getPath());
+                event.setBytes(this.coverageFile.length());
+                event.setSources(this.sources);
+                event.setScan(this.scanner != null);
+                event.commit();
+            }
         }
     }
 
-    @Override
-    public final File getCoverageFile() {
-        return this.coverageFile;
-    }
-
     /**
      * Creates the event reader.
      *
@@ -152,17 +214,22 @@ public abstract class AbstractXmlEventParser implements CoverageParser {
             throws XMLStreamException, ProcessingException, IOException;
 
     /**
-     * Load source.
+     * Load source. While scanning, the source file is only recorded and no source is loaded.
      *
      * @param sourceFile
      *            the source file
      *
-     * @return the source
+     * @return the source, or null while scanning
      *
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
     protected final Source loadSource(final String sourceFile) throws IOException {
+        this.sources++;
+        if (this.scanner != null) {
+            this.scanner.accept(sourceFile);
+            return null;
+        }
         return this.sourceLoader.load(sourceFile);
     }
 
@@ -193,4 +260,74 @@ public abstract class AbstractXmlEventParser implements CoverageParser {
     protected final boolean isEndElement(final XMLStreamReader xml, final String name) {
         return XMLStreamConstants.END_ELEMENT == xml.getEventType() && xml.getLocalName().equals(name);
     }
+
+    /**
+     * Input stream that reports the bytes read to a progress listener. It is read through a buffer, so the listener is
+     * called once per buffer and not for every byte.
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        /** The coverage file. */
+        private final File coverageFile;
+
+        /** The progress listener. */
+        private final ReportProgressListener listener;
+
+        /** The bytes read. */
+        private long bytes;
+
+        /**
+         * Instantiates a new progress input stream.
+         *
+         * @param in
+         *            the input stream of the coverage file
+         * @param coverageFile
+         *            the coverage file
+         * @param listener
+         *            the progress listener
+         */
+        ProgressInputStream(final InputStream in, final File coverageFile, final ReportProgressListener listener) {
+            super(in);
+            this.coverageFile = coverageFile;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final var b = super.read();
+            if (b >= 0) {
+                this.progress(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final var read = super.read(b, off, len);
+            if (read > 0) {
+                this.progress(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final var skipped = super.skip(n);
+            if (skipped > 0) {
+                this.progress(skipped);
+            }
+            return skipped;
+        }
+
+        /**
+         * Reports read bytes.
+         *
+         * @param read
+         *            the bytes read
+         */
+        private void progress(final long read) {
+            this.bytes += read;
+            this.listener.onRead(this.coverageFile, this.bytes);
+        }
+    }
 }
@@ -71,7 +71,7 @@ public class CoberturaParser extends AbstractXmlEventParser {
             this.source = this.loadSource(xml.getAttributeValue(null, "filename"));
             final var className = xml.getAttributeValue(null, "name");
             final var classifierPosition = className.indexOf('$');
-            if (classifierPosition > 0) {
+            if (classifierPosition > 0 && this.source != null) {
                 this.source.setClassifier(className.substring(classifierPosition + 1));
             }
             this.branchId = 0;
@@ -29,7 +29,10 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
 
+import org.eluder.coveralls.maven.plugin.domain.CoverageArena;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
+import org.eluder.coveralls.maven.plugin.jfr.SourceLoadEvent;
 import org.eluder.coveralls.maven.plugin.util.Sha512DigestInputStream;
 
 /**
@@ -43,6 +46,15 @@ public abstract class AbstractSourceLoader implements SourceLoader {
     /** The directory prefix. */
     private final String directoryPrefix;
 
+    /** The interned directory of the source base, null if source files are not resolved against a directory. */
+    private final SourcePath directory;
+
+    /** The coverage arena, null to keep coverage on heap. */
+    private CoverageArena coverageArena;
+
+    /** The listener for loaded source files, null if not listened. */
+    private SourceLoadListener loadListener;
+
     /**
      * Instantiates a new abstract source loader.
      *
@@ -56,20 +68,75 @@ public abstract class AbstractSourceLoader implements SourceLoader {
     protected AbstractSourceLoader(final URI base, final URI sourceBase, final Charset sourceEncoding) {
         this.sourceEncoding = sourceEncoding;
         this.directoryPrefix = base.relativize(sourceBase).toString();
+        this.directory = this.directoryPrefix.endsWith("/")
+                ? SourcePath.of(this.directoryPrefix.substring(0, this.directoryPrefix.length() - 1))
+                : null;
     }
 
     @Override
     public Source load(final String sourceFile) throws IOException {
+        final var event = new SourceLoadEvent();
+        event.begin();
+        final var start = System.nanoTime();
         final var stream = this.locate(sourceFile);
         if (stream == null) {
+            AbstractSourceLoader.commit(event, sourceFile, 0, false);
             return null;
         }
         try (var ds = new Sha512DigestInputStream(stream)) {
-            final var source = new String(ds.readAllBytes(), this.getSourceEncoding());
-            return new Source(this.getFileName(sourceFile), source, ds.getDigestHex());
+            final var bytes = ds.readAllBytes();
+            final var source = new String(bytes, this.getSourceEncoding());
+            AbstractSourceLoader.commit(event, sourceFile, bytes.length, true);
+            final var loaded = new Source(this.getFilePath(sourceFile), source, ds.getDigest(), this.coverageArena);
+            if (this.loadListener != null) {
+                this.loadListener.onLoad(loaded, bytes.length, System.nanoTime() - start);
+            }
+            return loaded;
         }
     }
 
+    /**
+     * Commits the source load event if it is enabled in a recording.
+     *
+     * @param event
+     *            the event
+     * @param sourceFile
+     *            the source file
+     * @param bytes
+     *            the size of the source file
+     * @param found
+     *            whether the source file was found
+     */
+    private static void commit(final SourceLoadEvent event, final String sourceFile, final long bytes,
+            final boolean found) {
+        if (event.shouldCommit()) {
+            event.setPath(sourceFile);
+            event.setBytes(bytes);
+            event.setFound(found);
+            event.commit();
+        }
+    }
+
+    /**
+     * Sets the coverage arena of the loaded sources.
+     *
+     * @param coverageArena
+     *            the coverage arena, null to keep coverage on heap
+     */
+    public void setCoverageArena(final CoverageArena coverageArena) {
+        this.coverageArena = coverageArena;
+    }
+
+    /**
+     * Sets the listener for loaded source files.
+     *
+     * @param loadListener
+     *            the load listener, null to not listen
+     */
+    public void setLoadListener(final SourceLoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
     /**
      * Gets the source encoding.
      *
@@ -91,6 +158,22 @@ public abstract class AbstractSourceLoader implements SourceLoader {
         return this.directoryPrefix + sourceFile;
     }
 
+    /**
+     * Gets the interned file path. Source files are resolved against the interned source base directory, so the
+     * directory prefix is shared by all sources of the loader.
+     *
+     * @param sourceFile
+     *            the source file
+     *
+     * @return the interned file path
+     */
+    protected SourcePath getFilePath(final String sourceFile) {
+        if (this.directory != null) {
+            return this.directory.resolve(sourceFile);
+        }
+        return SourcePath.of(this.getFileName(sourceFile));
+    }
+
     /**
      * Locate.
      *
@@ -0,0 +1,275 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Branch;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
+
+/**
+ * Thread safe counterpart of {@link UniqueSourceCallback} for coverage reports that are parsed concurrently. Repeated
+ * source files are merged in a concurrent map keyed by the source identity, line and branch hits are accumulated with
+ * atomic operations, so parsers never wait for each other while merging the same source file.
+ * <p>
+ * Merged source files are passed to the delegate on {@link #onComplete()} in the order they were first seen. Source
+ * files that are not repeatable are passed to the delegate immediately, one at a time, so the delegate does not need to
+ * be thread safe. {@link #onComplete()} must be called only after all parsers have finished.
+ */
+public class ConcurrentMergeSourceCallback implements SourceCallback {
+
+    /** The merged sources. */
+    private final Map<SourceIdentity, MergedSource> merged = new ConcurrentHashMap<>();
+
+    /** The sequence of first seen source files. */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** The delegate. */
+    private final SourceCallback delegate;
+
+    /** The predicate for source files that can be repeated. */
+    private final Predicate<Source> repeatable;
+
+    /** The identities of source files passed directly to the delegate. */
+    private final Set<SourceIdentity> passed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Instantiates a new concurrent merge source callback that merges all source files.
+     *
+     * @param delegate
+     *            the delegate
+     */
+    public ConcurrentMergeSourceCallback(final SourceCallback delegate) {
+        this(delegate, source -> true);
+    }
+
+    /**
+     * Instantiates a new concurrent merge source callback that merges only source files that can be repeated.
+     *
+     * @param delegate
+     *            the delegate
+     * @param repeatable
+     *            the predicate for source files that can be repeated, others are passed directly to the delegate
+     */
+    public ConcurrentMergeSourceCallback(final SourceCallback delegate, final Predicate<Source> repeatable) {
+        this.delegate = delegate;
+        this.repeatable = repeatable;
+    }
+
+    @Override
+    public void onBegin() throws ProcessingException, IOException {
+        this.delegate.onBegin();
+    }
+
+    @Override
+    public void onSource(final Source source) throws ProcessingException, IOException {
+        if (this.repeatable.test(source)) {
+            this.merged.computeIfAbsent(new SourceIdentity(source),
+                    identity -> new MergedSource(source, this.sequence.getAndIncrement())).add(source);
+            source.release();
+        } else if (this.passed.add(new SourceIdentity(source))) {
+            synchronized (this.delegate) {
+                this.delegate.onSource(source);
+            }
+        } else {
+            throw new ProcessingException("Source file " + source.getName()
+                    + " was reported more than once although it was expected to be unique");
+        }
+    }
+
+    @Override
+    public void onComplete() throws ProcessingException, IOException {
+        final List<MergedSource> sources = new ArrayList<>(this.merged.values());
+        sources.sort(Comparator.comparingLong(source -> source.order));
+        for (final MergedSource source : sources) {
+            this.delegate.onSource(source.toSource());
+        }
+        this.delegate.onComplete();
+    }
+
+    /**
+     * Accumulated coverage of a repeated source file.
+     */
+    private static final class MergedSource {
+
+        /** The name. */
+        private final SourcePath name;
+
+        /** The digest. */
+        private final byte[] digest;
+
+        /** The classifier. */
+        private final String classifier;
+
+        /** The first seen order. */
+        private final long order;
+
+        /** The line hits incremented by one as unsigned values, zero for lines that are not relevant. */
+        private final AtomicIntegerArray hits;
+
+        /** The branch hits. */
+        private final Map<BranchKey, BranchHits> branches = new ConcurrentHashMap<>();
+
+        /** The sequence of first seen branches. */
+        private final AtomicLong branchSequence = new AtomicLong();
+
+        /**
+         * Instantiates a new merged source.
+         *
+         * @param source
+         *            the first seen source
+         * @param order
+         *            the first seen order
+         */
+        MergedSource(final Source source, final long order) {
+            this.name = source.getPath();
+            this.digest = source.getDigestBytes();
+            this.classifier = source.getClassifier();
+            this.order = order;
+            this.hits = new AtomicIntegerArray(source.getLines());
+        }
+
+        /**
+         * Accumulates the coverage of a source.
+         *
+         * @param source
+         *            the source
+         */
+        void add(final Source source) {
+            for (var line = 1; line <= this.hits.length(); line++) {
+                final var coverage = source.getCoverage(line);
+                if (coverage != null) {
+                    this.hits.accumulateAndGet(line - 1, coverage,
+                            (current, value) -> current == 0 ? value + 1 : Source.addHits(current - 1, value) + 1);
+                }
+            }
+            for (final Branch branch : source.getBranchesList()) {
+                this.branches.computeIfAbsent(new BranchKey(branch),
+                        key -> new BranchHits(this.branchSequence.getAndIncrement())).hits
+                        .accumulateAndGet(branch.getHits(), Source::addHits);
+            }
+        }
+
+        /**
+         * Creates the merged source.
+         *
+         * @return the source
+         */
+        Source toSource() {
+            final var source = new Source(this.name, this.hits.length(), this.digest, this.classifier);
+            for (var i = 0; i < this.hits.length(); i++) {
+                final var value = this.hits.get(i);
+                if (value != 0) {
+                    source.addCoverage(i + 1, value - 1);
+                }
+            }
+            final List<Map.Entry<BranchKey, BranchHits>> entries = new ArrayList<>(this.branches.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().order));
+            for (final Map.Entry<BranchKey, BranchHits> entry : entries) {
+                final var key = entry.getKey();
+                source.addBranchCoverage(key.lineNumber, key.blockNumber, key.branchNumber,
+                        entry.getValue().hits.get());
+            }
+            return source;
+        }
+    }
+
+    /**
+     * Identity of a branch within a source file.
+     */
+    private static final class BranchKey {
+
+        /** The line number. */
+        private final int lineNumber;
+
+        /** The block number. */
+        private final int blockNumber;
+
+        /** The branch number. */
+        private final int branchNumber;
+
+        /**
+         * Instantiates a new branch key.
+         *
+         * @param branch
+         *            the branch
+         */
+        BranchKey(final Branch branch) {
+            this.lineNumber = branch.getLineNumber();
+            this.blockNumber = branch.getBlockNumber();
+            this.branchNumber = branch.getBranchNumber();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof BranchKey)) {
+                return false;
+            }
+            final var other = (BranchKey) obj;
+            return this.lineNumber == other.lineNumber && this.blockNumber == other.blockNumber
+                    && this.branchNumber == other.branchNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.lineNumber, this.blockNumber, this.branchNumber);
+        }
+    }
+
+    /**
+     * Accumulated hits of a branch.
+     */
+    private static final class BranchHits {
+
+        /** The first seen order. */
+        private final long order;
+
+        /** The hits. */
+        private final AtomicInteger hits = new AtomicInteger();
+
+        /**
+         * Instantiates a new branch hits.
+         *
+         * @param order
+         *            the first seen order
+         */
+        BranchHits(final long order) {
+            this.order = order;
+        }
+    }
+}
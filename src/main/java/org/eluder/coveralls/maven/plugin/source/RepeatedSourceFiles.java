@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eluder.coveralls.maven.plugin.domain.Source;
+
+/**
+ * Tracks source files referenced by the scanned coverage reports and tells which sources may be reported more than
+ * once. A source may be repeated if its file is referenced multiple times, or if the name of the loaded source does
+ * not end with exactly one referenced source file, as different source directories can resolve to the same source.
+ */
+public class RepeatedSourceFiles implements Predicate<Source> {
+
+    /** The path separator used in source names. */
+    private static final char SEPARATOR = '/';
+
+    /** The referenced source files. */
+    private final Set<String> referenced = new HashSet<>();
+
+    /** The source files referenced more than once. */
+    private final Set<String> repeated = new HashSet<>();
+
+    /**
+     * Instantiates a new repeated source files tracker.
+     */
+    public RepeatedSourceFiles() {
+        // do nothing
+    }
+
+    /**
+     * Adds a source file reference.
+     *
+     * @param sourceFile
+     *            the source file as referenced in the coverage report
+     */
+    public void add(final String sourceFile) {
+        if (!this.referenced.add(sourceFile)) {
+            this.repeated.add(sourceFile);
+        }
+    }
+
+    /**
+     * Gets the number of distinct referenced source files.
+     *
+     * @return the number of referenced source files
+     */
+    public int getReferenced() {
+        return this.referenced.size();
+    }
+
+    /**
+     * Gets the number of source files referenced more than once.
+     *
+     * @return the number of repeated source files
+     */
+    public int getRepeated() {
+        return this.repeated.size();
+    }
+
+    /**
+     * Checks if the source may be reported more than once.
+     *
+     * @param source
+     *            the loaded source
+     *
+     * @return true, if the source may be repeated
+     */
+    @Override
+    public boolean test(final Source source) {
+        final var name = source.getName();
+        var matches = 0;
+        var index = -1;
+        do {
+            final var suffix = name.substring(index + 1);
+            if (this.repeated.contains(suffix)) {
+                return true;
+            }
+            if (this.referenced.contains(suffix)) {
+                matches++;
+            }
+            index = name.indexOf(RepeatedSourceFiles.SEPARATOR, index + 1);
+        } while (index >= 0 && matches < 2);
+        // uniqueness is proven only if exactly one referenced source file resolves to the name
+        return matches != 1;
+    }
+}
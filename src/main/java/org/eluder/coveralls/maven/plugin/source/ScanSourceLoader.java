@@ -31,12 +31,13 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
 import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.SelectorUtils;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
 
 /**
  * The Class ScanSourceLoader.
@@ -44,7 +45,7 @@ import org.codehaus.plexus.util.SelectorUtils;
 public class ScanSourceLoader extends AbstractSourceLoader {
 
     /** The cache. */
-    private final Map<String, String[]> cache = new HashMap<>();
+    private final Map<String, String[]> cache = new ConcurrentHashMap<>();
 
     /** The source directory. */
     private final File sourceDirectory;
@@ -110,4 +111,9 @@ public class ScanSourceLoader extends AbstractSourceLoader {
         return sourceFile;
     }
 
+    @Override
+    protected SourcePath getFilePath(final String sourceFile) {
+        return SourcePath.of(this.getFileName(sourceFile));
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
+
+/**
+ * Lightweight identity of a source that does not hold on to the coverage data.
+ */
+final class SourceIdentity {
+
+    /** The name. */
+    private final SourcePath name;
+
+    /** The digest. */
+    private final byte[] digest;
+
+    /** The lines. */
+    private final int lines;
+
+    /**
+     * Instantiates a new source identity.
+     *
+     * @param source
+     *            the source
+     */
+    SourceIdentity(final Source source) {
+        this.name = source.getPath();
+        this.digest = source.getDigestBytes();
+        this.lines = source.getLines();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof SourceIdentity)) {
+            return false;
+        }
+        final var other = (SourceIdentity) obj;
+        return this.name == other.name && Arrays.equals(this.digest, other.digest) && this.lines == other.lines;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, Arrays.hashCode(this.digest), this.lines);
+    }
+}
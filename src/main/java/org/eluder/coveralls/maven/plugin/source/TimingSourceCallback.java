@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.io.IOException;
+import java.util.function.LongConsumer;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+
+/**
+ * Source callback that measures the time spent in the delegate, including the callbacks chained after it. Calls from
+ * concurrent parsers are measured separately, so the measured times add up to more than the wall clock time.
+ */
+public class TimingSourceCallback implements SourceCallback {
+
+    /** The delegate. */
+    private final SourceCallback delegate;
+
+    /** The consumer of the measured times in nanos. */
+    private final LongConsumer elapsed;
+
+    /**
+     * Instantiates a new timing source callback.
+     *
+     * @param delegate
+     *            the delegate
+     * @param elapsed
+     *            the consumer of the time of each call in nanos
+     */
+    public TimingSourceCallback(final SourceCallback delegate, final LongConsumer elapsed) {
+        this.delegate = delegate;
+        this.elapsed = elapsed;
+    }
+
+    @Override
+    public void onBegin() throws ProcessingException, IOException {
+        final var start = System.nanoTime();
+        try {
+            this.delegate.onBegin();
+        } finally {
+            this.elapsed.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onSource(final Source source) throws ProcessingException, IOException {
+        final var start = System.nanoTime();
+        try {
+            this.delegate.onSource(source);
+        } finally {
+            this.elapsed.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onComplete() throws ProcessingException, IOException {
+        final var start = System.nanoTime();
+        try {
+            this.delegate.onComplete();
+        } finally {
+            this.elapsed.accept(System.nanoTime() - start);
+        }
+    }
+}
@@ -25,8 +25,11 @@
 package org.eluder.coveralls.maven.plugin.source;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.Source;
@@ -34,7 +37,11 @@ import org.eluder.coveralls.maven.plugin.domain.Source;
 /**
  * Source callback that tracks passed by source files and provides only unique source files to the delegate. Note that
  * the implementation is not thread safe so the {@link #onSource(org.eluder.coveralls.maven.plugin.domain.Source)} can
- * be called only from single thread concurrently.
+ * be called only from single thread concurrently, see {@link ConcurrentMergeSourceCallback} for concurrent parsers.
+ * <p>
+ * By default all source files are buffered and merged until {@link #onComplete()}. When it is known which source files
+ * can be repeated, the rest are passed to the delegate immediately and only the repeated ones are buffered. Buffered
+ * source files are owned by this callback, their coverage is released once merged.
  */
 public class UniqueSourceCallback implements SourceCallback {
 
@@ -44,15 +51,35 @@ public class UniqueSourceCallback implements SourceCallback {
     /** The delegate. */
     private final SourceCallback delegate;
 
+    /** The predicate for source files that can be repeated. */
+    private final Predicate<Source> repeatable;
+
+    /** The identities of source files passed directly to the delegate. */
+    private final Set<SourceIdentity> passed;
+
     /**
-     * Instantiates a new unique source callback.
+     * Instantiates a new unique source callback that buffers all source files.
      *
      * @param delegate
      *            the delegate
      */
     public UniqueSourceCallback(final SourceCallback delegate) {
+        this(delegate, source -> true);
+    }
+
+    /**
+     * Instantiates a new unique source callback that buffers only source files that can be repeated.
+     *
+     * @param delegate
+     *            the delegate
+     * @param repeatable
+     *            the predicate for source files that can be repeated, others are passed directly to the delegate
+     */
+    public UniqueSourceCallback(final SourceCallback delegate, final Predicate<Source> repeatable) {
         this.cache = new LinkedHashMap<>();
         this.delegate = delegate;
+        this.repeatable = repeatable;
+        this.passed = new HashSet<>();
     }
 
     @Override
@@ -62,8 +89,21 @@ public class UniqueSourceCallback implements SourceCallback {
 
     @Override
     public void onSource(final Source source) throws ProcessingException, IOException {
-        final var merged = source.merge(this.cache.get(source));
-        this.cache.put(merged, merged);
+        if (this.repeatable.test(source)) {
+            final var cached = this.cache.get(source);
+            final var merged = source.merge(cached);
+            this.cache.put(merged, merged);
+            // the merged copy holds the coverage, the arena slots of the merged sources can be reused
+            source.release();
+            if (cached != null) {
+                cached.release();
+            }
+        } else if (this.passed.add(new SourceIdentity(source))) {
+            this.delegate.onSource(source);
+        } else {
+            throw new ProcessingException("Source file " + source.getName()
+                    + " was reported more than once although it was expected to be unique");
+        }
     }
 
     @Override
@@ -0,0 +1,455 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.spool;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Durable local spool of Coveralls data that is submitted later, e.g. by the flush goal. Entries are written to an
+ * incoming directory and moved atomically to the pending directory when complete. A flush claims pending entries by
+ * moving them to the inflight directory, so concurrent flushes never submit the same entry. Entries that were claimed
+ * by a flush that did not finish are returned to the pending directory after an hour, unless the flush still holds the
+ * lock file of the entry.
+ */
+public class Spool {
+
+    /** The Constant INCOMING. */
+    private static final String INCOMING = "incoming";
+
+    /** The Constant PENDING. */
+    private static final String PENDING = "pending";
+
+    /** The Constant INFLIGHT. */
+    private static final String INFLIGHT = "inflight";
+
+    /** The Constant REJECTED. */
+    private static final String REJECTED = "rejected";
+
+    /** The Constant LOCK. */
+    private static final String LOCK = ".lock";
+
+    /** The Constant METADATA. */
+    private static final String METADATA = "entry.properties";
+
+    /** The Constant STALE_TIMEOUT. */
+    private static final Duration STALE_TIMEOUT = Duration.ofHours(1);
+
+    /** The Constant ID_FORMAT, sortable by creation time. */
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+            .withZone(ZoneOffset.UTC);
+
+    /** The directory. */
+    private final Path directory;
+
+    /**
+     * Instantiates a new spool.
+     *
+     * @param directory
+     *            the spool directory
+     */
+    public Spool(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the directory.
+     *
+     * @return the spool directory
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Moves coveralls files to the spool.
+     *
+     * @param coverallsUrl
+     *            the coveralls url the files are submitted to
+     * @param files
+     *            the coveralls files, one per shard if the report is sharded
+     * @param repoToken
+     *            the repo token for closing the parallel build, may be null
+     * @param finishBuild
+     *            the build number of the parallel build to close after submission, or null
+     *
+     * @return the pending entry
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public SpoolEntry add(final String coverallsUrl, final List<File> files, final String repoToken,
+            final String finishBuild) throws IOException {
+        final var id = Spool.ID_FORMAT.format(Instant.now()) + "-" + UUID.randomUUID();
+        final var incoming = this.directory.resolve(Spool.INCOMING).resolve(id);
+        Files.createDirectories(incoming);
+        final List<String> names = new ArrayList<>(files.size());
+        for (final File file : files) {
+            Files.move(file.toPath(), incoming.resolve(file.getName()), StandardCopyOption.REPLACE_EXISTING);
+            names.add(file.getName());
+        }
+        final var metadata = new Properties();
+        metadata.setProperty("coverallsUrl", coverallsUrl);
+        metadata.setProperty("files", String.join("/", names));
+        if (finishBuild != null) {
+            metadata.setProperty("finishBuild", finishBuild);
+            if (repoToken != null) {
+                metadata.setProperty("repoToken", repoToken);
+            }
+        }
+        metadata.setProperty("attempts", "0");
+        Spool.writeMetadata(incoming, metadata);
+
+        final var pending = this.directory.resolve(Spool.PENDING);
+        Files.createDirectories(pending);
+        Files.move(incoming, pending.resolve(id), StandardCopyOption.ATOMIC_MOVE);
+        return Spool.readEntry(pending.resolve(id));
+    }
+
+    /**
+     * Gets the pending entries.
+     *
+     * @return the pending entries, oldest first
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public List<SpoolEntry> getPending() throws IOException {
+        final List<SpoolEntry> entries = new ArrayList<>();
+        for (final Path entry : this.list(Spool.PENDING)) {
+            try {
+                entries.add(Spool.readEntry(entry));
+            } catch (final NoSuchFileException e) {
+                // claimed meanwhile
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Claims the pending entries for submission.
+     *
+     * @return the claimed entries, oldest first
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public List<SpoolEntry> claim() throws IOException {
+        this.recoverStale();
+        final var inflight = this.directory.resolve(Spool.INFLIGHT);
+        Files.createDirectories(inflight);
+        final List<SpoolEntry> claimed = new ArrayList<>();
+        for (final Path entry : this.list(Spool.PENDING)) {
+            final var target = inflight.resolve(entry.getFileName());
+            try {
+                Files.move(entry, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final NoSuchFileException | FileAlreadyExistsException e) {
+                // claimed by another flush
+                continue;
+            }
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            claimed.add(Spool.readEntry(target));
+        }
+        return claimed;
+    }
+
+    /**
+     * Records a file of a claimed entry as accepted by the API, so that a later attempt does not submit it again.
+     *
+     * @param entry
+     *            the claimed entry
+     * @param file
+     *            the accepted coveralls file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void accept(final SpoolEntry entry, final File file) throws IOException {
+        final var metadata = Spool.readMetadata(entry.getDirectory());
+        final var accepted = metadata.getProperty("accepted", "");
+        metadata.setProperty("accepted", accepted.isEmpty() ? file.getName() : accepted + "/" + file.getName());
+        Spool.writeMetadata(entry.getDirectory(), metadata);
+    }
+
+    /**
+     * Locks a claimed entry while it is submitted, so that it is not recovered as stale by a concurrent flush however
+     * long the submission takes. Closing the returned lock releases it and removes the lock file.
+     *
+     * @param entry
+     *            the claimed entry
+     *
+     * @return the lock of the entry
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public Closeable hold(final SpoolEntry entry) throws IOException {
+        final var lockFile = Spool.lockFile(entry.getDirectory());
+        final var channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            // the lock is released when the channel is closed
+            channel.lock();
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return () -> {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(lockFile);
+            }
+        };
+    }
+
+    /**
+     * Removes a submitted entry.
+     *
+     * @param entry
+     *            the claimed entry
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void complete(final SpoolEntry entry) throws IOException {
+        FileUtils.deleteDirectory(entry.getDirectory().toFile());
+    }
+
+    /**
+     * Returns an entry whose submission failed temporarily to the pending entries.
+     *
+     * @param entry
+     *            the claimed entry
+     * @param reason
+     *            the reason of the failure
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void release(final SpoolEntry entry, final String reason) throws IOException {
+        this.moveTo(entry, Spool.PENDING, reason);
+    }
+
+    /**
+     * Moves an entry that was rejected by the API out of the pending entries, keeping it for inspection.
+     *
+     * @param entry
+     *            the claimed entry
+     * @param reason
+     *            the reason of the rejection
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void reject(final SpoolEntry entry, final String reason) throws IOException {
+        this.moveTo(entry, Spool.REJECTED, reason);
+    }
+
+    /**
+     * Moves a claimed entry after a failed submission.
+     *
+     * @param entry
+     *            the claimed entry
+     * @param state
+     *            the target state directory
+     * @param reason
+     *            the reason of the failure
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void moveTo(final SpoolEntry entry, final String state, final String reason) throws IOException {
+        final var metadata = Spool.readMetadata(entry.getDirectory());
+        metadata.setProperty("attempts", String.valueOf(entry.getAttempts() + 1));
+        metadata.setProperty("lastError", String.valueOf(reason));
+        Spool.writeMetadata(entry.getDirectory(), metadata);
+        final var target = this.directory.resolve(state);
+        Files.createDirectories(target);
+        Files.move(entry.getDirectory(), target.resolve(entry.getDirectory().getFileName()),
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns entries claimed by a flush that did not finish to the pending entries.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void recoverStale() throws IOException {
+        final var pending = this.directory.resolve(Spool.PENDING);
+        final var staleBefore = Instant.now().minus(Spool.STALE_TIMEOUT);
+        for (final Path entry : this.list(Spool.INFLIGHT)) {
+            try {
+                if (Files.getLastModifiedTime(entry).toInstant().isBefore(staleBefore) && !Spool.isHeld(entry)) {
+                    Files.createDirectories(pending);
+                    Files.move(entry, pending.resolve(entry.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                    Files.deleteIfExists(Spool.lockFile(entry));
+                }
+            } catch (final NoSuchFileException | FileAlreadyExistsException e) {
+                // recovered by another flush
+            }
+        }
+    }
+
+    /**
+     * Checks if a claimed entry is locked by a running flush.
+     *
+     * @param entry
+     *            the entry directory
+     *
+     * @return true, if the entry is being submitted
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static boolean isHeld(final Path entry) throws IOException {
+        try (var channel = FileChannel.open(Spool.lockFile(entry), StandardOpenOption.WRITE)) {
+            // the lock, if acquired, is released when the channel is closed
+            return channel.tryLock() == null;
+        } catch (final NoSuchFileException e) {
+            return false;
+        } catch (final OverlappingFileLockException e) {
+            // held by a flush of this JVM
+            return true;
+        }
+    }
+
+    /**
+     * Gets the lock file of an entry, next to the entry directory so that the directory can be moved while locked.
+     *
+     * @param entry
+     *            the entry directory
+     *
+     * @return the lock file
+     */
+    private static Path lockFile(final Path entry) {
+        return entry.resolveSibling(entry.getFileName() + Spool.LOCK);
+    }
+
+    /**
+     * Lists the entries of a state directory.
+     *
+     * @param state
+     *            the state directory
+     *
+     * @return the entry directories, oldest first
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private List<Path> list(final String state) throws IOException {
+        final var stateDirectory = this.directory.resolve(state);
+        if (!Files.isDirectory(stateDirectory)) {
+            return List.of();
+        }
+        try (var entries = Files.list(stateDirectory)) {
+            return entries.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads an entry.
+     *
+     * @param entry
+     *            the entry directory
+     *
+     * @return the entry
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static SpoolEntry readEntry(final Path entry) throws IOException {
+        final var metadata = Spool.readMetadata(entry);
+        final List<File> files = new ArrayList<>();
+        for (final String name : metadata.getProperty("files", "").split("/", -1)) {
+            if (!name.isEmpty()) {
+                files.add(entry.resolve(name).toFile());
+            }
+        }
+        final var accepted = new HashSet<>(Arrays.asList(metadata.getProperty("accepted", "").split("/", -1)));
+        return new SpoolEntry(entry, files, metadata.getProperty("coverallsUrl"), metadata.getProperty("repoToken"),
+                metadata.getProperty("finishBuild"), Integer.parseInt(metadata.getProperty("attempts", "0")),
+                accepted);
+    }
+
+    /**
+     * Reads the metadata of an entry.
+     *
+     * @param entry
+     *            the entry directory
+     *
+     * @return the metadata
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static Properties readMetadata(final Path entry) throws IOException {
+        final var metadata = new Properties();
+        try (var in = Files.newInputStream(entry.resolve(Spool.METADATA))) {
+            metadata.load(in);
+        }
+        return metadata;
+    }
+
+    /**
+     * Writes the metadata of an entry.
+     *
+     * @param entry
+     *            the entry directory
+     * @param metadata
+     *            the metadata
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeMetadata(final Path entry, final Properties metadata) throws IOException {
+        try (var out = Files.newOutputStream(entry.resolve(Spool.METADATA))) {
+            metadata.store(out, "Spooled Coveralls data");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.spool;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Coveralls data waiting in the spool. An entry holds the coveralls files of a single report, one per shard if the
+ * report is sharded, and the information needed to submit them.
+ */
+public final class SpoolEntry {
+
+    /** The directory. */
+    private final Path directory;
+
+    /** The files. */
+    private final List<File> files;
+
+    /** The coveralls url. */
+    private final String coverallsUrl;
+
+    /** The repo token. */
+    private final String repoToken;
+
+    /** The build number of the parallel build to close after submission. */
+    private final String finishBuild;
+
+    /** The attempts. */
+    private final int attempts;
+
+    /** The names of the files already accepted by the API. */
+    private final Set<String> accepted;
+
+    /**
+     * Instantiates a new spool entry.
+     *
+     * @param directory
+     *            the entry directory
+     * @param files
+     *            the coveralls files
+     * @param coverallsUrl
+     *            the coveralls url
+     * @param repoToken
+     *            the repo token for closing the parallel build
+     * @param finishBuild
+     *            the build number of the parallel build to close, or null
+     * @param attempts
+     *            the failed submission attempts
+     * @param accepted
+     *            the names of the files already accepted by the API
+     */
+    SpoolEntry(final Path directory, final List<File> files, final String coverallsUrl, final String repoToken,
+            final String finishBuild, final int attempts, final Set<String> accepted) {
+        this.directory = directory;
+        this.files = Collections.unmodifiableList(files);
+        this.coverallsUrl = coverallsUrl;
+        this.repoToken = repoToken;
+        this.finishBuild = finishBuild;
+        this.attempts = attempts;
+        this.accepted = Set.copyOf(accepted);
+    }
+
+    /**
+     * Gets the id.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return this.directory.getFileName().toString();
+    }
+
+    /**
+     * Gets the directory.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Gets the files.
+     *
+     * @return the coveralls files
+     */
+    public List<File> getFiles() {
+        return this.files;
+    }
+
+    /**
+     * Gets the coveralls url.
+     *
+     * @return the coveralls url
+     */
+    public String getCoverallsUrl() {
+        return this.coverallsUrl;
+    }
+
+    /**
+     * Gets the repo token.
+     *
+     * @return the repo token
+     */
+    public String getRepoToken() {
+        return this.repoToken;
+    }
+
+    /**
+     * Gets the build number of the parallel build to close after submission.
+     *
+     * @return the build number, or null if no build is closed
+     */
+    public String getFinishBuild() {
+        return this.finishBuild;
+    }
+
+    /**
+     * Gets the failed submission attempts.
+     *
+     * @return the attempts
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * Checks if a file was accepted by the API in an earlier attempt.
+     *
+     * @param file
+     *            the coveralls file of this entry
+     *
+     * @return true, if the file must not be submitted again
+     */
+    public boolean isAccepted(final File file) {
+        return this.accepted.contains(file.getName());
+    }
+}
@@ -60,6 +60,17 @@ public class Sha512DigestInputStream extends DigestInputStream {
         }
     }
 
+    /**
+     * Gets the binary digest.
+     * <p>
+     * <b>Note:</b> Calling this method will finalize and reset the digest, see {@link #getDigestHex()}.
+     *
+     * @return the digest
+     */
+    public byte[] getDigest() {
+        return this.getMessageDigest().digest();
+    }
+
     /**
      * Gets the digest hex.
      * <p>
@@ -69,6 +80,6 @@ public class Sha512DigestInputStream extends DigestInputStream {
      * @return the digest hex
      */
     public String getDigestHex() {
-        return Hex.encodeHexString(this.getMessageDigest().digest(), false);
+        return Hex.encodeHexString(this.getDigest(), false);
     }
 }
@@ -31,9 +31,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.maven.project.MavenProject;
+import org.eluder.coveralls.maven.plugin.domain.CoverageArena;
 import org.eluder.coveralls.maven.plugin.source.DirectorySourceLoader;
 import org.eluder.coveralls.maven.plugin.source.MultiSourceLoader;
 import org.eluder.coveralls.maven.plugin.source.ScanSourceLoader;
+import org.eluder.coveralls.maven.plugin.source.SourceLoadListener;
 import org.eluder.coveralls.maven.plugin.source.SourceLoader;
 
 /**
@@ -56,6 +58,12 @@ public class SourceLoaderFactory {
     /** The scan for sources. */
     private boolean scanForSources;
 
+    /** The coverage arena. */
+    private CoverageArena coverageArena;
+
+    /** The load listener. */
+    private SourceLoadListener loadListener;
+
     /**
      * Instantiates a new source loader factory.
      *
@@ -98,6 +106,32 @@ public class SourceLoaderFactory {
         return this;
     }
 
+    /**
+     * With coverage arena.
+     *
+     * @param coverageArena
+     *            the coverage arena, null to keep coverage on heap
+     *
+     * @return the source loader factory
+     */
+    public SourceLoaderFactory withCoverageArena(final CoverageArena coverageArena) {
+        this.coverageArena = coverageArena;
+        return this;
+    }
+
+    /**
+     * With load listener.
+     *
+     * @param loadListener
+     *            the listener for loaded source files, null to not listen
+     *
+     * @return the source loader factory
+     */
+    public SourceLoaderFactory withLoadListener(final SourceLoadListener loadListener) {
+        this.loadListener = loadListener;
+        return this;
+    }
+
     /**
      * Creates a new SourceLoader object.
      *
@@ -119,6 +153,8 @@ public class SourceLoaderFactory {
         for (final File directory : directories) {
             if (directory.exists() && directory.isDirectory()) {
                 final var moduleSourceLoader = new DirectorySourceLoader(this.baseDir, directory, this.sourceEncoding);
+                moduleSourceLoader.setCoverageArena(this.coverageArena);
+                moduleSourceLoader.setLoadListener(this.loadListener);
                 multiSourceLoader.add(moduleSourceLoader);
             }
         }
@@ -127,6 +163,8 @@ public class SourceLoaderFactory {
             for (final File directory : directories) {
                 if (directory.exists() && directory.isDirectory()) {
                     final var scanSourceLoader = new ScanSourceLoader(this.baseDir, directory, this.sourceEncoding);
+                    scanSourceLoader.setCoverageArena(this.coverageArena);
+                    scanSourceLoader.setLoadListener(this.loadListener);
                     multiSourceLoader.add(scanSourceLoader);
                 }
             }
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Properties;
+
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+
+/**
+ * Local ledger of the Coveralls data accepted by the API. Each submission key, e.g. the commit and job, maps to the
+ * digest of the last accepted data and the URL returned for it, so that an identical re-run of the same job can skip
+ * the submission. Entries older than 90 days are pruned when the ledger is updated.
+ */
+public class SubmissionLedger {
+
+    /** The Constant RETENTION. */
+    private static final Duration RETENTION = Duration.ofDays(90);
+
+    /** The ledger file. */
+    private final Path file;
+
+    /**
+     * Instantiates a new submission ledger.
+     *
+     * @param file
+     *            the ledger file
+     */
+    public SubmissionLedger(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Finds the response of an accepted submission of the same data.
+     *
+     * @param key
+     *            the submission key
+     * @param digest
+     *            the digest of the data
+     *
+     * @return the response recorded for the data, or null if the data was not accepted before
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public CoverallsResponse find(final String key, final String digest) throws IOException {
+        final var entry = this.read().getProperty(key);
+        if (entry == null) {
+            return null;
+        }
+        final var fields = entry.split(" ", 3);
+        if (fields.length < 2 || !fields[0].equals(digest)) {
+            return null;
+        }
+        final var url = fields.length == 3 && !fields[2].isEmpty() ? fields[2] : null;
+        return new CoverallsResponse("previously accepted data", false, url);
+    }
+
+    /**
+     * Records an accepted submission.
+     *
+     * @param key
+     *            the submission key
+     * @param digest
+     *            the digest of the data
+     * @param response
+     *            the API response
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void record(final String key, final String digest, final CoverallsResponse response) throws IOException {
+        final var directory = this.file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final var now = System.currentTimeMillis();
+        synchronized (SubmissionLedger.class) {
+            try (var channel = FileChannel.open(directory.resolve(this.file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // the lock file serializes updates from concurrent builds, closing the channel releases the lock
+                channel.lock();
+                final var entries = this.read();
+                entries.entrySet().removeIf(entry -> SubmissionLedger.isExpired(entry.getValue().toString(), now));
+                final var url = response.getUrl() == null ? "" : response.getUrl();
+                entries.setProperty(key, digest + " " + now + " " + url);
+
+                final var temp = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+                try {
+                    try (var out = Files.newOutputStream(temp)) {
+                        entries.store(out, "Coveralls submissions");
+                    }
+                    Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the ledger.
+     *
+     * @return the entries
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private Properties read() throws IOException {
+        final var entries = new Properties();
+        if (Files.isRegularFile(this.file)) {
+            try (var in = Files.newInputStream(this.file)) {
+                entries.load(in);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Checks if an entry is older than the retention.
+     *
+     * @param entry
+     *            the entry
+     * @param now
+     *            the current time in millis
+     *
+     * @return true, if expired or unreadable
+     */
+    private static boolean isExpired(final String entry, final long now) {
+        final var fields = entry.split(" ", 3);
+        try {
+            return fields.length < 2 || now - Long.parseLong(fields[1]) > SubmissionLedger.RETENTION.toMillis();
+        } catch (final NumberFormatException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eluder.coveralls.maven.plugin.httpclient.TransferTimings;
+
+/**
+ * Timings of the phases of a plugin execution, written as a JSON report so that the plugin performance can be tracked
+ * across builds. Phases are kept in the order they were first recorded, and times of a phase recorded more than once,
+ * e.g. from concurrent parser threads, are summed. Recorded phases, report parses and requests are also kept as
+ * spans with their start and end times, for writing a trace of the execution with {@link TraceReport}.
+ */
+public final class TimingReport {
+
+    /** The Constant JSON_FACTORY. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** The Constant NANOS_PER_MILLI. */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /** The wall clock start time. */
+    private final Instant started = Instant.now();
+
+    /** The start time in nanos. */
+    private final long start = System.nanoTime();
+
+    /** The phase times in nanos. */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /** The parse times of the coverage reports in nanos. */
+    private final Map<String, Long> reports = new LinkedHashMap<>();
+
+    /** The timings of the requests to the API. */
+    private final List<TransferTimings> transfers = new ArrayList<>();
+
+    /** The recorded spans. */
+    private final List<Span> spans = new ArrayList<>();
+
+    /**
+     * Adds time to a phase.
+     *
+     * @param phase
+     *            the phase
+     * @param nanos
+     *            the time in nanos
+     */
+    public synchronized void add(final String phase, final long nanos) {
+        this.phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Records a phase that ends now.
+     *
+     * @param phase
+     *            the phase
+     * @param startNanos
+     *            the start time of the phase from {@link System#nanoTime()}
+     */
+    public void record(final String phase, final long startNanos) {
+        final var end = System.nanoTime();
+        synchronized (this) {
+            this.phases.merge(phase, end - startNanos, Long::sum);
+            this.spans.add(new Span(phase, startNanos, end, Map.of()));
+        }
+    }
+
+    /**
+     * Removes a phase.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the time of the phase in nanos, zero if not recorded
+     */
+    public synchronized long remove(final String phase) {
+        final var nanos = this.phases.remove(phase);
+        return nanos == null ? 0 : nanos;
+    }
+
+    /**
+     * Gets the time of a phase.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the time of the phase in nanos, zero if not recorded
+     */
+    public synchronized long getNanos(final String phase) {
+        return this.phases.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * Records the parsing of a coverage report that ends now.
+     *
+     * @param coverageFile
+     *            the coverage report
+     * @param startNanos
+     *            the start time of the parsing from {@link System#nanoTime()}
+     */
+    public void recordReport(final File coverageFile, final long startNanos) {
+        final var end = System.nanoTime();
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put(Span.REPORT_FILE, coverageFile.getAbsolutePath());
+        attributes.put(Span.REPORT_SIZE, coverageFile.length());
+        synchronized (this) {
+            this.reports.merge(coverageFile.getAbsolutePath(), end - startNanos, Long::sum);
+            this.spans.add(new Span(Span.PARSE, startNanos, end, attributes));
+        }
+    }
+
+    /**
+     * Records a request to the API.
+     *
+     * @param timings
+     *            the timings of the request
+     */
+    public void recordTransfer(final TransferTimings timings) {
+        final var end = System.nanoTime();
+        final var start = end - timings.getConnect().plus(timings.getUpload()).plus(timings.getResponse()).toNanos();
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put(Span.STATUS_CODE, (long) timings.getStatusCode());
+        attributes.put(Span.REQUEST_SIZE, timings.getBytes());
+        synchronized (this) {
+            this.transfers.add(timings);
+            this.spans.add(new Span(Span.REQUEST, start, end, attributes));
+        }
+    }
+
+    /**
+     * Gets the recorded spans in the order they ended.
+     *
+     * @return the spans
+     */
+    public synchronized List<Span> getSpans() {
+        return List.copyOf(this.spans);
+    }
+
+    /**
+     * Gets the start time in nanos from {@link System#nanoTime()}.
+     *
+     * @return the start time
+     */
+    public long getStartNanos() {
+        return this.start;
+    }
+
+    /**
+     * Converts a time from {@link System#nanoTime()} to nanos since the epoch.
+     *
+     * @param nanos
+     *            the time from {@link System#nanoTime()}
+     *
+     * @return the nanos since the epoch
+     */
+    public long toEpochNanos(final long nanos) {
+        return this.started.getEpochSecond() * 1_000_000_000L + this.started.getNano() + nanos - this.start;
+    }
+
+    /**
+     * Writes the report. Times are in milliseconds.
+     *
+     * @param file
+     *            the report file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public synchronized void write(final File file) throws IOException {
+        final var total = System.nanoTime() - this.start;
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (var generator = TimingReport.JSON_FACTORY.createGenerator(Files.newOutputStream(file.toPath()))) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("started", this.started.toString());
+            TimingReport.writeMillis(generator, "total_ms", total);
+            generator.writeObjectFieldStart("phases_ms");
+            for (final Map.Entry<String, Long> phase : this.phases.entrySet()) {
+                TimingReport.writeMillis(generator, phase.getKey(), phase.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("reports");
+            for (final Map.Entry<String, Long> report : this.reports.entrySet()) {
+                generator.writeStartObject();
+                generator.writeStringField("file", report.getKey());
+                TimingReport.writeMillis(generator, "parse_ms", report.getValue());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("transfers");
+            for (final TransferTimings transfer : this.transfers) {
+                generator.writeStartObject();
+                generator.writeNumberField("status", transfer.getStatusCode());
+                generator.writeNumberField("bytes", transfer.getBytes());
+                TimingReport.writeMillis(generator, "connect_ms", transfer.getConnect().toNanos());
+                TimingReport.writeMillis(generator, "upload_ms", transfer.getUpload().toNanos());
+                TimingReport.writeMillis(generator, "response_ms", transfer.getResponse().toNanos());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a time in milliseconds with microsecond precision.
+     *
+     * @param generator
+     *            the JSON generator
+     * @param name
+     *            the field name
+     * @param nanos
+     *            the time in nanos
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeMillis(final JsonGenerator generator, final String name, final long nanos)
+            throws IOException {
+        generator.writeNumberField(name, Math.round(nanos / 1000d) / 1000d);
+    }
+
+    /**
+     * A recorded phase, report parse or request with its start and end times.
+     */
+    public static final class Span {
+
+        /** The name of the report parse spans. */
+        public static final String PARSE = "parse";
+
+        /** The name of the request spans. */
+        public static final String REQUEST = "request";
+
+        /** The coverage report file attribute. */
+        public static final String REPORT_FILE = "coveralls.report.file";
+
+        /** The coverage report size attribute. */
+        public static final String REPORT_SIZE = "coveralls.report.size";
+
+        /** The response status code attribute, zero if the request failed without a response. */
+        public static final String STATUS_CODE = "http.response.status_code";
+
+        /** The request body size attribute. */
+        public static final String REQUEST_SIZE = "http.request.body.size";
+
+        /** The name. */
+        private final String name;
+
+        /** The start time in nanos. */
+        private final long startNanos;
+
+        /** The end time in nanos. */
+        private final long endNanos;
+
+        /** The attributes, string or long values. */
+        private final Map<String, Object> attributes;
+
+        /**
+         * Instantiates a new span.
+         *
+         * @param name
+         *            the name
+         * @param startNanos
+         *            the start time from {@link System#nanoTime()}
+         * @param endNanos
+         *            the end time from {@link System#nanoTime()}
+         * @param attributes
+         *            the attributes, string or long values
+         */
+        public Span(final String name, final long startNanos, final long endNanos,
+                final Map<String, Object> attributes) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the start time from {@link System#nanoTime()}.
+         *
+         * @return the start time
+         */
+        public long getStartNanos() {
+            return this.startNanos;
+        }
+
+        /**
+         * Gets the end time from {@link System#nanoTime()}.
+         *
+         * @return the end time
+         */
+        public long getEndNanos() {
+            return this.endNanos;
+        }
+
+        /**
+         * Gets the duration in nanos.
+         *
+         * @return the duration
+         */
+        public long getNanos() {
+            return this.endNanos - this.startNanos;
+        }
+
+        /**
+         * Gets the attributes.
+         *
+         * @return the attributes, string or long values
+         */
+        public Map<String, Object> getAttributes() {
+            return this.attributes;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.eluder.coveralls.maven.plugin.util.TimingReport.Span;
+
+/**
+ * Trace of a plugin execution, written as a span tree in the OpenTelemetry OTLP/JSON file format so that the coverage
+ * processing can be imported alongside the other traces of a build. The root span covers the whole execution, and the
+ * recorded phases, report parses and requests of a {@link TimingReport} are nested under the shortest span that
+ * contains them. A W3C trace context, e.g. from the {@code TRACEPARENT} environment variable, makes the root span a
+ * child of the span of the calling build.
+ */
+public final class TraceReport {
+
+    /** The Constant JSON_FACTORY. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** The Constant TRACE_PARENT. */
+    private static final Pattern TRACE_PARENT = Pattern
+            .compile("[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+
+    /** The Constant SERVICE_NAME. */
+    static final String SERVICE_NAME = "coveralls-maven-plugin";
+
+    /** The Constant SCOPE_NAME. */
+    static final String SCOPE_NAME = "org.eluder.coveralls.maven.plugin";
+
+    /** The Constant ROOT_NAME. */
+    static final String ROOT_NAME = "coveralls:report";
+
+    /** The Constant KIND_INTERNAL. */
+    private static final int KIND_INTERNAL = 1;
+
+    /** The Constant KIND_CLIENT. */
+    private static final int KIND_CLIENT = 3;
+
+    /** The Constant STATUS_ERROR. */
+    private static final int STATUS_ERROR = 2;
+
+    /** The timings. */
+    private final TimingReport timings;
+
+    /** The trace id. */
+    private final String traceId;
+
+    /** The parent span id of the root span, null if none. */
+    private final String parentSpanId;
+
+    /**
+     * Instantiates a new trace report.
+     *
+     * @param timings
+     *            the timings with the recorded spans
+     * @param traceParent
+     *            the W3C trace context of the calling build, a new trace is started if null or invalid
+     */
+    public TraceReport(final TimingReport timings, final String traceParent) {
+        this.timings = timings;
+        final var matcher = traceParent == null ? null
+                : TraceReport.TRACE_PARENT.matcher(traceParent.trim().toLowerCase(Locale.ROOT));
+        if (matcher != null && matcher.matches() && !matcher.group(1).matches("0+")
+                && !matcher.group(2).matches("0+")) {
+            this.traceId = matcher.group(1);
+            this.parentSpanId = matcher.group(2);
+        } else {
+            this.traceId = TraceReport.randomId() + TraceReport.randomId();
+            this.parentSpanId = null;
+        }
+    }
+
+    /**
+     * Gets the trace id.
+     *
+     * @return the trace id
+     */
+    public String getTraceId() {
+        return this.traceId;
+    }
+
+    /**
+     * Writes the trace. The root span ends now.
+     *
+     * @param file
+     *            the trace file
+     * @param failure
+     *            the failure of the execution, null if succeeded
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void write(final File file, final Throwable failure) throws IOException {
+        final var end = System.nanoTime();
+        final var spans = this.timings.getSpans();
+        final var rootId = TraceReport.randomId();
+        final var ids = new String[spans.size()];
+        for (var i = 0; i < ids.length; i++) {
+            ids[i] = TraceReport.randomId();
+        }
+        final var parents = TraceReport.findParents(spans);
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (var generator = TraceReport.JSON_FACTORY.createGenerator(Files.newOutputStream(file.toPath()))) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("resourceSpans");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("resource");
+            generator.writeArrayFieldStart("attributes");
+            TraceReport.writeAttribute(generator, "service.name", TraceReport.SERVICE_NAME);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("scopeSpans");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("scope");
+            generator.writeStringField("name", TraceReport.SCOPE_NAME);
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("spans");
+            this.writeSpan(generator, rootId, this.parentSpanId,
+                    new Span(TraceReport.ROOT_NAME, this.timings.getStartNanos(), end, Map.of()),
+                    TraceReport.KIND_INTERNAL, failure == null ? null : String.valueOf(failure.getMessage()));
+            for (var i = 0; i < ids.length; i++) {
+                final var span = spans.get(i);
+                final var parent = parents[i];
+                final var request = Span.REQUEST.equals(span.getName());
+                this.writeSpan(generator, ids[i], parent < 0 ? rootId : ids[parent], span,
+                        request ? TraceReport.KIND_CLIENT : TraceReport.KIND_INTERNAL,
+                        request ? TraceReport.requestError(span) : null);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Finds the parents of the spans, the shortest longer phase that contains the span. Report parses and requests
+     * are never parents, so the few phases are the only candidates and the search is linear in the number of spans.
+     *
+     * @param spans
+     *            the spans
+     *
+     * @return the index of the parent by span index, -1 if the parent is the root span
+     */
+    private static int[] findParents(final List<Span> spans) {
+        final List<Integer> phases = new ArrayList<>();
+        for (var i = 0; i < spans.size(); i++) {
+            final var name = spans.get(i).getName();
+            if (!Span.PARSE.equals(name) && !Span.REQUEST.equals(name)) {
+                phases.add(i);
+            }
+        }
+        // shortest first, so that the first containing phase is the parent
+        phases.sort(Comparator.comparingLong(index -> spans.get(index).getNanos()));
+        final var parents = new int[spans.size()];
+        for (var i = 0; i < parents.length; i++) {
+            final var span = spans.get(i);
+            parents[i] = -1;
+            for (final int phase : phases) {
+                final var candidate = spans.get(phase);
+                if (candidate.getNanos() > span.getNanos() && candidate.getStartNanos() <= span.getStartNanos()
+                        && candidate.getEndNanos() >= span.getEndNanos()) {
+                    parents[i] = phase;
+                    break;
+                }
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Gets the error of a request span.
+     *
+     * @param span
+     *            the request span
+     *
+     * @return the error message, null if the request succeeded
+     */
+    private static String requestError(final Span span) {
+        final var status = span.getAttributes().get(Span.STATUS_CODE);
+        if (status instanceof Long && (Long) status == 0) {
+            return "Request failed without a response";
+        }
+        if (status instanceof Long && (Long) status >= 400) {
+            return "HTTP " + status;
+        }
+        return null;
+    }
+
+    /**
+     * Writes a span.
+     *
+     * @param generator
+     *            the JSON generator
+     * @param spanId
+     *            the span id
+     * @param parentSpanId
+     *            the parent span id, null if none
+     * @param span
+     *            the span
+     * @param kind
+     *            the span kind
+     * @param error
+     *            the error message, null if succeeded
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeSpan(final JsonGenerator generator, final String spanId, final String parentSpanId,
+            final Span span, final int kind, final String error) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", this.traceId);
+        generator.writeStringField("spanId", spanId);
+        if (parentSpanId != null) {
+            generator.writeStringField("parentSpanId", parentSpanId);
+        }
+        generator.writeStringField("name", span.getName());
+        generator.writeNumberField("kind", kind);
+        generator.writeStringField("startTimeUnixNano",
+                Long.toString(this.timings.toEpochNanos(span.getStartNanos())));
+        generator.writeStringField("endTimeUnixNano", Long.toString(this.timings.toEpochNanos(span.getEndNanos())));
+        generator.writeArrayFieldStart("attributes");
+        for (final Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            TraceReport.writeAttribute(generator, attribute.getKey(), attribute.getValue());
+        }
+        generator.writeEndArray();
+        if (error != null) {
+            generator.writeObjectFieldStart("status");
+            generator.writeNumberField("code", TraceReport.STATUS_ERROR);
+            generator.writeStringField("message", error);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes an attribute. Integer values are written as strings, as 64 bit integers are in OTLP/JSON.
+     *
+     * @param generator
+     *            the JSON generator
+     * @param key
+     *            the key
+     * @param value
+     *            the value, a long or a string
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeAttribute(final JsonGenerator generator, final String key, final Object value)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", key);
+        generator.writeObjectFieldStart("value");
+        if (value instanceof Long) {
+            generator.writeStringField("intValue", value.toString());
+        } else {
+            generator.writeStringField("stringValue", String.valueOf(value));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Creates a random non-zero 8 byte id.
+     *
+     * @return the id as 16 hex digits
+     */
+    private static String randomId() {
+        final var random = ThreadLocalRandom.current();
+        var id = 0L;
+        while (id == 0) {
+            id = random.nextLong();
+        }
+        return String.format("%016x", id);
+    }
+}
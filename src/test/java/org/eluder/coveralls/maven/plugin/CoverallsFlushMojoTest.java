@@ -0,0 +1,317 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsClient;
+import org.eluder.coveralls.maven.plugin.spool.Spool;
+import org.eluder.coveralls.maven.plugin.util.TestMojoUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class CoverallsFlushMojoTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoverallsFlushMojoTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /** The coveralls server. */
+    @RegisterExtension
+    static WireMockExtension coverallsServer = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort()).build();
+
+    /** The coveralls client mock. */
+    @Mock
+    CoverallsClient coverallsClientMock;
+
+    /** The coveralls client used by the mojo. */
+    CoverallsClient coverallsClient;
+
+    /** The log mock. */
+    @Mock
+    Log logMock;
+
+    /** The spool. */
+    Spool spool;
+
+    /** The mojo. */
+    CoverallsFlushMojo mojo;
+
+    /**
+     * Inits the Coveralls Flush Mojo.
+     */
+    @BeforeEach
+    void init() {
+        this.spool = new Spool(this.folder.resolve("spool"));
+        this.coverallsClient = this.coverallsClientMock;
+        this.mojo = new CoverallsFlushMojo() {
+            @Override
+            protected CoverallsClient createCoverallsClient(final String coverallsUrl) {
+                Assertions.assertEquals("https://coveralls.io/api/v1/jobs", coverallsUrl);
+                return CoverallsFlushMojoTest.this.coverallsClient;
+            }
+
+            @Override
+            public Log getLog() {
+                return CoverallsFlushMojoTest.this.logMock;
+            }
+        };
+        TestMojoUtil.setParameter(this.mojo, "spoolDirectory", this.spool.getDirectory().toFile());
+        TestMojoUtil.setParameter(this.mojo, "flushThreads", 2);
+    }
+
+    /**
+     * Skip.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     */
+    @Test
+    void skip() throws MojoExecutionException, MojoFailureException {
+        this.mojo.skip = true;
+        this.mojo.execute();
+        Mockito.verify(this.logMock).info("Skip property set, skipping plugin execution");
+        Mockito.verifyNoInteractions(this.coverallsClientMock);
+    }
+
+    /**
+     * Empty spool.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     */
+    @Test
+    void emptySpool() throws MojoExecutionException, MojoFailureException {
+        this.mojo.execute();
+        Mockito.verify(this.logMock).info(ArgumentMatchers.startsWith("No spooled Coveralls data in "));
+        Mockito.verifyNoInteractions(this.coverallsClientMock);
+    }
+
+    /**
+     * Spooled reports are submitted and removed.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flush() throws Exception {
+        this.spool("a.json", null);
+        this.spool("b.json", null);
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("Job #1.1", false, "https://coveralls.io/jobs/1"));
+        this.mojo.execute();
+
+        Mockito.verify(this.coverallsClientMock, Mockito.times(2)).submit(ArgumentMatchers.any(File.class));
+        Mockito.verify(this.logMock).info(ArgumentMatchers.startsWith("Flushed 2 of 2 spooled Coveralls reports in "));
+        Assertions.assertTrue(this.spool.claim().isEmpty());
+    }
+
+    /**
+     * Spooled shards close the parallel build.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushShards() throws Exception {
+        this.spool("coveralls-1.json", "build5");
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("Job #5.1", false, null));
+        Mockito.when(this.coverallsClientMock.finish("token", "build5"))
+                .thenReturn(new CoverallsResponse("parallel build build5", false, "https://coveralls.io/builds/5"));
+        this.mojo.execute();
+
+        Mockito.verify(this.logMock).info(ArgumentMatchers.endsWith(": https://coveralls.io/builds/5"));
+    }
+
+    /**
+     * Temporarily failing reports stay in the spool.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushUnavailable() throws Exception {
+        this.spool("coveralls.json", null);
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenThrow(new IOException("HTTP status 503"));
+        this.mojo.execute();
+
+        Mockito.verify(this.logMock).warn(ArgumentMatchers.startsWith("Flushed 0 of 1 spooled Coveralls reports in "));
+        final var pending = this.spool.getPending();
+        Assertions.assertEquals(1, pending.size());
+        Assertions.assertEquals(1, pending.get(0).getAttempts());
+    }
+
+    /**
+     * Shards accepted before a temporary failure are not submitted again.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushPartiallyAccepted() throws Exception {
+        final File first = Files.writeString(this.folder.resolve("coveralls-1.json"), "{}").toFile();
+        final File second = Files.writeString(this.folder.resolve("coveralls-2.json"), "{}").toFile();
+        this.spool.add("https://coveralls.io/api/v1/jobs", List.of(first, second), "token", null);
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("Job #1.1", false, "https://coveralls.io/jobs/1"))
+                .thenThrow(new IOException("HTTP status 503"))
+                .thenReturn(new CoverallsResponse("Job #1.2", false, "https://coveralls.io/jobs/2"));
+        this.mojo.execute();
+        this.mojo.execute();
+
+        final var submitted = ArgumentCaptor.forClass(File.class);
+        Mockito.verify(this.coverallsClientMock, Mockito.times(3)).submit(submitted.capture());
+        Assertions.assertEquals(List.of("coveralls-1.json", "coveralls-2.json", "coveralls-2.json"),
+                submitted.getAllValues().stream().map(File::getName).collect(Collectors.toList()));
+        Mockito.verify(this.logMock).info(ArgumentMatchers.startsWith("Flushed 1 of 1 spooled Coveralls reports in "));
+        Assertions.assertTrue(this.spool.claim().isEmpty());
+    }
+
+    /**
+     * Rate limited reports stay in the spool.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushTooManyRequests() throws Exception {
+        this.flushServerResponse(WireMock.aResponse().withStatus(429).withBody("Rate limit exceeded"));
+    }
+
+    /**
+     * Reports answered with an error page of a proxy stay in the spool.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushClientErrorPage() throws Exception {
+        this.flushServerResponse(WireMock.badRequest().withHeader("Content-Type", "text/html")
+                .withBody("<html><body>Bad Request</body></html>"));
+    }
+
+    /**
+     * Reports answered with an error page of a gateway stay in the spool.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushBadGatewayPage() throws Exception {
+        this.flushServerResponse(WireMock.aResponse().withStatus(502).withHeader("Content-Type", "text/html")
+                .withBody("<html><body>Bad Gateway</body></html>"));
+    }
+
+    /**
+     * Rejected reports are moved aside and fail the build when requested.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void flushRejected() throws Exception {
+        this.spool("coveralls.json", null);
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenThrow(new ProcessingException("invalid token"));
+        this.mojo.failOnServiceError = true;
+        Assertions.assertThrows(MojoFailureException.class, () -> this.mojo.execute());
+
+        Assertions.assertTrue(this.spool.getPending().isEmpty());
+        Assertions.assertTrue(Files.isDirectory(this.spool.getDirectory().resolve("rejected")));
+    }
+
+    /**
+     * Flushes a spooled report to the Coveralls API stand-in and checks that it is pending again.
+     *
+     * @param response
+     *            the response of the API
+     *
+     * @throws Exception
+     *             the exception
+     */
+    private void flushServerResponse(final ResponseDefinitionBuilder response) throws Exception {
+        CoverallsFlushMojoTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(response));
+        this.coverallsClient = new CoverallsClient(CoverallsFlushMojoTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        this.spool("coveralls.json", null);
+        this.mojo.execute();
+
+        Mockito.verify(this.logMock).warn(ArgumentMatchers.startsWith("Flushed 0 of 1 spooled Coveralls reports in "));
+        final var pending = this.spool.getPending();
+        Assertions.assertEquals(1, pending.size());
+        Assertions.assertEquals(1, pending.get(0).getAttempts());
+        Assertions.assertFalse(Files.exists(this.spool.getDirectory().resolve("rejected")));
+    }
+
+    /**
+     * Spools a coveralls file.
+     *
+     * @param name
+     *            the file name
+     * @param finishBuild
+     *            the build to close
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void spool(final String name, final String finishBuild) throws IOException {
+        final File file = Files.writeString(this.folder.resolve(name), "{}").toFile();
+        this.spool.add("https://coveralls.io/api/v1/jobs", List.of(file), "token", finishBuild);
+    }
+}
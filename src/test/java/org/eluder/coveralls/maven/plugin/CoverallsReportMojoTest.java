@@ -24,13 +24,23 @@
  */
 package org.eluder.coveralls.maven.plugin;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
@@ -40,15 +50,23 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
+import org.eluder.coveralls.maven.plugin.domain.CoverageArena;
 import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
 import org.eluder.coveralls.maven.plugin.domain.Git;
 import org.eluder.coveralls.maven.plugin.domain.Job;
 import org.eluder.coveralls.maven.plugin.domain.Source;
 import org.eluder.coveralls.maven.plugin.httpclient.CoverallsClient;
+import org.eluder.coveralls.maven.plugin.httpclient.CoverallsUpload;
 import org.eluder.coveralls.maven.plugin.json.JsonWriter;
+import org.eluder.coveralls.maven.plugin.logging.Logger;
 import org.eluder.coveralls.maven.plugin.parser.CoberturaParser;
+import org.eluder.coveralls.maven.plugin.source.ConcurrentMergeSourceCallback;
 import org.eluder.coveralls.maven.plugin.source.SourceLoader;
+import org.eluder.coveralls.maven.plugin.spool.Spool;
+import org.eluder.coveralls.maven.plugin.util.MonorepoGenerator;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
 import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
+import org.eluder.coveralls.maven.plugin.util.TestMojoUtil;
 import org.eluder.coveralls.maven.plugin.validation.ValidationErrors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -137,7 +155,7 @@ class CoverallsReportMojoTest {
 
         this.mojo = new CoverallsReportMojo() {
             @Override
-            protected SourceLoader createSourceLoader(final Job job) {
+            protected SourceLoader createSourceLoader(final Job job, final CoverageArena arena) {
                 return CoverallsReportMojoTest.this.sourceLoaderMock;
             }
 
@@ -228,6 +246,101 @@ class CoverallsReportMojoTest {
         Assertions.assertNotNull(source);
     }
 
+    /**
+     * Test create coverage arena.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void createCoverageArena() throws IOException {
+        TestMojoUtil.setParameter(this.mojo, "coverageArena", "heap");
+        Assertions.assertNull(this.mojo.createCoverageArena());
+        TestMojoUtil.setParameter(this.mojo, "coverageArena", "direct");
+        try (var arena = this.mojo.createCoverageArena()) {
+            Assertions.assertNotNull(arena);
+        }
+        TestMojoUtil.setParameter(this.mojo, "coverageArena", "mapped");
+        this.mojo.coverallsFile = this.coverallsFile;
+        try (var arena = this.mojo.createCoverageArena()) {
+            Assertions.assertNotNull(arena);
+        }
+        TestMojoUtil.setParameter(this.mojo, "coverageArena", "unknown");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.mojo.createCoverageArena());
+    }
+
+    /**
+     * Test create retry policy.
+     */
+    @Test
+    void createRetryPolicy() {
+        TestMojoUtil.setParameter(this.mojo, "submissionRetries", 3);
+        TestMojoUtil.setParameter(this.mojo, "submissionRetryBudget", 300);
+        Assertions.assertEquals(4, this.mojo.createRetryPolicy().getMaxAttempts());
+        TestMojoUtil.setParameter(this.mojo, "submissionRetries", -1);
+        Assertions.assertEquals(1, this.mojo.createRetryPolicy().getMaxAttempts());
+    }
+
+    /**
+     * Test create coveralls client.
+     */
+    @Test
+    void createCoverallsClient() {
+        final var mojo = new CoverallsReportMojo();
+        mojo.settings = this.settingsMock;
+        TestMojoUtil.setParameter(mojo, "coverallsUrl", "https://coveralls.io/api/v1/jobs");
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, mojo.createCoverallsClient().getHttpVersion());
+        Assertions.assertNull(mojo.createCoverallsClient().getBandwidthLimiter());
+        TestMojoUtil.setParameter(mojo, "http2", true);
+        TestMojoUtil.setParameter(mojo, "uploadBandwidth", 1024);
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, mojo.createCoverallsClient().getHttpVersion());
+        Assertions.assertEquals(1024, mojo.createCoverallsClient().getBandwidthLimiter().getBytesPerSecond());
+    }
+
+    /**
+     * Test create bandwidth limiter.
+     */
+    @Test
+    void createBandwidthLimiter() {
+        Assertions.assertNull(this.mojo.createBandwidthLimiter());
+        TestMojoUtil.setParameter(this.mojo, "uploadBandwidth", 1024 * 1024);
+        Assertions.assertEquals(1024 * 1024, this.mojo.createBandwidthLimiter().getBurst());
+        TestMojoUtil.setParameter(this.mojo, "uploadBurst", 4096);
+        Assertions.assertEquals(4096, this.mojo.createBandwidthLimiter().getBurst());
+    }
+
+    /**
+     * Test create compressing json writer.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void createCompressingJsonWriter() throws IOException {
+        final var mojo = new CoverallsReportMojo();
+        mojo.coverallsFile = this.folder.resolve("coveralls.json").toFile();
+        TestMojoUtil.setParameter(mojo, "compressCoverallsFile", true);
+        try (var writer = mojo.createJsonWriter(this.jobMock)) {
+            Assertions.assertEquals("coveralls.json.gz", writer.getCoverallsFile().getName());
+        }
+    }
+
+    /**
+     * Test create sharding json writer.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void createShardingJsonWriter() throws IOException {
+        final var mojo = new CoverallsReportMojo();
+        mojo.coverallsFile = this.folder.resolve("coveralls.json").toFile();
+        TestMojoUtil.setParameter(mojo, "shardSize", 1);
+        try (var writer = mojo.createJsonWriter(this.jobMock)) {
+            Assertions.assertEquals("coveralls-1.json", writer.getFiles().get(0).getName());
+        }
+    }
+
     /**
      * Default behavior.
      *
@@ -242,7 +355,7 @@ class CoverallsReportMojoTest {
     void defaultBehavior() throws IOException, MojoExecutionException, MojoFailureException {
         this.mojo = new CoverallsReportMojo() {
             @Override
-            protected SourceLoader createSourceLoader(final Job job) {
+            protected SourceLoader createSourceLoader(final Job job, final CoverageArena arena) {
                 return CoverallsReportMojoTest.this.sourceLoaderMock;
             }
 
@@ -250,6 +363,11 @@ class CoverallsReportMojoTest {
             protected List<CoverageParser> createCoverageParsers(SourceLoader sourceLoader) throws IOException {
                 return List.of();
             }
+
+            @Override
+            protected CoverallsClient createCoverallsClient() {
+                throw new AssertionError("Coveralls client created on dry run");
+            }
         };
         this.mojo.sourceDirectories = Arrays.asList(TestIoUtil.getFile("/"));
         this.mojo.sourceEncoding = "UTF-8";
@@ -264,6 +382,94 @@ class CoverallsReportMojoTest {
         Assertions.assertDoesNotThrow(() -> this.mojo.execute());
     }
 
+    /**
+     * Writes the coveralls file of a generated multi-module project.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     */
+    @Test
+    void writeCoverallsForGeneratedMonorepo() throws IOException, MojoExecutionException, MojoFailureException {
+        final var generator = new MonorepoGenerator(this.folder.resolve("monorepo").toFile(), 4, 60, 30)
+                .withDuplicateDensity(0.5).withFormats(ReportGenerator.Format.JACOCO, ReportGenerator.Format.CLOVER);
+        this.mojo = new CoverallsReportMojo() {
+            @Override
+            protected CoverallsClient createCoverallsClient() {
+                throw new AssertionError("Coveralls client created on dry run");
+            }
+
+            @Override
+            public Log getLog() {
+                return CoverallsReportMojoTest.this.logMock;
+            }
+        };
+        this.mojo.project = generator.generate();
+        this.mojo.settings = this.settingsMock;
+        this.mojo.sourceEncoding = "UTF-8";
+        this.mojo.repoToken = "asdfg";
+        this.mojo.dryRun = true;
+        this.mojo.basedir = this.mojo.project.getBasedir();
+        this.mojo.coverallsFile = this.folder.resolve("monorepo/target/coveralls.json").toFile();
+        this.mojo.execute();
+
+        final var sources = new ObjectMapper().readTree(this.mojo.coverallsFile).path("source_files");
+        Assertions.assertEquals(generator.getSourceFiles(), sources.size());
+        Assertions.assertEquals("module-0000/src/main/java/org/eluder/synthetic/m0/p0/Synthetic0.java",
+                sources.path(0).path("name").asText());
+    }
+
+    /**
+     * Write the coverage summary of a generated multi-module project.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     */
+    @Test
+    void writeCoverageSummaryForGeneratedMonorepo() throws IOException, MojoExecutionException, MojoFailureException {
+        final var generator = new MonorepoGenerator(this.folder.resolve("monorepo").toFile(), 2, 60, 30);
+        this.mojo = new CoverallsReportMojo() {
+            @Override
+            protected CoverallsClient createCoverallsClient() {
+                throw new AssertionError("Coveralls client created on dry run");
+            }
+
+            @Override
+            public Log getLog() {
+                return CoverallsReportMojoTest.this.logMock;
+            }
+        };
+        this.mojo.project = generator.generate();
+        this.mojo.settings = this.settingsMock;
+        this.mojo.sourceEncoding = "UTF-8";
+        this.mojo.repoToken = "asdfg";
+        this.mojo.dryRun = true;
+        this.mojo.basedir = this.mojo.project.getBasedir();
+        this.mojo.coverallsFile = this.folder.resolve("monorepo/target/coveralls.json").toFile();
+        final var summary = this.folder.resolve("monorepo/target/coveralls-summary.json").toFile();
+        TestMojoUtil.setParameter(this.mojo, "coverageSummary", summary);
+        this.mojo.execute();
+
+        final var json = new ObjectMapper().readTree(summary);
+        Assertions.assertEquals(generator.getSourceFiles(), json.path("total").path("files").asInt());
+        final var modules = json.path("modules");
+        Assertions.assertEquals(2, modules.size());
+        Assertions.assertEquals("module-0000", modules.path(0).path("module").asText());
+        final var packages = modules.path(0).path("packages");
+        Assertions.assertEquals(2, packages.size());
+        Assertions.assertEquals("org.eluder.synthetic.m0.p0", packages.path(0).path("package").asText());
+        Assertions.assertEquals(50, packages.path(0).path("files").asInt());
+        Assertions.assertEquals(10, packages.path(1).path("files").asInt());
+        Mockito.verify(this.logMock).info("Wrote coverage summary to " + summary.getAbsolutePath());
+    }
+
     /**
      * Successful submission.
      *
@@ -295,6 +501,402 @@ class CoverallsReportMojoTest {
         CoverallsReportMojoTest.verifySuccessfulSubmit(this.logMock, fixture);
     }
 
+    /**
+     * Successful submission writes the timing report.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithTimingReport() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, null));
+        final var timingReport = this.folder.resolve("coveralls-timings.json").toFile();
+        TestMojoUtil.setParameter(this.mojo, "timingReport", timingReport);
+        this.mojo.execute();
+
+        final var json = new ObjectMapper().readTree(timingReport);
+        final List<String> phases = new ArrayList<>();
+        json.path("phases_ms").fieldNames().forEachRemaining(phases::add);
+        Assertions.assertEquals(List.of("environment", "sourceLoader", "parserDiscovery", "repeatedSources",
+                "serialization", "write", "merge", "submission"), phases);
+        Assertions.assertEquals(TestIoUtil.getFile("cobertura.xml").getAbsolutePath(),
+                json.path("reports").path(0).path("file").asText());
+        Mockito.verify(this.coverallsClientMock).withTransferListener(ArgumentMatchers.any());
+        Mockito.verify(this.logMock).info("Wrote timing report to " + timingReport.getAbsolutePath());
+    }
+
+    /**
+     * Successful submission with the slowest operations logged.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithSlowestOperations() throws ProcessingException, IOException,
+            MojoExecutionException, MojoFailureException, InterruptedException {
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, null));
+        TestMojoUtil.setParameter(this.mojo, "logSlowest", 2);
+        this.mojo.execute();
+
+        Mockito.verify(this.logMock).info("Slowest source file merges:");
+        Mockito.verify(this.logMock, Mockito.times(2)).info(ArgumentMatchers.matches("- \\d+\\.\\d{3}ms .+\\.java "
+                + "\\(\\d+ lines, \\d+ branches\\)"));
+        Mockito.verify(this.logMock).info("Slowest coverage report parses:");
+        Mockito.verify(this.logMock).info(ArgumentMatchers.matches("- \\d+\\.\\d{3}ms .+cobertura\\.xml "
+                + "\\(\\d+ bytes\\)"));
+    }
+
+    /**
+     * Successful submission with a trace of the execution.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithTrace() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, null));
+        final var traceFile = this.folder.resolve("coveralls-trace.json").toFile();
+        TestMojoUtil.setParameter(this.mojo, "traceFile", traceFile);
+        this.mojo.execute();
+
+        final var json = new ObjectMapper().readTree(traceFile);
+        final Map<String, JsonNode> spans = new HashMap<>();
+        json.path("resourceSpans").path(0).path("scopeSpans").path(0).path("spans")
+                .forEach(span -> spans.put(span.path("name").asText(), span));
+        Assertions.assertEquals(Set.of("coveralls:report", "environment", "sourceLoader", "parserDiscovery",
+                "repeatedSources", "parse", "write", "submission"), spans.keySet());
+        final var root = spans.get("coveralls:report");
+        Assertions.assertTrue(root.path("parentSpanId").isMissingNode());
+        Assertions.assertEquals(root.path("spanId"), spans.get("write").path("parentSpanId"));
+        Assertions.assertEquals(root.path("spanId"), spans.get("submission").path("parentSpanId"));
+        Assertions.assertEquals(spans.get("write").path("spanId"), spans.get("parse").path("parentSpanId"));
+        Assertions.assertEquals(TestIoUtil.getFile("cobertura.xml").getAbsolutePath(),
+                spans.get("parse").path("attributes").path(0).path("value").path("stringValue").asText());
+        Mockito.verify(this.logMock).info("Wrote trace to " + traceFile.getAbsolutePath());
+    }
+
+    /**
+     * Successful submission after pre-connecting to the API.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithPreconnect() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        Mockito.when(this.coverallsClientMock.preconnect())
+                .thenReturn(CompletableFuture.failedFuture(new IOException("unreachable")));
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, null));
+        TestMojoUtil.setParameter(this.mojo, "preconnect", true);
+        this.mojo.execute();
+
+        final var order = Mockito.inOrder(this.coverallsClientMock);
+        order.verify(this.coverallsClientMock).preconnect();
+        order.verify(this.coverallsClientMock).submit(ArgumentMatchers.any(File.class));
+        Mockito.verify(this.logMock).debug(ArgumentMatchers.eq("Pre-connecting to Coveralls API failed"),
+                ArgumentMatchers.any(IOException.class));
+        CoverallsReportMojoTest.verifySuccessfulSubmit(this.logMock, CoverageFixture.JAVA_FILES);
+    }
+
+    /**
+     * Successful submission of shards that closes the parallel build.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithShards() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        Mockito.when(this.jobMock.getServiceBuildNumber()).thenReturn("build5");
+        Mockito.when(this.jobMock.getRepoToken()).thenReturn("token");
+        Mockito.when(this.coverallsClientMock.submit(List.of(this.coverallsFile), 2))
+                .thenReturn(List.of(new CoverallsResponse("Job #5.1", false, null)));
+        Mockito.when(this.coverallsClientMock.finish("token", "build5"))
+                .thenReturn(new CoverallsResponse("parallel build build5", false, "https://coveralls.io/builds/5"));
+        TestMojoUtil.setParameter(this.mojo, "shardSize", 1);
+        TestMojoUtil.setParameter(this.mojo, "shardUploads", 2);
+        this.mojo.execute();
+
+        Mockito.verify(this.coverallsClientMock, Mockito.never()).submit(ArgumentMatchers.any(File.class));
+        Mockito.verify(this.logMock).info("Uploading 1 shards with 2 concurrent uploads");
+        Mockito.verify(this.logMock).info("https://coveralls.io/builds/5");
+    }
+
+    /**
+     * Shards of a build that is parallel anyway leave the build open.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void submissionWithShardsOfParallelBuild() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        Mockito.when(this.jobMock.getServiceBuildNumber()).thenReturn("build5");
+        Mockito.when(this.jobMock.isParallel()).thenReturn(true);
+        Mockito.when(this.coverallsClientMock.submit(List.of(this.coverallsFile), 4))
+                .thenReturn(List.of(new CoverallsResponse("Job #5.1", false, null)));
+        TestMojoUtil.setParameter(this.mojo, "shardSize", 1);
+        TestMojoUtil.setParameter(this.mojo, "shardUploads", 4);
+        this.mojo.execute();
+
+        Mockito.verify(this.coverallsClientMock, Mockito.never()).finish(ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+        Mockito.verify(this.logMock).info("Leaving parallel build build5 open for other jobs");
+    }
+
+    /**
+     * Sharding without a build number fails before writing.
+     */
+    @Test
+    void shardsRequireBuildNumber() {
+        TestMojoUtil.setParameter(this.mojo, "shardSize", 1);
+        Assertions.assertThrows(MojoFailureException.class, () -> this.mojo.execute());
+        Mockito.verifyNoInteractions(this.coverallsClientMock);
+    }
+
+    /**
+     * Identical coveralls data is submitted only once for the same commit and job.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void deduplicateSubmission() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        TestMojoUtil.setParameter(this.mojo, "deduplicate", true);
+        TestMojoUtil.setParameter(this.mojo, "ledgerFile", this.folder.resolve("ledger.properties").toFile());
+        final var head = new Git.Head("ab12", null, null, null, null, null);
+        Mockito.when(this.jobMock.getGit()).thenReturn(new Git(null, head, "master", List.of()));
+        Mockito.when(this.jobMock.getServiceName()).thenReturn("github");
+        Mockito.when(this.jobMock.getServiceJobId()).thenReturn("42");
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, "https://coveralls.io/jobs/1"));
+
+        this.mojo.execute();
+        this.mojo.execute();
+
+        Mockito.verify(this.coverallsClientMock).submit(ArgumentMatchers.any(File.class));
+        Mockito.verify(this.logMock)
+                .info("Skipping submission, identical Coveralls data was already accepted for github/42/ab12");
+        Mockito.verify(this.logMock, Mockito.times(2)).info("https://coveralls.io/jobs/1");
+    }
+
+    /**
+     * Spooled coveralls data is not submitted.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void spoolData() throws MojoExecutionException, MojoFailureException, IOException {
+        TestMojoUtil.setParameter(this.mojo, "spool", true);
+        TestMojoUtil.setParameter(this.mojo, "coverallsUrl", "https://coveralls.io/api/v1/jobs");
+        final var spoolDirectory = this.folder.resolve("spool").toFile();
+        TestMojoUtil.setParameter(this.mojo, "spoolDirectory", spoolDirectory);
+        this.mojo.execute();
+
+        Mockito.verifyNoInteractions(this.coverallsClientMock);
+        Assertions.assertFalse(this.coverallsFile.exists());
+        final var pending = new Spool(spoolDirectory.toPath()).getPending();
+        Assertions.assertEquals(1, pending.size());
+        Assertions.assertEquals("https://coveralls.io/api/v1/jobs", pending.get(0).getCoverallsUrl());
+        Assertions.assertNull(pending.get(0).getFinishBuild());
+        final var json = TestIoUtil.readFileContent(pending.get(0).getFiles().get(0));
+        for (final List<String> coverageFile : CoverageFixture.JAVA_FILES) {
+            Assertions.assertTrue(json.contains(coverageFile.get(0)));
+        }
+        Mockito.verify(this.logMock).info(ArgumentMatchers.startsWith("Spooled Coveralls data to "));
+    }
+
+    /**
+     * Successful submission with streamed sources.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithStreamedSources() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        TestMojoUtil.setParameter(this.mojo, "streamSources", true);
+        Mockito.when(this.coverallsClientMock.submit(ArgumentMatchers.any(File.class)))
+                .thenReturn(new CoverallsResponse("success", false, null));
+        this.mojo.execute();
+        final var json = TestIoUtil.readFileContent(this.coverallsFile);
+
+        final var fixture = CoverageFixture.JAVA_FILES;
+        for (final List<String> coverageFile : fixture) {
+            Assertions.assertTrue(json.contains(coverageFile.get(0)));
+        }
+
+        Mockito.verify(this.logMock).info(ArgumentMatchers.startsWith("Scanned 1 coverage reports in "));
+        CoverallsReportMojoTest.verifySuccessfulSubmit(this.logMock, fixture);
+    }
+
+    /**
+     * Write coveralls with concurrent parsers.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void writeCoverallsWithParserThreads() throws ProcessingException, IOException {
+        TestMojoUtil.setParameter(this.mojo, "parserThreads", 2);
+        this.mojo.coverallsFile = this.coverallsFile;
+        final List<CoverageParser> parsers = new ArrayList<>();
+        parsers.add(new CoberturaParser(TestIoUtil.getFile("cobertura.xml"), this.sourceLoaderMock));
+        parsers.add(new CoberturaParser(TestIoUtil.getFile("cobertura.xml"), this.sourceLoaderMock));
+        final List<Logger> reporters = new ArrayList<>();
+        try (var writer = new JsonWriter(this.jobMock, this.coverallsFile)) {
+            final var chain = this.mojo.createSourceCallbackChain(writer, reporters);
+            Assertions.assertTrue(chain instanceof ConcurrentMergeSourceCallback);
+            this.mojo.writeCoveralls(writer, chain, parsers);
+        }
+        final var json = TestIoUtil.readFileContent(this.coverallsFile);
+        final var fixture = CoverageFixture.JAVA_FILES;
+        for (final List<String> coverageFile : fixture) {
+            Assertions.assertTrue(json.contains(coverageFile.get(0)));
+        }
+        reporters.forEach(reporter -> reporter.log(this.logMock));
+        Mockito.verify(this.logMock).info("Gathered code coverage metrics for " + CoverageFixture.getTotalFiles(fixture)
+                + " source files with " + CoverageFixture.getTotalLines(fixture) + " lines of code:");
+    }
+
+    /**
+     * Successful submission with streaming upload.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws MojoFailureException
+     *             the mojo failure exception
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void successfulSubmissionWithStreamingUpload() throws ProcessingException, IOException, MojoExecutionException,
+            MojoFailureException, InterruptedException {
+        final var uploaded = new ByteArrayOutputStream();
+        final var upload = Mockito.mock(CoverallsUpload.class);
+        Mockito.when(upload.getOutputStream()).thenReturn(uploaded);
+        Mockito.when(upload.getResponse()).thenReturn(new CoverallsResponse("success", false, null));
+        Mockito.when(this.coverallsClientMock.upload(false, null)).thenReturn(upload);
+        TestMojoUtil.setParameter(this.mojo, "streamUpload", true);
+        this.mojo.coverallsFile = this.folder.resolve("streamed.json").toFile();
+        this.mojo.execute();
+
+        final var json = uploaded.toString(StandardCharsets.UTF_8);
+        for (final List<String> coverageFile : CoverageFixture.JAVA_FILES) {
+            Assertions.assertTrue(json.contains(coverageFile.get(0)));
+        }
+        Assertions.assertFalse(this.mojo.coverallsFile.exists());
+        Mockito.verify(this.coverallsClientMock, Mockito.never()).submit(ArgumentMatchers.any(File.class));
+        CoverallsReportMojoTest.verifySuccessfulSubmit(this.logMock, CoverageFixture.JAVA_FILES);
+    }
+
+    /**
+     * Streaming upload is aborted when the writer cannot be created.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void failedStreamingWriterAbortsUpload() throws ProcessingException, IOException, InterruptedException {
+        final var upload = Mockito.mock(CoverallsUpload.class);
+        final var failure = new IllegalStateException("stream closed");
+        Mockito.when(upload.getOutputStream()).thenThrow(failure);
+        Mockito.when(this.coverallsClientMock.upload(false, null)).thenReturn(upload);
+        TestMojoUtil.setParameter(this.mojo, "streamUpload", true);
+        this.mojo.coverallsFile = this.folder.resolve("streamed.json").toFile();
+
+        final var exception = Assertions.assertThrows(MojoExecutionException.class, () -> this.mojo.execute());
+        Assertions.assertSame(failure, exception.getCause());
+        Mockito.verify(upload).abort(failure);
+        Mockito.verify(upload, Mockito.never()).getResponse();
+    }
+
     /**
      * Fail with processing exception.
      *
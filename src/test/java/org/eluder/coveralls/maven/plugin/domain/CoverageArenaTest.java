@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class CoverageArenaTest.
+ */
+class CoverageArenaTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Direct arena.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void directArena() throws IOException {
+        try (var arena = CoverageArena.allocateDirect()) {
+            this.assertCoverage(arena);
+        }
+    }
+
+    /**
+     * Mapped arena.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void mappedArena() throws IOException {
+        try (var arena = CoverageArena.map(this.folder)) {
+            this.assertCoverage(arena);
+        }
+        try (var files = Files.list(this.folder)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Oversized allocations keep the partially used chunk.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void oversizedAllocation() throws IOException {
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var small = arena.allocate(10);
+            arena.set(small, 9, 9);
+            final var large = arena.allocate(CoverageArena.CHUNK_SLOTS + 1);
+            arena.set(large, CoverageArena.CHUNK_SLOTS, 7);
+            final var next = arena.allocate(10);
+            arena.set(next, 0, 5);
+            Assertions.assertEquals(9, arena.get(small, 9));
+            Assertions.assertEquals(7, arena.get(large, CoverageArena.CHUNK_SLOTS));
+            Assertions.assertEquals(5, arena.get(next, 0));
+            Assertions.assertNull(arena.get(small, 8));
+        }
+    }
+
+    /**
+     * Allocations larger than a buffer are rejected.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void tooLargeAllocation() throws IOException {
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var exception = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> arena.allocate(CoverageArena.MAX_SLOTS + 1));
+            Assertions.assertTrue(exception.getMessage().contains("exceeds the coverage arena limit"));
+            Assertions.assertNull(arena.get(arena.allocate(1), 0));
+        }
+    }
+
+    /**
+     * Freed slots are reused by allocations of the same size.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void freedSlots() throws IOException {
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var first = arena.allocate(3);
+            arena.set(first, 1, 4);
+            final var second = arena.allocate(3);
+            arena.free(first, 3);
+            Assertions.assertNotEquals(first, arena.allocate(2));
+            final var reused = arena.allocate(3);
+            Assertions.assertEquals(first, reused);
+            Assertions.assertNull(arena.get(reused, 1));
+            Assertions.assertNotEquals(second, arena.allocate(3));
+        }
+    }
+
+    /**
+     * Closed arena.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void closedArena() throws IOException {
+        final var arena = CoverageArena.allocateDirect();
+        final var handle = arena.allocate(1);
+        arena.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> arena.get(handle, 0));
+        Assertions.assertThrows(IllegalStateException.class, () -> arena.allocate(1));
+    }
+
+    /**
+     * Asserts coverage round trips through the arena.
+     *
+     * @param arena
+     *            the arena
+     */
+    private void assertCoverage(final CoverageArena arena) {
+        final var first = arena.allocate(3);
+        final var second = arena.allocate(CoverageArena.CHUNK_SLOTS);
+        arena.set(first, 0, 0);
+        arena.set(first, 1, Integer.MAX_VALUE);
+        arena.set(second, CoverageArena.CHUNK_SLOTS - 1, 3);
+        Assertions.assertEquals(0, arena.get(first, 0));
+        Assertions.assertEquals(Integer.MAX_VALUE, arena.get(first, 1));
+        Assertions.assertNull(arena.get(first, 2));
+        Assertions.assertEquals(3, arena.get(second, CoverageArena.CHUNK_SLOTS - 1));
+        arena.set(first, 0, null);
+        Assertions.assertNull(arena.get(first, 0));
+        arena.set(first, 0, -1);
+        Assertions.assertEquals(0, arena.get(first, 0));
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Class SourcePathTest.
+ */
+class SourcePathTest {
+
+    /**
+     * Interned paths.
+     */
+    @Test
+    void internedPaths() {
+        final var path = SourcePath.of("src/main/java/Hello.java");
+        Assertions.assertSame(path, SourcePath.of("src/main/java/Hello.java"));
+        Assertions.assertSame(path, SourcePath.of("src/main").resolve("java/Hello.java"));
+        Assertions.assertSame(path.getParent(), SourcePath.of("src/main/java/World.java").getParent());
+        Assertions.assertNotSame(path, SourcePath.of("src/main/java/World.java"));
+    }
+
+    /**
+     * Materialized paths.
+     */
+    @Test
+    void materializedPaths() {
+        Assertions.assertEquals("src/main/java/Hello.java", SourcePath.of("src/main/java/Hello.java").toString());
+        Assertions.assertEquals("Hello.java", SourcePath.of("Hello.java").toString());
+        Assertions.assertEquals("/src/Hello.java", SourcePath.of("/src/Hello.java").toString());
+        Assertions.assertEquals("src//Hello.java", SourcePath.of("src//Hello.java").toString());
+        Assertions.assertEquals("src/", SourcePath.of("src/").toString());
+        Assertions.assertEquals("", SourcePath.of("").toString());
+    }
+
+    /**
+     * Parent and file name.
+     */
+    @Test
+    void parentAndFileName() {
+        final var path = SourcePath.of("src/Hello.java");
+        Assertions.assertEquals("Hello.java", path.getFileName());
+        Assertions.assertSame(SourcePath.of("src"), path.getParent());
+        Assertions.assertNull(path.getParent().getParent());
+    }
+
+    /**
+     * Deserialized paths stay canonical.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void serialization() throws Exception {
+        final var path = SourcePath.of("src/main/java/Hello.java");
+        Assertions.assertSame(path, this.copy(path));
+    }
+
+    /**
+     * Serializes and deserializes a path.
+     *
+     * @param path
+     *            the path
+     *
+     * @return the copy
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws ClassNotFoundException
+     *             the class not found exception
+     */
+    private SourcePath copy(final SourcePath path) throws IOException, ClassNotFoundException {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(path);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (SourcePath) in.readObject();
+        }
+    }
+
+}
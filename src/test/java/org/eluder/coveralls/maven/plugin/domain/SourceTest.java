@@ -24,6 +24,11 @@
  */
 package org.eluder.coveralls.maven.plugin.domain;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -207,4 +212,130 @@ class SourceTest {
         Assertions.assertNotEquals(source2.hashCode(), source3.hashCode());
     }
 
+    /**
+     * Binary digest.
+     */
+    @Test
+    void binaryDigest() {
+        final var hex = new Source("src/main/java/Hello.java", "public class Hello {\n  \n}\n",
+                "E8BD88CF0BDB77A6408234FD91FD22C3");
+        final var binary = new Source("src/main/java/Hello.java", "public class Hello {\n  \n}\n",
+                new byte[] { (byte) 0xE8, (byte) 0xBD, (byte) 0x88, (byte) 0xCF, 0x0B, (byte) 0xDB, 0x77, (byte) 0xA6,
+                        0x40, (byte) 0x82, 0x34, (byte) 0xFD, (byte) 0x91, (byte) 0xFD, 0x22, (byte) 0xC3 });
+        Assertions.assertEquals("E8BD88CF0BDB77A6408234FD91FD22C3", binary.getDigest());
+        Assertions.assertArrayEquals(hex.getDigestBytes(), binary.getDigestBytes());
+        Assertions.assertEquals(hex, binary);
+        Assertions.assertEquals(hex.hashCode(), binary.hashCode());
+    }
+
+    /**
+     * Invalid hex digest.
+     */
+    @Test
+    void invalidDigest() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new Source("src/main/java/Hello.java", "public class Hello { }", "XYZ"));
+    }
+
+    /**
+     * Interned name.
+     */
+    @Test
+    void internedName() {
+        final var source1 = new Source("src/main/java/Hello.java", "public class Hello { }",
+                "E8BD88CF0BDB77A6408234FD91FD22C3");
+        final var source2 = new Source(SourcePath.of("src/main/java").resolve("Hello.java"), "public class Hello { }",
+                source1.getDigestBytes());
+        Assertions.assertSame(source1.getPath(), source2.getPath());
+        Assertions.assertEquals("src/main/java/Hello.java", source2.getName());
+        Assertions.assertEquals(source1, source2);
+    }
+
+    /**
+     * Coverage kept in an arena.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void arenaCoverage() throws Exception {
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var source1 = new Source(SourcePath.of("src/main/java/Hello.java"), "public class Hello {\n  \n}\n",
+                    new byte[] { 1 }, arena);
+            source1.addCoverage(1, 3);
+            final var source2 = new Source("src/main/java/Hello.java", "public class Hello {\n  \n}\n",
+                    new byte[] { 1 });
+            source2.addCoverage(1, 2);
+            source2.addCoverage(3, 0);
+            Assertions.assertEquals(source1, source2);
+            Assertions.assertEquals(4, source1.getLines());
+            Assertions.assertEquals(3, source1.getCoverage(1));
+            Assertions.assertNull(source1.getCoverage(2));
+
+            final var merged = source1.merge(source2);
+            Assertions.assertArrayEquals(new Integer[] { 5, null, 0, null }, merged.getCoverage());
+            Assertions.assertArrayEquals(new Integer[] { 3, null, null, null }, source1.getCoverage());
+
+            final var bytes = new ByteArrayOutputStream();
+            try (var out = new ObjectOutputStream(bytes)) {
+                out.writeObject(merged);
+            }
+            try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                Assertions.assertArrayEquals(merged.getCoverage(), ((Source) in.readObject()).getCoverage());
+            }
+        }
+    }
+
+    /**
+     * Merged hits saturate instead of overflowing.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void mergeSaturatesHits() throws Exception {
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var onHeap = new Source("src/main/java/Hello.java", "public class Hello {\n  \n}\n",
+                    new byte[] { 1 });
+            onHeap.addCoverage(1, Integer.MAX_VALUE - 1);
+            onHeap.addBranchCoverage(2, 0, 0, Integer.MAX_VALUE);
+            final var inArena = new Source(SourcePath.of("src/main/java/Hello.java"), "public class Hello {\n  \n}\n",
+                    new byte[] { 1 }, arena);
+            inArena.addCoverage(1, 5);
+            inArena.addBranchCoverage(2, 0, 0, 1);
+
+            final var merged = inArena.merge(onHeap);
+            Assertions.assertEquals(Integer.MAX_VALUE, merged.getCoverage(1));
+            Assertions.assertEquals(Integer.MAX_VALUE, merged.getBranchesList().get(0).getHits());
+            Assertions.assertEquals(Integer.MAX_VALUE, onHeap.merge(merged).getCoverage(1));
+        }
+    }
+
+    /**
+     * Hits of lines on heap and in an arena.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void hits() throws Exception {
+        final var source = new Source("src/main/java/Hello.java", "public class Hello {\n  \n}\n",
+                "E8BD88CF0BDB77A6408234FD91FD22C3");
+        source.addCoverage(1, 300);
+        source.addCoverage(3, 0);
+        Assertions.assertEquals(300, source.getHits(1));
+        Assertions.assertEquals(-1, source.getHits(2));
+        Assertions.assertEquals(0, source.getHits(3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> source.getHits(5));
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var arenaSource = new Source(SourcePath.of("src/main/java/Hello.java"),
+                    "public class Hello {\n  \n}\n", new byte[] { 1 }, arena);
+            arenaSource.addCoverage(1, 300);
+            arenaSource.addCoverage(3, 0);
+            Assertions.assertEquals(300, arenaSource.getHits(1));
+            Assertions.assertEquals(-1, arenaSource.getHits(2));
+            Assertions.assertEquals(0, arenaSource.getHits(3));
+        }
+    }
+
 }
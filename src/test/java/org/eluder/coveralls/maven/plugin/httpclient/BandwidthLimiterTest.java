@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Class BandwidthLimiterTest.
+ */
+class BandwidthLimiterTest {
+
+    /** The clock in nanos. */
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    /**
+     * Invalid configuration.
+     */
+    @Test
+    void invalidConfiguration() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BandwidthLimiter(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BandwidthLimiter(1, -1));
+    }
+
+    /**
+     * Configuration without a bandwidth is not limited.
+     */
+    @Test
+    void of() {
+        Assertions.assertNull(BandwidthLimiter.of(0, 100));
+        Assertions.assertNull(BandwidthLimiter.of(-1, 100));
+        Assertions.assertEquals(1000, BandwidthLimiter.of(1000, 0).getBurst());
+        Assertions.assertEquals(100, BandwidthLimiter.of(1000, 100).getBurst());
+        Assertions.assertEquals(1000, BandwidthLimiter.of(1000, 100).getBytesPerSecond());
+    }
+
+    /**
+     * The burst is uploaded without delay.
+     */
+    @Test
+    void burst() {
+        final var limiter = new BandwidthLimiter(1000, 500, this.clock::get);
+        Assertions.assertEquals(this.clock.get(), limiter.reserve(300));
+        Assertions.assertEquals(this.clock.get(), limiter.reserve(200));
+        Assertions.assertEquals(500, limiter.getBytes());
+        Assertions.assertEquals(Duration.ZERO, limiter.getThrottledTime());
+    }
+
+    /**
+     * Uploads beyond the burst are delayed until the debt is repaid.
+     */
+    @Test
+    void delayAfterBurst() {
+        final var limiter = new BandwidthLimiter(1000, 500, this.clock::get);
+        final var start = this.clock.get();
+        Assertions.assertEquals(start, limiter.reserve(500));
+        Assertions.assertEquals(start + Duration.ofMillis(250).toNanos(), limiter.reserve(250));
+        Assertions.assertEquals(start + Duration.ofMillis(500).toNanos(), limiter.reserve(250));
+        Assertions.assertEquals(Duration.ofMillis(500), limiter.getThrottledTime());
+
+        // the debt is repaid and the bucket refilled after waiting
+        this.clock.addAndGet(Duration.ofMillis(1000).toNanos());
+        Assertions.assertEquals(this.clock.get(), limiter.reserve(500));
+        Assertions.assertEquals(1500, limiter.getBytes());
+        Assertions.assertEquals(Duration.ofMillis(500), limiter.getThrottledTime());
+    }
+
+    /**
+     * The bucket is not refilled beyond the burst.
+     */
+    @Test
+    void refillUpToBurst() {
+        final var limiter = new BandwidthLimiter(1000, 100, this.clock::get);
+        this.clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        final var now = this.clock.get();
+        Assertions.assertEquals(now + Duration.ofMillis(100).toNanos(), limiter.reserve(200));
+    }
+
+    /**
+     * Summary of the uploads.
+     */
+    @Test
+    void summarize() {
+        final var limiter = new BandwidthLimiter(1024, 1024, this.clock::get);
+        limiter.reserve(2048);
+        Assertions.assertEquals("Uploaded 2.0 KiB in 2000ms at 1.0 KiB/s, throttled for 1000ms by the limit of"
+                + " 1.0 KiB/s", limiter.summarize(Duration.ofSeconds(2)));
+    }
+}
@@ -26,18 +26,38 @@ package org.eluder.coveralls.maven.plugin.httpclient;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.eluder.coveralls.maven.plugin.ProcessingException;
@@ -46,6 +66,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.CleanupMode;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
@@ -59,6 +80,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class CoverallsClientTest {
 
+    /** The coveralls server. */
+    @RegisterExtension
+    static WireMockExtension coverallsServer = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort()).build();
+
     /** The http client mock. */
     @Mock
     HttpClient httpClientMock;
@@ -95,6 +121,40 @@ class CoverallsClientTest {
                 new CoverallsClient("https://test.com/coveralls", this.httpClientMock, new ObjectMapper()));
     }
 
+    /**
+     * Http client is created on first use.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void lazyHttpClient() throws Exception {
+        final var created = new AtomicInteger();
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs", () -> {
+            created.incrementAndGet();
+            return HttpClient.newHttpClient();
+        }, new ObjectMapper());
+        Assertions.assertEquals(0, created.get());
+        client.preconnect().get();
+        client.preconnect().get();
+        Assertions.assertEquals(1, created.get());
+    }
+
+    /**
+     * Pre-connect sends a HEAD request to the API.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void preconnect() throws Exception {
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        Assertions.assertNull(client.preconnect().get());
+        Assertions.assertEquals(1, CoverallsClientTest.coverallsServer
+                .findAll(WireMock.headRequestedFor(WireMock.urlEqualTo("/api/v1/jobs"))).size());
+        Assertions.assertEquals(0, this.requestCount());
+    }
+
     /**
      * Test submit.
      *
@@ -116,6 +176,505 @@ class CoverallsClientTest {
         Assertions.assertDoesNotThrow(() -> client.submit(this.file));
     }
 
+    /**
+     * Submit a gzipped file to a Coveralls stand-in.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void submitCompressed() throws IOException, InterruptedException, ProcessingException {
+        final var json = "{\"repo_token\":\"abc\",\"source_files\":[]}";
+        try (var out = new GZIPOutputStream(Files.newOutputStream(this.file.toPath()))) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.okJson(new ObjectMapper()
+                        .writeValueAsString(new CoverallsResponse("success", false, "https://coveralls.io/jobs/1")))));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        Assertions.assertEquals("https://coveralls.io/jobs/1", client.submit(this.file).getUrl());
+
+        final var requests = CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs")));
+        Assertions.assertEquals(1, requests.size());
+        final var part = requests.get(0).getPart("json_file");
+        Assertions.assertEquals("gzip/json", part.getHeader("Content-Type").firstValue());
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(part.getBody().asBytes()))) {
+            Assertions.assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Submit with a bandwidth limit to a Coveralls stand-in.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void submitWithBandwidthLimit() throws IOException, InterruptedException, ProcessingException {
+        final var json = "{\"source_files\":[" + "{\"name\":\"Foo.java\"},".repeat(12 * 1024) + "{}]}";
+        Files.writeString(this.file.toPath(), json);
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(this.success("https://coveralls.io/jobs/7")));
+
+        // about 240 KiB at 100 KiB/s with a burst of 50 KiB
+        final var limiter = new BandwidthLimiter(100 * 1024, 50 * 1024);
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withBandwidthLimiter(limiter);
+        Assertions.assertSame(limiter, client.getBandwidthLimiter());
+        final var start = System.nanoTime();
+        Assertions.assertEquals("https://coveralls.io/jobs/7", client.submit(this.file).getUrl());
+
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000);
+        Assertions.assertTrue(limiter.getBytes() > json.length());
+        Assertions.assertTrue(limiter.getThrottledTime().toMillis() >= 1000);
+        final var requests = CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs")));
+        Assertions.assertEquals(json, requests.get(0).getPart("json_file").getBody().asString());
+    }
+
+    /**
+     * Stream an upload to a Coveralls stand-in while writing.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void streamingUpload() throws IOException, InterruptedException, ProcessingException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.okJson(new ObjectMapper()
+                        .writeValueAsString(new CoverallsResponse("success", false, "https://coveralls.io/jobs/2")))));
+        final var json = "{\"source_files\":[" + "{\"name\":\"Foo.java\"},".repeat(20_000) + "{}]}";
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var upload = client.upload(false);
+        try (var out = upload.getOutputStream()) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals("https://coveralls.io/jobs/2", upload.getResponse().getUrl());
+
+        final var requests = CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs")));
+        Assertions.assertEquals(1, requests.size());
+        final var part = requests.get(0).getPart("json_file");
+        Assertions.assertEquals(json, part.getBody().asString());
+    }
+
+    /**
+     * Aborted streaming upload fails instead of sending truncated data.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void abortStreamingUpload() throws IOException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.okJson("{}")));
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var upload = client.upload(false);
+        final var out = upload.getOutputStream();
+        out.write("{\"source_files\":[".getBytes(StandardCharsets.UTF_8));
+        upload.abort(new ProcessingException("failed"));
+        Assertions.assertThrows(IOException.class, () -> out.write(new byte[128 * 1024]));
+        Assertions.assertThrows(IOException.class, upload::getResponse);
+    }
+
+    /**
+     * Each attempt of a submission is timed.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void transferTimings() throws IOException, InterruptedException, ProcessingException {
+        Files.writeString(this.file.toPath(), "{\"source_files\":[]}");
+        this.stubScenario(Scenario.STARTED, WireMock.serviceUnavailable(), "recovered");
+        this.stubScenario("recovered", this.success("https://coveralls.io/jobs/9").withFixedDelay(100), "recovered");
+
+        final List<TransferTimings> timings = new CopyOnWriteArrayList<>();
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(2)).withTransferListener(timings::add);
+        client.submit(this.file);
+
+        Assertions.assertEquals(2, timings.size());
+        Assertions.assertEquals(503, timings.get(0).getStatusCode());
+        Assertions.assertEquals(200, timings.get(1).getStatusCode());
+        Assertions.assertTrue(timings.get(1).getBytes() > this.file.length());
+        Assertions.assertTrue(timings.get(1).getResponse().toMillis() >= 100);
+        Assertions.assertFalse(timings.get(1).getConnect().isNegative());
+        Assertions.assertFalse(timings.get(1).getUpload().isNegative());
+    }
+
+    /**
+     * Submission is retried while Coveralls is unavailable.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void retryServiceUnavailable() throws IOException, InterruptedException, ProcessingException {
+        this.stubScenario(Scenario.STARTED, WireMock.serviceUnavailable(), "retry");
+        this.stubScenario("retry", WireMock.aResponse().withStatus(502), "recovered");
+        this.stubScenario("recovered", this.success("https://coveralls.io/jobs/3"), "recovered");
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(4));
+        Assertions.assertEquals("https://coveralls.io/jobs/3", client.submit(this.file).getUrl());
+        Assertions.assertEquals(3, this.requestCount());
+    }
+
+    /**
+     * Submission waits for the delay requested by the Retry-After header.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void retryAfterTooManyRequests() throws IOException, InterruptedException, ProcessingException {
+        this.stubScenario(Scenario.STARTED, WireMock.aResponse().withStatus(429).withHeader("Retry-After", "1"),
+                "recovered");
+        this.stubScenario("recovered", this.success("https://coveralls.io/jobs/4"), "recovered");
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(2));
+        final var start = System.nanoTime();
+        Assertions.assertEquals("https://coveralls.io/jobs/4", client.submit(this.file).getUrl());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000);
+        Assertions.assertEquals(2, this.requestCount());
+    }
+
+    /**
+     * Submission is not retried when the Retry-After header exceeds the time budget.
+     */
+    @Test
+    void retryAfterExceedsBudget() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.serviceUnavailable().withHeader("Retry-After", "3600")));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(5));
+        Assertions.assertThrows(IOException.class, () -> client.submit(this.file));
+        Assertions.assertEquals(1, this.requestCount());
+    }
+
+    /**
+     * Submission gives up when the attempts are exhausted.
+     */
+    @Test
+    void retryAttemptsExhausted() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.serviceUnavailable()));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(3));
+        Assertions.assertThrows(IOException.class, () -> client.submit(this.file));
+        Assertions.assertEquals(3, this.requestCount());
+    }
+
+    /**
+     * Submission fails with an I/O error when the attempts run out on a temporary client error.
+     */
+    @Test
+    void retryAttemptsExhaustedOnTooManyRequests() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.aResponse().withStatus(429).withBody("Rate limit exceeded")));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(2));
+        final var exception = Assertions.assertThrows(IOException.class, () -> client.submit(this.file));
+        Assertions.assertTrue(exception.getMessage().contains("HTTP status 429"), exception.getMessage());
+        Assertions.assertEquals(2, this.requestCount());
+    }
+
+    /**
+     * Submission is not retried when the connection fails after the body was sent, the job may have been created.
+     */
+    @Test
+    void noRetryAfterBodySent() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(3));
+        Assertions.assertThrows(IOException.class, () -> client.submit(this.file));
+        Assertions.assertEquals(1, this.requestCount());
+    }
+
+    /**
+     * Submission is retried when the connection is refused.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void retryConnectionRefused() throws IOException {
+        final int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final var client = new CoverallsClient("http://localhost:" + port + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(2).withListener(messages::add));
+        Assertions.assertThrows(ConnectException.class, () -> client.submit(this.file));
+        Assertions.assertEquals(1, messages.size());
+    }
+
+    /**
+     * Only failures known not to have sent the body are retried.
+     */
+    @Test
+    void isUndelivered() {
+        Assertions.assertTrue(CoverallsClient.isUndelivered(new IOException("closed"), false));
+        Assertions.assertTrue(CoverallsClient.isUndelivered(new ConnectException("refused"), true));
+        Assertions.assertTrue(CoverallsClient.isUndelivered(new HttpConnectTimeoutException("timeout"), true));
+        Assertions.assertFalse(CoverallsClient.isUndelivered(new HttpTimeoutException("timeout"), true));
+        Assertions.assertFalse(CoverallsClient.isUndelivered(new IOException("reset"), true));
+    }
+
+    /**
+     * Submission is not retried on client errors.
+     */
+    @Test
+    void noRetryOnClientError() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.unauthorized().withBody("{\"message\":\"invalid token\",\"error\":true}")));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(3));
+        Assertions.assertThrows(ProcessingException.class, () -> client.submit(this.file));
+        Assertions.assertEquals(1, this.requestCount());
+    }
+
+    /**
+     * Failed streaming upload is retried from the replay file.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void retryStreamingUploadFromReplayFile() throws IOException, InterruptedException, ProcessingException {
+        this.stubScenario(Scenario.STARTED, WireMock.serviceUnavailable(), "recovered");
+        this.stubScenario("recovered", this.success("https://coveralls.io/jobs/5"), "recovered");
+        final var json = "{\"source_files\":[" + "{\"name\":\"Foo.java\"},".repeat(1_000) + "{}]}";
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(2));
+        final var upload = client.upload(false, this.file);
+        try (var out = upload.getOutputStream()) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(this.file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("https://coveralls.io/jobs/5", upload.getResponse().getUrl());
+
+        final var requests = CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs")));
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals(json, requests.get(1).getPart("json_file").getBody().asString());
+    }
+
+    /**
+     * Failed streaming upload is not retried without a replay file.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void noRetryStreamingUploadWithoutReplayFile() throws IOException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.serviceUnavailable()));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs")
+                .withRetryPolicy(this.retryPolicy(3));
+        final var upload = client.upload(false);
+        try (var out = upload.getOutputStream()) {
+            out.write("{}".getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertThrows(IOException.class, upload::getResponse);
+        Assertions.assertEquals(1, this.requestCount());
+    }
+
+    /**
+     * Shards are submitted concurrently.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void submitShards() throws IOException, InterruptedException, ProcessingException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(this.success("https://coveralls.io/jobs/6").withFixedDelay(200)));
+        final List<File> shards = new ArrayList<>();
+        for (var i = 1; i <= 4; i++) {
+            shards.add(Files.writeString(this.folder.resolve("coveralls-" + i + ".json"), "{\"shard\":" + i + "}")
+                    .toFile());
+        }
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var start = System.nanoTime();
+        final var responses = client.submit(shards, 4);
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 800);
+        Assertions.assertEquals(4, responses.size());
+        Assertions.assertEquals(4, this.requestCount());
+        final var bodies = CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs"))).stream()
+                .map(request -> request.getPart("json_file").getBody().asString()).collect(Collectors.toSet());
+        Assertions.assertEquals(Set.of("{\"shard\":1}", "{\"shard\":2}", "{\"shard\":3}", "{\"shard\":4}"), bodies);
+    }
+
+    /**
+     * Failed shard fails the submission.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void submitShardsFailure() throws IOException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(WireMock.serverError()));
+        final var shards = List.of(Files.writeString(this.folder.resolve("coveralls-1.json"), "{}").toFile(),
+                Files.writeString(this.folder.resolve("coveralls-2.json"), "{}").toFile());
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        Assertions.assertThrows(IOException.class, () -> client.submit(shards, 2));
+    }
+
+    /**
+     * Failed shard cancels the other shards without waiting for the shards before it.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void submitShardsFailureCancelsOthers() throws IOException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .withRequestBody(WireMock.containing("{\"shard\":1}"))
+                .willReturn(this.success("https://coveralls.io/jobs/6").withFixedDelay(2000)));
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .withRequestBody(WireMock.containing("{\"shard\":2}")).willReturn(WireMock.serverError()));
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .withRequestBody(WireMock.containing("{\"shard\":3}"))
+                .willReturn(this.success("https://coveralls.io/jobs/6")));
+        final List<File> shards = new ArrayList<>();
+        for (var i = 1; i <= 3; i++) {
+            shards.add(Files.writeString(this.folder.resolve("coveralls-" + i + ".json"), "{\"shard\":" + i + "}")
+                    .toFile());
+        }
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var start = System.nanoTime();
+        Assertions.assertThrows(IOException.class, () -> client.submit(shards, 2));
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+        Assertions.assertEquals(0, CoverallsClientTest.coverallsServer.findAll(WireMock
+                .postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs"))
+                .withRequestBody(WireMock.containing("{\"shard\":3}"))).size());
+    }
+
+    /**
+     * Parallel build is closed with the webhook.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void finish() throws IOException, InterruptedException, ProcessingException {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlPathEqualTo("/webhook"))
+                .willReturn(WireMock.okJson("{\"done\":true,\"url\":\"https://coveralls.io/builds/7\"}")));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var response = client.finish("token&1", "build5");
+        Assertions.assertEquals("https://coveralls.io/builds/7", response.getUrl());
+        Assertions.assertFalse(response.isError());
+
+        CoverallsClientTest.coverallsServer.verify(WireMock.postRequestedFor(WireMock.urlPathEqualTo("/webhook"))
+                .withQueryParam("repo_token", WireMock.equalTo("token&1"))
+                .withRequestBody(WireMock.equalToJson("{\"payload\":{\"build_num\":\"build5\",\"status\":\"done\"}}")));
+    }
+
+    /**
+     * Shard uploads and the webhook call share an HTTP/2 connection with a Coveralls stand-in.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void http2() throws Exception {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .willReturn(this.success("https://coveralls.io/jobs/8").withFixedDelay(200)));
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlPathEqualTo("/webhook"))
+                .willReturn(WireMock.okJson("{\"done\":true,\"url\":\"https://coveralls.io/builds/8\"}")));
+        final List<File> shards = new ArrayList<>();
+        for (var i = 1; i <= 4; i++) {
+            shards.add(Files.writeString(this.folder.resolve("coveralls-" + i + ".json"), "{\"shard\":" + i + "}")
+                    .toFile());
+        }
+
+        final var url = CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs";
+        final var client = new CoverallsProxyClient(url, null, HttpClient.Version.HTTP_2);
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, client.getHttpVersion());
+        // the connection is upgraded with the pre-connect request, which has no body
+        client.preconnect().get();
+        Assertions.assertEquals(4, client.submit(shards, 4).size());
+        Assertions.assertEquals("https://coveralls.io/builds/8", client.finish("token", "build8").getUrl());
+
+        final var requests = CoverallsClientTest.coverallsServer.findAll(WireMock.postRequestedFor(WireMock.anyUrl()));
+        Assertions.assertEquals(5, requests.size());
+        for (final LoggedRequest request : requests) {
+            Assertions.assertEquals("HTTP/2.0", request.getProtocol());
+        }
+    }
+
+    /**
+     * Webhook error message fails the submission.
+     */
+    @Test
+    void finishError() {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlPathEqualTo("/webhook"))
+                .willReturn(WireMock.aResponse().withStatus(422).withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"No build matching CI build number build5 found\"}")));
+
+        final var client = new CoverallsClient(CoverallsClientTest.coverallsServer.baseUrl() + "/api/v1/jobs");
+        final var exception = Assertions.assertThrows(ProcessingException.class,
+                () -> client.finish("token", "build5"));
+        Assertions.assertTrue(exception.getMessage().contains("No build matching"), exception.getMessage());
+    }
+
     /**
      * Fail on service error.
      *
@@ -209,4 +768,56 @@ class CoverallsClientTest {
         return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Stubs a response of the retry scenario.
+     *
+     * @param state
+     *            the scenario state
+     * @param response
+     *            the response
+     * @param nextState
+     *            the next scenario state
+     */
+    private void stubScenario(final String state, final ResponseDefinitionBuilder response, final String nextState) {
+        CoverallsClientTest.coverallsServer.stubFor(WireMock.post(WireMock.urlEqualTo("/api/v1/jobs"))
+                .inScenario("retry").whenScenarioStateIs(state)
+                .willReturn(response).willSetStateTo(nextState));
+    }
+
+    /**
+     * Creates a successful response.
+     *
+     * @param url
+     *            the job url
+     *
+     * @return the response
+     *
+     * @throws JsonProcessingException
+     *             the json processing exception
+     */
+    private ResponseDefinitionBuilder success(final String url) throws JsonProcessingException {
+        return WireMock.okJson(new ObjectMapper().writeValueAsString(new CoverallsResponse("success", false, url)));
+    }
+
+    /**
+     * Creates a retry policy with short delays.
+     *
+     * @param maxAttempts
+     *            the max attempts
+     *
+     * @return the retry policy
+     */
+    private RetryPolicy retryPolicy(final int maxAttempts) {
+        return new RetryPolicy(maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofSeconds(5));
+    }
+
+    /**
+     * Counts the requests received by the Coveralls stand-in.
+     *
+     * @return the request count
+     */
+    private int requestCount() {
+        return CoverallsClientTest.coverallsServer
+                .findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/api/v1/jobs"))).size();
+    }
 }
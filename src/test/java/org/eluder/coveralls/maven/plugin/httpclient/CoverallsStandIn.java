@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+
+/**
+ * A local stand-in of the Coveralls API for benchmarks and tests, backed by WireMock. Every request is answered after
+ * the latency and the time that the request body would take to upload at the bandwidth. A share of the requests, set
+ * by the error rate, is answered with a retryable 503 Service Unavailable instead.
+ */
+public final class CoverallsStandIn implements Closeable {
+
+    /** The path of the jobs API. */
+    private static final String JOBS_PATH = "/api/v1/jobs";
+
+    /** The server. */
+    private final WireMockServer server;
+
+    /** The response latency. */
+    private final Duration latency;
+
+    /** The simulated upload bandwidth in bytes per second, zero if unlimited. */
+    private final long bandwidth;
+
+    /** The share of requests that fail, between 0 and 1. */
+    private final double errorRate;
+
+    /** The random of the error injection. */
+    private final Random random;
+
+    /** The received requests. */
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /** The failed requests. */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * Instantiates a new stand-in that answers immediately and never fails.
+     */
+    public CoverallsStandIn() {
+        this(Duration.ZERO, 0, 0, 1);
+    }
+
+    /**
+     * Instantiates a new stand-in.
+     *
+     * @param latency
+     *            the response latency
+     * @param bandwidth
+     *            the simulated upload bandwidth in bytes per second, zero if unlimited
+     * @param errorRate
+     *            the share of requests that fail, between 0 and 1
+     * @param seed
+     *            the seed of the error injection
+     */
+    public CoverallsStandIn(final Duration latency, final long bandwidth, final double errorRate, final long seed) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.bandwidth = bandwidth;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+        this.server = new WireMockServer(
+                WireMockConfiguration.wireMockConfig().dynamicPort().extensions(new Transformer()));
+    }
+
+    /**
+     * Starts the stand-in.
+     *
+     * @return the stand-in
+     */
+    public CoverallsStandIn start() {
+        this.server.start();
+        try {
+            this.server.stubFor(WireMock.post(WireMock.anyUrl()).willReturn(WireMock.okJson(new ObjectMapper()
+                    .writeValueAsString(new CoverallsResponse("Job #1.1", false, "https://coveralls.io/jobs/1")))));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the url of the jobs API.
+     *
+     * @return the url
+     */
+    public String getUrl() {
+        return this.server.baseUrl() + CoverallsStandIn.JOBS_PATH;
+    }
+
+    /**
+     * Gets the number of received requests.
+     *
+     * @return the number of requests
+     */
+    public int getRequests() {
+        return this.requests.get();
+    }
+
+    /**
+     * Gets the number of requests that were answered with an injected error.
+     *
+     * @return the number of failed requests
+     */
+    public int getFailures() {
+        return this.failures.get();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop();
+    }
+
+    /**
+     * Delays the responses and injects the errors.
+     */
+    private final class Transformer implements ResponseDefinitionTransformerV2 {
+
+        @Override
+        public ResponseDefinition transform(final ServeEvent serveEvent) {
+            CoverallsStandIn.this.requests.incrementAndGet();
+            var delay = CoverallsStandIn.this.latency.toMillis();
+            if (CoverallsStandIn.this.bandwidth > 0) {
+                delay += serveEvent.getRequest().getBody().length * 1000L / CoverallsStandIn.this.bandwidth;
+            }
+            if (CoverallsStandIn.this.random.nextDouble() < CoverallsStandIn.this.errorRate) {
+                CoverallsStandIn.this.failures.incrementAndGet();
+                return ResponseDefinitionBuilder.responseDefinition().withStatus(503).withFixedDelay((int) delay)
+                        .build();
+            }
+            return ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition()).withFixedDelay((int) delay)
+                    .build();
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "coveralls-stand-in";
+        }
+    }
+}
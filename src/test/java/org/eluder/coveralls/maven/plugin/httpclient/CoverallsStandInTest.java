@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class CoverallsStandInTest.
+ */
+class CoverallsStandInTest {
+
+    /** The folder. */
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path folder;
+
+    /** The file. */
+    File file;
+
+    /**
+     * Inits the Coveralls Stand-In.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @BeforeEach
+    void init() throws IOException {
+        this.file = Files.write(this.folder.resolve("coveralls.json"), new byte[10 * 1024]).toFile();
+    }
+
+    /**
+     * Submission to the stand-in.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void submit() throws ProcessingException, IOException, InterruptedException {
+        try (var standIn = new CoverallsStandIn().start()) {
+            final var response = new CoverallsClient(standIn.getUrl()).submit(this.file);
+            Assertions.assertEquals("https://coveralls.io/jobs/1", response.getUrl());
+            Assertions.assertEquals(1, standIn.getRequests());
+            Assertions.assertEquals(0, standIn.getFailures());
+        }
+    }
+
+    /**
+     * Responses are delayed by the latency and the bandwidth.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void delayResponses() throws ProcessingException, IOException, InterruptedException {
+        try (var standIn = new CoverallsStandIn(Duration.ofMillis(100), 50 * 1024, 0, 1).start()) {
+            final var started = System.nanoTime();
+            new CoverallsClient(standIn.getUrl()).submit(this.file);
+            // 100ms latency and 200ms for 10 KiB at 50 KiB/s
+            Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() >= 300);
+        }
+    }
+
+    /**
+     * Injected errors are retried by the client.
+     */
+    @Test
+    void injectErrors() {
+        try (var standIn = new CoverallsStandIn(Duration.ZERO, 0, 1, 1).start()) {
+            final var client = new CoverallsClient(standIn.getUrl()).withRetryPolicy(
+                    new RetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofSeconds(5)));
+            Assertions.assertThrows(IOException.class, () -> client.submit(this.file));
+            Assertions.assertEquals(2, standIn.getRequests());
+            Assertions.assertEquals(2, standIn.getFailures());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CoverallsStandIn(Duration.ZERO, 0, 2, 1));
+    }
+}
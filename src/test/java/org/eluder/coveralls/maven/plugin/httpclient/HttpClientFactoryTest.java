@@ -30,6 +30,7 @@ import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
@@ -67,6 +68,11 @@ class HttpClientFactoryTest {
             .options(WireMockConfiguration.wireMockConfig().port(HttpClientFactoryTest.PROXY_PORT).dynamicHttpsPort())
             .configureStaticDsl(true).build();
 
+    /** The server without HTTP/2 support. */
+    @RegisterExtension
+    static WireMockExtension http1Server = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort().http2PlainDisabled(true)).build();
+
     /**
      * Simple request.
      *
@@ -182,6 +188,82 @@ class HttpClientFactoryTest {
         Assertions.assertEquals("Hello World!", response.body());
     }
 
+    /**
+     * HTTP/2 request is upgraded by a server that supports HTTP/2.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void http2Request() throws IOException, InterruptedException {
+        HttpClientFactoryTest.targetServer.stubFor(
+                WireMock.get(WireMock.urlMatching(".*")).willReturn(WireMock.aResponse().withBody("Hello World!")));
+
+        final var client = new HttpClientFactory(HttpClientFactoryTest.TARGET_URL).version(HttpClient.Version.HTTP_2)
+                .create();
+        final var response = client.send(
+                HttpRequest.newBuilder().uri(URI.create(HttpClientFactoryTest.TARGET_URL)).GET().build(),
+                HttpClientFactoryTest.STRING_RESPONSE_HANDLER);
+
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, client.version());
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, response.version());
+        Assertions.assertEquals("Hello World!", response.body());
+    }
+
+    /**
+     * HTTP/2 request falls back to HTTP/1.1 with a server that does not support HTTP/2.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void http2Fallback() throws IOException, InterruptedException {
+        HttpClientFactoryTest.http1Server.stubFor(
+                WireMock.get(WireMock.urlMatching(".*")).willReturn(WireMock.aResponse().withBody("Hello World!")));
+
+        final var url = HttpClientFactoryTest.http1Server.baseUrl();
+        final var client = new HttpClientFactory(url).version(HttpClient.Version.HTTP_2).create();
+        final var response = client.send(HttpRequest.newBuilder().uri(URI.create(url)).GET().build(),
+                HttpClientFactoryTest.STRING_RESPONSE_HANDLER);
+
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        Assertions.assertEquals("Hello World!", response.body());
+    }
+
+    /**
+     * HTTP/2 client keeps using the proxy.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void http2ProxyRequest() throws IOException, InterruptedException {
+        HttpClientFactoryTest.targetServer.stubFor(
+                WireMock.get(WireMock.urlMatching(".*")).willReturn(WireMock.aResponse().withBody("Hello World!")));
+
+        HttpClientFactoryTest.proxyServer.stubFor(
+                WireMock.get(WireMock.urlMatching(".*")).willReturn(WireMock.aResponse().withBody("Hello Proxy!")));
+
+        final var proxy = new Proxy();
+        proxy.setHost("localhost");
+        proxy.setPort(HttpClientFactoryTest.PROXY_PORT);
+        proxy.setProtocol("http");
+
+        final var client = new HttpClientFactory(HttpClientFactoryTest.TARGET_URL).version(HttpClient.Version.HTTP_2)
+                .proxy(proxy).create();
+        final var response = client.send(
+                HttpRequest.newBuilder().uri(URI.create(HttpClientFactoryTest.TARGET_URL)).GET().build(),
+                HttpClientFactoryTest.STRING_RESPONSE_HANDLER);
+
+        Assertions.assertEquals("Hello Proxy!", response.body());
+    }
+
     /**
      * Null proxy request (proxy method with null should be a no-op).
      *
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class MultipartBodyPublisherTest.
+ */
+class MultipartBodyPublisherTest {
+
+    /** The folder. */
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path folder;
+
+    /**
+     * Publishes header, file chunks and trailer.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void publishMultipartBody() throws IOException {
+        final var content = "{\"x\":1}".repeat(MultipartBodyPublisher.CHUNK_SIZE / 4);
+        final var file = Files.writeString(this.folder.resolve("coveralls.json"), content);
+        final var publisher = new MultipartBodyPublisher("boundary", "json_file", "coveralls.json",
+                "application/json", file);
+
+        final var expected = "--boundary\r\nContent-Disposition: form-data; name=\"json_file\"; "
+                + "filename=\"coveralls.json\"\r\nContent-Type: application/json\r\n\r\n" + content
+                + "\r\n--boundary--\r\n";
+        Assertions.assertEquals(expected.length(), publisher.contentLength());
+
+        final var first = new CollectingSubscriber();
+        publisher.subscribe(first);
+        Assertions.assertTrue(first.completed);
+        Assertions.assertEquals(expected, first.body.toString(StandardCharsets.UTF_8));
+        Assertions.assertTrue(first.buffers > 3);
+
+        // publisher can be subscribed again, e.g. for a redirect
+        final var second = new CollectingSubscriber();
+        publisher.subscribe(second);
+        Assertions.assertEquals(expected, second.body.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Publishes an empty file.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void publishEmptyFile() throws IOException {
+        final var file = Files.createFile(this.folder.resolve("empty.json"));
+        final var publisher = new MultipartBodyPublisher("b", "json_file", "coveralls.json", "application/json", file);
+        final var subscriber = new CollectingSubscriber();
+        publisher.subscribe(subscriber);
+        Assertions.assertTrue(subscriber.completed);
+        Assertions.assertEquals(publisher.contentLength(), subscriber.body.size());
+    }
+
+    /**
+     * Fails when the file is truncated after the content length is computed.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void publishTruncatedFile() throws IOException {
+        final var file = Files.writeString(this.folder.resolve("coveralls.json"), "{\"x\":1}");
+        final var publisher = new MultipartBodyPublisher("b", "json_file", "coveralls.json", "application/json", file);
+        Files.writeString(file, "{}");
+        final var subscriber = new CollectingSubscriber();
+        publisher.subscribe(subscriber);
+        Assertions.assertFalse(subscriber.completed);
+        Assertions.assertTrue(subscriber.error instanceof IOException);
+    }
+
+    /**
+     * Subscriber that requests one buffer at a time.
+     */
+    static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        /** The body. */
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        /** The subscription. */
+        Flow.Subscription subscription;
+
+        /** The buffers. */
+        int buffers;
+
+        /** The completed. */
+        boolean completed;
+
+        /** The error. */
+        Throwable error;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer item) {
+            final var bytes = new byte[item.remaining()];
+            item.get(bytes);
+            this.body.writeBytes(bytes);
+            this.buffers++;
+            this.subscription.request(1);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+
+}
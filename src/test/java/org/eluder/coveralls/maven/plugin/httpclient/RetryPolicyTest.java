@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.httpclient;
+
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class RetryPolicyTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class RetryPolicyTest {
+
+    /** The http response mock. */
+    @Mock
+    HttpResponse<InputStream> httpResponseMock;
+
+    /**
+     * Invalid max attempts.
+     */
+    @Test
+    void invalidMaxAttempts() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RetryPolicy(0, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+    }
+
+    /**
+     * Policy that never retries.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void none() throws InterruptedException {
+        Assertions.assertEquals(1, RetryPolicy.none().getMaxAttempts());
+        Assertions.assertFalse(RetryPolicy.none().start().await(null));
+    }
+
+    /**
+     * Retryable status codes.
+     */
+    @Test
+    void retryable() {
+        final var policy = RetryPolicy.none();
+        for (final int status : new int[] { 408, 429, 500, 502, 503, 504 }) {
+            Assertions.assertTrue(policy.isRetryable(status), String.valueOf(status));
+        }
+        for (final int status : new int[] { 200, 400, 401, 404, 422, 501 }) {
+            Assertions.assertFalse(policy.isRetryable(status), String.valueOf(status));
+        }
+    }
+
+    /**
+     * Backoff grows exponentially with jitter up to the max delay.
+     */
+    @Test
+    void backoff() {
+        final var policy = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        for (var i = 0; i < 100; i++) {
+            this.assertBetween(50, 100, policy.getBackoff(1));
+            this.assertBetween(100, 200, policy.getBackoff(2));
+            this.assertBetween(200, 400, policy.getBackoff(3));
+            this.assertBetween(500, 1000, policy.getBackoff(5));
+            this.assertBetween(500, 1000, policy.getBackoff(64));
+        }
+    }
+
+    /**
+     * Retry-After in seconds.
+     */
+    @Test
+    void retryAfterSeconds() {
+        this.mockRetryAfter(" 120 ");
+        Assertions.assertEquals(Duration.ofSeconds(120),
+                RetryPolicy.getRetryAfter(this.httpResponseMock, ZonedDateTime.now()));
+    }
+
+    /**
+     * Retry-After as HTTP date.
+     */
+    @Test
+    void retryAfterDate() {
+        final var now = ZonedDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        this.mockRetryAfter(DateTimeFormatter.RFC_1123_DATE_TIME.format(now.plusSeconds(90)));
+        Assertions.assertEquals(Duration.ofSeconds(90), RetryPolicy.getRetryAfter(this.httpResponseMock, now));
+        Assertions.assertEquals(Duration.ZERO, RetryPolicy.getRetryAfter(this.httpResponseMock, now.plusHours(1)));
+    }
+
+    /**
+     * Missing or invalid Retry-After.
+     */
+    @Test
+    void retryAfterMissing() {
+        Assertions.assertEquals(Duration.ZERO, RetryPolicy.getRetryAfter(null, ZonedDateTime.now()));
+        this.mockRetryAfter("soon");
+        Assertions.assertEquals(Duration.ZERO, RetryPolicy.getRetryAfter(this.httpResponseMock, ZonedDateTime.now()));
+    }
+
+    /**
+     * Retries stop when the attempts are exhausted.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void attemptsExhausted() throws InterruptedException {
+        final List<String> messages = new ArrayList<>();
+        final var retry = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMinutes(1))
+                .withListener(messages::add).start();
+        Assertions.assertTrue(retry.await(null));
+        Assertions.assertTrue(retry.await(null));
+        Assertions.assertFalse(retry.await(null));
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(1).contains("attempt 3 of 3"), messages.get(1));
+    }
+
+    /**
+     * Retries stop when the time budget would be exceeded.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void budgetExhausted() throws InterruptedException {
+        final List<String> messages = new ArrayList<>();
+        final var retry = new RetryPolicy(10, Duration.ofMillis(400), Duration.ofMillis(400), Duration.ofMillis(100))
+                .withListener(messages::add).start();
+        Assertions.assertFalse(retry.await(null));
+        Assertions.assertTrue(messages.isEmpty());
+    }
+
+    /**
+     * Mocks the Retry-After header.
+     *
+     * @param value
+     *            the header value
+     */
+    private void mockRetryAfter(final String value) {
+        Mockito.when(this.httpResponseMock.headers())
+                .thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of(value)), (name, v) -> true));
+    }
+
+    /**
+     * Asserts that a duration is within bounds.
+     *
+     * @param min
+     *            the min millis
+     * @param max
+     *            the max millis
+     * @param actual
+     *            the actual duration
+     */
+    private void assertBetween(final long min, final long max, final Duration actual) {
+        Assertions.assertTrue(actual.toMillis() >= min && actual.toMillis() <= max, actual.toString());
+    }
+}
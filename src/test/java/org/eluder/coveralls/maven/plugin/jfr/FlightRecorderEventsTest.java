@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.jfr;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Job;
+import org.eluder.coveralls.maven.plugin.json.JsonWriter;
+import org.eluder.coveralls.maven.plugin.parser.JaCoCoParser;
+import org.eluder.coveralls.maven.plugin.source.DirectorySourceLoader;
+import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class FlightRecorderEventsTest.
+ */
+class FlightRecorderEventsTest {
+
+    /** The folder. */
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path folder;
+
+    /**
+     * Records the events of parsing a report and writing the coveralls file.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recordEvents() throws ProcessingException, IOException {
+        final var sources = Files.createDirectories(this.folder.resolve("org/eluder/coverage/sample"));
+        Files.copy(TestIoUtil.getFile("SimpleCoverage.java").toPath(), sources.resolve("SimpleCoverage.java"));
+        final var report = TestIoUtil.getFile("jacoco1.xml");
+        final var coverallsFile = this.folder.resolve("target/coveralls.json").toFile();
+        final var recordingFile = this.folder.resolve("recording.jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable(ReportParseEvent.class);
+            recording.enable(SourceLoadEvent.class);
+            recording.enable(JsonWriteEvent.class);
+            recording.start();
+            final var sourceLoader = new DirectorySourceLoader(this.folder.toFile(), this.folder.toFile(),
+                    StandardCharsets.UTF_8);
+            try (var writer = new JsonWriter(new Job(), coverallsFile)) {
+                writer.onBegin();
+                new JaCoCoParser(report, sourceLoader).parse(writer);
+                writer.onComplete();
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        final var events = RecordingFile.readAllEvents(recordingFile);
+        final var parses = FlightRecorderEventsTest.getEvents(events, "org.eluder.coveralls.ReportParse");
+        Assertions.assertEquals(1, parses.size());
+        Assertions.assertEquals(report.getPath(), parses.get(0).getString("file"));
+        Assertions.assertEquals(report.length(), parses.get(0).getLong("bytes"));
+        Assertions.assertEquals(2, parses.get(0).getInt("sources"));
+        Assertions.assertFalse(parses.get(0).getBoolean("scan"));
+
+        final var loads = FlightRecorderEventsTest.getEvents(events, "org.eluder.coveralls.SourceLoad");
+        Assertions.assertEquals(2, loads.size());
+        final var found = loads.stream().filter(event -> event.getBoolean("found")).collect(Collectors.toList());
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals("org/eluder/coverage/sample/SimpleCoverage.java", found.get(0).getString("path"));
+        Assertions.assertEquals(Files.size(sources.resolve("SimpleCoverage.java")), found.get(0).getLong("bytes"));
+
+        final var writes = FlightRecorderEventsTest.getEvents(events, "org.eluder.coveralls.JsonWrite");
+        Assertions.assertEquals(1, writes.size());
+        Assertions.assertEquals(coverallsFile.getPath(), writes.get(0).getString("file"));
+        Assertions.assertEquals(1, writes.get(0).getInt("sources"));
+        Assertions.assertEquals(1, writes.get(0).getInt("files"));
+    }
+
+    /**
+     * Gets the recorded events of a type.
+     *
+     * @param events
+     *            the recorded events
+     * @param name
+     *            the event type name
+     *
+     * @return the events of the type
+     */
+    private static List<RecordedEvent> getEvents(final List<RecordedEvent> events, final String name) {
+        return events.stream().filter(event -> name.equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
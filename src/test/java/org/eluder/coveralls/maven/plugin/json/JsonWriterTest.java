@@ -29,6 +29,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -36,14 +39,19 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import org.eluder.coveralls.maven.plugin.ProcessingException;
 import org.eluder.coveralls.maven.plugin.domain.Git;
 import org.eluder.coveralls.maven.plugin.domain.Job;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.util.AllocationMeter;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
 import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,6 +67,12 @@ class JsonWriterTest {
     /** The Constant TEST_TIME. */
     static final long TEST_TIME = 1357009200000L;
 
+    /** The allocation budget of writing a line in bytes, about 7 bytes are measured without escape analysis. */
+    static final long LINE_ALLOCATION_BUDGET = 12;
+
+    /** The allocation budget of the writer itself in bytes, mostly the output buffers. */
+    static final long WRITER_ALLOCATION_BUDGET = 64 * 1024;
+
     /** The folder. */
     @TempDir(cleanup = CleanupMode.NEVER)
     Path folder;
@@ -176,6 +190,95 @@ class JsonWriterTest {
         Assertions.assertEquals(1, ((Collection<?>) jsonMap.get("coverage")).size());
     }
 
+    /**
+     * Test on source with compression.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void onSourceCompressed() throws IOException, ProcessingException {
+        try (var writer = new JsonWriter(this.job(), this.file, true)) {
+            writer.onBegin();
+            writer.onSource(this.source());
+            writer.onComplete();
+        }
+        final String content;
+        try (var in = new GZIPInputStream(Files.newInputStream(this.file.toPath()))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        final var jsonMap = this.stringToJsonMap(content);
+        final var source = ((List<Map<String, Object>>) jsonMap.get("source_files")).get(0);
+        Assertions.assertEquals("Foo.java", source.get("name"));
+        Assertions.assertEquals("service", jsonMap.get("service_name"));
+    }
+
+    /**
+     * Test on source with sharding.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws ProcessingException
+     *             the processing exception
+     */
+    @Test
+    void onSourceSharded() throws IOException, ProcessingException {
+        final var file = this.folder.resolve("coveralls.json").toFile();
+        final List<File> files;
+        try (var writer = new JsonWriter(this.job(), file, false, 2000)) {
+            writer.onBegin();
+            for (var i = 0; i < 50; i++) {
+                writer.onSource(new Source("Foo" + i + ".java", "public class Foo" + i + " { }",
+                        "6E0F89B516198DC6AB743EA5FBFB3108"));
+            }
+            writer.onComplete();
+            files = writer.getFiles();
+        }
+        Assertions.assertTrue(files.size() > 1);
+        Assertions.assertFalse(file.exists());
+        final Set<Object> jobNumbers = new HashSet<>();
+        var index = 0;
+        for (var shard = 0; shard < files.size(); shard++) {
+            final var shardFile = files.get(shard);
+            Assertions.assertEquals("coveralls-" + (shard + 1) + ".json", shardFile.getName());
+            Assertions.assertTrue(shardFile.length() < 2500, shardFile.length() + " bytes");
+            final var jsonMap = this.stringToJsonMap(TestIoUtil.readFileContent(shardFile));
+            Assertions.assertEquals(Boolean.TRUE, jsonMap.get("parallel"));
+            Assertions.assertEquals("build5", jsonMap.get("service_number"));
+            Assertions.assertEquals("job123", jsonMap.get("service_job_id"));
+            Assertions.assertEquals("job123-" + (shard + 1), jsonMap.get("service_job_number"));
+            jobNumbers.add(jsonMap.get("service_job_number"));
+            for (final Map<String, Object> source : (List<Map<String, Object>>) jsonMap.get("source_files")) {
+                Assertions.assertEquals("Foo" + index++ + ".java", source.get("name"));
+            }
+        }
+        Assertions.assertEquals(50, index);
+        Assertions.assertEquals(files.size(), jobNumbers.size());
+    }
+
+    /**
+     * Shard job numbers.
+     */
+    @Test
+    void shardJobNumber() {
+        Assertions.assertEquals("job123-2", JsonWriter.getShardJobNumber("job123", 2));
+        Assertions.assertEquals("3", JsonWriter.getShardJobNumber(null, 3));
+        Assertions.assertEquals("1", JsonWriter.getShardJobNumber(" ", 1));
+    }
+
+    /**
+     * Shard file names.
+     */
+    @Test
+    void shardFile() {
+        Assertions.assertEquals(new File(this.folder.toFile(), "coveralls-2.json.gz"),
+                JsonWriter.getShardFile(new File(this.folder.toFile(), "coveralls.json.gz"), 2));
+        Assertions.assertEquals(new File(this.folder.toFile(), "coveralls-3"),
+                JsonWriter.getShardFile(new File(this.folder.toFile(), "coveralls"), 3));
+    }
+
     /**
      * Write start and end with parallel enabled.
      *
@@ -222,6 +325,39 @@ class JsonWriterTest {
         Assertions.assertNull(jsonMap.get("parallel"));
     }
 
+    /**
+     * Writing sources stays within the allocation budget.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void onSourceAllocationBudget() throws Exception {
+        final var sources = 10;
+        final var lines = 4000;
+        final var source = new Source("Foo.java", lines, new byte[64], null);
+        for (var line = 1; line <= lines; line++) {
+            if (ReportGenerator.isCovered(line)) {
+                source.addCoverage(line, ReportGenerator.getHits(line));
+            }
+        }
+        final var job = this.job();
+
+        final var allocated = AllocationMeter.measure(() -> {
+            try (var writer = new JsonWriter(job, this.file, OutputStream.nullOutputStream())) {
+                writer.onBegin();
+                for (var i = 0; i < sources; i++) {
+                    writer.onSource(source);
+                }
+                writer.onComplete();
+            }
+        });
+        Assertions.assertTrue(
+                allocated <= JsonWriterTest.WRITER_ALLOCATION_BUDGET
+                        + (long) sources * lines * JsonWriterTest.LINE_ALLOCATION_BUDGET,
+                "Writing " + sources * lines + " lines allocated " + allocated + " bytes");
+    }
+
     /**
      * Job.
      *
@@ -0,0 +1,140 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class PayloadDigestTest.
+ */
+class PayloadDigestTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * The run timestamp does not change the digest.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void ignoresRunAt() throws IOException {
+        final var first = this.write("first.json", "{\"service_name\":\"github\",\"run_at\":\"2024-01-01T00:00:00Z\"}");
+        final var second = this.write("second.json",
+                "{ \"service_name\" : \"github\", \"run_at\" : \"2024-02-01T00:00:00Z\" }");
+
+        Assertions.assertEquals(PayloadDigest.digest(List.of(first)), PayloadDigest.digest(List.of(second)));
+    }
+
+    /**
+     * Nested fields named like volatile fields are part of the digest.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void includesNestedFields() throws IOException {
+        final var first = this.write("first.json", "{\"git\":{\"run_at\":\"a\"}}");
+        final var second = this.write("second.json", "{\"git\":{\"run_at\":\"b\"}}");
+
+        Assertions.assertNotEquals(PayloadDigest.digest(List.of(first)), PayloadDigest.digest(List.of(second)));
+    }
+
+    /**
+     * Different coverage changes the digest.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void differentContent() throws IOException {
+        final var first = this.write("first.json", "{\"source_files\":[{\"coverage\":[1,null,0]}]}");
+        final var second = this.write("second.json", "{\"source_files\":[{\"coverage\":[1,null,1]}]}");
+
+        Assertions.assertNotEquals(PayloadDigest.digest(List.of(first)), PayloadDigest.digest(List.of(second)));
+    }
+
+    /**
+     * Compressed data has the same digest as plain data.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void compressedContent() throws IOException {
+        final var content = "{\"source_files\":[{\"name\":\"Foo.java\",\"coverage\":[1,null,0]}]}";
+        final var plain = this.write("coveralls.json", content);
+        final var compressed = this.folder.resolve("coveralls.json.gz").toFile();
+        try (var out = new GZIPOutputStream(Files.newOutputStream(compressed.toPath()))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertEquals(PayloadDigest.digest(List.of(plain)), PayloadDigest.digest(List.of(compressed)));
+    }
+
+    /**
+     * Shards are digested in order.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void shardOrder() throws IOException {
+        final var first = this.write("coveralls.json", "{\"source_files\":[{\"name\":\"Foo.java\"}]}");
+        final var second = this.write("coveralls-2.json", "{\"source_files\":[{\"name\":\"Bar.java\"}]}");
+
+        Assertions.assertNotEquals(PayloadDigest.digest(List.of(first, second)),
+                PayloadDigest.digest(List.of(second, first)));
+    }
+
+    /**
+     * Writes a coveralls file.
+     *
+     * @param name
+     *            the file name
+     * @param content
+     *            the content
+     *
+     * @return the file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private File write(final String name, final String content) throws IOException {
+        return Files.writeString(this.folder.resolve(name), content).toFile();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Class CoverageStatisticsTest.
+ */
+class CoverageStatisticsTest {
+
+    /**
+     * Add coverage.
+     */
+    @Test
+    void add() {
+        final var statistics = new CoverageStatistics();
+        statistics.add(1, 10, 6, 4, 2, 1);
+        statistics.add(2, 20, 12, 8, 4, 2);
+        Assertions.assertEquals(3, statistics.getFiles());
+        Assertions.assertEquals(30, statistics.getLines());
+        Assertions.assertEquals(18, statistics.getRelevant());
+        Assertions.assertEquals(12, statistics.getCovered());
+        Assertions.assertEquals(6, statistics.getBranches());
+        Assertions.assertEquals(3, statistics.getCoveredBranches());
+    }
+
+    /**
+     * Add other statistics.
+     */
+    @Test
+    void addStatistics() {
+        final var other = new CoverageStatistics();
+        other.add(1, 10, 6, 4, 2, 1);
+        final var statistics = new CoverageStatistics();
+        statistics.add(other);
+        statistics.add(other);
+        Assertions.assertEquals(2, statistics.getFiles());
+        Assertions.assertEquals(20, statistics.getLines());
+        Assertions.assertEquals(12, statistics.getRelevant());
+        Assertions.assertEquals(8, statistics.getCovered());
+        Assertions.assertEquals(4, statistics.getBranches());
+        Assertions.assertEquals(2, statistics.getCoveredBranches());
+    }
+
+}
@@ -24,7 +24,17 @@
  */
 package org.eluder.coveralls.maven.plugin.logging;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.maven.plugin.logging.Log;
 import org.eluder.coveralls.maven.plugin.ProcessingException;
@@ -35,6 +45,7 @@ import org.eluder.coveralls.maven.plugin.source.UniqueSourceCallback;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -54,6 +65,10 @@ class CoverageTracingLoggerTest {
     @Mock
     SourceCallback sourceCallbackMock;
 
+    /** The folder. */
+    @TempDir
+    Path folder;
+
     /**
      * Constructor with null.
      */
@@ -124,4 +139,127 @@ class CoverageTracingLoggerTest {
         Mockito.verify(this.logMock).info("- 1 missed branches");
     }
 
+    /**
+     * Log for sources from concurrent threads.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void logForConcurrentSources() throws Exception {
+        final var coverageTracingLogger = new CoverageTracingLogger(this.sourceCallbackMock);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (var thread = 0; thread < 4; thread++) {
+                final var index = thread;
+                final Callable<Void> task = () -> {
+                    for (var i = 0; i < 250; i++) {
+                        coverageTracingLogger.onSource(this.createSource("Source" + index + "_" + i + ".java"));
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(1000, coverageTracingLogger.getFiles());
+        Assertions.assertEquals(4000, coverageTracingLogger.getLines());
+        Assertions.assertEquals(2000, coverageTracingLogger.getRelevant());
+        Assertions.assertEquals(1000, coverageTracingLogger.getCovered());
+        Assertions.assertEquals(2000, coverageTracingLogger.getBranches());
+        Assertions.assertEquals(1000, coverageTracingLogger.getCoveredBranches());
+    }
+
+    /**
+     * Statistics by module and package.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void packages() throws ProcessingException, IOException {
+        final var coverageTracingLogger = new CoverageTracingLogger(this.sourceCallbackMock,
+                Map.of("core/src/main/java/", "core", "core/src/generated", "core", "web/src/main/java", "web"));
+        coverageTracingLogger.onSource(this.createSource("core/src/main/java/org/eluder/Foo.java"));
+        coverageTracingLogger.onSource(this.createSource("core/src/main/java/org/eluder/Bar.java"));
+        coverageTracingLogger.onSource(this.createSource("core/src/generated/org/eluder/Baz.java"));
+        coverageTracingLogger.onSource(this.createSource("web/src/main/java/Default.java"));
+        coverageTracingLogger.onSource(this.createSource("scripts/Tool.java"));
+        coverageTracingLogger.onSource(this.createSource("Top.java"));
+
+        final var modules = coverageTracingLogger.getPackages();
+        Assertions.assertEquals(List.of("", "core", "web"), new ArrayList<>(modules.keySet()));
+        Assertions.assertEquals(List.of("", "scripts"), new ArrayList<>(modules.get("").keySet()));
+        Assertions.assertEquals(List.of("org.eluder"), new ArrayList<>(modules.get("core").keySet()));
+        Assertions.assertEquals(3, modules.get("core").get("org.eluder").getFiles());
+        Assertions.assertEquals(6, modules.get("core").get("org.eluder").getRelevant());
+        Assertions.assertEquals(1, modules.get("web").get("").getFiles());
+    }
+
+    /**
+     * Write summary.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void writeSummary() throws ProcessingException, IOException {
+        final var coverageTracingLogger = new CoverageTracingLogger(this.sourceCallbackMock,
+                Map.of("src/main/java", "core"));
+        coverageTracingLogger.onSource(this.createSource("src/main/java/org/eluder/Foo.java"));
+        coverageTracingLogger.onSource(this.createSource("src/main/java/org/eluder/util/Bar.java"));
+        final var file = this.folder.resolve("target").resolve("summary.json").toFile();
+        coverageTracingLogger.writeSummary(file);
+
+        final var json = new ObjectMapper().readTree(file);
+        Assertions.assertEquals(2, json.path("total").path("files").asInt());
+        Assertions.assertEquals(8, json.path("total").path("lines").asInt());
+        final var module = json.path("modules").path(0);
+        Assertions.assertEquals("core", module.path("module").asText());
+        Assertions.assertEquals("org.eluder", module.path("packages").path(0).path("package").asText());
+        Assertions.assertEquals("org.eluder.util", module.path("packages").path(1).path("package").asText());
+        Assertions.assertEquals(2, module.path("packages").path(1).path("relevant").asInt());
+        Assertions.assertEquals(1, module.path("packages").path(1).path("covered").asInt());
+        Assertions.assertEquals(2, module.path("packages").path(1).path("branches").asInt());
+        Assertions.assertEquals(1, module.path("packages").path(1).path("covered_branches").asInt());
+    }
+
+    /**
+     * Write summary without statistics by package.
+     */
+    @Test
+    void writeSummaryWithoutPackages() {
+        final var coverageTracingLogger = new CoverageTracingLogger(this.sourceCallbackMock);
+        final var file = this.folder.resolve("summary.json").toFile();
+        Assertions.assertThrows(IllegalStateException.class, () -> coverageTracingLogger.writeSummary(file));
+    }
+
+    /**
+     * Creates a source with two relevant lines of four, one covered, and two branches, one covered.
+     *
+     * @param name
+     *            the name
+     *
+     * @return the source
+     */
+    Source createSource(final String name) {
+        final var source = new Source(name, 4, new byte[] { 1 }, null);
+        source.addCoverage(1, 0);
+        source.addCoverage(3, 200);
+        source.addBranchCoverage(3, 0, 0, 200);
+        source.addBranchCoverage(3, 0, 1, 0);
+        return source;
+    }
+
 }
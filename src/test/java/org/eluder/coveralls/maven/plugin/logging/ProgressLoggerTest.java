@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class ProgressLoggerTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressLoggerTest {
+
+    /** The log mock. */
+    @Mock
+    Log logMock;
+
+    /** The source callback mock. */
+    @Mock
+    SourceCallback sourceCallbackMock;
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /** The clock in nanos. */
+    final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Constructor with invalid interval.
+     */
+    @Test
+    void constructorWithInvalidInterval() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ProgressLogger(this.sourceCallbackMock, this.logMock, Duration.ZERO, List.of()));
+    }
+
+    /**
+     * Progress is logged at most once per interval.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void logOncePerInterval() throws ProcessingException, IOException {
+        final var report = this.createReport("jacoco.xml", 1024);
+        final var progressLogger = this.createProgressLogger(List.of(report));
+        final var source = this.source();
+        progressLogger.onBegin();
+        this.advance(1);
+        progressLogger.onSource(source);
+        Mockito.verify(this.logMock, Mockito.never()).info(ArgumentMatchers.anyString());
+
+        this.advance(9);
+        progressLogger.onSource(source);
+        progressLogger.onSource(source);
+        Mockito.verify(this.logMock, Mockito.times(1)).info(ArgumentMatchers.anyString());
+
+        this.advance(10);
+        progressLogger.onRead(report, 512);
+        Mockito.verify(this.logMock, Mockito.times(2)).info(ArgumentMatchers.anyString());
+
+        progressLogger.onComplete();
+        this.advance(10);
+        progressLogger.onRead(report, 1024);
+        Mockito.verify(this.logMock, Mockito.times(2)).info(ArgumentMatchers.anyString());
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(3)).onSource(source);
+        Assertions.assertEquals(3, progressLogger.getSources());
+        Assertions.assertEquals(1024, progressLogger.getBytes());
+    }
+
+    /**
+     * Summarize progress.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void summarize() throws ProcessingException, IOException {
+        final var first = this.createReport("first.xml", 1024 * 1024);
+        final var second = this.createReport("second.xml", 2 * 1024 * 1024);
+        final var progressLogger = this.createProgressLogger(List.of(first, second));
+        progressLogger.onBegin();
+        for (var i = 0; i < 5; i++) {
+            progressLogger.onSource(this.source());
+        }
+        progressLogger.onRead(second, 1024 * 1024);
+        this.advance(10);
+
+        final var summary = progressLogger.summarize(this.clock.get());
+        Assertions.assertTrue(
+                summary.startsWith(
+                        "Parsed 1.0 of 3.0 MiB of coverage reports, ETA 20s, 5 source files at 0.5/s, heap "),
+                summary);
+        Assertions.assertTrue(summary.endsWith(" MiB; second.xml 1.0 of 2.0 MiB"), summary);
+    }
+
+    /**
+     * Creates the progress logger with an interval of 10 seconds.
+     *
+     * @param coverageFiles
+     *            the coverage files
+     *
+     * @return the progress logger
+     */
+    ProgressLogger createProgressLogger(final List<File> coverageFiles) {
+        return new ProgressLogger(this.sourceCallbackMock, this.logMock, Duration.ofSeconds(10), coverageFiles,
+                this.clock::get);
+    }
+
+    /**
+     * Creates an empty report of a size.
+     *
+     * @param name
+     *            the name
+     * @param size
+     *            the size
+     *
+     * @return the report
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    File createReport(final String name, final long size) throws IOException {
+        final var report = this.folder.resolve(name).toFile();
+        try (var file = new RandomAccessFile(report, "rw")) {
+            file.setLength(size);
+        }
+        return report;
+    }
+
+    /**
+     * Advances the clock.
+     *
+     * @param seconds
+     *            the seconds
+     */
+    void advance(final long seconds) {
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    /**
+     * Source.
+     *
+     * @return the source
+     */
+    Source source() {
+        return new Source("Foo.java", "public class Foo { }", "6E0F89B516198DC6AB743EA5FBFB3108");
+    }
+
+}
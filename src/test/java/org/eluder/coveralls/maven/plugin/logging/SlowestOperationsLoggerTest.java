@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.logging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.logging.Logger.Position;
+import org.eluder.coveralls.maven.plugin.logging.SlowestOperationsLogger.Operation;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class SlowestOperationsLoggerTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class SlowestOperationsLoggerTest {
+
+    /** The log mock. */
+    @Mock
+    Log logMock;
+
+    /** The source callback mock. */
+    @Mock
+    SourceCallback sourceCallbackMock;
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Constructor with invalid limit.
+     */
+    @Test
+    void constructorWithInvalidLimit() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SlowestOperationsLogger(0));
+    }
+
+    /**
+     * Test get position.
+     */
+    @Test
+    void position() {
+        Assertions.assertEquals(Position.AFTER, new SlowestOperationsLogger(1).getPosition());
+    }
+
+    /**
+     * Only the slowest loads are kept.
+     */
+    @Test
+    void slowestLoads() {
+        final var slowest = new SlowestOperationsLogger(3);
+        final long[] nanos = { 5, 1, 9, 3, 7, 2, 8 };
+        for (var i = 0; i < nanos.length; i++) {
+            slowest.onLoad(this.source("Source" + i + ".java"), i * 100, nanos[i]);
+        }
+
+        final List<String> names = new ArrayList<>();
+        for (final Operation operation : slowest.getLoads()) {
+            names.add(operation.getName());
+        }
+        Assertions.assertEquals(List.of("Source2.java", "Source6.java", "Source4.java"), names);
+        final var load = slowest.getLoads().get(0);
+        Assertions.assertEquals(9, load.getNanos());
+        Assertions.assertEquals(200, load.getBytes());
+        Assertions.assertEquals(4, load.getLines());
+        Assertions.assertEquals(-1, load.getBranches());
+        Assertions.assertTrue(slowest.getMerges().isEmpty());
+        Assertions.assertTrue(slowest.getParses().isEmpty());
+    }
+
+    /**
+     * Merges are recorded when passed through.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recordMerges() throws ProcessingException, IOException {
+        final var slowest = new SlowestOperationsLogger(2);
+        final var callback = slowest.recordMerges(this.sourceCallbackMock);
+        final var source = this.source("Foo.java");
+        source.addBranchCoverage(2, 0, 0, 1);
+        callback.onBegin();
+        callback.onSource(source);
+        callback.onComplete();
+
+        final InOrder inOrder = Mockito.inOrder(this.sourceCallbackMock);
+        inOrder.verify(this.sourceCallbackMock).onBegin();
+        inOrder.verify(this.sourceCallbackMock).onSource(source);
+        inOrder.verify(this.sourceCallbackMock).onComplete();
+        final var merge = slowest.getMerges().get(0);
+        Assertions.assertEquals("Foo.java", merge.getName());
+        Assertions.assertEquals(-1, merge.getBytes());
+        Assertions.assertEquals(4, merge.getLines());
+        Assertions.assertEquals(1, merge.getBranches());
+    }
+
+    /**
+     * Log the slowest operations.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void log() throws IOException {
+        final var report = Files.writeString(this.folder.resolve("jacoco.xml"), "<report/>").toFile();
+        final var slowest = new SlowestOperationsLogger(2);
+        slowest.onLoad(this.source("Foo.java"), 123, 1_500_000);
+        slowest.recordParse(report, System.nanoTime());
+        slowest.log(this.logMock);
+
+        Mockito.verify(this.logMock).info("Slowest source file loads:");
+        Mockito.verify(this.logMock).info("- 1.500ms Foo.java (123 bytes, 4 lines)");
+        Mockito.verify(this.logMock).info("Slowest coverage report parses:");
+        Mockito.verify(this.logMock)
+                .info(ArgumentMatchers.matches("- \\d+\\.\\d{3}ms .+jacoco\\.xml \\(9 bytes\\)"));
+        Mockito.verifyNoMoreInteractions(this.logMock);
+    }
+
+    /**
+     * Source.
+     *
+     * @param name
+     *            the name
+     *
+     * @return the source with 4 lines
+     */
+    Source source(final String name) {
+        return new Source(name, "public class Foo {\n  \n}\n", "6E0F89B516198DC6AB743EA5FBFB3108");
+    }
+
+}
@@ -152,6 +152,28 @@ public abstract class AbstractCoverageParserTest {
         }
     }
 
+    /**
+     * Scans the coverage without loading sources.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void scanCoverage() throws ProcessingException, IOException {
+        final Set<String> sourceFiles = new HashSet<>();
+        for (final String coverageResource : this.getCoverageResources()) {
+            final var parser = this.createCoverageParser(TestIoUtil.getFile(coverageResource), this.sourceLoaderMock);
+            Assertions.assertTrue(parser.scan(sourceFiles::add));
+        }
+
+        for (final List<String> coverageFile : this.getCoverageFixture()) {
+            Assertions.assertTrue(sourceFiles.contains(this.sourceName(coverageFile.get(0))));
+        }
+        Mockito.verifyNoInteractions(this.sourceLoaderMock);
+    }
+
     /**
      * Creates the coverage parser.
      *
@@ -24,8 +24,11 @@
  */
 package org.eluder.coveralls.maven.plugin.parser;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -98,4 +101,39 @@ class AbstractXmlEventParserTest {
         Assertions.assertThrows(IOException.class, () -> parser.parse(callback));
     }
 
+    /**
+     * Parse reports the bytes read to the progress listener, but scan does not.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void parseReportsProgress() throws ProcessingException, IOException {
+        final var sourceLoader = Mockito.mock(SourceLoader.class);
+        final var callback = Mockito.mock(SourceCallback.class);
+        final var coverageFile = TestIoUtil.getFile("jacoco1.xml");
+        final List<Long> progress = new ArrayList<>();
+
+        final var parser = new AbstractXmlEventParser(coverageFile, sourceLoader) {
+            @Override
+            protected void onEvent(final XMLStreamReader xml, final SourceCallback cb) {
+                // Do Nothing
+            }
+        };
+        parser.setProgressListener((final File file, final long bytes) -> {
+            Assertions.assertSame(coverageFile, file);
+            progress.add(bytes);
+        });
+        parser.scan(sourceFile -> {
+            // Do Nothing
+        });
+        Assertions.assertTrue(progress.isEmpty());
+
+        parser.parse(callback);
+        Assertions.assertFalse(progress.isEmpty());
+        Assertions.assertEquals(coverageFile.length(), progress.get(progress.size() - 1));
+    }
+
 }
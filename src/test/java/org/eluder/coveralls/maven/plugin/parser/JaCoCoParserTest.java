@@ -25,18 +25,35 @@
 package org.eluder.coveralls.maven.plugin.parser;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eluder.coveralls.maven.plugin.CoverageFixture;
 import org.eluder.coveralls.maven.plugin.CoverageParser;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
 import org.eluder.coveralls.maven.plugin.source.SourceLoader;
+import org.eluder.coveralls.maven.plugin.util.AllocationMeter;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * The Class JaCoCoParserTest.
  */
 class JaCoCoParserTest extends AbstractCoverageParserTest {
 
+    /**
+     * The allocation budget of a parsed line element in bytes, about 230 bytes are measured without escape analysis.
+     */
+    static final long LINE_ALLOCATION_BUDGET = 384;
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
     @Override
     protected CoverageParser createCoverageParser(final File coverageFile, final SourceLoader sourceLoader) {
         return new JaCoCoParser(coverageFile, sourceLoader);
@@ -52,4 +69,40 @@ class JaCoCoParserTest extends AbstractCoverageParserTest {
         return CoverageFixture.JAVA_FILES_IT;
     }
 
+    /**
+     * Parsing line elements stays within the allocation budget.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void parseAllocationBudget() throws Exception {
+        final var generator = new ReportGenerator(10, 1000).withBranchDensity(0.2);
+        final var report = generator.write(ReportGenerator.Format.JACOCO, this.folder.resolve("jacoco.xml").toFile());
+        final var digest = new byte[64];
+        final SourceLoader sourceLoader = sourceFile -> new Source(sourceFile, generator.getLines(), digest, null);
+        final var callback = new SourceCallback() {
+
+            @Override
+            public void onBegin() {
+                // Do Nothing
+            }
+
+            @Override
+            public void onSource(final Source source) {
+                // Do Nothing
+            }
+
+            @Override
+            public void onComplete() {
+                // Do Nothing
+            }
+        };
+        final var allocated = AllocationMeter
+                .measure(() -> this.createCoverageParser(report, sourceLoader).parse(callback));
+        final var lines = (long) generator.getFiles() * generator.getLines();
+        Assertions.assertTrue(allocated <= lines * JaCoCoParserTest.LINE_ALLOCATION_BUDGET,
+                "Parsing " + lines + " lines allocated " + allocated + " bytes");
+    }
+
 }
@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class ConcurrentMergeSourceCallbackTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConcurrentMergeSourceCallbackTest {
+
+    /** The Constant THREADS. */
+    private static final int THREADS = 16;
+
+    /** The Constant ITERATIONS. */
+    private static final int ITERATIONS = 500;
+
+    /** The source callback mock. */
+    @Mock
+    private SourceCallback sourceCallbackMock;
+
+    /**
+     * On source with duplicate sources merges coverage in first seen order.
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithDuplicateSources() throws NoSuchAlgorithmException, ProcessingException, IOException {
+        final var s1 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        final var s2 = this.createSource("Bar.java", "{\n  bar();\n}\n", 2);
+        final var s3 = this.createSource("Foo.java", "{\n  void();\n}\n", 2, 3);
+        s3.addBranchCoverage(2, 0, 0, 1);
+
+        final var cb = new ConcurrentMergeSourceCallback(this.sourceCallbackMock);
+        cb.onBegin();
+        cb.onSource(s1);
+        cb.onSource(s2);
+        cb.onSource(s3);
+        cb.onComplete();
+
+        final var captor = ArgumentCaptor.forClass(Source.class);
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(2)).onSource(captor.capture());
+        Assertions.assertEquals("Foo.java", captor.getAllValues().get(0).getName());
+        Assertions.assertEquals("Bar.java", captor.getAllValues().get(1).getName());
+        Assertions.assertArrayEquals(new Integer[] { null, 2, 1, null }, captor.getAllValues().get(0).getCoverage());
+        Assertions.assertArrayEquals(new Integer[] { 2, 0, 0, 1 }, captor.getAllValues().get(0).getBranches());
+        Mockito.verify(this.sourceCallbackMock).onComplete();
+    }
+
+    /**
+     * Merged hits saturate instead of overflowing.
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithSaturatedHits() throws NoSuchAlgorithmException, ProcessingException, IOException {
+        final var s1 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        s1.addCoverage(1, Integer.MAX_VALUE);
+        s1.addBranchCoverage(2, 0, 0, Integer.MAX_VALUE - 1);
+        final var s2 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        s2.addCoverage(1, Integer.MAX_VALUE);
+        s2.addBranchCoverage(2, 0, 0, 2);
+
+        final var cb = new ConcurrentMergeSourceCallback(this.sourceCallbackMock);
+        cb.onBegin();
+        cb.onSource(s1);
+        cb.onSource(s2);
+        cb.onComplete();
+
+        final var captor = ArgumentCaptor.forClass(Source.class);
+        Mockito.verify(this.sourceCallbackMock).onSource(captor.capture());
+        Assertions.assertEquals(Integer.MAX_VALUE, captor.getValue().getCoverage(1));
+        Assertions.assertEquals(2, captor.getValue().getCoverage(2));
+        Assertions.assertEquals(Integer.MAX_VALUE, captor.getValue().getBranchesList().get(0).getHits());
+    }
+
+    /**
+     * On source with streaming duplicate of an unique source.
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithStreamingDuplicate() throws NoSuchAlgorithmException, ProcessingException, IOException {
+        final var cb = new ConcurrentMergeSourceCallback(this.sourceCallbackMock, source -> false);
+        cb.onBegin();
+        cb.onSource(this.createSource("Foo.java", "{\n  void();\n}\n", 2));
+        Mockito.verify(this.sourceCallbackMock).onSource(ArgumentMatchers.any(Source.class));
+        final var duplicate = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        Assertions.assertThrows(ProcessingException.class, () -> cb.onSource(duplicate));
+    }
+
+    /**
+     * Many threads merging the same sources.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void concurrentMerge() throws Exception {
+        final var cb = new ConcurrentMergeSourceCallback(this.sourceCallbackMock);
+        cb.onBegin();
+        final var executor = Executors.newFixedThreadPool(ConcurrentMergeSourceCallbackTest.THREADS);
+        try {
+            final var start = new CountDownLatch(1);
+            final List<Future<Void>> results = new ArrayList<>();
+            for (var t = 0; t < ConcurrentMergeSourceCallbackTest.THREADS; t++) {
+                final var thread = t;
+                final Callable<Void> task = () -> {
+                    start.await();
+                    for (var i = 0; i < ConcurrentMergeSourceCallbackTest.ITERATIONS; i++) {
+                        final var foo = this.createSource("Foo.java", "{\n  void();\n}\n", 1, 2);
+                        foo.addBranchCoverage(2, 0, thread % 2, 1);
+                        cb.onSource(foo);
+                        cb.onSource(this.createSource("Bar.java", "{\n  bar();\n}\n", 2));
+                    }
+                    return null;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        cb.onComplete();
+
+        final var total = ConcurrentMergeSourceCallbackTest.THREADS * ConcurrentMergeSourceCallbackTest.ITERATIONS;
+        final var captor = ArgumentCaptor.forClass(Source.class);
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(2)).onSource(captor.capture());
+        final var foo = captor.getAllValues().stream().filter(source -> "Foo.java".equals(source.getName()))
+                .findFirst().orElseThrow();
+        final var bar = captor.getAllValues().stream().filter(source -> "Bar.java".equals(source.getName()))
+                .findFirst().orElseThrow();
+        Assertions.assertArrayEquals(new Integer[] { total, total, null, null }, foo.getCoverage());
+        Assertions.assertArrayEquals(new Integer[] { null, total, null, null }, bar.getCoverage());
+        Assertions.assertEquals(2, foo.getBranchesList().size());
+        Assertions.assertEquals(total,
+                foo.getBranchesList().get(0).getHits() + foo.getBranchesList().get(1).getHits());
+        Assertions.assertEquals(total / 2, foo.getBranchesList().get(0).getHits());
+    }
+
+    /**
+     * Creates the source.
+     *
+     * @param name
+     *            the name
+     * @param source
+     *            the source
+     * @param relevant
+     *            the relevant
+     *
+     * @return the source
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     */
+    Source createSource(final String name, final String source, final int... relevant) throws NoSuchAlgorithmException {
+        final var s = new Source(name, source, TestIoUtil.getSha512DigestHex(source));
+        for (final int i : relevant) {
+            s.addCoverage(i, 1);
+        }
+        return s;
+    }
+
+}
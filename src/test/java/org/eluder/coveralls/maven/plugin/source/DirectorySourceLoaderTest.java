@@ -28,7 +28,12 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.util.AllocationMeter;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
 import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -40,6 +45,12 @@ import org.junit.jupiter.api.io.TempDir;
  */
 class DirectorySourceLoaderTest {
 
+    /**
+     * The allocation budget of loading a source in bytes per byte of the source file, about 3.4 bytes are measured
+     * without escape analysis.
+     */
+    static final long SOURCE_ALLOCATION_BUDGET = 6;
+
     /** The folder. */
     @TempDir(cleanup = CleanupMode.ON_SUCCESS)
     Path folder;
@@ -91,4 +102,44 @@ class DirectorySourceLoaderTest {
         Assertions.assertEquals(4, source.getCoverage().length);
     }
 
+    /**
+     * Load source notifies the load listener.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void loadSourceNotifiesLoadListener() throws IOException {
+        final var file = Files.createFile(this.folder.resolve("newFile")).toFile();
+        TestIoUtil.writeFileContent("public class Foo {\r\n    \n}\r", file);
+        final var sourceLoader = new DirectorySourceLoader(this.folder.toFile(), this.folder.toFile(),
+                StandardCharsets.UTF_8);
+        final List<Source> loaded = new ArrayList<>();
+        sourceLoader.setLoadListener((source, bytes, nanos) -> {
+            Assertions.assertEquals(file.length(), bytes);
+            Assertions.assertTrue(nanos >= 0);
+            loaded.add(source);
+        });
+        Assertions.assertNull(sourceLoader.load("Foo.java"));
+        final var source = sourceLoader.load(file.getName());
+        Assertions.assertEquals(List.of(source), loaded);
+    }
+
+    /**
+     * Loading a source stays within the allocation budget.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void loadSourceAllocationBudget() throws Exception {
+        final var generator = new ReportGenerator(1, 4000);
+        final var file = generator.writeSource(this.folder.toFile(), 0);
+        final var sourceLoader = new DirectorySourceLoader(this.folder.toFile(), this.folder.toFile(),
+                StandardCharsets.UTF_8);
+        final var allocated = AllocationMeter.measure(() -> sourceLoader.load(generator.getSourceFile(0)));
+        Assertions.assertTrue(allocated <= file.length() * DirectorySourceLoaderTest.SOURCE_ALLOCATION_BUDGET,
+                "Loading " + file.length() + " bytes allocated " + allocated + " bytes");
+    }
+
 }
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Class RepeatedSourceFilesTest.
+ */
+class RepeatedSourceFilesTest {
+
+    /**
+     * Source file referenced once is not repeated.
+     */
+    @Test
+    void referencedOnce() {
+        final var repeated = new RepeatedSourceFiles();
+        repeated.add("org/Foo.java");
+        repeated.add("org/Bar.java");
+        Assertions.assertFalse(repeated.test(this.source("src/main/java/org/Foo.java")));
+        Assertions.assertFalse(repeated.test(this.source("org/Bar.java")));
+        Assertions.assertEquals(2, repeated.getReferenced());
+        Assertions.assertEquals(0, repeated.getRepeated());
+    }
+
+    /**
+     * Source file referenced twice is repeated.
+     */
+    @Test
+    void referencedTwice() {
+        final var repeated = new RepeatedSourceFiles();
+        repeated.add("org/Foo.java");
+        repeated.add("org/Bar.java");
+        repeated.add("org/Foo.java");
+        Assertions.assertTrue(repeated.test(this.source("src/main/java/org/Foo.java")));
+        Assertions.assertFalse(repeated.test(this.source("src/main/java/org/Bar.java")));
+        Assertions.assertEquals(2, repeated.getReferenced());
+        Assertions.assertEquals(1, repeated.getRepeated());
+    }
+
+    /**
+     * Different source files resolving to the same name are repeated.
+     */
+    @Test
+    void overlappingSourceFiles() {
+        final var repeated = new RepeatedSourceFiles();
+        repeated.add("org/Foo.java");
+        repeated.add("java/org/Foo.java");
+        Assertions.assertTrue(repeated.test(this.source("src/main/java/org/Foo.java")));
+        Assertions.assertFalse(repeated.test(this.source("lib/org/Foo.java")));
+    }
+
+    /**
+     * Source not matching any referenced source file is repeated.
+     */
+    @Test
+    void unreferenced() {
+        final var repeated = new RepeatedSourceFiles();
+        repeated.add("org/Foo.java");
+        Assertions.assertTrue(repeated.test(this.source("org/Baz.java")));
+    }
+
+    /**
+     * Source.
+     *
+     * @param name
+     *            the name
+     *
+     * @return the source
+     */
+    Source source(final String name) {
+        return new Source(name, "class Foo { }", "ABCDEF");
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.source;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Class TimingSourceCallbackTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class TimingSourceCallbackTest {
+
+    /** The source callback mock. */
+    @Mock
+    private SourceCallback sourceCallbackMock;
+
+    /**
+     * Every call is delegated and timed.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void timeCalls() throws ProcessingException, IOException {
+        final var source = new Source("Foo.java", "{\n  void();\n}\n", "E8BD88CF0BDB77A3408234FD91FD22C3");
+        final List<Long> times = new ArrayList<>();
+        final var cb = new TimingSourceCallback(this.sourceCallbackMock, times::add);
+        cb.onBegin();
+        cb.onSource(source);
+        cb.onComplete();
+
+        Mockito.verify(this.sourceCallbackMock).onBegin();
+        Mockito.verify(this.sourceCallbackMock).onSource(source);
+        Mockito.verify(this.sourceCallbackMock).onComplete();
+        Assertions.assertEquals(3, times.size());
+        for (final Long time : times) {
+            Assertions.assertTrue(time >= 0);
+        }
+    }
+
+    /**
+     * Failed calls are timed.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void timeFailedCalls() throws ProcessingException, IOException {
+        final var source = new Source("Foo.java", "{\n  void();\n}\n", "E8BD88CF0BDB77A3408234FD91FD22C3");
+        Mockito.doThrow(new ProcessingException("failed")).when(this.sourceCallbackMock).onSource(source);
+        final List<Long> times = new ArrayList<>();
+        final var cb = new TimingSourceCallback(this.sourceCallbackMock, times::add);
+
+        Assertions.assertThrows(ProcessingException.class, () -> cb.onSource(source));
+        Assertions.assertEquals(1, times.size());
+    }
+}
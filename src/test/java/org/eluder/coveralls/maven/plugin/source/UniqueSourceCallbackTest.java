@@ -28,10 +28,16 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 
 import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.CoverageArena;
 import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.domain.SourcePath;
+import org.eluder.coveralls.maven.plugin.util.AllocationMeter;
+import org.eluder.coveralls.maven.plugin.util.ReportGenerator;
 import org.eluder.coveralls.maven.plugin.util.TestIoUtil;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -43,6 +49,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class UniqueSourceCallbackTest {
 
+    /** The allocation budget of merging a line in bytes, about 8 bytes are measured without escape analysis. */
+    static final long LINE_ALLOCATION_BUDGET = 16;
+
     /** The source callback mock. */
     @Mock
     private SourceCallback sourceCallbackMock;
@@ -122,6 +131,138 @@ class UniqueSourceCallbackTest {
         Mockito.verify(this.sourceCallbackMock).onComplete();
     }
 
+    /**
+     * On source with streaming passes unique sources immediately.
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithStreaming() throws NoSuchAlgorithmException, ProcessingException, IOException {
+        final var s1 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        final var s2 = this.createSource("Bar.java", "{\n  bar();\n}\n", 2);
+        final var s3 = this.createSource("Bar.java", "{\n  bar();\n}\n", 3);
+
+        final var cb = new UniqueSourceCallback(this.sourceCallbackMock, s -> "Bar.java".equals(s.getName()));
+        cb.onBegin();
+        cb.onSource(s1);
+        Mockito.verify(this.sourceCallbackMock).onSource(s1);
+        cb.onSource(s2);
+        cb.onSource(s3);
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(1)).onSource(ArgumentMatchers.any(Source.class));
+        cb.onComplete();
+
+        final ArgumentCaptor<Source> captor = ArgumentCaptor.forClass(Source.class);
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(2)).onSource(captor.capture());
+        final var merged = captor.getAllValues().get(1);
+        Assertions.assertEquals("Bar.java", merged.getName());
+        Assertions.assertArrayEquals(new Integer[] { null, 1, 1, null }, merged.getCoverage());
+        Mockito.verify(this.sourceCallbackMock).onComplete();
+    }
+
+    /**
+     * On source with streaming fails for unexpected duplicate sources.
+     *
+     * @throws NoSuchAlgorithmException
+     *             the no such algorithm exception
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithStreamingDuplicate() throws NoSuchAlgorithmException, ProcessingException, IOException {
+        final var s1 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        final var s2 = this.createSource("Foo.java", "{\n  void();\n}\n", 2);
+        final var s3 = this.createSource("Foo.java", "{\n  void();\n  func();\n}\n", 2, 3);
+
+        final var cb = new UniqueSourceCallback(this.sourceCallbackMock, s -> false);
+        cb.onBegin();
+        cb.onSource(s1);
+        cb.onSource(s3);
+        Assertions.assertThrows(ProcessingException.class, () -> cb.onSource(s2));
+        Mockito.verify(this.sourceCallbackMock, Mockito.times(2)).onSource(ArgumentMatchers.any(Source.class));
+    }
+
+    /**
+     * Merging duplicate sources stays within the allocation budget.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void onSourceWithDuplicateSourcesAllocationBudget() throws Exception {
+        final var lines = 4000;
+        final var digest = new byte[64];
+        final var s1 = new Source("Foo.java", lines, digest, null);
+        final var s2 = new Source("Foo.java", lines, digest, null);
+        for (var line = 1; line <= lines; line++) {
+            if (ReportGenerator.isCovered(line)) {
+                s1.addCoverage(line, ReportGenerator.getHits(line));
+                s2.addCoverage(line, ReportGenerator.getHits(line + 1));
+            }
+        }
+        final var delegate = new SourceCallback() {
+
+            @Override
+            public void onBegin() {
+                // Do Nothing
+            }
+
+            @Override
+            public void onSource(final Source source) {
+                // Do Nothing
+            }
+
+            @Override
+            public void onComplete() {
+                // Do Nothing
+            }
+        };
+
+        final var allocated = AllocationMeter.measure(() -> {
+            final var cb = new UniqueSourceCallback(delegate);
+            cb.onBegin();
+            cb.onSource(s1);
+            cb.onSource(s2);
+            cb.onComplete();
+        });
+        Assertions.assertTrue(allocated <= lines * UniqueSourceCallbackTest.LINE_ALLOCATION_BUDGET,
+                "Merging " + lines + " lines allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Merging duplicate sources reuses the arena slots of the merged sources.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void onSourceWithDuplicateSourcesReusesArena() throws ProcessingException, IOException {
+        final var lines = 100;
+        final var name = SourcePath.of("Foo.java");
+        final ArgumentCaptor<Source> captor = ArgumentCaptor.forClass(Source.class);
+        try (var arena = CoverageArena.allocateDirect()) {
+            final var cb = this.createUniqueSourceCallback();
+            cb.onBegin();
+            for (var i = 0; i < 50; i++) {
+                final var source = new Source(name, lines, new byte[] { 1 }, null, arena);
+                source.addCoverage(1, 1);
+                cb.onSource(source);
+            }
+            cb.onComplete();
+            Mockito.verify(this.sourceCallbackMock).onSource(captor.capture());
+            Assertions.assertEquals(50, captor.getValue().getCoverage(1));
+            Assertions.assertTrue(arena.allocate(lines) < 4 * lines, "Merged sources grew the arena");
+        }
+    }
+
     /**
      * Creates the unique source callback.
      *
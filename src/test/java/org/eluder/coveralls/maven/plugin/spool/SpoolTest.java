@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.spool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class SpoolTest.
+ */
+class SpoolTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Spooled files are moved to a pending entry.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void add() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        final var file = this.coverallsFile("coveralls.json", "{}");
+        final var entry = spool.add("https://coveralls.io/api/v1/jobs", List.of(file), "token", null);
+
+        Assertions.assertFalse(file.exists());
+        Assertions.assertEquals(1, entry.getFiles().size());
+        Assertions.assertEquals("{}", Files.readString(entry.getFiles().get(0).toPath()));
+        Assertions.assertEquals("https://coveralls.io/api/v1/jobs", entry.getCoverallsUrl());
+        Assertions.assertNull(entry.getFinishBuild());
+        Assertions.assertNull(entry.getRepoToken());
+        Assertions.assertEquals(0, entry.getAttempts());
+        Assertions.assertEquals(1, spool.getPending().size());
+    }
+
+    /**
+     * Shards keep their order and the build to close.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void addShards() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        final var entry = spool.add("https://coveralls.io/api/v1/jobs",
+                List.of(this.coverallsFile("coveralls-2.json", "{}"), this.coverallsFile("coveralls-1.json", "{}")),
+                "token", "build5");
+
+        final var claimed = spool.claim().get(0);
+        Assertions.assertEquals(entry.getId(), claimed.getId());
+        Assertions.assertEquals("coveralls-2.json", claimed.getFiles().get(0).getName());
+        Assertions.assertEquals("coveralls-1.json", claimed.getFiles().get(1).getName());
+        Assertions.assertEquals("token", claimed.getRepoToken());
+        Assertions.assertEquals("build5", claimed.getFinishBuild());
+    }
+
+    /**
+     * Claimed entries are not claimed again.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void claim() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        final var first = spool.add("url", List.of(this.coverallsFile("a.json", "{}")), null, null);
+        final var second = spool.add("url", List.of(this.coverallsFile("b.json", "{}")), null, null);
+
+        final var claimed = spool.claim();
+        Assertions.assertEquals(List.of(first.getId(), second.getId()),
+                List.of(claimed.get(0).getId(), claimed.get(1).getId()));
+        Assertions.assertTrue(claimed.get(0).getFiles().get(0).isFile());
+        Assertions.assertTrue(spool.claim().isEmpty());
+        Assertions.assertTrue(spool.getPending().isEmpty());
+
+        spool.complete(claimed.get(0));
+        Assertions.assertFalse(Files.exists(claimed.get(0).getDirectory()));
+    }
+
+    /**
+     * Released entries are pending again with the attempt counted.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void release() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        spool.add("url", List.of(this.coverallsFile("coveralls.json", "{}")), null, null);
+
+        spool.release(spool.claim().get(0), "HTTP status 503");
+        final var pending = spool.getPending();
+        Assertions.assertEquals(1, pending.size());
+        Assertions.assertEquals(1, pending.get(0).getAttempts());
+        Assertions.assertTrue(Files.readString(pending.get(0).getDirectory().resolve("entry.properties"))
+                .contains("lastError=HTTP status 503"));
+    }
+
+    /**
+     * Accepted files are remembered when the entry is released.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void accept() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        spool.add("url",
+                List.of(this.coverallsFile("coveralls-1.json", "{}"), this.coverallsFile("coveralls-2.json", "{}")),
+                null, null);
+
+        final var claimed = spool.claim().get(0);
+        Assertions.assertFalse(claimed.isAccepted(claimed.getFiles().get(0)));
+        spool.accept(claimed, claimed.getFiles().get(0));
+        spool.release(claimed, "HTTP status 503");
+
+        final var pending = spool.getPending().get(0);
+        Assertions.assertTrue(pending.isAccepted(pending.getFiles().get(0)));
+        Assertions.assertFalse(pending.isAccepted(pending.getFiles().get(1)));
+    }
+
+    /**
+     * Rejected entries are moved aside.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void reject() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        spool.add("url", List.of(this.coverallsFile("coveralls.json", "{}")), null, null);
+
+        final var entry = spool.claim().get(0);
+        spool.reject(entry, "invalid token");
+        Assertions.assertTrue(spool.getPending().isEmpty());
+        Assertions.assertTrue(spool.claim().isEmpty());
+        Assertions.assertTrue(Files.isDirectory(this.folder.resolve("spool/rejected").resolve(entry.getId())));
+    }
+
+    /**
+     * Entries of a flush that did not finish are recovered.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recoverStale() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        spool.add("url", List.of(this.coverallsFile("coveralls.json", "{}")), null, null);
+
+        final var entry = spool.claim().get(0);
+        Assertions.assertTrue(spool.claim().isEmpty());
+        Files.setLastModifiedTime(entry.getDirectory(), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Assertions.assertEquals(entry.getId(), spool.claim().get(0).getId());
+    }
+
+    /**
+     * Entries held by a running flush are not recovered, however long the submission takes.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recoverStaleHeld() throws IOException {
+        final var spool = new Spool(this.folder.resolve("spool"));
+        spool.add("url", List.of(this.coverallsFile("coveralls.json", "{}")), null, null);
+
+        final var entry = spool.claim().get(0);
+        final var hold = spool.hold(entry);
+        Files.setLastModifiedTime(entry.getDirectory(), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Assertions.assertTrue(spool.claim().isEmpty());
+
+        hold.close();
+        Assertions.assertFalse(Files.exists(this.folder.resolve("spool/inflight").resolve(entry.getId() + ".lock")));
+        Assertions.assertEquals(entry.getId(), spool.claim().get(0).getId());
+    }
+
+    /**
+     * Empty spool.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void empty() throws IOException {
+        final var spool = new Spool(this.folder.resolve("missing"));
+        Assertions.assertTrue(spool.getPending().isEmpty());
+        Assertions.assertTrue(spool.claim().isEmpty());
+    }
+
+    /**
+     * Creates a coveralls file.
+     *
+     * @param name
+     *            the name
+     * @param content
+     *            the content
+     *
+     * @return the file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private File coverallsFile(final String name, final String content) throws IOException {
+        return Files.writeString(this.folder.resolve(name), content, StandardCharsets.UTF_8).toFile();
+    }
+}
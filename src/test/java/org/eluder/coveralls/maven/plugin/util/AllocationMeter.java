@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * Measures the bytes allocated by the current thread while running a task. The measurement is the median of several
+ * runs after a warm up, so that the class loading, lazy initialization and the JIT compilation of the first runs do not
+ * count, and a single run disturbed by a deoptimization does not decide the result. The allocations still depend on
+ * the JIT and its escape analysis, so the budgets of the tests are about one and a half times the values measured with
+ * the escape analysis disabled. Tests are skipped on JVMs that do not measure the thread allocations.
+ */
+public final class AllocationMeter {
+
+    /** The default number of warm up runs. */
+    static final int WARMUPS = 20;
+
+    /** The number of measured runs, odd for a single median. */
+    static final int RUNS = 7;
+
+    /**
+     * The measured task.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Runs the task.
+         *
+         * @throws Exception
+         *             the exception thrown by the task
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Checks if the running JVM measures the thread allocations.
+     *
+     * @return true, if supported
+     */
+    public static boolean isSupported() {
+        final var bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Measures the bytes allocated by a task after the default number of warm up runs.
+     *
+     * @param task
+     *            the task
+     *
+     * @return the bytes allocated by the task
+     *
+     * @throws Exception
+     *             the exception thrown by the task
+     */
+    public static long measure(final Task task) throws Exception {
+        return AllocationMeter.measure(task, AllocationMeter.WARMUPS);
+    }
+
+    /**
+     * Measures the bytes allocated by a task.
+     *
+     * @param task
+     *            the task
+     * @param warmups
+     *            the number of warm up runs
+     *
+     * @return the median of the bytes allocated by the measured runs of the task
+     *
+     * @throws Exception
+     *             the exception thrown by the task
+     */
+    public static long measure(final Task task, final int warmups) throws Exception {
+        Assumptions.assumeTrue(AllocationMeter.isSupported(),
+                "Thread allocation measurement is not supported by the JVM");
+        final var bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var threadId = Thread.currentThread().getId();
+        for (var i = 0; i < warmups; i++) {
+            task.run();
+        }
+        final var allocated = new long[AllocationMeter.RUNS];
+        for (var i = 0; i < allocated.length; i++) {
+            final var before = bean.getThreadAllocatedBytes(threadId);
+            task.run();
+            allocated[i] = bean.getThreadAllocatedBytes(threadId) - before;
+        }
+        Arrays.sort(allocated);
+        return allocated[allocated.length / 2];
+    }
+
+    /**
+     * Instantiates a new allocation meter.
+     */
+    private AllocationMeter() {
+        // Do Nothing
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Reporting;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+
+/**
+ * Generates a synthetic multi-module source tree in the layout of the {@code sample} modules, with the coverage reports
+ * of every module in their default locations. The returned reactor is made of real {@link MavenProject} instances, so
+ * it can be used as the project of {@code CoverallsReportMojo} in tests and benchmarks. The root directory is a git
+ * repository with an empty commit, so the job has a head commit.
+ * <p>
+ * Every module has its own base package, so a source file is found only in its own module. The duplicate density is
+ * the fraction of the source files of a module that is covered again by a JaCoCo integration test report, which the
+ * plugin merges with the unit test report. Generating more than one format duplicates all coverage in the same way.
+ */
+public final class MonorepoGenerator {
+
+    /** The root directory. */
+    private final File directory;
+
+    /** The number of modules. */
+    private final int modules;
+
+    /** The number of source files in a module. */
+    private final int filesPerModule;
+
+    /** The number of lines in a source file. */
+    private final int linesPerFile;
+
+    /** The fraction of coverable lines. */
+    private double lineDensity = 1;
+
+    /** The fraction of coverable lines with branches. */
+    private double branchDensity = 0.2;
+
+    /** The fraction of source files in a module that are covered by a second report. */
+    private double duplicateDensity;
+
+    /** The report formats. */
+    private Set<ReportGenerator.Format> formats = EnumSet.of(ReportGenerator.Format.JACOCO);
+
+    /**
+     * Instantiates a new monorepo generator.
+     *
+     * @param directory
+     *            the root directory
+     * @param modules
+     *            the number of modules
+     * @param filesPerModule
+     *            the number of source files in a module
+     * @param linesPerFile
+     *            the number of lines in a source file
+     */
+    public MonorepoGenerator(final File directory, final int modules, final int filesPerModule,
+            final int linesPerFile) {
+        if (modules < 1 || filesPerModule < 1 || linesPerFile < 1) {
+            throw new IllegalArgumentException("Modules, files and lines must be positive");
+        }
+        this.directory = directory;
+        this.modules = modules;
+        this.filesPerModule = filesPerModule;
+        this.linesPerFile = linesPerFile;
+    }
+
+    /**
+     * With line density.
+     *
+     * @param lineDensity
+     *            the fraction of coverable lines, greater than 0 and at most 1
+     *
+     * @return the monorepo generator
+     */
+    public MonorepoGenerator withLineDensity(final double lineDensity) {
+        if (lineDensity <= 0 || lineDensity > 1) {
+            throw new IllegalArgumentException("Line density must be greater than 0 and at most 1");
+        }
+        this.lineDensity = lineDensity;
+        return this;
+    }
+
+    /**
+     * With branch density.
+     *
+     * @param branchDensity
+     *            the fraction of coverable lines with branches, between 0 and 1
+     *
+     * @return the monorepo generator
+     */
+    public MonorepoGenerator withBranchDensity(final double branchDensity) {
+        if (branchDensity < 0 || branchDensity > 1) {
+            throw new IllegalArgumentException("Branch density must be between 0 and 1");
+        }
+        this.branchDensity = branchDensity;
+        return this;
+    }
+
+    /**
+     * With duplicate density.
+     *
+     * @param duplicateDensity
+     *            the fraction of source files in a module that are covered by a second report, between 0 and 1
+     *
+     * @return the monorepo generator
+     */
+    public MonorepoGenerator withDuplicateDensity(final double duplicateDensity) {
+        if (duplicateDensity < 0 || duplicateDensity > 1) {
+            throw new IllegalArgumentException("Duplicate density must be between 0 and 1");
+        }
+        this.duplicateDensity = duplicateDensity;
+        return this;
+    }
+
+    /**
+     * With formats.
+     *
+     * @param formats
+     *            the report formats of every module
+     *
+     * @return the monorepo generator
+     */
+    public MonorepoGenerator withFormats(final ReportGenerator.Format... formats) {
+        if (formats.length == 0) {
+            throw new IllegalArgumentException("At least one format is required");
+        }
+        this.formats = EnumSet.copyOf(Arrays.asList(formats));
+        return this;
+    }
+
+    /**
+     * Gets the number of source files in all modules.
+     *
+     * @return the number of source files
+     */
+    public int getSourceFiles() {
+        return this.modules * this.filesPerModule;
+    }
+
+    /**
+     * Generates the source tree and the reports.
+     *
+     * @return the root project with the modules as its collected projects
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public MavenProject generate() throws IOException {
+        final List<MavenProject> projects = new ArrayList<>();
+        for (var module = 0; module < this.modules; module++) {
+            projects.add(this.generateModule(module));
+        }
+        final var root = MonorepoGenerator.createProject(this.directory, "synthetic");
+        root.setCollectedProjects(projects);
+        MonorepoGenerator.initRepository(this.directory);
+        return root;
+    }
+
+    /**
+     * Initializes a git repository with an empty commit.
+     *
+     * @param directory
+     *            the work tree of the repository
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void initRepository(final File directory) throws IOException {
+        final var author = new PersonIdent("Synthetic", "synthetic@example.com");
+        try (var git = Git.init().setDirectory(directory).call()) {
+            git.commit().setMessage("Synthetic monorepo").setAllowEmpty(true).setAuthor(author).setCommitter(author)
+                    .setSign(false).call();
+        } catch (final GitAPIException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Generates a module.
+     *
+     * @param module
+     *            the index of the module
+     *
+     * @return the module project
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private MavenProject generateModule(final int module) throws IOException {
+        final var name = String.format("module-%04d", module);
+        final var project = MonorepoGenerator.createProject(new File(this.directory, name), name);
+        final var sourceDirectory = new File(project.getBasedir(), "src/main/java");
+        project.addCompileSourceRoot(sourceDirectory.getAbsolutePath());
+
+        final var generator = new ReportGenerator(this.filesPerModule, this.linesPerFile)
+                .withBasePackage("org/eluder/synthetic/m" + module).withLineDensity(this.lineDensity)
+                .withBranchDensity(this.branchDensity).withSeed(module);
+        for (var index = 0; index < this.filesPerModule; index++) {
+            generator.writeSource(sourceDirectory, index);
+        }
+
+        final var reporting = new File(project.getModel().getReporting().getOutputDirectory());
+        final var build = new File(project.getBuild().getDirectory());
+        for (final ReportGenerator.Format format : this.formats) {
+            switch (format) {
+                case JACOCO:
+                    generator.write(format, new File(reporting, "jacoco/jacoco.xml"));
+                    final var duplicates = (int) Math.round(this.filesPerModule * this.duplicateDensity);
+                    if (duplicates > 0) {
+                        generator.write(format, new File(reporting, "jacoco-it/jacoco.xml"), duplicates);
+                    }
+                    break;
+                case COBERTURA:
+                    generator.write(format, new File(reporting, "cobertura/coverage.xml"));
+                    break;
+                case SAGA:
+                    generator.write(format, new File(build, "saga-coverage/total-coverage.xml"));
+                    break;
+                case CLOVER:
+                    generator.write(format, new File(reporting, "clover/clover.xml"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown format " + format);
+            }
+        }
+        return project;
+    }
+
+    /**
+     * Creates a project with the default build and reporting directories.
+     *
+     * @param basedir
+     *            the base directory
+     * @param artifactId
+     *            the artifact id
+     *
+     * @return the project
+     */
+    private static MavenProject createProject(final File basedir, final String artifactId) {
+        final var project = new MavenProject();
+        project.setArtifactId(artifactId);
+        project.setFile(new File(basedir, "pom.xml"));
+        project.getBuild().setDirectory(new File(basedir, "target").getAbsolutePath());
+        final var reporting = new Reporting();
+        reporting.setOutputDirectory(new File(basedir, "target/site").getAbsolutePath());
+        project.getModel().setReporting(reporting);
+        project.setCollectedProjects(new ArrayList<>());
+        return project;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class MonorepoGeneratorTest.
+ */
+class MonorepoGeneratorTest {
+
+    /** The folder. */
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path folder;
+
+    /**
+     * Generate monorepo.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generate() throws IOException {
+        final var generator = new MonorepoGenerator(this.folder.toFile(), 3, 4, 20).withDuplicateDensity(0.5)
+                .withFormats(ReportGenerator.Format.JACOCO, ReportGenerator.Format.SAGA);
+        final var root = generator.generate();
+        Assertions.assertEquals(12, generator.getSourceFiles());
+        Assertions.assertEquals(this.folder.toFile(), root.getBasedir());
+        Assertions.assertTrue(this.folder.resolve(".git").toFile().isDirectory());
+        Assertions.assertEquals(3, root.getCollectedProjects().size());
+
+        final var module = root.getCollectedProjects().get(1);
+        Assertions.assertEquals("module-0001", module.getArtifactId());
+        final var sourceRoot = new File(module.getCompileSourceRoots().get(0));
+        Assertions.assertTrue(new File(sourceRoot, "org/eluder/synthetic/m1/p0/Synthetic3.java").isFile());
+        final var reporting = module.getModel().getReporting().getOutputDirectory();
+        Assertions.assertTrue(new File(reporting, "jacoco/jacoco.xml").isFile());
+        Assertions.assertTrue(new File(reporting, "jacoco-it/jacoco.xml").isFile());
+        Assertions.assertTrue(new File(module.getBuild().getDirectory(), "saga-coverage/total-coverage.xml").isFile());
+        Assertions.assertFalse(new File(reporting, "clover/clover.xml").exists());
+    }
+
+    /**
+     * Generate monorepo without duplicates.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateWithoutDuplicates() throws IOException {
+        final var root = new MonorepoGenerator(this.folder.toFile(), 1, 1, 1).generate();
+        final var reporting = root.getCollectedProjects().get(0).getModel().getReporting().getOutputDirectory();
+        Assertions.assertTrue(new File(reporting, "jacoco/jacoco.xml").isFile());
+        Assertions.assertFalse(new File(reporting, "jacoco-it/jacoco.xml").exists());
+    }
+
+    /**
+     * Invalid settings.
+     */
+    @Test
+    void invalidSettings() {
+        final var directory = this.folder.toFile();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MonorepoGenerator(directory, 0, 1, 1));
+        final var generator = new MonorepoGenerator(directory, 1, 1, 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.withDuplicateDensity(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.withLineDensity(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.withFormats());
+    }
+}
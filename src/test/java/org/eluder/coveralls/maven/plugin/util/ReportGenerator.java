@@ -0,0 +1,508 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generates synthetic coverage reports of a configurable size for benchmarks and scale tests. Every source file has
+ * the same number of lines, of which the line density is coverable. A quarter of the lines is missed, and lines with
+ * branches have two branches of which one is missed. The reports are deterministic for the same settings.
+ */
+public final class ReportGenerator {
+
+    /**
+     * The report formats.
+     */
+    public enum Format {
+
+        /** JaCoCo xml report. */
+        JACOCO,
+
+        /** Cobertura xml report. */
+        COBERTURA,
+
+        /** Saga xml report. */
+        SAGA,
+
+        /** Clover xml report. */
+        CLOVER
+    }
+
+    /** The source files in a package. */
+    private static final int FILES_PER_PACKAGE = 50;
+
+    /** The default base package of the source files. */
+    private static final String DEFAULT_BASE_PACKAGE = "org/eluder/synthetic";
+
+    /** The number of source files. */
+    private final int files;
+
+    /** The number of lines in a source file. */
+    private final int lines;
+
+    /** The base package directory of the source files. */
+    private String basePackage = ReportGenerator.DEFAULT_BASE_PACKAGE;
+
+    /** The fraction of coverable lines. */
+    private double lineDensity = 1;
+
+    /** The fraction of coverable lines with branches. */
+    private double branchDensity = 0.2;
+
+    /** The seed of the branch placement. */
+    private long seed = 1;
+
+    /**
+     * Instantiates a new report generator.
+     *
+     * @param files
+     *            the number of source files
+     * @param lines
+     *            the number of lines in a source file
+     */
+    public ReportGenerator(final int files, final int lines) {
+        if (files < 1 || lines < 1) {
+            throw new IllegalArgumentException("Files and lines must be positive");
+        }
+        this.files = files;
+        this.lines = lines;
+    }
+
+    /**
+     * With base package.
+     *
+     * @param basePackage
+     *            the base package directory of the source files, e.g. "org/eluder/synthetic"
+     *
+     * @return the report generator
+     */
+    public ReportGenerator withBasePackage(final String basePackage) {
+        this.basePackage = basePackage;
+        return this;
+    }
+
+    /**
+     * With line density.
+     *
+     * @param lineDensity
+     *            the fraction of coverable lines, greater than 0 and at most 1
+     *
+     * @return the report generator
+     */
+    public ReportGenerator withLineDensity(final double lineDensity) {
+        if (lineDensity <= 0 || lineDensity > 1) {
+            throw new IllegalArgumentException("Line density must be greater than 0 and at most 1");
+        }
+        this.lineDensity = lineDensity;
+        return this;
+    }
+
+    /**
+     * With branch density.
+     *
+     * @param branchDensity
+     *            the fraction of coverable lines with branches, between 0 and 1
+     *
+     * @return the report generator
+     */
+    public ReportGenerator withBranchDensity(final double branchDensity) {
+        if (branchDensity < 0 || branchDensity > 1) {
+            throw new IllegalArgumentException("Branch density must be between 0 and 1");
+        }
+        this.branchDensity = branchDensity;
+        return this;
+    }
+
+    /**
+     * With seed.
+     *
+     * @param seed
+     *            the seed of the branch placement
+     *
+     * @return the report generator
+     */
+    public ReportGenerator withSeed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Gets the number of source files.
+     *
+     * @return the number of source files
+     */
+    public int getFiles() {
+        return this.files;
+    }
+
+    /**
+     * Gets the number of lines in a source file.
+     *
+     * @return the number of lines
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * Gets the number of coverable lines in a source file.
+     *
+     * @return the number of coverable lines
+     */
+    public int getCoverableLines() {
+        var coverable = 0;
+        for (var line = 1; line <= this.lines; line++) {
+            if (this.isCoverable(line)) {
+                coverable++;
+            }
+        }
+        return coverable;
+    }
+
+    /**
+     * Checks if a line of a source file is coverable. The coverable lines are spread evenly over the file.
+     *
+     * @param line
+     *            the line number, starting from 1
+     *
+     * @return true, if the line is coverable
+     */
+    public boolean isCoverable(final int line) {
+        return (long) (line * this.lineDensity) > (long) ((line - 1) * this.lineDensity);
+    }
+
+    /**
+     * Gets the source file of an index.
+     *
+     * @param index
+     *            the index of the source file, starting from 0
+     *
+     * @return the source file relative to the source directory, e.g. "org/eluder/synthetic/p0/Synthetic0.java"
+     */
+    public String getSourceFile(final int index) {
+        return this.getPackage(index) + "/" + ReportGenerator.getFileName(index);
+    }
+
+    /**
+     * Checks if a line of a source file is covered.
+     *
+     * @param line
+     *            the line number, starting from 1
+     *
+     * @return true, if the line is covered
+     */
+    public static boolean isCovered(final int line) {
+        return line % 4 != 0;
+    }
+
+    /**
+     * Gets the hits of a line of a source file.
+     *
+     * @param line
+     *            the line number, starting from 1
+     *
+     * @return the hits, zero if the line is missed
+     */
+    public static int getHits(final int line) {
+        return ReportGenerator.isCovered(line) ? 1 + line % 3 : 0;
+    }
+
+    /**
+     * Writes a report of all source files.
+     *
+     * @param format
+     *            the report format
+     * @param file
+     *            the report file
+     *
+     * @return the report file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public File write(final Format format, final File file) throws IOException {
+        return this.write(format, file, this.files);
+    }
+
+    /**
+     * Writes a report of the first source files, e.g. a second report that duplicates a part of the coverage.
+     *
+     * @param format
+     *            the report format
+     * @param file
+     *            the report file
+     * @param count
+     *            the number of source files in the report
+     *
+     * @return the report file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public File write(final Format format, final File file, final int count) throws IOException {
+        if (count < 0 || count > this.files) {
+            throw new IllegalArgumentException("Count must be between 0 and " + this.files);
+        }
+        final var directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        try (var writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            final var random = new Random(this.seed);
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            switch (format) {
+                case JACOCO:
+                    this.writeJaCoCo(writer, random, count);
+                    break;
+                case COBERTURA:
+                    this.writeCobertura(writer, random, false, count);
+                    break;
+                case SAGA:
+                    this.writeCobertura(writer, random, true, count);
+                    break;
+                case CLOVER:
+                    this.writeClover(writer, random, count);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown format " + format);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Writes a source file that matches the reports.
+     *
+     * @param sourceDirectory
+     *            the source directory
+     * @param index
+     *            the index of the source file, starting from 0
+     *
+     * @return the source file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public File writeSource(final File sourceDirectory, final int index) throws IOException {
+        final var file = new File(sourceDirectory, this.getSourceFile(index));
+        file.getParentFile().mkdirs();
+        try (var writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (var line = 1; line <= this.lines; line++) {
+                if (this.lines < 3) {
+                    writer.write("// line " + line);
+                } else if (line == 1) {
+                    writer.write("package " + this.getPackage(index).replace('/', '.') + ";");
+                } else if (line == 2) {
+                    writer.write("public class Synthetic" + index + " {");
+                } else if (line == this.lines) {
+                    writer.write("}");
+                } else {
+                    writer.write("    int field" + line + " = " + line + ";");
+                }
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Writes a JaCoCo report.
+     *
+     * @param writer
+     *            the writer
+     * @param random
+     *            the random of the branch placement
+     * @param count
+     *            the number of source files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeJaCoCo(final Writer writer, final Random random, final int count) throws IOException {
+        writer.write("<report name=\"synthetic\">\n");
+        for (var index = 0; index < count; index++) {
+            if (index % ReportGenerator.FILES_PER_PACKAGE == 0) {
+                writer.write("<package name=\"" + this.getPackage(index) + "\">\n");
+            }
+            writer.write("<sourcefile name=\"" + ReportGenerator.getFileName(index) + "\">\n");
+            for (var line = 1; line <= this.lines; line++) {
+                if (!this.isCoverable(line)) {
+                    continue;
+                }
+                final var covered = ReportGenerator.isCovered(line);
+                final var branches = this.hasBranches(random);
+                writer.write("<line nr=\"" + line + "\" mi=\"" + (covered ? 0 : 2) + "\" ci=\""
+                        + ReportGenerator.getHits(line) + "\" mb=\"" + (branches ? 1 : 0) + "\" cb=\""
+                        + (branches ? 1 : 0) + "\"/>\n");
+            }
+            writer.write("</sourcefile>\n");
+            if (this.isLastInPackage(index, count)) {
+                writer.write("</package>\n");
+            }
+        }
+        writer.write("</report>\n");
+    }
+
+    /**
+     * Writes a Cobertura or Saga report, the Saga report identifies the classes by the source file.
+     *
+     * @param writer
+     *            the writer
+     * @param random
+     *            the random of the branch placement
+     * @param saga
+     *            whether to write a Saga report
+     * @param count
+     *            the number of source files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeCobertura(final Writer writer, final Random random, final boolean saga, final int count)
+            throws IOException {
+        writer.write("<coverage version=\"synthetic\">\n<packages>\n");
+        for (var index = 0; index < count; index++) {
+            if (index % ReportGenerator.FILES_PER_PACKAGE == 0) {
+                writer.write("<package name=\"" + this.getPackage(index).replace('/', '.') + "\">\n<classes>\n");
+            }
+            final var sourceFile = this.getSourceFile(index);
+            final var name = saga ? sourceFile : sourceFile.substring(0, sourceFile.lastIndexOf('.')).replace('/', '.');
+            writer.write("<class name=\"" + name + "\" filename=\"" + sourceFile + "\">\n<methods/>\n<lines>\n");
+            for (var line = 1; line <= this.lines; line++) {
+                if (!this.isCoverable(line)) {
+                    continue;
+                }
+                writer.write("<line number=\"" + line + "\" hits=\"" + ReportGenerator.getHits(line) + "\"");
+                if (this.hasBranches(random)) {
+                    writer.write(" branch=\"true\" condition-coverage=\"50% (1/2)\"/>\n");
+                } else {
+                    writer.write(" branch=\"false\"/>\n");
+                }
+            }
+            writer.write("</lines>\n</class>\n");
+            if (this.isLastInPackage(index, count)) {
+                writer.write("</classes>\n</package>\n");
+            }
+        }
+        writer.write("</packages>\n</coverage>\n");
+    }
+
+    /**
+     * Writes a Clover report. Clover has no branch coverage, lines with branches are written as conditionals.
+     *
+     * @param writer
+     *            the writer
+     * @param random
+     *            the random of the branch placement
+     * @param count
+     *            the number of source files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeClover(final Writer writer, final Random random, final int count) throws IOException {
+        writer.write("<coverage clover=\"synthetic\">\n<project>\n");
+        for (var index = 0; index < count; index++) {
+            if (index % ReportGenerator.FILES_PER_PACKAGE == 0) {
+                writer.write("<package name=\"" + this.getPackage(index).replace('/', '.') + "\">\n");
+            }
+            writer.write("<file name=\"" + ReportGenerator.getFileName(index) + "\">\n");
+            for (var line = 1; line <= this.lines; line++) {
+                if (!this.isCoverable(line)) {
+                    continue;
+                }
+                final var hits = ReportGenerator.getHits(line);
+                if (this.hasBranches(random)) {
+                    writer.write("<line num=\"" + line + "\" type=\"cond\" truecount=\"" + hits
+                            + "\" falsecount=\"" + hits + "\"/>\n");
+                } else {
+                    writer.write("<line num=\"" + line + "\" type=\"stmt\" count=\"" + hits + "\"/>\n");
+                }
+            }
+            writer.write("</file>\n");
+            if (this.isLastInPackage(index, count)) {
+                writer.write("</package>\n");
+            }
+        }
+        writer.write("</project>\n</coverage>\n");
+    }
+
+    /**
+     * Checks if the next line has branches.
+     *
+     * @param random
+     *            the random of the branch placement
+     *
+     * @return true, if the line has branches
+     */
+    private boolean hasBranches(final Random random) {
+        return this.branchDensity > 0 && random.nextDouble() < this.branchDensity;
+    }
+
+    /**
+     * Checks if a source file is the last one of its package.
+     *
+     * @param index
+     *            the index of the source file
+     * @param count
+     *            the number of source files in the report
+     *
+     * @return true, if the source file is the last one of its package
+     */
+    private boolean isLastInPackage(final int index, final int count) {
+        return index % ReportGenerator.FILES_PER_PACKAGE == ReportGenerator.FILES_PER_PACKAGE - 1
+                || index == count - 1;
+    }
+
+    /**
+     * Gets the package directory of a source file.
+     *
+     * @param index
+     *            the index of the source file
+     *
+     * @return the package directory
+     */
+    private String getPackage(final int index) {
+        return this.basePackage + "/p" + index / ReportGenerator.FILES_PER_PACKAGE;
+    }
+
+    /**
+     * Gets the file name of a source file.
+     *
+     * @param index
+     *            the index of the source file
+     *
+     * @return the file name
+     */
+    private static String getFileName(final int index) {
+        return "Synthetic" + index + ".java";
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eluder.coveralls.maven.plugin.CoverageParser;
+import org.eluder.coveralls.maven.plugin.ProcessingException;
+import org.eluder.coveralls.maven.plugin.domain.Source;
+import org.eluder.coveralls.maven.plugin.parser.CloverParser;
+import org.eluder.coveralls.maven.plugin.parser.CoberturaParser;
+import org.eluder.coveralls.maven.plugin.parser.JaCoCoParser;
+import org.eluder.coveralls.maven.plugin.parser.SagaParser;
+import org.eluder.coveralls.maven.plugin.source.SourceCallback;
+import org.eluder.coveralls.maven.plugin.source.SourceLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class ReportGeneratorTest.
+ */
+class ReportGeneratorTest {
+
+    /** The folder. */
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path folder;
+
+    /**
+     * Generated JaCoCo report.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateJaCoCo() throws ProcessingException, IOException {
+        final var generator = new ReportGenerator(60, 20).withBranchDensity(1);
+        final var sources = this.parse(generator, ReportGenerator.Format.JACOCO, JaCoCoParser::new);
+        this.assertSources(generator, sources, true);
+        // jacoco does not count hits
+        Assertions.assertEquals(1, sources.get(0).getCoverage()[1]);
+    }
+
+    /**
+     * Generated Cobertura report.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateCobertura() throws ProcessingException, IOException {
+        final var generator = new ReportGenerator(60, 20).withBranchDensity(1);
+        final var sources = this.parse(generator, ReportGenerator.Format.COBERTURA, CoberturaParser::new);
+        this.assertSources(generator, sources, true);
+        Assertions.assertEquals(ReportGenerator.getHits(2), sources.get(0).getCoverage()[1]);
+    }
+
+    /**
+     * Generated Saga report.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateSaga() throws ProcessingException, IOException {
+        final var generator = new ReportGenerator(60, 20).withBranchDensity(0);
+        final var sources = this.parse(generator, ReportGenerator.Format.SAGA, SagaParser::new);
+        this.assertSources(generator, sources, false);
+        Assertions.assertEquals(ReportGenerator.getHits(2), sources.get(0).getCoverage()[1]);
+    }
+
+    /**
+     * Generated Clover report.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateClover() throws ProcessingException, IOException {
+        final var generator = new ReportGenerator(60, 20);
+        final var sources = this.parse(generator, ReportGenerator.Format.CLOVER, CloverParser::new);
+        this.assertSources(generator, sources, false);
+        Assertions.assertEquals(1, sources.get(0).getCoverage()[1]);
+    }
+
+    /**
+     * Generated report with a part of the lines and source files.
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generatePartialReport() throws ProcessingException, IOException {
+        final var generator = new ReportGenerator(60, 20).withLineDensity(0.5).withBasePackage("org/example");
+        Assertions.assertEquals(10, generator.getCoverableLines());
+        Assertions.assertEquals("org/example/p1/Synthetic50.java", generator.getSourceFile(50));
+        final var report = generator.write(ReportGenerator.Format.JACOCO, this.folder.resolve("report.xml").toFile(),
+                5);
+        final List<Source> sources = new ArrayList<>();
+        new JaCoCoParser(report, sourceFile -> new Source(sourceFile, 20, new byte[0], null))
+                .parse(new CollectingSourceCallback(sources));
+        Assertions.assertEquals(5, sources.size());
+        final var coverage = sources.get(0).getCoverage();
+        for (var line = 1; line <= 20; line++) {
+            Assertions.assertEquals(generator.isCoverable(line), coverage[line - 1] != null);
+        }
+    }
+
+    /**
+     * Generated source file.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void generateSource() throws IOException {
+        final var generator = new ReportGenerator(1, 20);
+        final var file = generator.writeSource(this.folder.toFile(), 0);
+        Assertions.assertEquals(this.folder.resolve("org/eluder/synthetic/p0/Synthetic0.java").toFile(), file);
+        Assertions.assertEquals(20, Files.readAllLines(file.toPath()).size());
+    }
+
+    /**
+     * Invalid settings.
+     */
+    @Test
+    void invalidSettings() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ReportGenerator(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ReportGenerator(1, 0));
+        final var generator = new ReportGenerator(1, 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.withBranchDensity(1.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.withLineDensity(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> generator.write(ReportGenerator.Format.CLOVER, this.folder.resolve("report.xml").toFile(), 2));
+    }
+
+    /**
+     * Asserts the parsed sources.
+     *
+     * @param generator
+     *            the generator
+     * @param sources
+     *            the parsed sources
+     * @param branches
+     *            whether every line has branches
+     */
+    private void assertSources(final ReportGenerator generator, final List<Source> sources, final boolean branches) {
+        Assertions.assertEquals(generator.getFiles(), sources.size());
+        for (var index = 0; index < sources.size(); index++) {
+            final var source = sources.get(index);
+            Assertions.assertEquals(generator.getSourceFile(index), source.getName());
+            Assertions.assertEquals(0, source.getCoverage()[3]);
+            Assertions.assertEquals(branches ? 2 * generator.getLines() : 0, source.getBranchesList().size());
+        }
+    }
+
+    /**
+     * Writes and parses a report.
+     *
+     * @param generator
+     *            the generator
+     * @param format
+     *            the report format
+     * @param parserFactory
+     *            the parser factory
+     *
+     * @return the parsed sources
+     *
+     * @throws ProcessingException
+     *             the processing exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private List<Source> parse(final ReportGenerator generator, final ReportGenerator.Format format,
+            final ParserFactory parserFactory) throws ProcessingException, IOException {
+        final var report = generator.write(format, this.folder.resolve("report.xml").toFile());
+        final SourceLoader sourceLoader = sourceFile -> new Source(sourceFile, generator.getLines(), new byte[0],
+                null);
+        final List<Source> sources = new ArrayList<>();
+        parserFactory.create(report, sourceLoader).parse(new CollectingSourceCallback(sources));
+        return sources;
+    }
+
+    /**
+     * Collects the parsed sources.
+     */
+    private static final class CollectingSourceCallback implements SourceCallback {
+
+        /** The sources. */
+        private final List<Source> sources;
+
+        /**
+         * Instantiates a new collecting source callback.
+         *
+         * @param sources
+         *            the list that receives the sources
+         */
+        CollectingSourceCallback(final List<Source> sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public void onBegin() {
+            // Do Nothing
+        }
+
+        @Override
+        public void onSource(final Source source) {
+            this.sources.add(source);
+        }
+
+        @Override
+        public void onComplete() {
+            // Do Nothing
+        }
+    }
+
+    /**
+     * Creates a parser of a report.
+     */
+    @FunctionalInterface
+    private interface ParserFactory {
+
+        /**
+         * Creates the parser.
+         *
+         * @param coverageFile
+         *            the coverage file
+         * @param sourceLoader
+         *            the source loader
+         *
+         * @return the parser
+         */
+        CoverageParser create(File coverageFile, SourceLoader sourceLoader);
+    }
+}
@@ -83,4 +83,22 @@ class Sha521DigestInputStreamTest {
         }
     }
 
+    /**
+     * Read binary digest.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void readDigest() throws IOException {
+        final byte[] data = { (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD };
+        try (var is = new Sha512DigestInputStream(new ByteArrayInputStream(data))) {
+            is.readAllBytes();
+            final var digest = is.getDigest();
+            Assertions.assertEquals(64, digest.length);
+            Assertions.assertEquals((byte) 0x48, digest[0]);
+            Assertions.assertEquals((byte) 0x3B, digest[63]);
+        }
+    }
+
 }
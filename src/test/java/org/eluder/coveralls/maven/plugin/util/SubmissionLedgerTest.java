@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.eluder.coveralls.maven.plugin.domain.CoverallsResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class SubmissionLedgerTest.
+ */
+class SubmissionLedgerTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Missing ledger has no accepted submissions.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void findWithoutLedger() throws IOException {
+        final var ledger = new SubmissionLedger(this.folder.resolve("ledger.properties"));
+        Assertions.assertNull(ledger.find("github/1/abc", "digest"));
+    }
+
+    /**
+     * Recorded submission is found with the same digest.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recordAndFind() throws IOException {
+        final var file = this.folder.resolve("ledger").resolve("ledger.properties");
+        new SubmissionLedger(file).record("github/1/abc", "digest",
+                new CoverallsResponse("Job #1.1", false, "https://coveralls.io/jobs/1"));
+
+        final var response = new SubmissionLedger(file).find("github/1/abc", "digest");
+        Assertions.assertNotNull(response);
+        Assertions.assertFalse(response.isError());
+        Assertions.assertEquals("https://coveralls.io/jobs/1", response.getUrl());
+        Assertions.assertNull(new SubmissionLedger(file).find("github/2/abc", "digest"));
+    }
+
+    /**
+     * Changed data is not found.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void findWithDifferentDigest() throws IOException {
+        final var ledger = new SubmissionLedger(this.folder.resolve("ledger.properties"));
+        ledger.record("github/1/abc", "digest", new CoverallsResponse("Job #1.1", false, null));
+
+        Assertions.assertNull(ledger.find("github/1/abc", "other"));
+        final var response = ledger.find("github/1/abc", "digest");
+        Assertions.assertNotNull(response);
+        Assertions.assertNull(response.getUrl());
+    }
+
+    /**
+     * Expired entries are pruned on update.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void recordPrunesExpiredEntries() throws IOException {
+        final var file = this.folder.resolve("ledger.properties");
+        final var expired = System.currentTimeMillis() - Duration.ofDays(91).toMillis();
+        Files.writeString(file, "github/1/old=digest " + expired + " https\\://coveralls.io/jobs/1\n");
+        final var ledger = new SubmissionLedger(file);
+        Assertions.assertNotNull(ledger.find("github/1/old", "digest"));
+
+        ledger.record("github/2/abc", "digest", new CoverallsResponse("Job #2.1", false, null));
+
+        Assertions.assertNull(ledger.find("github/1/old", "digest"));
+        Assertions.assertNotNull(ledger.find("github/2/abc", "digest"));
+    }
+}
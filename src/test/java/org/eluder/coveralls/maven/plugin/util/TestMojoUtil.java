@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import org.codehaus.plexus.util.ReflectionUtils;
+
+/**
+ * The Class TestMojoUtil.
+ */
+public final class TestMojoUtil {
+
+    /**
+     * Sets a private mojo parameter, the way Maven injects it.
+     *
+     * @param mojo
+     *            the mojo
+     * @param name
+     *            the parameter field name
+     * @param value
+     *            the value
+     */
+    public static void setParameter(final Object mojo, final String name, final Object value) {
+        try {
+            ReflectionUtils.setVariableValueInObject(mojo, name, value);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Setting parameter " + name + " failed", e);
+        }
+    }
+
+    /**
+     * Instantiates a new test mojo util.
+     */
+    private TestMojoUtil() {
+        // Do Nothing
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.eluder.coveralls.maven.plugin.httpclient.TransferTimings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class TimingReportTest.
+ */
+class TimingReportTest {
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Times of the same phase are summed.
+     */
+    @Test
+    void addPhase() {
+        final var report = new TimingReport();
+        report.add("merge", 1000);
+        report.add("merge", 500);
+        Assertions.assertEquals(1500, report.getNanos("merge"));
+        Assertions.assertEquals(0, report.getNanos("unknown"));
+        Assertions.assertEquals(1500, report.remove("merge"));
+        Assertions.assertEquals(0, report.remove("merge"));
+    }
+
+    /**
+     * Recorded phase ends now.
+     */
+    @Test
+    void recordPhase() {
+        final var report = new TimingReport();
+        report.record("git", System.nanoTime() - Duration.ofMillis(5).toNanos());
+        Assertions.assertTrue(report.getNanos("git") >= Duration.ofMillis(5).toNanos());
+    }
+
+    /**
+     * Write the report in milliseconds.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void write() throws IOException {
+        final var report = new TimingReport();
+        report.add("environment", 1_500_000);
+        report.add("git", 2_000_000);
+        report.recordReport(new File("jacoco.xml"), System.nanoTime());
+        report.recordTransfer(new TransferTimings(200, 1024, Duration.ofMillis(3), Duration.ofMillis(4),
+                Duration.ofNanos(5_250_000)));
+        final var file = this.folder.resolve("target").resolve("coveralls-timings.json").toFile();
+        report.write(file);
+
+        final var json = new ObjectMapper().readTree(file);
+        Assertions.assertTrue(json.path("started").isTextual());
+        Assertions.assertTrue(json.path("total_ms").asDouble() >= 0);
+        Assertions.assertEquals(1.5, json.path("phases_ms").path("environment").asDouble());
+        Assertions.assertEquals(2.0, json.path("phases_ms").path("git").asDouble());
+        Assertions.assertEquals("environment", json.path("phases_ms").fieldNames().next());
+        Assertions.assertEquals(new File("jacoco.xml").getAbsolutePath(),
+                json.path("reports").path(0).path("file").asText());
+        Assertions.assertTrue(json.path("reports").path(0).path("parse_ms").isNumber());
+        final var transfer = json.path("transfers").path(0);
+        Assertions.assertEquals(200, transfer.path("status").asInt());
+        Assertions.assertEquals(1024, transfer.path("bytes").asLong());
+        Assertions.assertEquals(3.0, transfer.path("connect_ms").asDouble());
+        Assertions.assertEquals(4.0, transfer.path("upload_ms").asDouble());
+        Assertions.assertEquals(5.25, transfer.path("response_ms").asDouble());
+    }
+}
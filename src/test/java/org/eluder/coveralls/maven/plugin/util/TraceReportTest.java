@@ -0,0 +1,227 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013-2026 The Coveralls Maven Plugin Project Contributors:
+ *     https://github.com/hazendaz/coveralls-maven-plugin/graphs/contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.eluder.coveralls.maven.plugin.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eluder.coveralls.maven.plugin.httpclient.TransferTimings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The Class TraceReportTest.
+ */
+class TraceReportTest {
+
+    /** The Constant TRACE_ID. */
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    /** The Constant PARENT_ID. */
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    /** The folder. */
+    @TempDir
+    Path folder;
+
+    /**
+     * Write the span tree in OTLP/JSON.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void write() throws IOException {
+        final var timings = new TimingReport();
+        final var start = System.nanoTime();
+        timings.record("environment", start);
+        final var writing = System.nanoTime();
+        timings.recordReport(new File("jacoco.xml"), writing);
+        timings.recordTransfer(new TransferTimings(201, 1024, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        this.sleep();
+        timings.record("write", writing);
+        final var file = this.folder.resolve("target").resolve("coveralls-trace.json").toFile();
+        new TraceReport(timings, null).write(file, null);
+
+        final var json = new ObjectMapper().readTree(file);
+        final var resource = json.path("resourceSpans").path(0);
+        Assertions.assertEquals("service.name", resource.path("resource").path("attributes").path(0).path("key")
+                .asText());
+        Assertions.assertEquals(TraceReport.SERVICE_NAME,
+                resource.path("resource").path("attributes").path(0).path("value").path("stringValue").asText());
+        final var scope = resource.path("scopeSpans").path(0);
+        Assertions.assertEquals(TraceReport.SCOPE_NAME, scope.path("scope").path("name").asText());
+        final var spans = TraceReportTest.byName(scope.path("spans"));
+        Assertions.assertEquals(5, spans.size());
+
+        final var root = spans.get(TraceReport.ROOT_NAME);
+        Assertions.assertTrue(root.path("parentSpanId").isMissingNode());
+        Assertions.assertTrue(root.path("status").isMissingNode());
+        Assertions.assertTrue(root.path("traceId").asText().matches("[0-9a-f]{32}"));
+        Assertions.assertTrue(root.path("spanId").asText().matches("[0-9a-f]{16}"));
+        Assertions.assertEquals(1, root.path("kind").asInt());
+        final var rootStart = Long.parseLong(root.path("startTimeUnixNano").asText());
+        final var rootEnd = Long.parseLong(root.path("endTimeUnixNano").asText());
+        Assertions.assertTrue(rootEnd >= rootStart + Duration.ofMillis(5).toNanos());
+        for (final JsonNode span : spans.values()) {
+            Assertions.assertEquals(root.path("traceId"), span.path("traceId"));
+            Assertions.assertTrue(Long.parseLong(span.path("startTimeUnixNano").asText()) >= rootStart);
+            Assertions.assertTrue(Long.parseLong(span.path("endTimeUnixNano").asText()) <= rootEnd);
+        }
+        Assertions.assertEquals(root.path("spanId"), spans.get("environment").path("parentSpanId"));
+        Assertions.assertEquals(root.path("spanId"), spans.get("write").path("parentSpanId"));
+
+        final var parse = spans.get("parse");
+        Assertions.assertEquals(spans.get("write").path("spanId"), parse.path("parentSpanId"));
+        Assertions.assertEquals("coveralls.report.file", parse.path("attributes").path(0).path("key").asText());
+        Assertions.assertEquals(new File("jacoco.xml").getAbsolutePath(),
+                parse.path("attributes").path(0).path("value").path("stringValue").asText());
+        Assertions.assertEquals("0", parse.path("attributes").path(1).path("value").path("intValue").asText());
+
+        final var request = spans.get("request");
+        Assertions.assertEquals(spans.get("write").path("spanId"), request.path("parentSpanId"));
+        Assertions.assertEquals(3, request.path("kind").asInt());
+        Assertions.assertEquals("201", request.path("attributes").path(0).path("value").path("intValue").asText());
+        Assertions.assertEquals("1024", request.path("attributes").path(1).path("value").path("intValue").asText());
+        Assertions.assertTrue(request.path("status").isMissingNode());
+    }
+
+    /**
+     * Root span joins the trace of the calling build.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void writeWithTraceParent() throws IOException {
+        final var report = new TraceReport(new TimingReport(), "00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        Assertions.assertEquals(TRACE_ID, report.getTraceId());
+        final var file = this.folder.resolve("coveralls-trace.json").toFile();
+        report.write(file, null);
+
+        final var root = new ObjectMapper().readTree(file).path("resourceSpans").path(0).path("scopeSpans").path(0)
+                .path("spans").path(0);
+        Assertions.assertEquals(TRACE_ID, root.path("traceId").asText());
+        Assertions.assertEquals(PARENT_ID, root.path("parentSpanId").asText());
+    }
+
+    /**
+     * Invalid trace parents start a new trace.
+     */
+    @Test
+    void invalidTraceParent() {
+        Assertions.assertNotEquals(TRACE_ID, new TraceReport(new TimingReport(), TRACE_ID).getTraceId());
+        Assertions.assertNotEquals(TRACE_ID,
+                new TraceReport(new TimingReport(), "00-" + TRACE_ID + "-0000000000000000-01").getTraceId());
+        Assertions.assertNotEquals("00000000000000000000000000000000",
+                new TraceReport(new TimingReport(), "00-00000000000000000000000000000000-" + PARENT_ID + "-01")
+                        .getTraceId());
+        Assertions.assertTrue(new TraceReport(new TimingReport(), null).getTraceId().matches("[0-9a-f]{32}"));
+    }
+
+    /**
+     * Failures are set as the error status of the spans.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void writeFailure() throws IOException {
+        final var timings = new TimingReport();
+        timings.recordTransfer(new TransferTimings(0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        timings.recordTransfer(new TransferTimings(422, 10, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        final var file = this.folder.resolve("coveralls-trace.json").toFile();
+        new TraceReport(timings, null).write(file, new IOException("Connection refused"));
+
+        final var spans = new ObjectMapper().readTree(file).path("resourceSpans").path(0).path("scopeSpans").path(0)
+                .path("spans");
+        Assertions.assertEquals(2, spans.path(0).path("status").path("code").asInt());
+        Assertions.assertEquals("Connection refused", spans.path(0).path("status").path("message").asText());
+        Assertions.assertEquals("Request failed without a response",
+                spans.path(1).path("status").path("message").asText());
+        Assertions.assertEquals("HTTP 422", spans.path(2).path("status").path("message").asText());
+    }
+
+    /**
+     * Concurrent report parses are children of the phase, even if one parse overlaps another.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void writeConcurrentParses() throws IOException {
+        final var timings = new TimingReport();
+        final var writing = System.nanoTime();
+        this.sleep();
+        final var parsing = System.nanoTime();
+        this.sleep();
+        timings.recordReport(new File("jacoco.xml"), parsing);
+        timings.recordReport(new File("cobertura.xml"), writing);
+        this.sleep();
+        timings.record("write", writing);
+        final var file = this.folder.resolve("coveralls-trace.json").toFile();
+        new TraceReport(timings, null).write(file, null);
+
+        final var spans = new ObjectMapper().readTree(file).path("resourceSpans").path(0).path("scopeSpans").path(0)
+                .path("spans");
+        Assertions.assertEquals(4, spans.size());
+        Assertions.assertEquals("write", spans.path(3).path("name").asText());
+        Assertions.assertEquals(spans.path(3).path("spanId"), spans.path(1).path("parentSpanId"));
+        Assertions.assertEquals(spans.path(3).path("spanId"), spans.path(2).path("parentSpanId"));
+    }
+
+    /**
+     * Indexes spans by name.
+     *
+     * @param spans
+     *            the spans
+     *
+     * @return the spans by name
+     */
+    private static Map<String, JsonNode> byName(final JsonNode spans) {
+        final Map<String, JsonNode> byName = new HashMap<>();
+        spans.forEach(span -> byName.put(span.path("name").asText(), span));
+        return byName;
+    }
+
+    /**
+     * Sleeps so that the recorded spans have distinct durations.
+     */
+    private void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}